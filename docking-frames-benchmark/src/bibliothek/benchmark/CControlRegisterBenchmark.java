@@ -0,0 +1,143 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.DefaultMultipleCDockable;
+import bibliothek.gui.dock.common.DefaultSingleCDockable;
+import bibliothek.gui.dock.common.EmptyMultipleCDockableFactory;
+import bibliothek.gui.dock.common.MultipleCDockable;
+import bibliothek.gui.dock.common.SingleCDockable;
+
+/**
+ * Measures the lookup of {@link bibliothek.gui.dock.common.intern.CDockable}s by their unique
+ * identifier in the {@link bibliothek.gui.dock.common.CControlRegister} of a {@link CControl}, and
+ * how long it takes to register and unregister all the dockables. Half of the dockables are
+ * {@link SingleCDockable}s, the other half are {@link MultipleCDockable}s. None of the dockables
+ * is visible.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class CControlRegisterBenchmark {
+	/** the number of registered dockables */
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private CControl control;
+	private EmptyMultipleCDockableFactory<DefaultMultipleCDockable> factory;
+	private SingleCDockable[] singles;
+	private MultipleCDockable[] multiples;
+	
+	private int next = 0;
+	
+	@Setup
+	public void setup(){
+		control = new CControl();
+		factory = new EmptyMultipleCDockableFactory<DefaultMultipleCDockable>(){
+			@Override
+			public DefaultMultipleCDockable createDockable(){
+				return new DefaultMultipleCDockable( this );
+			}
+		};
+		control.addMultipleDockableFactory( "factory", factory );
+		
+		singles = new SingleCDockable[ dockables / 2 ];
+		multiples = new MultipleCDockable[ dockables - singles.length ];
+		for( int i = 0; i < singles.length; i++ ){
+			singles[i] = control.addDockable( new DefaultSingleCDockable( single( i ) ) );
+		}
+		for( int i = 0; i < multiples.length; i++ ){
+			multiples[i] = control.addDockable( multiple( i ), factory.createDockable() );
+		}
+	}
+	
+	@TearDown
+	public void tearDown(){
+		control.destroy();
+	}
+	
+	private static String single( int index ){
+		return "single" + Layouts.id( index );
+	}
+	
+	private static String multiple( int index ){
+		return "multiple" + Layouts.id( index );
+	}
+	
+	@Benchmark
+	public SingleCDockable getSingleDockable(){
+		next = (next + 1) % Math.max( 1, singles.length );
+		return control.getSingleDockable( single( next ) );
+	}
+	
+	@Benchmark
+	public MultipleCDockable getMultipleDockable(){
+		next = (next + 1) % multiples.length;
+		return control.getMultipleDockable( multiple( next ) );
+	}
+	
+	@Benchmark
+	public int listMultipleDockables(){
+		return control.getRegister().listMultipleDockables( factory ).size();
+	}
+	
+	@Benchmark
+	public int registerAll(){
+		for( SingleCDockable dockable : singles ){
+			control.removeDockable( dockable );
+		}
+		for( MultipleCDockable dockable : multiples ){
+			control.removeDockable( dockable );
+		}
+		for( int i = 0; i < singles.length; i++ ){
+			control.addDockable( singles[i] );
+		}
+		for( int i = 0; i < multiples.length; i++ ){
+			control.addDockable( multiple( i ), multiples[i] );
+		}
+		return control.getRegister().getDockableCount();
+	}
+}
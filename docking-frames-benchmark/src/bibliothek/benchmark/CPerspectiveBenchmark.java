@@ -0,0 +1,126 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.intern.CSetting;
+import bibliothek.gui.dock.common.perspective.CControlPerspective;
+import bibliothek.gui.dock.common.perspective.CPerspective;
+import bibliothek.util.xml.XElement;
+
+/**
+ * Measures how long it takes to build a {@link CPerspective}, to convert it into a {@link CSetting},
+ * and to store and load it with a {@link CControlPerspective}. The perspective is never applied
+ * to the {@link CControl}, hence no {@link java.awt.Component} is created.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class CPerspectiveBenchmark {
+	/** the number of dockables in the perspective */
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private CControl control;
+	private CControlPerspective perspectives;
+	private CPerspective perspective;
+	private byte[] binary;
+	private XElement xml;
+	
+	@Setup
+	public void setup() throws IOException{
+		control = new CControl();
+		perspectives = control.getPerspectives();
+		perspective = build();
+		binary = write();
+		xml = writeXML();
+	}
+	
+	@TearDown
+	public void tearDown(){
+		control.destroy();
+	}
+	
+	@Benchmark
+	public CPerspective build(){
+		return Layouts.perspective( perspectives, dockables );
+	}
+	
+	@Benchmark
+	public CSetting toSetting(){
+		return perspectives.write( perspective, true );
+	}
+	
+	@Benchmark
+	public byte[] write() throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream dout = new DataOutputStream( out );
+		perspectives.write( dout, perspective );
+		dout.close();
+		return out.toByteArray();
+	}
+	
+	@Benchmark
+	public CPerspective read() throws IOException{
+		return perspectives.read( new DataInputStream( new ByteArrayInputStream( binary ) ) );
+	}
+	
+	@Benchmark
+	public XElement writeXML(){
+		XElement root = new XElement( "perspective" );
+		perspectives.writeXML( root, perspective );
+		return root;
+	}
+	
+	@Benchmark
+	public CPerspective readXML(){
+		return perspectives.readXML( xml );
+	}
+}
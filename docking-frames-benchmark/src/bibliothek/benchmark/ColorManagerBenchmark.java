@@ -0,0 +1,153 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.Priority;
+import bibliothek.gui.dock.util.color.AbstractDockColor;
+import bibliothek.gui.dock.util.color.ColorManager;
+import bibliothek.util.Path;
+
+/**
+ * Measures how long it takes to change colors of a {@link ColorManager} that is observed by many
+ * {@link AbstractDockColor}s. The observers are spread over {@link #IDS} different identifiers and
+ * four different kinds. The <code>put</code> benchmark changes one color, <code>putEach</code> and 
+ * <code>putAll</code> change all the colors, once with one call per color and once with one single call.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class ColorManagerBenchmark {
+	/** the number of different identifiers of colors */
+	public static final int IDS = 200;
+	
+	/** the number of observed colors */
+	@Param({ "100", "1000", "20000" })
+	public int observers;
+	
+	private DockController controller;
+	private ColorManager colors;
+	private Observer[] values;
+	
+	private Map<String, Color> changes = new HashMap<String, Color>();
+	private int next = 0;
+	
+	@Setup
+	public void setup(){
+		controller = new DockController();
+		colors = controller.getColors();
+		
+		Path[] kinds = { 
+				new Path( "benchmark" ), 
+				new Path( "benchmark", "a" ), 
+				new Path( "benchmark", "a", "b" ), 
+				new Path( "benchmark", "c" ) };
+		
+		values = new Observer[ observers ];
+		for( int i = 0; i < observers; i++ ){
+			values[i] = new Observer( id( i % IDS ), kinds[ i % kinds.length ] );
+			values[i].connect( controller );
+		}
+	}
+	
+	@TearDown
+	public void tearDown(){
+		for( Observer value : values ){
+			value.connect( null );
+		}
+		controller.kill();
+	}
+	
+	private static String id( int index ){
+		return "benchmark.color." + index;
+	}
+	
+	private Color nextColor(){
+		next++;
+		return new Color( next & 0xFFFFFF );
+	}
+	
+	@Benchmark
+	public Color put(){
+		Color color = nextColor();
+		colors.put( Priority.CLIENT, id( next % IDS ), color );
+		return color;
+	}
+	
+	@Benchmark
+	public int putEach(){
+		for( int i = 0; i < IDS; i++ ){
+			colors.put( Priority.CLIENT, id( i ), nextColor() );
+		}
+		return next;
+	}
+	
+	@Benchmark
+	public int putAll(){
+		for( int i = 0; i < IDS; i++ ){
+			changes.put( id( i ), nextColor() );
+		}
+		colors.putAll( Priority.CLIENT, changes );
+		return next;
+	}
+	
+	/**
+	 * A color that does nothing with its value.
+	 * @author Benjamin Sigg
+	 */
+	private static class Observer extends AbstractDockColor{
+		public Observer( String id, Path kind ){
+			super( id, kind );
+		}
+		
+		@Override
+		protected void changed( Color oldValue, Color newValue ){
+			// ignore
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.control.ComponentHierarchyObserver;
+
+/**
+ * Compares the {@link ComponentHierarchyObserver.TrackingMode}s of the {@link ComponentHierarchyObserver}.
+ * A {@link DefaultDockable} with <code>components</code> nested {@link java.awt.Component}s is added
+ * to a {@link SplitDockStation} and removed again. Run with <code>-prof gc</code> to compare the memory
+ * each mode allocates for tracking the components. All the work is done on the event dispatch thread.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class ComponentHierarchyObserverBenchmark {
+	/** how deep the observer descends into the component tree */
+	@Param({ "EAGER", "DOCKABLE_BOUNDARY" })
+	public ComponentHierarchyObserver.TrackingMode mode;
+	
+	/** the number of components that are shown by the dockable */
+	@Param({ "10", "100", "1000" })
+	public int components;
+	
+	private DockController controller;
+	private ComponentHierarchyObserver observer;
+	private SplitDockStation station;
+	private DefaultDockable dockable;
+	private JLabel probe;
+	
+	@Setup
+	public void setup() throws Exception{
+		OnEventQueue.run( new Runnable(){
+			public void run(){
+				build();
+			}
+		});
+	}
+	
+	private void build(){
+		controller = new DockController();
+		controller.getProperties().set( ComponentHierarchyObserver.TRACKING_MODE, mode );
+		station = new SplitDockStation();
+		controller.add( station );
+		observer = controller.getComponentHierarchyObserver();
+		observer.add( station.getComponent() );
+		
+		dockable = new DefaultDockable( "dockable" );
+		JPanel content = new JPanel();
+		for( int i = 0; i < components; i += 2 ){
+			JPanel panel = new JPanel();
+			probe = new JLabel( "label" );
+			panel.add( probe );
+			content.add( panel );
+		}
+		dockable.add( content );
+		station.drop( new DefaultDockable( "neighbor" ) );
+	}
+	
+	@TearDown
+	public void tearDown() throws Exception{
+		OnEventQueue.run( new Runnable(){
+			public void run(){
+				controller.kill();
+			}
+		});
+	}
+	
+	@Benchmark
+	public Integer addRemove() throws Exception{
+		return OnEventQueue.call( new Callable<Integer>(){
+			public Integer call(){
+				station.drop( dockable );
+				int count = observer.getComponents().size();
+				station.removeDockable( dockable );
+				return count;
+			}
+		});
+	}
+	
+	@Benchmark
+	public boolean contains() throws Exception{
+		if( dockable.getDockParent() == null ){
+			OnEventQueue.run( new Runnable(){
+				public void run(){
+					station.drop( dockable );
+				}
+			});
+		}
+		return observer.contains( probe );
+	}
+}
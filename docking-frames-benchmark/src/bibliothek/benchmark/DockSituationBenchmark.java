@@ -0,0 +1,147 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.dock.layout.DockLayoutComposition;
+import bibliothek.gui.dock.layout.DockSituation;
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
+import bibliothek.util.xml.XIO;
+
+/**
+ * Measures how long a {@link DockSituation} needs to store and to load the layout of a
+ * {@link bibliothek.gui.dock.SplitDockStation}, using the binary format, the {@link XElement}
+ * based xml format and the streaming xml format of {@link XElementReader} and {@link XElementWriter}.
+ * With 10'000 dockables the xml document contains more than 100'000 elements.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class DockSituationBenchmark {
+	/** the number of dockables in the layout */
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private DockController controller;
+	private DockSituation situation;
+	private Map<String, DockStation> stations;
+	
+	private byte[] binary;
+	private String xml;
+	
+	@Setup
+	public void setup() throws IOException{
+		controller = new DockController();
+		situation = new DockSituation( controller );
+		stations = new HashMap<String, DockStation>();
+		stations.put( "split", Layouts.station( null, dockables ) );
+		
+		binary = situation.write( stations );
+		xml = writeXML().toString();
+	}
+	
+	@TearDown
+	public void tearDown(){
+		controller.kill();
+	}
+	
+	@Benchmark
+	public byte[] write() throws IOException{
+		return situation.write( stations );
+	}
+	
+	@Benchmark
+	public Map<String, DockStation> read() throws IOException{
+		return situation.read( binary );
+	}
+	
+	@Benchmark
+	public Map<String, DockLayoutComposition> readCompositions() throws IOException{
+		return situation.readCompositions( new DataInputStream( new ByteArrayInputStream( binary ) ) );
+	}
+	
+	@Benchmark
+	public StringBuilder writeXML() throws IOException{
+		XElement root = new XElement( "layout" );
+		situation.writeXML( stations, root );
+		StringBuilder out = new StringBuilder();
+		XIO.write( root, out );
+		return out;
+	}
+	
+	@Benchmark
+	public Map<String, DockStation> readXML() throws IOException{
+		return situation.readXML( XIO.read( xml ) );
+	}
+	
+	@Benchmark
+	public StringBuilder writeXMLStreaming() throws IOException{
+		StringBuilder out = new StringBuilder();
+		XElementWriter writer = new XElementWriter( out );
+		writer.open( new XElement( "layout" ) );
+		situation.writeXML( stations, writer );
+		writer.close();
+		writer.flush();
+		return out;
+	}
+	
+	@Benchmark
+	public Map<String, DockStation> readXMLStreaming() throws IOException{
+		XElementReader reader = new XElementReader( new StringReader( xml ) );
+		reader.open();
+		Map<String, DockStation> result = situation.readXML( reader );
+		reader.close();
+		return result;
+	}
+}
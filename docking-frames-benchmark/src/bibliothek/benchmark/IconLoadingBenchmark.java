@@ -0,0 +1,101 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.Icon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.gui.dock.util.icon.LazyImageIcon;
+
+/**
+ * Measures the cold start of loading the icons of the themes that are shipped with the framework,
+ * once with {@link LazyImageIcon}s and once with ordinary {@link javax.swing.ImageIcon}s. Every
+ * measurement runs in a new JVM, hence neither the classes nor the images are loaded yet. The 
+ * <code>load</code> benchmark only loads the icons, the <code>loadAndShow</code> benchmark also asks 
+ * a few icons for their size, as happens when the first titles are shown.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Fork( value=10, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=0 )
+@Measurement( iterations=1 )
+public class IconLoadingBenchmark {
+	/** the icon lists of the core themes, the flat and the smooth theme use the default icons */
+	private static final String[] ICONS = {
+		"data/bibliothek/gui/dock/core/icons.ini",
+		"data/bibliothek/gui/dock/core/eclipse/icons.ini",
+		"data/bibliothek/gui/dock/core/bubble/icons.ini",
+		"data/bibliothek/gui/dock/common/icons/icons.ini",
+		"data/bibliothek/gui/dock/common/icons/bubble/icons.ini"
+	};
+	
+	/** the keys of the icons that are shown */
+	private static final String[] SHOWN = { "close", "split.maximize", "locationmanager.minimize", "locationmanager.externalize" };
+	
+	/** whether to create {@link LazyImageIcon}s */
+	@Param({ "true", "false" })
+	public boolean lazy;
+	
+	@Benchmark
+	public int load(){
+		int count = 0;
+		for( String list : ICONS ){
+			count += DockUtilities.loadIcons( list, null, null, IconLoadingBenchmark.class.getClassLoader(), lazy ).size();
+		}
+		return count;
+	}
+	
+	@Benchmark
+	public int loadAndShow(){
+		int size = 0;
+		for( String list : ICONS ){
+			Map<String, Icon> icons = DockUtilities.loadIcons( list, null, null, IconLoadingBenchmark.class.getClassLoader(), lazy );
+			for( String key : SHOWN ){
+				Icon icon = icons.get( key );
+				if( icon != null ){
+					size += icon.getIconWidth();
+				}
+			}
+		}
+		return size;
+	}
+}
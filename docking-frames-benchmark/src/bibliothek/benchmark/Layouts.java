@@ -0,0 +1,205 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.common.perspective.CControlPerspective;
+import bibliothek.gui.dock.common.perspective.CDockablePerspective;
+import bibliothek.gui.dock.common.perspective.CGridPerspective;
+import bibliothek.gui.dock.common.perspective.CMinimizePerspective;
+import bibliothek.gui.dock.common.perspective.CPerspective;
+import bibliothek.gui.dock.common.perspective.SingleCDockablePerspective;
+import bibliothek.gui.dock.dockable.DefaultDockablePerspective;
+import bibliothek.gui.dock.perspective.PerspectiveDockable;
+import bibliothek.gui.dock.station.split.DockableSplitDockTree;
+import bibliothek.gui.dock.station.split.SplitDockPerspective;
+import bibliothek.gui.dock.station.split.SplitDockTree;
+import bibliothek.gui.dock.station.split.PerspectiveSplitDockTree;
+
+/**
+ * Creates the synthetic layouts that are used by the benchmarks. All layouts are built
+ * the same way: the dockables are grouped into stacks of 1 to {@link #STACK_SIZE} elements,
+ * and the stacks are either the leafs of a balanced tree of horizontal and vertical splits, or
+ * the cells of a grid. The layouts only depend on the number of dockables, so two runs always
+ * measure the same layout.
+ * @author Benjamin Sigg
+ */
+public final class Layouts {
+	/** the maximum number of dockables that share one leaf of a split tree */
+	public static final int STACK_SIZE = 4;
+	
+	private Layouts(){
+		// nothing
+	}
+	
+	/**
+	 * Gets the unique identifier of the <code>index</code>'th dockable of a layout.
+	 * @param index the index of the dockable
+	 * @return the identifier
+	 */
+	public static String id( int index ){
+		return "dockable" + index;
+	}
+	
+	/**
+	 * Creates <code>count</code> new {@link DefaultDockable}s.
+	 * @param count the number of dockables
+	 * @return the new dockables
+	 */
+	public static Dockable[] dockables( int count ){
+		Dockable[] result = new Dockable[ count ];
+		for( int i = 0; i < count; i++ ){
+			result[i] = new DefaultDockable( id( i ) );
+		}
+		return result;
+	}
+	
+	/**
+	 * Creates <code>count</code> new {@link DefaultDockablePerspective}s.
+	 * @param count the number of dockables
+	 * @return the new dockables
+	 */
+	public static PerspectiveDockable[] perspectives( int count ){
+		PerspectiveDockable[] result = new PerspectiveDockable[ count ];
+		for( int i = 0; i < count; i++ ){
+			result[i] = new DefaultDockablePerspective();
+		}
+		return result;
+	}
+	
+	/**
+	 * Creates a new {@link SplitDockStation} showing <code>count</code> dockables. The station is
+	 * registered at <code>controller</code> as root station.
+	 * @param controller the controller in whose realm the station is used, can be <code>null</code>
+	 * @param count the number of dockables
+	 * @return the new station
+	 */
+	public static SplitDockStation station( DockController controller, int count ){
+		SplitDockStation station = new SplitDockStation();
+		if( controller != null ){
+			controller.add( station );
+		}
+		DockableSplitDockTree tree = new DockableSplitDockTree();
+		tree.root( balanced( tree, dockables( count ) ) );
+		station.dropTree( tree );
+		return station;
+	}
+	
+	/**
+	 * Creates a new {@link SplitDockPerspective} showing <code>count</code> dockables.
+	 * @param count the number of dockables
+	 * @return the new perspective
+	 */
+	public static SplitDockPerspective perspective( int count ){
+		SplitDockPerspective perspective = new SplitDockPerspective();
+		PerspectiveSplitDockTree tree = new PerspectiveSplitDockTree();
+		tree.root( balanced( tree, perspectives( count ) ) );
+		perspective.read( tree, null );
+		return perspective;
+	}
+	
+	/**
+	 * Creates a new {@link CPerspective} showing <code>count</code> {@link SingleCDockablePerspective}s.
+	 * The stacks of dockables are laid out in a square grid on the center area, every tenth dockable
+	 * is minimized at one of the four borders.
+	 * @param perspectives the owner of the new perspective
+	 * @param count the number of dockables
+	 * @return the new perspective
+	 */
+	public static CPerspective perspective( CControlPerspective perspectives, int count ){
+		CPerspective perspective = perspectives.createEmptyPerspective();
+		CGridPerspective center = perspective.getContentArea().getCenter();
+		CMinimizePerspective[] borders = {
+				perspective.getContentArea().getNorth(),
+				perspective.getContentArea().getEast(),
+				perspective.getContentArea().getSouth(),
+				perspective.getContentArea().getWest()
+		};
+		
+		List<CDockablePerspective> grid = new ArrayList<CDockablePerspective>();
+		for( int i = 0; i < count; i++ ){
+			SingleCDockablePerspective dockable = new SingleCDockablePerspective( id( i ) );
+			if( i % 10 == 9 ){
+				borders[ (i / 10) % borders.length ].add( dockable );
+			}
+			else{
+				grid.add( dockable );
+			}
+		}
+		
+		int stacks = (grid.size() + STACK_SIZE - 1) / STACK_SIZE;
+		int columns = Math.max( 1, (int)Math.ceil( Math.sqrt( stacks ) ) );
+		for( int stack = 0, index = 0; index < grid.size(); stack++ ){
+			int size = Math.min( 1 + stack % STACK_SIZE, grid.size() - index );
+			CDockablePerspective[] dockables = grid.subList( index, index + size ).toArray( new CDockablePerspective[ size ] );
+			center.gridAdd( stack % columns, stack / columns, 1, 1, dockables );
+			index += size;
+		}
+		return perspective;
+	}
+	
+	/**
+	 * Builds a balanced tree of splits in <code>tree</code>. The tree is not
+	 * set as root of <code>tree</code>.
+	 * @param tree the tree to fill
+	 * @param dockables the dockables to put into the tree, must not be empty
+	 * @return the key of the root of the new tree
+	 */
+	public static <D> SplitDockTree<D>.Key balanced( SplitDockTree<D> tree, D[] dockables ){
+		List<SplitDockTree<D>.Key> leafs = new ArrayList<SplitDockTree<D>.Key>();
+		int index = 0;
+		while( index < dockables.length ){
+			int size = Math.min( 1 + leafs.size() % STACK_SIZE, dockables.length - index );
+			leafs.add( tree.put( Arrays.copyOfRange( dockables, index, index + size ) ) );
+			index += size;
+		}
+		return combine( tree, leafs, 0, leafs.size(), true );
+	}
+	
+	private static <D> SplitDockTree<D>.Key combine( SplitDockTree<D> tree, List<SplitDockTree<D>.Key> leafs, int from, int to, boolean horizontal ){
+		int count = to - from;
+		if( count == 1 ){
+			return leafs.get( from );
+		}
+		int middle = from + count / 2;
+		SplitDockTree<D>.Key first = combine( tree, leafs, from, middle, !horizontal );
+		SplitDockTree<D>.Key second = combine( tree, leafs, middle, to, !horizontal );
+		double divider = (middle - from) / (double)count;
+		if( horizontal ){
+			return tree.horizontal( first, second, divider );
+		}
+		else{
+			return tree.vertical( first, second, divider );
+		}
+	}
+}
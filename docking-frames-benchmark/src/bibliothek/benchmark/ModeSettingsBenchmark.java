@@ -0,0 +1,151 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.DefaultSingleCDockable;
+import bibliothek.gui.dock.common.mode.CLocationModeManager;
+import bibliothek.gui.dock.facile.mode.Location;
+import bibliothek.gui.dock.facile.mode.LocationSettingConverter;
+import bibliothek.gui.dock.support.mode.ModeManager;
+import bibliothek.gui.dock.support.mode.ModeSettings;
+import bibliothek.util.xml.XElement;
+
+/**
+ * Measures how long the {@link ModeManager} of a {@link CControl} needs to convert its locations
+ * into {@link ModeSettings} and back, and how long it takes to store and load the settings.
+ * All dockables are visible, their layout is set through a {@link bibliothek.gui.dock.common.perspective.CPerspective},
+ * hence the setup of the larger sizes takes a while.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class ModeSettingsBenchmark {
+	/** the number of dockables known to the manager */
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private CControl control;
+	private CLocationModeManager manager;
+	private LocationSettingConverter converter;
+	private ModeSettings<Location, Location> settings;
+	private byte[] binary;
+	private XElement xml;
+	
+	@Setup
+	public void setup() throws Exception{
+		OnEventQueue.run( new Runnable(){
+			public void run(){
+				control = new CControl();
+				for( int i = 0; i < dockables; i++ ){
+					control.addDockable( new DefaultSingleCDockable( Layouts.id( i ) ) );
+				}
+				control.getPerspectives().setPerspective( Layouts.perspective( control.getPerspectives(), dockables ), true );
+			}
+		});
+		
+		manager = control.getLocationManager();
+		converter = new LocationSettingConverter( control.getController() );
+		settings = writeSettings();
+		binary = write();
+		xml = writeXML();
+	}
+	
+	@TearDown
+	public void tearDown() throws Exception{
+		OnEventQueue.run( new Runnable(){
+			public void run(){
+				control.destroy();
+			}
+		});
+	}
+	
+	@Benchmark
+	public ModeSettings<Location, Location> writeSettings(){
+		ModeSettings<Location, Location> result = manager.createSettings( converter );
+		manager.writeSettings( result );
+		return result;
+	}
+	
+	@Benchmark
+	public Runnable readSettings(){
+		return manager.readSettings( settings, null );
+	}
+	
+	@Benchmark
+	public byte[] write() throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream dout = new DataOutputStream( out );
+		settings.write( dout );
+		dout.close();
+		return out.toByteArray();
+	}
+	
+	@Benchmark
+	public ModeSettings<Location, Location> read() throws IOException{
+		ModeSettings<Location, Location> result = manager.createSettings( converter );
+		result.read( new DataInputStream( new ByteArrayInputStream( binary ) ) );
+		return result;
+	}
+	
+	@Benchmark
+	public XElement writeXML(){
+		XElement element = new XElement( "modes" );
+		settings.writeXML( element );
+		return element;
+	}
+	
+	@Benchmark
+	public ModeSettings<Location, Location> readXML(){
+		ModeSettings<Location, Location> result = manager.createSettings( converter );
+		result.readXML( xml );
+		return result;
+	}
+}
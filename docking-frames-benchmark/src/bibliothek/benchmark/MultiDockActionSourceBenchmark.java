@@ -0,0 +1,149 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.action.DefaultDockActionSource;
+import bibliothek.gui.dock.action.DockAction;
+import bibliothek.gui.dock.action.DockActionSource;
+import bibliothek.gui.dock.action.MultiDockActionSource;
+import bibliothek.gui.dock.action.actions.SimpleButtonAction;
+import bibliothek.gui.dock.event.DockActionSourceListener;
+
+/**
+ * Measures the access to the actions of nested {@link MultiDockActionSource}s. The sources form
+ * a chain of <code>depth</code> {@link MultiDockActionSource}s, each of them with one
+ * {@link DefaultDockActionSource} of <code>actions</code> actions. An observed source keeps a
+ * flattened list of its actions, an unobserved source has to ask its children for every access.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class MultiDockActionSourceBenchmark {
+	/** the number of nested sources */
+	@Param({ "1", "4", "16" })
+	public int depth;
+	
+	/** the number of actions in each level */
+	@Param({ "10", "100" })
+	public int actions;
+	
+	/** whether a listener is added to the root source */
+	@Param({ "true", "false" })
+	public boolean observed;
+	
+	private MultiDockActionSource root;
+	private DockAction[] all;
+	private int next = 0;
+	
+	private DockActionSourceListener listener = new DockActionSourceListener(){
+		public void actionsAdded( DockActionSource source, int firstIndex, int lastIndex ){
+			// ignore
+		}
+		
+		public void actionsRemoved( DockActionSource source, int firstIndex, int lastIndex ){
+			// ignore
+		}
+	};
+	
+	@Setup
+	public void setup(){
+		all = new DockAction[ depth * actions ];
+		MultiDockActionSource child = null;
+		for( int level = depth-1; level >= 0; level-- ){
+			DockAction[] levelActions = new DockAction[ actions ];
+			for( int i = 0; i < actions; i++ ){
+				levelActions[i] = new SimpleButtonAction();
+				all[ level * actions + i ] = levelActions[i];
+			}
+			MultiDockActionSource source = new MultiDockActionSource( new DefaultDockActionSource( levelActions ) );
+			if( child != null ){
+				source.add( child );
+			}
+			child = source;
+		}
+		root = child;
+		if( observed ){
+			root.addDockActionSourceListener( listener );
+		}
+	}
+	
+	@TearDown
+	public void tearDown(){
+		if( observed ){
+			root.removeDockActionSourceListener( listener );
+		}
+	}
+	
+	private int next(){
+		next = (next + 1) % all.length;
+		return next;
+	}
+	
+	@Benchmark
+	public int count(){
+		return root.getDockActionCount();
+	}
+	
+	@Benchmark
+	public DockAction get(){
+		return root.getDockAction( next() );
+	}
+	
+	@Benchmark
+	public int indexOf(){
+		return root.indexOf( all[ next() ] );
+	}
+	
+	@Benchmark
+	public int iterate(){
+		int count = 0;
+		for( DockAction action : root ){
+			if( action != null ){
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.EventQueue;
+import java.util.concurrent.Callable;
+
+/**
+ * Executes code on the {@link EventQueue}. Benchmarks that create or modify visible
+ * {@link java.awt.Component}s must not run concurrently to the event dispatch thread,
+ * otherwise the framework sees inconsistent states.
+ * @author Benjamin Sigg
+ */
+public final class OnEventQueue {
+	private OnEventQueue(){
+		// nothing
+	}
+	
+	/**
+	 * Calls <code>callable</code> on the event dispatch thread and waits until it finished.
+	 * @param callable the code to execute
+	 * @return the result of <code>callable</code>
+	 * @throws Exception if <code>callable</code> threw an exception
+	 */
+	public static <T> T call( final Callable<T> callable ) throws Exception{
+		if( EventQueue.isDispatchThread() ){
+			return callable.call();
+		}
+		
+		final Object[] result = new Object[1];
+		final Exception[] failure = new Exception[1];
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				try{
+					result[0] = callable.call();
+				}
+				catch( Exception e ){
+					failure[0] = e;
+				}
+			}
+		});
+		if( failure[0] != null ){
+			throw failure[0];
+		}
+		
+		@SuppressWarnings("unchecked")
+		T value = (T)result[0];
+		return value;
+	}
+	
+	/**
+	 * Calls <code>runnable</code> on the event dispatch thread and waits until it finished.
+	 * @param runnable the code to execute
+	 * @throws Exception if <code>runnable</code> threw an exception
+	 */
+	public static void run( final Runnable runnable ) throws Exception{
+		call( new Callable<Object>(){
+			public Object call(){
+				runnable.run();
+				return null;
+			}
+		});
+	}
+}
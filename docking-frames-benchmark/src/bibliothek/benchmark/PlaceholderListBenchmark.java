@@ -0,0 +1,171 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.dockable.DefaultDockablePerspective;
+import bibliothek.gui.dock.perspective.PerspectiveDockable;
+import bibliothek.gui.dock.station.support.ConvertedPlaceholderListItem;
+import bibliothek.gui.dock.station.support.PerspectivePlaceholderList;
+import bibliothek.gui.dock.station.support.PlaceholderList;
+import bibliothek.gui.dock.station.support.PlaceholderListItem;
+import bibliothek.gui.dock.station.support.PlaceholderListItemAdapter;
+import bibliothek.gui.dock.station.support.PlaceholderMap;
+import bibliothek.util.Path;
+
+/**
+ * Measures lookups and modifications of a {@link PlaceholderList}. The list contains
+ * <code>dockables</code> items, each one with its own placeholder, and as many pure
+ * placeholders. The lookup benchmarks do not modify the list and cycle through all
+ * the items, the modification benchmarks move an item and look it up again.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class PlaceholderListBenchmark {
+	/** the number of dockables in the list */
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private PerspectivePlaceholderList<Item> list;
+	private Item[] items;
+	private Path[] placeholders;
+	private PlaceholderMap map;
+	private PlaceholderListItemAdapter<PerspectiveDockable, Item> converter;
+	
+	private int next = 0;
+	
+	@Setup
+	public void setup(){
+		items = new Item[ dockables ];
+		placeholders = new Path[ dockables ];
+		list = new PerspectivePlaceholderList<Item>();
+		PlaceholderList.Filter<Item> filter = list.dockables();
+		
+		for( int i = 0; i < dockables; i++ ){
+			items[i] = new Item( new DefaultDockablePerspective() );
+			placeholders[i] = new Path( "placeholder", Layouts.id( i ) );
+			filter.add( items[i] );
+			list.addPlaceholder( items[i].asDockable(), placeholders[i] );
+			filter.insertPlaceholder( i+1, new Path( "removed", Layouts.id( i ) ) );
+		}
+		
+		converter = new PlaceholderListItemAdapter<PerspectiveDockable, Item>(){
+			@Override
+			public ConvertedPlaceholderListItem convert( int index, Item dockable ){
+				ConvertedPlaceholderListItem item = new ConvertedPlaceholderListItem();
+				item.setPlaceholder( new Path( "placeholder", Layouts.id( index ) ) );
+				item.putInt( "index", index );
+				return item;
+			}
+			
+			@Override
+			public Item convert( ConvertedPlaceholderListItem item ){
+				return new Item( new DefaultDockablePerspective() );
+			}
+		};
+		map = list.toMap( converter );
+	}
+	
+	private int next(){
+		next = (next + 1) % dockables;
+		return next;
+	}
+	
+	@Benchmark
+	public int indexOfPlaceholder(){
+		return list.getDockableIndex( placeholders[ next() ] );
+	}
+	
+	@Benchmark
+	public int listIndexOfPlaceholder(){
+		return list.getListIndex( placeholders[ next() ] );
+	}
+	
+	@Benchmark
+	public int indexOfDockable(){
+		return list.dockables().indexOf( items[ next() ] );
+	}
+	
+	@Benchmark
+	public Item getDockable(){
+		return list.dockables().get( next() );
+	}
+	
+	@Benchmark
+	public int moveAndLookup(){
+		PlaceholderList.Filter<Item> filter = list.dockables();
+		int index = next();
+		filter.move( index, dockables - 1 - index );
+		return filter.indexOf( items[ index ] );
+	}
+	
+	@Benchmark
+	public PlaceholderMap toMap(){
+		return list.toMap( converter );
+	}
+	
+	@Benchmark
+	public PerspectivePlaceholderList<Item> read(){
+		return new PerspectivePlaceholderList<Item>( map, converter );
+	}
+	
+	/**
+	 * An item of the list.
+	 */
+	public static class Item implements PlaceholderListItem<PerspectiveDockable>{
+		private final PerspectiveDockable dockable;
+		
+		/**
+		 * Creates a new item.
+		 * @param dockable the element represented by this item
+		 */
+		public Item( PerspectiveDockable dockable ){
+			this.dockable = dockable;
+		}
+		
+		public PerspectiveDockable asDockable(){
+			return dockable;
+		}
+	}
+}
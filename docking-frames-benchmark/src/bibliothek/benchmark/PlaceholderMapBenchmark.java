@@ -0,0 +1,183 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.station.support.PlaceholderMap;
+import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+import bibliothek.gui.dock.station.support.PlaceholderStrategyListener;
+import bibliothek.util.Path;
+import bibliothek.util.xml.XElement;
+
+/**
+ * Measures how long it takes to build, copy, filter, store and load a {@link PlaceholderMap}.
+ * The map has one entry for each dockable, every entry stores a few primitive values and every
+ * tenth entry a nested map.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class PlaceholderMapBenchmark {
+	/** the number of entries in the map */
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private static final Path FORMAT = new Path( "benchmark", "map" );
+	
+	private PlaceholderMap map;
+	private PlaceholderMap.Key[] keys;
+	private byte[] binary;
+	private XElement xml;
+	
+	/** accepts only the placeholders of dockables with an even index */
+	private PlaceholderStrategy evenStrategy = new PlaceholderStrategy(){
+		public boolean isValidPlaceholder( Path placeholder ){
+			String id = placeholder.getLastSegment();
+			return (id.charAt( id.length()-1 ) - '0') % 2 == 0;
+		}
+		
+		public Path getPlaceholderFor( Dockable dockable ){
+			return null;
+		}
+		
+		public void install( DockStation station ){
+			// ignore
+		}
+		
+		public void uninstall( DockStation station ){
+			// ignore
+		}
+		
+		public void addListener( PlaceholderStrategyListener listener ){
+			// ignore
+		}
+		
+		public void removeListener( PlaceholderStrategyListener listener ){
+			// ignore	
+		}
+	};
+	
+	private int next = 0;
+	
+	@Setup
+	public void setup() throws IOException{
+		map = build();
+		keys = map.getPlaceholders();
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream dout = new DataOutputStream( out );
+		map.write( dout );
+		dout.close();
+		binary = out.toByteArray();
+		
+		xml = new XElement( "map" );
+		map.write( xml );
+	}
+	
+	@Benchmark
+	public PlaceholderMap build(){
+		PlaceholderMap map = new PlaceholderMap( FORMAT, 1 );
+		for( int i = 0; i < dockables; i++ ){
+			PlaceholderMap.Key key = map.newKey( new Path( "placeholder", Layouts.id( i ) ) );
+			map.putString( key, "id", Layouts.id( i ) );
+			map.putInt( key, "index", i );
+			map.putBoolean( key, "visible", i % 3 == 0 );
+			if( i % 10 == 0 ){
+				PlaceholderMap nested = new PlaceholderMap( FORMAT, 1 );
+				PlaceholderMap.Key nestedKey = nested.newKey( new Path( "nested", Layouts.id( i ) ) );
+				nested.putDouble( nestedKey, "size", i / 2.0 );
+				map.putMap( key, "children", nested );
+			}
+		}
+		return map;
+	}
+	
+	@Benchmark
+	public int get(){
+		next = (next + 1) % dockables;
+		return map.getInt( keys[ next ], "index" );
+	}
+	
+	@Benchmark
+	public PlaceholderMap copy(){
+		return map.copy();
+	}
+	
+	@Benchmark
+	public PlaceholderMap filter(){
+		return map.filter( evenStrategy );
+	}
+	
+	@Benchmark
+	public byte[] write() throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream dout = new DataOutputStream( out );
+		map.write( dout );
+		dout.close();
+		return out.toByteArray();
+	}
+	
+	@Benchmark
+	public PlaceholderMap read() throws IOException{
+		return new PlaceholderMap( new DataInputStream( new ByteArrayInputStream( binary ) ), null );
+	}
+	
+	@Benchmark
+	public XElement writeXML(){
+		XElement element = new XElement( "map" );
+		map.write( element );
+		return element;
+	}
+	
+	@Benchmark
+	public PlaceholderMap readXML(){
+		return new PlaceholderMap( xml, null );
+	}
+}
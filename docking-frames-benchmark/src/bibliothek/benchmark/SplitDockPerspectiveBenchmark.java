@@ -0,0 +1,142 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.dockable.DefaultDockableFactory;
+import bibliothek.gui.dock.layout.DockLayoutComposition;
+import bibliothek.gui.dock.layout.DockSituation;
+import bibliothek.gui.dock.perspective.Perspective;
+import bibliothek.gui.dock.perspective.PerspectiveStation;
+import bibliothek.gui.dock.station.split.SplitDockPathProperty;
+import bibliothek.gui.dock.station.split.SplitDockPerspective;
+import bibliothek.gui.dock.station.split.SplitDockStationFactory;
+import bibliothek.gui.dock.station.stack.StackDockStationFactory;
+import bibliothek.gui.dock.station.support.PlaceholderMap;
+import bibliothek.util.xml.XElement;
+
+/**
+ * Measures how long it takes to build a {@link SplitDockPerspective}, to query the location
+ * of its children, and to convert it from and to the formats of a {@link Perspective}. No
+ * {@link bibliothek.gui.DockController} and no {@link java.awt.Component} is involved.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class SplitDockPerspectiveBenchmark {
+	/** the number of dockables in the tree */
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private Perspective format;
+	private SplitDockPerspective perspective;
+	private Map<String, PerspectiveStation> stations;
+	private byte[] binary;
+	private XElement xml;
+	
+	private int next = 0;
+	
+	@Setup
+	public void setup() throws IOException{
+		format = new DockSituation( new DefaultDockableFactory(), new SplitDockStationFactory(), new StackDockStationFactory() ).createPerspective();
+		perspective = Layouts.perspective( dockables );
+		stations = new HashMap<String, PerspectiveStation>();
+		stations.put( "split", perspective );
+		binary = write();
+		xml = writeXML();
+	}
+	
+	@Benchmark
+	public SplitDockPerspective build(){
+		return Layouts.perspective( dockables );
+	}
+	
+	@Benchmark
+	public SplitDockPathProperty locate(){
+		next = (next + 1) % perspective.getDockableCount();
+		return perspective.getDockablePathProperty( perspective.getDockable( next ) );
+	}
+	
+	@Benchmark
+	public PlaceholderMap placeholders(){
+		return perspective.getPlaceholders();
+	}
+	
+	@Benchmark
+	public DockLayoutComposition convert(){
+		return format.convert( perspective );
+	}
+	
+	@Benchmark
+	public byte[] write() throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream dout = new DataOutputStream( out );
+		format.write( stations, dout );
+		dout.close();
+		return out.toByteArray();
+	}
+	
+	@Benchmark
+	public Map<String, PerspectiveStation> read() throws IOException{
+		return format.read( new DataInputStream( new ByteArrayInputStream( binary ) ) );
+	}
+	
+	@Benchmark
+	public XElement writeXML(){
+		XElement root = new XElement( "layout" );
+		format.writeXML( stations, root );
+		return root;
+	}
+	
+	@Benchmark
+	public Map<String, PerspectiveStation> readXML(){
+		return format.readXML( xml );
+	}
+}
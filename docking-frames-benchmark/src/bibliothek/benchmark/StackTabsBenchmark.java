@@ -0,0 +1,156 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.extension.gui.dock.theme.EclipseTheme;
+import bibliothek.extension.gui.dock.theme.FlatTheme;
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.station.stack.StackDockComponent;
+import bibliothek.gui.dock.station.stack.tab.AbstractTabPane;
+import bibliothek.gui.dock.station.stack.tab.MenuLineLayout;
+import bibliothek.gui.dock.station.stack.tab.Tab;
+
+/**
+ * Measures the layout of the tabs of a {@link StackDockStation} whose tabs are placed by
+ * a {@link MenuLineLayout}, as done by the {@link EclipseTheme} and the {@link FlatTheme}.
+ * The <code>resize</code> benchmark shrinks the station step by step, the <code>select</code>
+ * benchmark changes the selected tab, which changes the z-order of the tabs. All the work is done
+ * on the event dispatch thread.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class StackTabsBenchmark {
+	/** the theme that creates the tabs, either "eclipse" or "flat" */
+	@Param({ "eclipse", "flat" })
+	public String theme;
+	
+	/** the number of tabs */
+	@Param({ "10", "100", "1000" })
+	public int tabs;
+	
+	private DockController controller;
+	private StackDockStation station;
+	private Dockable[] dockables;
+	private AbstractTabPane<?, ?, ?> pane;
+	private Component component;
+	
+	private int width = 0;
+	private int next = 0;
+	
+	@Setup
+	public void setup() throws Exception{
+		OnEventQueue.run( new Runnable(){
+			public void run(){
+				build();
+			}
+		});
+	}
+	
+	private void build(){
+		controller = new DockController();
+		if( "eclipse".equals( theme )){
+			controller.setTheme( new EclipseTheme() );
+		}
+		else if( "flat".equals( theme )){
+			controller.setTheme( new FlatTheme() );
+		}
+		else{
+			throw new IllegalArgumentException( "unknown theme: " + theme );
+		}
+		
+		station = new StackDockStation();
+		controller.add( station );
+		dockables = Layouts.dockables( tabs );
+		for( Dockable dockable : dockables ){
+			station.drop( dockable );
+		}
+		pane = (AbstractTabPane<?, ?, ?>)station.getStackComponent();
+		component = ((StackDockComponent)pane).getComponent();
+		component.setSize( 100 * tabs, 400 );
+		pane.doLayout();
+	}
+	
+	@TearDown
+	public void tearDown() throws Exception{
+		OnEventQueue.run( new Runnable(){
+			public void run(){
+				controller.kill();
+			}
+		});
+	}
+	
+	@Benchmark
+	public Dimension resize() throws Exception{
+		return OnEventQueue.call( new Callable<Dimension>(){
+			public Dimension call(){
+				width -= 7;
+				if( width < 50 ){
+					width = 3000;
+				}
+				component.setSize( width, 400 );
+				pane.doLayout();
+				return pane.getPreferredSize();
+			}
+		});
+	}
+	
+	@Benchmark
+	public Tab[] select() throws Exception{
+		return OnEventQueue.call( new Callable<Tab[]>(){
+			public Tab[] call(){
+				next = (next + 7) % tabs;
+				station.setFrontDockable( dockables[ next ] );
+				pane.doLayout();
+				return pane.getTabs();
+			}
+		});
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.extension.gui.dock.theme.EclipseTheme;
+import bibliothek.extension.gui.dock.theme.FlatTheme;
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockTheme;
+
+/**
+ * Measures how long it takes to exchange the {@link DockTheme} of a {@link DockController}
+ * whose root station shows many dockables. Changing the theme exchanges many colors, fonts and
+ * bridges of the {@link bibliothek.gui.dock.themes.ThemeManager}. The theme switches between
+ * the {@link FlatTheme} and the {@link EclipseTheme}, all the work is done on the event dispatch thread.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Fork( value=1, jvmArgsAppend="-Djava.awt.headless=true" )
+@Warmup( iterations=3, time=1 )
+@Measurement( iterations=5, time=1 )
+public class ThemeSwitchBenchmark {
+	/** the number of dockables shown on the root station */
+	@Param({ "10", "100", "1000" })
+	public int dockables;
+	
+	private DockController controller;
+	private boolean flat = false;
+	
+	@Setup
+	public void setup() throws Exception{
+		OnEventQueue.run( new Runnable(){
+			public void run(){
+				controller = new DockController();
+				Layouts.station( controller, dockables );
+			}
+		});
+	}
+	
+	@TearDown
+	public void tearDown() throws Exception{
+		OnEventQueue.run( new Runnable(){
+			public void run(){
+				controller.kill();
+			}
+		});
+	}
+	
+	@Benchmark
+	public DockTheme setTheme() throws Exception{
+		return OnEventQueue.call( new Callable<DockTheme>(){
+			public DockTheme call(){
+				flat = !flat;
+				if( flat ){
+					controller.setTheme( new FlatTheme() );
+				}
+				else{
+					controller.setTheme( new EclipseTheme() );
+				}
+				return controller.getTheme();
+			}
+		});
+	}
+}
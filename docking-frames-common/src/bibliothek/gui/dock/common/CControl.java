@@ -40,7 +40,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -99,9 +98,11 @@ import bibliothek.gui.dock.common.intern.CommonDockable;
 import bibliothek.gui.dock.common.intern.CommonMultipleDockableFactory;
 import bibliothek.gui.dock.common.intern.CommonMultipleDockableLayout;
 import bibliothek.gui.dock.common.intern.CommonSingleDockableFactory;
+import bibliothek.gui.dock.common.intern.DefaultCControlRegister;
 import bibliothek.gui.dock.common.intern.ControlVetoClosingListener;
 import bibliothek.gui.dock.common.intern.ControlVetoFocusListener;
 import bibliothek.gui.dock.common.intern.EfficientControlFactory;
+import bibliothek.gui.dock.common.intern.MultipleCDockableProxy;
 import bibliothek.gui.dock.common.intern.MutableCControlRegister;
 import bibliothek.gui.dock.common.intern.action.CActionImportanceOrder;
 import bibliothek.gui.dock.common.intern.action.CActionOffer;
@@ -176,6 +177,7 @@ import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.gui.dock.support.mode.HistoryRewriter;
 import bibliothek.gui.dock.support.util.ApplicationResource;
 import bibliothek.gui.dock.support.util.ApplicationResourceManager;
+import bibliothek.gui.dock.support.util.StreamingApplicationResource;
 import bibliothek.gui.dock.themes.BasicTheme;
 import bibliothek.gui.dock.themes.ColorScheme;
 import bibliothek.gui.dock.themes.ThemeFactory;
@@ -200,8 +202,9 @@ import bibliothek.util.Filter;
 import bibliothek.util.Path;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
 import bibliothek.util.xml.XException;
-import bibliothek.util.xml.XIO;
 
 /**
  * Manages the interaction between {@link SingleCDockable}, {@link MultipleCDockable}
@@ -904,7 +907,7 @@ public class CControl {
         try{
         	addMultipleDockableFactory( "", NullMultipleCDockableFactory.NULL, false );
         	
-            resources.put( "ccontrol.frontend", new ApplicationResource(){
+            resources.put( "ccontrol.frontend", new StreamingApplicationResource(){
                 public void write( DataOutputStream out ) throws IOException {
                     Version.write( out, Version.VERSION_1_1_1 );
                     frontend.write( out );
@@ -923,6 +926,22 @@ public class CControl {
                 public void readXML( XElement element ) {
                     frontend.readXML( element.getElement( "frontend" ) );
                 }
+                public void writeXML( XElementWriter writer ) throws IOException {
+                    writer.open( new XElement( "frontend" ) );
+                    frontend.writeXML( writer );
+                    writer.close();
+                }
+                public void readXML( XElementReader reader ) throws IOException {
+                    boolean read = false;
+                    XElement next;
+                    while( (next = reader.open()) != null ){
+                        if( !read && "frontend".equals( next.getName() )){
+                            read = true;
+                            frontend.readXML( reader, false );
+                        }
+                        reader.close();
+                    }
+                }
             });
 
             resources.put( "ccontrol.preferences", new ApplicationResource(){
@@ -1750,12 +1769,7 @@ public class CControl {
      * @return the element with that identifier or <code>null</code>
      */
     public SingleCDockable getSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return dockable;
-            }
-        }
-        return null;
+        return register.getSingleDockable( id );
     }
 
     /**
@@ -1765,10 +1779,9 @@ public class CControl {
      * otherwise
      */
     public boolean removeSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return removeDockable( dockable );
-            }
+        SingleCDockable dockable = register.getSingleDockable( id );
+        if( dockable != null ){
+            return removeDockable( dockable );
         }
         return false;
     }
@@ -1935,8 +1948,6 @@ public class CControl {
      * or is not registered (see {@link #addMultipleDockableFactory(String, MultipleCDockableFactory)}).
      */
     public <M extends MultipleCDockable> M addDockable( M dockable) {
-        Set<String> ids = new HashSet<String>();
-
         String factoryId;
         MultipleCDockableFactory<?, ?> factory = dockable.getFactory();
         if( factory == null ){
@@ -1949,15 +1960,9 @@ public class CControl {
         }        	
         
 
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( factoryId.equals( access.getFactoryId( multi.getFactory() ))){
-                ids.add( accesses.get( multi ).getUniqueId() );
-            }
-        }
-
         int count = 0;
         String id = count + " " + factoryId;
-        while( ids.contains( register.toMultiId( id ) ) ){
+        while( findMultipleDockable( id ) != null ){
             count++;
             id = count + " " + factoryId;
         }
@@ -1993,15 +1998,12 @@ public class CControl {
         if( dockable.getControl() != null )
             throw new IllegalStateException( "dockable is already part of a control" );
 
-        uniqueId = register.toMultiId( uniqueId );
-
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            String id = accesses.get( multi ).getUniqueId();
-            if( uniqueId.equals( id )){
-                throw new IllegalArgumentException( "The unique identifier is already in use: " + uniqueId );
-            }
+        if( findMultipleDockable( uniqueId ) != null ){
+            throw new IllegalArgumentException( "The unique identifier is already in use: " + register.toMultiId( uniqueId ) );
         }
 
+        uniqueId = register.toMultiId( uniqueId );
+
         dockable.setControlAccess( access );
         accesses.get( dockable ).setUniqueId( uniqueId );
         
@@ -2067,13 +2069,26 @@ public class CControl {
      * was found
      */
     public MultipleCDockable getMultipleDockable( String id ){
-        id = register.toMultiId( id );
-        for( MultipleCDockable dockable : register.getMultipleDockables() ){
-            if( accesses.get( dockable ).getUniqueId().equals( id )){
-                return dockable;
-            }
-        }
-        return null;
+        return findMultipleDockable( id );
+    }
+    
+    /**
+     * Searches the {@link MultipleCDockable} which uses the unique identifier <code>id</code>. Uses the
+     * index of a {@link DefaultCControlRegister}, and searches through all dockables for any other register.
+     * @param id the identifier to look out for, not yet modified by {@link MutableCControlRegister#toMultiId(String)}
+     * @return the element using <code>id</code> or <code>null</code>
+     */
+    private MultipleCDockable findMultipleDockable( String id ){
+    	if( register instanceof DefaultCControlRegister ){
+    		return ((DefaultCControlRegister)register).getMultipleDockable( id );
+    	}
+    	id = register.toMultiId( id );
+    	for( MultipleCDockable dockable : register.getMultipleDockables() ){
+    		if( accesses.get( dockable ).getUniqueId().equals( id )){
+    			return dockable;
+    		}
+    	}
+    	return null;
     }
     
     /**
@@ -2089,6 +2104,23 @@ public class CControl {
     	return register.multiToNormalId( access.getUniqueId() );
     }
     
+    /**
+     * Gets the number of {@link MultipleCDockable}s that are currently represented by a 
+     * {@link MultipleCDockableProxy}. These are the dockables whose creation was delayed by a
+     * {@link LazyMultipleCDockableFactory} and that were not yet shown to the user.
+     * @return the number of dockables that do not yet exist
+     * @see CommonMultipleDockableFactory#getDeferredCount()
+     */
+    public int getDeferredDockableCount(){
+    	int count = 0;
+    	for( MultipleCDockable dockable : register.getMultipleDockables() ){
+    		if( dockable instanceof MultipleCDockableProxy ){
+    			count++;
+    		}
+    	}
+    	return count;
+    }
+    
     private boolean shouldStore( String id ){
         if( register.isSingleId( id )){
         	if( register.getBackupFactory().getFactory( register.singleToNormalId( id ) ) != null ){
@@ -2132,12 +2164,8 @@ public class CControl {
     private boolean shouldCreate( MultipleCDockableFactory<?, ?> factory, CommonMultipleDockableLayout layout ){
         String uniqueId = layout.getId();
 
-        String multiId = register.toMultiId( uniqueId );
-
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( accesses.get( multi ).getUniqueId().equals( multiId )){
-                return false;
-            }
+        if( findMultipleDockable( uniqueId ) != null ){
+            return false;
         }
 
         String factoryId = access.getFactoryId( factory );
@@ -2249,12 +2277,7 @@ public class CControl {
         if( factory != null ){
             frontend.unregisterFactory( factory );
 
-            List<MultipleCDockable> toRemove = new ArrayList<MultipleCDockable>();
-            for( MultipleCDockable dockable : register.getMultipleDockables() ){
-                if( dockable.getFactory() == factory.getFactory() ){
-                    toRemove.add( dockable );
-                }
-            }
+            List<MultipleCDockable> toRemove = register.listMultipleDockables( factory.getFactory() );
 
             for( MultipleCDockable dockable : toRemove ){
                 removeDockable( dockable );
@@ -2614,16 +2637,23 @@ public class CControl {
     }
 
     /**
-     * Writes the current and all known layouts into <code>file</code> in xml format.
+     * Writes the current and all known layouts into <code>file</code> in xml format. The
+     * layouts are written piece by piece by an {@link XElementWriter}.
      * @param file the file to write into
      * @throws IOException if the file is not writable
      */
     public void writeXML( File file ) throws IOException{
-        XElement root = new XElement( "root" );
-        getResources().writeXML( root );
         BufferedOutputStream out = new BufferedOutputStream( new FileOutputStream( file ));
-        XIO.writeUTF( root, out );
-        out.close();
+        try{
+            XElementWriter writer = XElementWriter.writeUTF( out );
+            writer.open( new XElement( "root" ) );
+            getResources().writeXML( writer );
+            writer.close();
+            writer.flush();
+        }
+        finally{
+            out.close();
+        }
     }
     
     /**
@@ -2657,16 +2687,25 @@ public class CControl {
     }
     
     /**
-     * Reads the current and other known layouts from <code>file</code>.
+     * Reads the current and other known layouts from <code>file</code>. The file is read
+     * piece by piece by an {@link XElementReader}, the whole xml-tree is never in memory.
      * @param file the file to open and to read
      * @throws IOException if the file cannot be read
      * @throws XException if the xml file has the wrong structure
      */
     public void readXML( File file ) throws IOException{
         BufferedInputStream in = new BufferedInputStream( new FileInputStream( file ));
-        XElement element = XIO.readUTF( in );
-        in.close();
-        readXML( element );
+        try{
+            XElementReader reader = XElementReader.readUTF( in );
+            if( reader.open() == null ){
+                throw new IOException( "no root element found" );
+            }
+            getResources().readXML( reader );
+            reader.close();
+        }
+        finally{
+            in.close();
+        }
     }
 
     /**
@@ -0,0 +1,60 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common;
+
+import bibliothek.gui.dock.common.intern.MultipleCDockableProxy;
+
+/**
+ * A {@link MultipleCDockableFactory} that allows {@link CControl} to delay the creation of 
+ * {@link MultipleCDockable}s while loading a layout. Instead of calling {@link #read(MultipleCDockableLayout) read}
+ * for each dockable in the layout, a lightweight {@link MultipleCDockableProxy proxy} is shown. The proxy 
+ * remembers the {@link MultipleCDockableLayout}, and is replaced by the real dockable the first time the
+ * user can see the proxy or the proxy gains the focus. Dockables that are hidden behind other
+ * tabs or that are minimized are never created if the user does not look at them.<br>
+ * The real dockable inherits the location and settings of the proxy, clients however should
+ * be aware that {@link CControl#getMultipleDockable(String)} may return a proxy.
+ * @author Benjamin Sigg
+ * @param <F> the kind of dockable that is managed by this factory
+ * @param <L> the kind of meta-data this factory reads and writes about <code>F</code>
+ */
+public interface LazyMultipleCDockableFactory<F extends MultipleCDockable, L extends MultipleCDockableLayout> extends MultipleCDockableFactory<F, L>{
+	/**
+	 * Tells whether the dockable described by <code>layout</code> can be created lazily. 
+	 * @param layout the layout of a dockable that is about to be loaded
+	 * @return <code>true</code> if a proxy should be used for <code>layout</code>, <code>false</code> if
+	 * {@link #read(MultipleCDockableLayout) read} should be called immediately
+	 */
+	public boolean isLazy( L layout );
+	
+	/**
+	 * Sets up the properties of a new proxy, like its title text, icon or whether it can be closed. The
+	 * proxy should look like the dockable that would be created by {@link #read(MultipleCDockableLayout) read( layout )},
+	 * but this method should not create any heavy resources.
+	 * @param proxy the new proxy, its content pane is empty
+	 * @param layout the layout the proxy is standing in for
+	 */
+	public void configureProxy( DefaultMultipleCDockable proxy, L layout );
+}
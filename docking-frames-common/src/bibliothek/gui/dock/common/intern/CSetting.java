@@ -38,6 +38,8 @@ import bibliothek.gui.dock.support.mode.ModeSettings;
 import bibliothek.util.FrameworkOnly;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
 
 /**
  * A {@link Setting} that stores also the contents of a {@link CLocationModeManager}.
@@ -77,6 +79,17 @@ public class CSetting extends Setting{
         modes.writeXML( element.addElement( "modes" ) );
     }
     
+    @Override
+    public void writeXML( DockSituation situation, PropertyTransformer transformer, boolean entry, XElementWriter writer ) throws IOException {
+        writer.open( new XElement( "base" ) );
+        super.writeXML( situation, transformer, entry, writer );
+        writer.close();
+        
+        XElement xmodes = new XElement( "modes" );
+        modes.writeXML( xmodes );
+        writer.write( xmodes );
+    }
+    
     @Override
     public void read( DockSituation situation, PropertyTransformer transformer, boolean entry, DataInputStream in ) throws IOException {
         
@@ -106,4 +119,27 @@ public class CSetting extends Setting{
         super.readXML( situation, transformer, entry, element.getElement( "base" ) );
         modes.readXML( element.getElement( "modes" ) );
     }
+    
+    @Override
+    public void readXML( DockSituation situation, PropertyTransformer transformer, boolean entry, XElementReader reader ) throws IOException {
+        boolean baseRead = false;
+        boolean modesRead = false;
+        
+        XElement next;
+        while( (next = reader.peek()) != null ){
+            if( !baseRead && "base".equals( next.getName() )){
+                baseRead = true;
+                reader.open();
+                super.readXML( situation, transformer, entry, reader );
+                reader.close();
+            }
+            else if( !modesRead && "modes".equals( next.getName() )){
+                modesRead = true;
+                modes.readXML( reader.read() );
+            }
+            else{
+                reader.skip();
+            }
+        }
+    }
 }
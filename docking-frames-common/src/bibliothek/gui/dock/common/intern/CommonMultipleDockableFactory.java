@@ -34,6 +34,7 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.DockFactory;
 import bibliothek.gui.dock.common.CControl;
 import bibliothek.gui.dock.common.CStation;
+import bibliothek.gui.dock.common.LazyMultipleCDockableFactory;
 import bibliothek.gui.dock.common.MultipleCDockable;
 import bibliothek.gui.dock.common.MultipleCDockableFactory;
 import bibliothek.gui.dock.common.MultipleCDockableLayout;
@@ -64,6 +65,11 @@ public class CommonMultipleDockableFactory implements DockFactory<CommonDockable
     /** access to private properties of {@link CPerspective} */
     private CPerspectiveMultipleIdentifierCollection perspectiveIdentifiers;
     
+    /** how many {@link MultipleCDockableProxy}s were created by this factory */
+    private int deferredCount = 0;
+    /** how many {@link MultipleCDockableProxy}s were replaced by their real dockables */
+    private int realizedCount = 0;
+    
     /**
      * Creates a new factory.
      * @param id the identifier of this factory
@@ -106,13 +112,37 @@ public class CommonMultipleDockableFactory implements DockFactory<CommonDockable
         return delegate;
     }
     
+    /**
+     * Gets the number of dockables whose creation was delayed by this factory, because
+     * the {@link #getFactory() delegate} is a {@link LazyMultipleCDockableFactory}.
+     * @return the number of {@link MultipleCDockableProxy}s that were created
+     */
+    public int getDeferredCount(){
+        return deferredCount;
+    }
+    
+    /**
+     * Gets the number of dockables whose creation was first delayed, and which were later created
+     * because they became visible or gained the focus.
+     * @return the number of {@link MultipleCDockableProxy}s that were replaced by their real dockables
+     */
+    public int getRealizedCount(){
+        return realizedCount;
+    }
+    
     public void estimateLocations( CommonMultipleDockableLayout layout, LocationEstimationMap children ){
     	// currently not supported
     }
 
     public CommonMultipleDockableLayout getLayout( CommonDockable element, Map<Dockable, Integer> children ) {
         MultipleCDockable dockable = (MultipleCDockable)element.getDockable();
-        MultipleCDockableLayout layout = delegate.write( dockable );
+        MultipleCDockableLayout layout;
+        if( dockable instanceof MultipleCDockableProxy ){
+        	layout = ((MultipleCDockableProxy)dockable).getLayout();
+        }
+        else{
+        	layout = delegate.write( dockable );
+        }
         
         CommonMultipleDockableLayout flayout = new CommonMultipleDockableLayout();
         flayout.setLayout( layout );
@@ -162,9 +192,19 @@ public class CommonMultipleDockableFactory implements DockFactory<CommonDockable
         return layout( layout, placeholders );
     }
 
+    @SuppressWarnings("unchecked")
     public CommonDockable layout( CommonMultipleDockableLayout layout, PlaceholderStrategy placeholders ) {
         // base
-        MultipleCDockable dockable = delegate.read( layout.getLayout() );
+        MultipleCDockable dockable;
+        if( delegate instanceof LazyMultipleCDockableFactory && ((LazyMultipleCDockableFactory<MultipleCDockable, MultipleCDockableLayout>)delegate).isLazy( layout.getLayout() )){
+        	MultipleCDockableProxy proxy = new MultipleCDockableProxy( this, layout.getLayout() );
+        	((LazyMultipleCDockableFactory<MultipleCDockable, MultipleCDockableLayout>)delegate).configureProxy( proxy, layout.getLayout() );
+        	deferredCount++;
+        	dockable = proxy;
+        }
+        else{
+        	dockable = delegate.read( layout.getLayout() );
+        }
         if( dockable == null )
             return null;
         
@@ -208,6 +248,35 @@ public class CommonMultipleDockableFactory implements DockFactory<CommonDockable
         return dockable.intern();
     }
 
+    /**
+     * Creates the real dockable for <code>proxy</code> and replaces <code>proxy</code> with the new dockable. The
+     * new dockable inherits location, working area and focus of <code>proxy</code>.
+     * @param proxy a proxy created by this factory
+     * @return the new dockable, or <code>null</code> if the {@link #getFactory() delegate} did not create a dockable
+     */
+    public MultipleCDockable realize( MultipleCDockableProxy proxy ){
+    	CControl control = controlAccess.getOwner();
+    	MultipleCDockable dockable = delegate.read( proxy.getLayout() );
+    	if( dockable == null ){
+    		return null;
+    	}
+    	
+    	boolean visible = proxy.isVisible();
+    	boolean focused = control.getFocusedCDockable() == proxy;
+    	
+    	dockable.setWorkingArea( proxy.getWorkingArea() );
+    	control.replace( proxy, dockable );
+    	realizedCount++;
+    	
+    	if( visible ){
+    		dockable.setVisible( true );
+    		if( focused ){
+    			control.getController().setFocusedDockable( dockable.intern(), true );
+    		}
+    	}
+    	return dockable;
+    }
+
     public void setLayout( CommonDockable element, CommonMultipleDockableLayout layout, Map<Integer, Dockable> children, PlaceholderStrategy placeholders ) {
         // not supported
     }
@@ -29,6 +29,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,6 +45,7 @@ import bibliothek.gui.dock.common.MultipleCDockable;
 import bibliothek.gui.dock.common.MultipleCDockableFactory;
 import bibliothek.gui.dock.common.SingleCDockable;
 import bibliothek.gui.dock.common.SingleCDockableFactory;
+import bibliothek.gui.dock.common.event.CDockableStateListener;
 import bibliothek.gui.dock.common.mode.ExtendedMode;
 import bibliothek.gui.dock.frontend.FrontendEntry;
 
@@ -82,6 +85,36 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     private List<MultipleCDockable> multiDockables = 
         new ArrayList<MultipleCDockable>();
     
+    /** all {@link SingleCDockable}s accessed through their unique identifier */
+    private Map<String, SingleCDockable> singleDockablesById = new HashMap<String, SingleCDockable>();
+    
+    /** all {@link MultipleCDockable}s accessed through their unique identifier */
+    private Map<String, MultipleCDockable> multiDockablesById = new HashMap<String, MultipleCDockable>();
+    
+    /** the unique identifiers of all {@link MultipleCDockable}s, the reverse of {@link #multiDockablesById} */
+    private Map<MultipleCDockable, String> multiDockableIds = new IdentityHashMap<MultipleCDockable, String>();
+    
+    /** all {@link MultipleCDockable}s grouped by their factory */
+    private Map<MultipleCDockableFactory<?, ?>, Set<MultipleCDockable>> multiDockablesByFactory =
+    	new IdentityHashMap<MultipleCDockableFactory<?, ?>, Set<MultipleCDockable>>();
+    
+    /** all {@link CDockable}s grouped by the last {@link ExtendedMode} they reported */
+    private Map<ExtendedMode, Set<CDockable>> dockablesByMode = new HashMap<ExtendedMode, Set<CDockable>>();
+    
+    /** the last {@link ExtendedMode} each {@link CDockable} reported, the reverse of {@link #dockablesByMode} */
+    private Map<CDockable, ExtendedMode> modes = new IdentityHashMap<CDockable, ExtendedMode>();
+    
+    /** a listener added to all {@link CDockable}s, keeps {@link #dockablesByMode} up to date */
+    private CDockableStateListener modeListener = new CDockableStateListener(){
+		public void visibilityChanged( CDockable dockable ){
+			updateMode( dockable, dockable.getExtendedMode() );
+		}
+		
+		public void extendedModeChanged( CDockable dockable, ExtendedMode mode ){
+			updateMode( dockable, mode );
+		}
+	};
+    
     /** the stations known  */
     private List<CStation<?>> stations = new ArrayList<CStation<?>>();
     
@@ -200,13 +233,11 @@ public class DefaultCControlRegister implements MutableCControlRegister {
      * @return the list of dockables, never <code>null</code> but might be empty
      */
     public List<MultipleCDockable> listMultipleDockables( MultipleCDockableFactory<?, ?> factory ){
-        List<MultipleCDockable> result = new ArrayList<MultipleCDockable>();
-        for( MultipleCDockable dockable : multiDockables ){
-            if( dockable.getFactory() == factory ){
-                result.add( dockable );
-            }
+        Set<MultipleCDockable> dockables = multiDockablesByFactory.get( factory );
+        if( dockables == null ){
+        	return new ArrayList<MultipleCDockable>();
         }
-        return result;
+        return new ArrayList<MultipleCDockable>( dockables );
     }
     
     /**
@@ -216,14 +247,69 @@ public class DefaultCControlRegister implements MutableCControlRegister {
      */
     public List<CDockable> listDockablesInMode( ExtendedMode mode ){
         List<CDockable> list = new ArrayList<CDockable>();
-        for( CDockable check : dockables ){
-            if( check.isVisible() && check.getExtendedMode() == mode ){
-                list.add( check );
-            }
+        Set<CDockable> candidates = dockablesByMode.get( mode );
+        if( candidates != null ){
+	        for( CDockable check : candidates ){
+	            if( check.isVisible() && check.getExtendedMode() == mode ){
+	                list.add( check );
+	            }
+	        }
         }
         return list;
     }
     
+    /**
+     * Moves <code>dockable</code> into the group of {@link CDockable}s that are in <code>mode</code>.
+     * @param dockable the element whose mode changed
+     * @param mode the new mode of <code>dockable</code>, can be <code>null</code>
+     */
+    private void updateMode( CDockable dockable, ExtendedMode mode ){
+    	if( !modes.containsKey( dockable )){
+    		return;
+    	}
+    	ExtendedMode oldMode = modes.put( dockable, mode );
+    	if( oldMode == mode ){
+    		return;
+    	}
+    	if( oldMode != null ){
+    		Set<CDockable> group = dockablesByMode.get( oldMode );
+    		if( group != null ){
+    			group.remove( dockable );
+    			if( group.isEmpty() ){
+    				dockablesByMode.remove( oldMode );
+    			}
+    		}
+    	}
+    	if( mode != null ){
+    		Set<CDockable> group = dockablesByMode.get( mode );
+    		if( group == null ){
+    			group = new LinkedHashSet<CDockable>();
+    			dockablesByMode.put( mode, group );
+    		}
+    		group.add( dockable );
+    	}
+    }
+    
+    /**
+     * Starts tracking the {@link ExtendedMode} of <code>dockable</code>.
+     * @param dockable the new element
+     */
+    private void addMode( CDockable dockable ){
+    	modes.put( dockable, null );
+    	dockable.addCDockableStateListener( modeListener );
+    	updateMode( dockable, dockable.getExtendedMode() );
+    }
+    
+    /**
+     * Stops tracking the {@link ExtendedMode} of <code>dockable</code>.
+     * @param dockable the removed element
+     */
+    private void removeMode( CDockable dockable ){
+    	dockable.removeCDockableStateListener( modeListener );
+    	updateMode( dockable, null );
+    	modes.remove( dockable );
+    }
+    
     /**
      * Gets a list of all identifiers of {@link SingleCDockable} for which
      * this control has location information within the current {@link CControl#load(String) setting}.
@@ -267,20 +353,42 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     public void addMultipleDockable( MultipleCDockable dockable ) {
         dockables.add( dockable );
         multiDockables.add( dockable );
+        
+        String id = control.getUniqueId( dockable );
+        if( id != null ){
+        	multiDockablesById.put( id, dockable );
+        	multiDockableIds.put( dockable, id );
+        }
+        
+        MultipleCDockableFactory<?, ?> factory = dockable.getFactory();
+        Set<MultipleCDockable> group = multiDockablesByFactory.get( factory );
+        if( group == null ){
+        	group = new LinkedHashSet<MultipleCDockable>();
+        	multiDockablesByFactory.put( factory, group );
+        }
+        group.add( dockable );
+        
+        addMode( dockable );
     }
 
     public void addSingleDockable( SingleCDockable dockable ) {
         dockables.add( dockable );
         singleDockables.add( dockable );
+        singleDockablesById.put( dockable.getUniqueId(), dockable );
+        addMode( dockable );
     }
     
     public SingleCDockable getSingleDockable( String id ){
-	    for( SingleCDockable dockable : singleDockables ){
-	    	if( dockable.getUniqueId().equals( id )){
-	    		return dockable;
-	    	}
-	    }
-	    return null;
+	    return singleDockablesById.get( id );
+    }
+    
+    /**
+     * Searches the one {@link MultipleCDockable} whose unique id equals <code>id</code>.
+     * @param id some id to search, this id is not modified by {@link #toMultiId(String)}
+     * @return a dockable with the same id or <code>null</code>
+     */
+    public MultipleCDockable getMultipleDockable( String id ){
+    	return multiDockablesById.get( id );
     }
 
     public void addStation( CStation<?> station ) {
@@ -358,6 +466,22 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     public boolean removeMultipleDockable( MultipleCDockable dockable ) {
         if( dockables.remove( dockable ) ){
             multiDockables.remove( dockable );
+            
+            String id = multiDockableIds.remove( dockable );
+            if( id != null ){
+            	multiDockablesById.remove( id );
+            }
+            
+            MultipleCDockableFactory<?, ?> factory = dockable.getFactory();
+            Set<MultipleCDockable> group = multiDockablesByFactory.get( factory );
+            if( group != null ){
+            	group.remove( dockable );
+            	if( group.isEmpty() ){
+            		multiDockablesByFactory.remove( factory );
+            	}
+            }
+            
+            removeMode( dockable );
             return true;
         }
         return false;
@@ -366,6 +490,10 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     public boolean removeSingleDockable( SingleCDockable dockable ) {
         if( dockables.remove( dockable )){
             singleDockables.remove( dockable );
+            if( singleDockablesById.get( dockable.getUniqueId() ) == dockable ){
+            	singleDockablesById.remove( dockable.getUniqueId() );
+            }
+            removeMode( dockable );
             return true;
         }
         return false;
@@ -0,0 +1,135 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common.intern;
+
+import java.awt.EventQueue;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.DefaultMultipleCDockable;
+import bibliothek.gui.dock.common.LazyMultipleCDockableFactory;
+import bibliothek.gui.dock.common.MultipleCDockable;
+import bibliothek.gui.dock.common.MultipleCDockableLayout;
+import bibliothek.gui.dock.common.event.CDockableLocationEvent;
+import bibliothek.gui.dock.common.event.CDockableLocationListener;
+import bibliothek.gui.dock.common.event.CFocusListener;
+
+/**
+ * A lightweight placeholder for a {@link MultipleCDockable} that was not yet created by its
+ * {@link LazyMultipleCDockableFactory}. The proxy stores the {@link MultipleCDockableLayout} of the
+ * real dockable, and asks the {@link CommonMultipleDockableFactory} to replace itself by the real
+ * dockable once the proxy is {@link #isShowing() showing} or gains the focus.
+ * @author Benjamin Sigg
+ */
+public class MultipleCDockableProxy extends DefaultMultipleCDockable{
+	/** the factory that created this proxy and that will create the real dockable */
+	private CommonMultipleDockableFactory factory;
+	
+	/** the layout of the real dockable */
+	private MultipleCDockableLayout layout;
+	
+	/** whether {@link #realize()} is already scheduled */
+	private boolean scheduled = false;
+	
+	/** the real dockable, <code>null</code> while this proxy is still in use */
+	private MultipleCDockable realized;
+	
+	/**
+	 * Creates a new proxy.
+	 * @param factory the factory that will create the real dockable
+	 * @param layout the layout of the real dockable
+	 */
+	public MultipleCDockableProxy( CommonMultipleDockableFactory factory, MultipleCDockableLayout layout ){
+		super( factory.getFactory() );
+		this.factory = factory;
+		this.layout = layout;
+		
+		addCDockableLocationListener( new CDockableLocationListener(){
+			public void changed( CDockableLocationEvent event ){
+				if( event.isShowingChanged() && isShowing() ){
+					realizeLater();
+				}
+			}
+		});
+		
+		addFocusListener( new CFocusListener(){
+			public void focusGained( CDockable dockable ){
+				realizeLater();
+			}
+			
+			public void focusLost( CDockable dockable ){
+				// ignore
+			}
+		});
+	}
+	
+	/**
+	 * Gets the layout of the real dockable.
+	 * @return the layout, not <code>null</code>
+	 */
+	public MultipleCDockableLayout getLayout(){
+		return layout;
+	}
+	
+	/**
+	 * Tells whether this proxy was already replaced by the real dockable.
+	 * @return <code>true</code> if the real dockable exists
+	 */
+	public boolean isRealized(){
+		return realized != null;
+	}
+	
+	/**
+	 * Creates the real dockable and replaces this proxy with it. This method does nothing if the
+	 * real dockable was already created, or if this proxy is no longer registered at a {@link CControl}.
+	 * @return the real dockable or <code>null</code> if it could not be created
+	 */
+	public MultipleCDockable realize(){
+		if( realized == null && getControl() != null ){
+			realized = factory.realize( this );
+		}
+		return realized;
+	}
+	
+	/**
+	 * Schedules a call to {@link #realize()}. The call is delayed because the dockable cannot be
+	 * replaced while the tree of stations is changing. Once the call is executed, the proxy is only replaced
+	 * if it is still showing or focused.
+	 */
+	private void realizeLater(){
+		if( !scheduled ){
+			scheduled = true;
+			EventQueue.invokeLater( new Runnable(){
+				public void run(){
+					scheduled = false;
+					CControl control = getControl();
+					if( control != null && (isShowing() || control.getFocusedCDockable() == MultipleCDockableProxy.this )){
+						realize();
+					}
+				}
+			});
+		}
+	}
+}
@@ -193,6 +193,7 @@ public abstract class AbstractLocationMode<A extends ModeArea> implements Iterab
 		
 		if( getManager() != null ){
 			area.addModeAreaListener( modeAreaListener );
+			getManager().invalidateLocations();
 		}
 	}
 	
@@ -212,6 +213,9 @@ public abstract class AbstractLocationMode<A extends ModeArea> implements Iterab
 			area.setMode( null );
 			area.removeModeAreaListener( modeAreaListener );
 			areaOrder.remove( area );
+			if( getManager() != null ){
+				getManager().invalidateLocations();
+			}
 		}
 		return area;
 	}
@@ -442,6 +446,9 @@ public abstract class AbstractLocationMode<A extends ModeArea> implements Iterab
 		public void internalLocationChange( ModeArea source, Set<Dockable> dockables ){
 			LocationModeManager<?> manager = getManager();
 			if( manager != null ){
+				for( Dockable dockable : dockables ){
+					manager.invalidateLocation( dockable );
+				}
 				if( manager.isOnTransaction() ){
 					manager.addAffected( dockables );
 				}
@@ -57,8 +57,12 @@ import bibliothek.gui.dock.facile.mode.status.DefaultExtendedModeEnablement;
 import bibliothek.gui.dock.facile.mode.status.ExtendedModeEnablement;
 import bibliothek.gui.dock.facile.mode.status.ExtendedModeEnablementFactory;
 import bibliothek.gui.dock.facile.mode.status.ExtendedModeEnablementListener;
+import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.gui.dock.layout.location.AsideRequest;
 import bibliothek.gui.dock.layout.location.AsideRequestFactory;
+import bibliothek.gui.dock.station.flap.FlapDockProperty;
+import bibliothek.gui.dock.station.screen.ScreenDockProperty;
+import bibliothek.gui.dock.station.stack.StackDockProperty;
 import bibliothek.gui.dock.support.mode.AffectedSet;
 import bibliothek.gui.dock.support.mode.AffectingRunnable;
 import bibliothek.gui.dock.support.mode.ModeManager;
@@ -371,6 +375,41 @@ public class LocationModeManager<M extends LocationMode> extends ModeManager<Loc
 		// ignore
 	}
 	
+	/**
+	 * Replaces the identifier of the mode, the identifier of the root station and the 
+	 * placeholders of <code>history</code> by shared instances.
+	 */
+	@Override
+	protected Location compact( Location history ){
+		if( history == null ){
+			return null;
+		}
+		
+		DockableProperty property = history.getLocation();
+		while( property != null ){
+			if( property instanceof StackDockProperty ){
+				StackDockProperty stack = (StackDockProperty)property;
+				stack.setPlaceholder( intern( stack.getPlaceholder() ) );
+			}
+			else if( property instanceof FlapDockProperty ){
+				FlapDockProperty flap = (FlapDockProperty)property;
+				flap.setPlaceholder( intern( flap.getPlaceholder() ) );
+			}
+			else if( property instanceof ScreenDockProperty ){
+				ScreenDockProperty screen = (ScreenDockProperty)property;
+				screen.setPlaceholder( intern( screen.getPlaceholder() ) );
+			}
+			property = property.getSuccessor();
+		}
+		
+		Path mode = intern( history.getMode() );
+		String root = intern( history.getRoot() );
+		if( mode == history.getMode() && root == history.getRoot() ){
+			return history;
+		}
+		return new Location( mode, root, history.getLocation(), history.isApplicationDefined() );
+	}
+	
 	@Override
 	public void apply( Dockable dockable, M mode, Location history, AffectedSet set ) {
 		super.apply( dockable, mode, history, set );
@@ -0,0 +1,107 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.mode;
+
+/**
+ * Tells a {@link ModeManager} how long it should keep the history of entries that are no longer
+ * associated with a {@link bibliothek.gui.Dockable}, e.g. because the <code>Dockable</code> was closed
+ * and removed. Without a limit these entries are kept forever, and written into each layout.<br>
+ * The entries are removed in least recently used order: an entry is used whenever its 
+ * <code>Dockable</code> is removed, or whenever the entry is recreated by {@link ModeManager#addEmpty(String)}.<br>
+ * A policy is immutable.
+ * @author Benjamin Sigg
+ */
+public class HistoryRetentionPolicy {
+	/** a policy that keeps all entries forever and does not compact them */
+	public static final HistoryRetentionPolicy UNBOUNDED = new HistoryRetentionPolicy( -1, -1, false );
+	
+	/** the maximum number of entries without {@link bibliothek.gui.Dockable} */
+	private final int maxEntries;
+	
+	/** the maximum time in milliseconds an unused entry is kept */
+	private final long maxAge;
+	
+	/** whether the history of unused entries is compacted */
+	private final boolean compact;
+	
+	/**
+	 * Creates a new policy.
+	 * @param maxEntries the maximum number of entries without {@link bibliothek.gui.Dockable} a {@link ModeManager}
+	 * keeps, the least recently used entries are removed first. A negative value means that there is no limit.
+	 * @param maxAge the maximum time in milliseconds an entry without {@link bibliothek.gui.Dockable} is kept
+	 * after it was used the last time. A value of 0 or less means that there is no limit.
+	 * @param compact whether the history of entries without {@link bibliothek.gui.Dockable} should be compacted,
+	 * see {@link ModeManager#compactHistory()}
+	 */
+	public HistoryRetentionPolicy( int maxEntries, long maxAge, boolean compact ){
+		this.maxEntries = maxEntries;
+		this.maxAge = maxAge;
+		this.compact = compact;
+	}
+	
+	/**
+	 * Gets the maximum number of entries without {@link bibliothek.gui.Dockable} that are kept.
+	 * @return the maximum number of entries, a negative value if there is no limit
+	 */
+	public int getMaxEntries(){
+		return maxEntries;
+	}
+	
+	/**
+	 * Gets the maximum time in milliseconds an entry without {@link bibliothek.gui.Dockable} is kept
+	 * after it was used the last time.
+	 * @return the maximum age, 0 or less if there is no limit
+	 */
+	public long getMaxAge(){
+		return maxAge;
+	}
+	
+	/**
+	 * Tells whether the history of entries without {@link bibliothek.gui.Dockable} is compacted.
+	 * @return whether to compact the history
+	 */
+	public boolean isCompact(){
+		return compact;
+	}
+	
+	/**
+	 * Tells whether entries have to be removed by this policy, depending on their number and age.
+	 * @param entries the current number of entries without {@link bibliothek.gui.Dockable}
+	 * @param age the time in milliseconds since the oldest of these entries was used
+	 * @return <code>true</code> if the oldest entry has to be removed
+	 */
+	public boolean isExceeded( int entries, long age ){
+		if( maxEntries >= 0 && entries > maxEntries ){
+			return true;
+		}
+		return maxAge > 0 && age > maxAge;
+	}
+	
+	@Override
+	public String toString(){
+		return getClass().getName() + "[maxEntries=" + maxEntries + ", maxAge=" + maxAge + ", compact=" + compact + "]";
+	}
+}
@@ -25,16 +25,20 @@
  */
 package bibliothek.gui.dock.support.mode;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -45,6 +49,8 @@ import bibliothek.gui.dock.action.DockActionSource;
 import bibliothek.gui.dock.action.LocationHint;
 import bibliothek.gui.dock.action.MultiDockActionSource;
 import bibliothek.gui.dock.control.DockRegister;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.util.DockUtilities;
 import bibliothek.util.Path;
 
@@ -91,6 +97,24 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	/** used to change the history of {@link Dockable}s before applying a new mode */
 	private HistoryRewriter<H,M> historyRewriter;
 	
+	/** observes all {@link DockStation}s and marks the locations of moved {@link Dockable}s as dirty */
+	private LocationObserver locationObserver = new LocationObserver();
+	
+	/** how many locations were computed by {@link #store(Mode, Dockable)} */
+	private int computedLocationCount = 0;
+	
+	/** how many locations were not computed by {@link #store(Mode, Dockable)} because they did not change */
+	private int skippedLocationCount = 0;
+	
+	/** tells how long entries without {@link Dockable} are kept */
+	private HistoryRetentionPolicy retentionPolicy = HistoryRetentionPolicy.UNBOUNDED;
+	
+	/** all the entries that are not associated with a {@link Dockable}, the least recently used entry first */
+	private Map<String, DockableHandle> detached = new LinkedHashMap<String, DockableHandle>();
+	
+	/** shared instances of the objects used by the histories, see {@link #intern(Object)} */
+	private Map<Object, WeakReference<Object>> interned = new WeakHashMap<Object, WeakReference<Object>>();
+	
 	private ActionGuard guard = new ActionGuard() {
 		public boolean react( Dockable dockable ){
 			return getHandle( dockable ) != null;
@@ -128,6 +152,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		controller.addActionGuard( stationGuard );
 		controller.addActionGuard( guard );
 		this.controller = controller;
+		locationObserver.connect( controller );
 	}
 	
 	/**
@@ -138,6 +163,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		if( controller != null ){
 			controller.removeActionGuard( stationGuard );
 			controller.removeActionGuard( guard );
+			locationObserver.connect( null );
 			controller = null;
 		}
 	}
@@ -177,6 +203,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	public void putMode( M mode ){
 		if( mode == null )
 			throw new IllegalArgumentException( "mode must not be null" );
+		invalidateLocations();
 		for( ModeHandle handle : modes ){
 			if( handle.mode.getUniqueIdentifier().equals( mode.getUniqueIdentifier() )){
 				fireRemoved( handle.mode );
@@ -218,6 +245,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	public void removeMode( M mode ){
 		if( mode == null )
 			throw new IllegalArgumentException( "mode must not be null" );
+		invalidateLocations();
 		for( ModeHandle handle : modes ){
 			if( handle.mode.getUniqueIdentifier().equals( mode.getUniqueIdentifier() )){
 				handle.mode = null;
@@ -365,6 +393,8 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         }
         else{
             entry.dockable = dockable;
+            entry.dirty = true;
+            detached.remove( key );
         }
         
         dockables.put( dockable, entry );
@@ -400,6 +430,8 @@ public abstract class ModeManager<H, M extends Mode<H>> {
                 fireRemoved( entry.dockable );
             }
             entry.dockable = dockable;
+            entry.dirty = true;
+            detached.remove( key );
             dockables.put( dockable, entry );
         }
         else{
@@ -792,10 +824,15 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     public void remove( Dockable dockable ){
         DockableHandle entry = dockables.remove( dockable );
         if( entry != null ){
-        	if( !entry.empty ){
+        	if( entry.empty ){
+        		detach( entry );
+        	}
+        	else{
         		entries.remove( entry.id );
+        		detached.remove( entry.id );
         	}
             fireRemoved( dockable );
+            applyRetentionPolicy();
         }
     }
     
@@ -807,11 +844,131 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     public void reduceToEmpty( Dockable dockable ){
         DockableHandle entry = dockables.get( dockable );
         if( entry != null ){
-            entry.dockable = null;
+            detach( entry );
             fireRemoved( dockable );
+            applyRetentionPolicy();
         }
     }
     
+    /**
+     * Marks <code>entry</code> as no longer associated with a {@link Dockable} and as
+     * most recently used entry.
+     * @param entry the entry to detach
+     */
+    private void detach( DockableHandle entry ){
+    	entry.dockable = null;
+    	entry.lastUsed = System.currentTimeMillis();
+    	detached.remove( entry.id );
+    	detached.put( entry.id, entry );
+    	if( retentionPolicy.isCompact() ){
+    		entry.compact();
+    	}
+    }
+    
+    /**
+     * Sets the policy that tells how long entries that are not associated with a {@link Dockable}
+     * are kept. Such entries are created when a {@link Dockable} is removed, or by {@link #addEmpty(String)}.
+     * The policy also applies to entries that were marked as {@link #isEmpty(String) empty}, these
+     * entries are no longer kept forever.<br>
+     * Entries that violate the new policy are removed immediately.
+     * @param retentionPolicy the new policy, <code>null</code> will be replaced by {@link HistoryRetentionPolicy#UNBOUNDED}
+     */
+    public void setHistoryRetentionPolicy( HistoryRetentionPolicy retentionPolicy ){
+    	if( retentionPolicy == null ){
+    		retentionPolicy = HistoryRetentionPolicy.UNBOUNDED;
+    	}
+    	this.retentionPolicy = retentionPolicy;
+    	if( retentionPolicy.isCompact() ){
+    		for( DockableHandle entry : detached.values() ){
+    			entry.compact();
+    		}
+    	}
+    	applyRetentionPolicy();
+    }
+    
+    /**
+     * Gets the policy that tells how long entries that are not associated with a {@link Dockable}
+     * are kept.
+     * @return the policy, not <code>null</code>
+     * @see #setHistoryRetentionPolicy(HistoryRetentionPolicy)
+     */
+    public HistoryRetentionPolicy getHistoryRetentionPolicy(){
+		return retentionPolicy;
+	}
+    
+    /**
+     * Removes all the entries that are not associated with a {@link Dockable} and which
+     * violate the current {@link #getHistoryRetentionPolicy() retention policy}. This method is 
+     * called automatically whenever an entry gets detached from its {@link Dockable}, and before the
+     * settings of this manager are written.
+     */
+    public void applyRetentionPolicy(){
+    	long now = System.currentTimeMillis();
+    	Iterator<DockableHandle> iter = detached.values().iterator();
+    	while( iter.hasNext() ){
+    		DockableHandle entry = iter.next();
+    		if( !retentionPolicy.isExceeded( detached.size(), now - entry.lastUsed )){
+    			break;
+    		}
+    		iter.remove();
+    		entries.remove( entry.id );
+    	}
+    }
+    
+    /**
+     * Gets the number of entries that are currently not associated with a {@link Dockable}.
+     * @return the number of detached entries
+     * @see #setHistoryRetentionPolicy(HistoryRetentionPolicy)
+     */
+    public int getDetachedEntryCount(){
+    	return detached.size();
+    }
+    
+    /**
+     * Compacts the history of all entries. Equal identifiers of modes are replaced by the same
+     * instance and each history object is replaced by the result of {@link #compact(Object)}.
+     * Compacting does not change the content of any history, it only reduces the memory used.
+     */
+    public void compactHistory(){
+    	for( DockableHandle entry : entries.values() ){
+    		entry.compact();
+    	}
+    }
+    
+    /**
+     * Creates a compact version of <code>history</code> that is equal to <code>history</code>,
+     * but shares as many objects as possible with other histories, e.g. by using {@link #intern(Object)}.
+     * The default implementation just returns <code>history</code>.
+     * @param history the history to compact, may be <code>null</code>
+     * @return the compact version, may be <code>history</code> itself
+     */
+    protected H compact( H history ){
+    	return history;
+    }
+    
+    /**
+     * Gets a shared instance that is equal to <code>value</code>. Values are shared as long as 
+     * they are used by at least one history.
+     * @param <T> the type of the value
+     * @param value the value to share, may be <code>null</code>
+     * @return the shared instance, <code>value</code> if there was no equal instance yet
+     */
+    @SuppressWarnings("unchecked")
+	protected <T> T intern( T value ){
+    	if( value == null ){
+    		return null;
+    	}
+    	WeakReference<Object> reference = interned.get( value );
+    	if( reference != null ){
+    		Object result = reference.get();
+    		if( result != null ){
+    			return (T)result;
+    		}
+    	}
+    	interned.put( value, new WeakReference<Object>( value ) );
+    	return value;
+    }
+    
 	
     /**
      * Called while reading modes in {@link #readSettings(ModeSettings)}.
@@ -840,11 +997,23 @@ public abstract class ModeManager<H, M extends Mode<H>> {
      * information for a {@link Dockable} that has not yet been created. It is
      * helpful if the client intends to load first its properties and create
      * only those {@link Dockable}s which are visible.<br>
-     * Also an empty entry gets never deleted unless {@link #removeEmpty(String)} is called.
+     * Also an empty entry gets never deleted unless {@link #removeEmpty(String)} is called,
+     * or unless the entry violates the {@link #setHistoryRetentionPolicy(HistoryRetentionPolicy) retention policy}.
      * @param key the name of the empty entry
      * @throws NullPointerException if <code>key</code> is <code>null</code>
      */
     public void addEmpty( String key ){
+    	addEmpty( key, true );
+    }
+    
+    /**
+     * Adds an empty entry to this manager.
+     * @param key the name of the empty entry
+     * @param applyPolicy whether to call {@link #applyRetentionPolicy()} afterwards, 
+     * {@link #readSettings(ModeSettings, UndoableModeSettings)} applies the policy only once all entries are read
+     * @see #addEmpty(String)
+     */
+    private void addEmpty( String key, boolean applyPolicy ){
         if( key == null )
             throw new NullPointerException( "name must not be null" );
         
@@ -855,6 +1024,12 @@ public abstract class ModeManager<H, M extends Mode<H>> {
             entries.put( key, entry );
         }
         entry.empty = true;
+        if( entry.dockable == null ){
+        	detach( entry );
+        	if( applyPolicy ){
+        		applyRetentionPolicy();
+        	}
+        }
     }
     
     /**
@@ -872,6 +1047,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         	entry.empty = false;
 	        if( entry.dockable == null ){
 	            entries.remove( name );
+	            detached.remove( name );
 	        }
         }
     }
@@ -880,7 +1056,8 @@ public abstract class ModeManager<H, M extends Mode<H>> {
      * Tells whether information about dockable <code>key</code> gets
      * stored indefinitely or not.
      * @param key the key to check
-     * @return <code>true</code> if the key is never removed automatically
+     * @return <code>true</code> if the key is only removed automatically by the
+     * {@link #setHistoryRetentionPolicy(HistoryRetentionPolicy) retention policy}, 
      * <code>false</code> otherwise
      */
     public boolean isEmpty( String key ){
@@ -1059,9 +1236,13 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 
     /**
      * Stores the location of <code>dockable</code> under the key <code>mode</code>.<br>
+     * The location is only computed if <code>dockable</code> was moved since the last time
+     * its location was stored, or if the stored location was replaced by someone else. Otherwise
+     * the stored location is still valid and this method returns immediately.<br>
      * This method does nothing if {@link #isOnContinuous()} returns <code>true</code>
      * @param mode the mode <code>dockable</code> is currently in
      * @param dockable the element whose location will be stored
+     * @see #invalidateLocation(Dockable)
      */
     protected void store( M mode, Dockable dockable ){
     	if( isOnContinuous() )
@@ -1069,9 +1250,79 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     	
     	DockableHandle handle = getHandle( dockable );
     	if( handle != null ){
-    		handle.properties.put( mode.getUniqueIdentifier(), mode.current( dockable ) );
+    		Path id = mode.getUniqueIdentifier();
+    		if( !handle.dirty && id.equals( handle.storedMode ) && handle.properties.get( id ) == handle.storedLocation && isObserved( dockable )){
+    			skippedLocationCount++;
+    		}
+    		else{
+    			H location = mode.current( dockable );
+	    		handle.properties.put( id, location );
+	    		handle.dirty = false;
+	    		handle.storedMode = id;
+	    		handle.storedLocation = location;
+	    		computedLocationCount++;
+    		}
     	}
     }
+    
+    /**
+     * Tells whether this manager receives events about movements of <code>dockable</code>. Only the 
+     * locations of observed {@link Dockable}s can be reused by {@link #store(Mode, Dockable)}.
+     * @param dockable the element to check
+     * @return whether <code>dockable</code> is registered at the {@link DockController}
+     */
+    private boolean isObserved( Dockable dockable ){
+    	return controller != null && controller.getRegister().isRegistered( dockable );
+    }
+    
+    /**
+     * Marks the stored location of <code>dockable</code> and all its children as invalid, the next
+     * call to {@link #store(Mode, Dockable)} will compute their location again. Subclasses should call
+     * this method if the location of <code>dockable</code> changed without an event to a 
+     * {@link bibliothek.gui.dock.event.DockStationListener}.
+     * @param dockable the element whose location changed
+     */
+    public void invalidateLocation( Dockable dockable ){
+    	DockUtilities.visit( dockable, new DockUtilities.DockVisitor(){
+    		@Override
+    		public void handleDockable( Dockable check ){
+    			DockableHandle handle = getHandle( check );
+    			if( handle != null ){
+    				handle.dirty = true;
+    			}
+    		}
+    	});
+    }
+    
+    /**
+     * Marks the stored locations of all {@link Dockable}s as invalid, the next call to
+     * {@link #store(Mode, Dockable)} will compute their location again. Subclasses should call
+     * this method if the way how locations are computed changes, e.g. because a {@link Mode}
+     * gained or lost an area.
+     */
+    public void invalidateLocations(){
+    	for( DockableHandle handle : dockables.values() ){
+    		handle.dirty = true;
+    	}
+    }
+    
+    /**
+     * Tells how many locations were computed by {@link #store(Mode, Dockable)} since this
+     * manager was created.
+     * @return the number of computed locations
+     */
+    public int getComputedLocationCount(){
+		return computedLocationCount;
+	}
+    
+    /**
+     * Tells how many locations {@link #store(Mode, Dockable)} did not compute, because the
+     * {@link Dockable} did not move since its location was stored the last time.
+     * @return the number of skipped locations
+     */
+    public int getSkippedLocationCount(){
+		return skippedLocationCount;
+	}
 
 	/**
 	 * Gets the <code>ModeAccess</code> which represents <code>mode</code>.
@@ -1192,6 +1443,8 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	 * @param setting the settings to fill
 	 */
 	public void writeSettings( ModeSettings<H,?> setting ){
+		applyRetentionPolicy();
+		
 		// dockables
 		for( DockableHandle handle : entries.values() ){
 			setting.add( handle.id, handle.getCurrent(), handle.properties, handle.history );
@@ -1216,7 +1469,10 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	/**
 	 * Reads the contents of <code>settings</code>, creates new entries if either
 	 * {@link #createEntryDuringRead(String)} or if <code>pending</code> allows the setting
-	 * to be undone if not needed. 
+	 * to be undone if not needed.<br>
+	 * Every entry that is not associated with a {@link Dockable} and that is read counts as
+	 * used now. The {@link #getHistoryRetentionPolicy() retention policy} is applied once, after
+	 * all entries have been read.
 	 * @param settings the settings to read
 	 * @param pending undoable settings, can be <code>null</code>
 	 * @return an algorithm that will remove any entry that was created because <code>pending</code>
@@ -1232,11 +1488,11 @@ public abstract class ModeManager<H, M extends Mode<H>> {
             
             if( entry == null ){
                 if( createEntryDuringRead( key )){
-                    addEmpty( key );
+                    addEmpty( key, false );
                     entry = entries.get( key );
                 }
                 else if( pending != null && pending.createTemporaryDuringRead( key )){
-                	addEmpty( key );
+                	addEmpty( key, false );
                 	entry = entries.get( key );
                 	temporary.add( key );
                 }
@@ -1255,17 +1511,26 @@ public abstract class ModeManager<H, M extends Mode<H>> {
                 if( current == null )
                     current = old;
                 
+                if( entry.dockable == null ){
+                	detach( entry );
+                }
+                
                 entry.history.clear();
                 for( Path next : settings.getHistory( i ))
                     entry.history.add( next );
                 
                 entry.properties = settings.getProperties( i );
+                if( retentionPolicy.isCompact() ){
+                	entry.compact();
+                }
                 
                 if( (old == null && current != null) || (old != null && !old.equals( current ))){
                     applyDuringRead( key, old, current, entry.dockable );
                 }
             }
         }
+        
+        applyRetentionPolicy();
 		
 		// modes
 		for( ModeHandle handle : modes ){
@@ -1277,6 +1542,8 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 			}
 		}
 		
+		invalidateLocations();
+		
 		if( pending == null ){
 			return null;
 		}
@@ -1351,6 +1618,93 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		return builder.toString();
 	}
 	
+	/**
+	 * Observes all the {@link DockStation}s that are registered at the {@link DockController} and
+	 * marks the locations of the {@link Dockable}s whose position changes as dirty.
+	 * @author Benjamin Sigg
+	 */
+	private class LocationObserver extends DockRegisterAdapter{
+		/** the controller whose stations are observed */
+		private DockController controller;
+		
+		/** the listener added to each {@link DockStation} */
+		private DockStationAdapter stationListener = new DockStationAdapter(){
+			@Override
+			public void dockableAdded( DockStation station, Dockable dockable ){
+				invalidateChildren( station );
+				invalidateLocation( dockable );
+			}
+			
+			@Override
+			public void dockableRemoved( DockStation station, Dockable dockable ){
+				invalidateChildren( station );
+				invalidateLocation( dockable );
+			}
+			
+			@Override
+			public void dockablesRepositioned( DockStation station, Dockable[] dockables ){
+				for( Dockable dockable : dockables ){
+					invalidateLocation( dockable );
+				}
+			}
+		};
+		
+		/**
+		 * Starts observing the stations of <code>controller</code>.
+		 * @param controller the new controller, can be <code>null</code>
+		 */
+		public void connect( DockController controller ){
+			if( this.controller != null ){
+				DockRegister register = this.controller.getRegister();
+				register.removeDockRegisterListener( this );
+				for( DockStation station : register.listDockStations() ){
+					station.removeDockStationListener( stationListener );
+				}
+			}
+			this.controller = controller;
+			if( controller != null ){
+				DockRegister register = controller.getRegister();
+				register.addDockRegisterListener( this );
+				for( DockStation station : register.listDockStations() ){
+					station.addDockStationListener( stationListener );
+				}
+			}
+			invalidateLocations();
+		}
+		
+		/**
+		 * Marks the locations of all children of <code>station</code> as dirty.
+		 * @param station the station whose children moved
+		 */
+		private void invalidateChildren( DockStation station ){
+			for( int i = 0, n = station.getDockableCount(); i < n; i++ ){
+				invalidateLocation( station.getDockable( i ) );
+			}
+		}
+		
+		@Override
+		public void dockStationRegistered( DockController controller, DockStation station ){
+			station.addDockStationListener( stationListener );
+			invalidateLocations();
+		}
+		
+		@Override
+		public void dockStationUnregistered( DockController controller, DockStation station ){
+			station.removeDockStationListener( stationListener );
+			invalidateLocations();
+		}
+		
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			invalidateLocation( dockable );
+		}
+		
+		@Override
+		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			invalidateLocation( dockable );
+		}
+	}
+	
 	/**
 	 * A wrapper around a mode, giving access to its properties. The mode
 	 * inside this wrapper can be replaced any time.
@@ -1385,6 +1739,18 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         /** if <code>true</code>, then this entry is not deleted automatically */
         private boolean empty = false;
         
+        /** whether {@link #dockable} may have moved since its location was stored the last time */
+        private boolean dirty = true;
+        
+        /** the mode under which the location of {@link #dockable} was stored the last time */
+        private Path storedMode;
+        
+        /** the location that was stored the last time */
+        private H storedLocation;
+        
+        /** the last time in milliseconds when this entry was detached from its {@link Dockable} or recreated */
+        private long lastUsed;
+        
         /**
          * Creates a new entry
          * @param dockable the element whose properties are stores in this entry
@@ -1474,6 +1840,23 @@ public abstract class ModeManager<H, M extends Mode<H>> {
                 return getAccess( history.get( history.size()-1 ) );
         }
         
+        /**
+         * Replaces the identifiers of the modes and the history objects of this entry by
+         * shared instances.
+         */
+        public void compact(){
+        	ListIterator<Path> iter = history.listIterator();
+        	while( iter.hasNext() ){
+        		iter.set( intern( iter.next() ) );
+        	}
+        	
+        	Map<Path, H> compacted = new HashMap<Path, H>();
+        	for( Map.Entry<Path, H> entry : properties.entrySet() ){
+        		compacted.put( intern( entry.getKey() ), ModeManager.this.compact( entry.getValue() ) );
+        	}
+        	properties = compacted;
+        }
+        
         /**
          * Gets the id of the current mode (if any).
          * @return the id or <code>null</code>
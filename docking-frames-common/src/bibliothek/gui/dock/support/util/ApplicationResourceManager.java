@@ -27,11 +27,16 @@ package bibliothek.gui.dock.support.util;
 
 import java.io.*;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.prefs.Preferences;
 
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
 
 /**
  * Manages a set of {@link ApplicationResource}s, can load and store the
@@ -41,7 +46,12 @@ import bibliothek.util.xml.XElement;
  * stream of bytes belongs to which resource. If data is loaded, the byte-streams
  * for missing resources will be stored in a buffer that is read as soon as
  * a missing resource is registered. Additional resources are ignored.<br>
- * Note that there is no order how the resources are stored in the file. 
+ * Note that there is no order how the resources are stored in the file.<br>
+ * Besides the plain formats, the resources can be stored in a segmented file using
+ * {@link #writeSegmentedFile(File)}. Each resource gets its own segment in such a file, and only
+ * the segments of resources whose content changed are written again. Segments of resources that
+ * are not yet registered are only read once the resource is {@link #put(String, ApplicationResource) put}
+ * into this manager.
  * @author Benjamin Sigg
  *
  */
@@ -52,6 +62,12 @@ public class ApplicationResourceManager {
     /** buffer for streams which are not yet read */
     private Map<String, Object> buffer = new HashMap<String, Object>();
     
+    /** the segmented file that was last read or written, can be <code>null</code> */
+    private SegmentedResourceFile segmentedFile;
+    
+    /** the names of the registered resources whose segment could not be read */
+    private Set<String> unreadSegments = new HashSet<String>();
+    
     /**
      * Stores a resource that might be read or written at any time. If a stream
      * was already read by this manager, and if there was an entry in that stream
@@ -62,7 +78,9 @@ public class ApplicationResourceManager {
      * @throws NullPointerException if <code>name</code> of <code>resource</code>
      * is <code>null</code>
      * @throws IOException if the buffered stream can't be read. The resource
-     * will be stored in this manager even if an exception occurs
+     * will be stored in this manager even if an exception occurs. If the stream was a segment
+     * of a {@link #readSegmentedFile(File) segmented file}, then {@link #writeSegmentedFile(File)}
+     * refuses to write until the file is read again or the resource is removed
      */
     public void put( String name, ApplicationResource resource ) throws IOException{
         if( name == null )
@@ -71,7 +89,11 @@ public class ApplicationResourceManager {
             throw new NullPointerException( "resource must not be null" );
         
         resources.put( name, resource );
+        unreadSegments.remove( name );
         Object buffered = buffer.get( name );
+        if( buffered instanceof SegmentedResourceFile.Segment ){
+            buffered = readSegment( name, (SegmentedResourceFile.Segment)buffered );
+        }
         if( buffered != null ){
             if( buffered instanceof byte[] ){
                 ByteArrayInputStream in = new ByteArrayInputStream( (byte[])buffered );
@@ -91,6 +113,7 @@ public class ApplicationResourceManager {
      */
     public void remove( String name ){
         resources.remove( name );
+        unreadSegments.remove( name );
     }
     
     /**
@@ -122,6 +145,9 @@ public class ApplicationResourceManager {
         
         for( Map.Entry<String, Object> unknownResource : buffer.entrySet() ){
         	Object value = unknownResource.getValue();
+        	if( value instanceof SegmentedResourceFile.Segment ){
+        		value = ((SegmentedResourceFile.Segment)value).read();
+        	}
         	if( value instanceof byte[] ){
         		byte[] array = (byte[])value;
         		
@@ -197,6 +223,69 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Writes the content of this manager in xml format into the element that is currently
+     * open in <code>writer</code>. The output is the same as the output of {@link #writeXML(XElement)},
+     * but each resource is written before the next resource is converted. {@link StreamingApplicationResource}s
+     * write their content directly into <code>writer</code>.
+     * @param writer the writer to write into
+     * @throws IOException if <code>writer</code> throws an exception
+     */
+    public void writeXML( XElementWriter writer ) throws IOException{
+        for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
+            XElement xresource = new XElement( "resource" );
+            xresource.addString( "name", resource.getKey() );
+            if( resource.getValue() instanceof StreamingApplicationResource ){
+                writer.open( xresource );
+                ((StreamingApplicationResource)resource.getValue()).writeXML( writer );
+                writer.close();
+            }
+            else{
+                resource.getValue().writeXML( xresource );
+                writer.write( xresource );
+            }
+        }
+        
+        for( Map.Entry<String, Object> unknownResource : buffer.entrySet() ){
+        	Object value = unknownResource.getValue();
+        	if( value instanceof XElement ){
+        		writer.write( (XElement)value );
+        	}
+        }
+    }
+    
+    /**
+     * Reads the contents of this manager from the element that is currently open in <code>reader</code>.
+     * The result is the same as if {@link #readXML(XElement)} was called, but {@link StreamingApplicationResource}s
+     * read their content directly from <code>reader</code>. Afterwards all the children of the open element
+     * are consumed, but the element itself is not {@link XElementReader#close() closed}.
+     * @param reader the reader to read from
+     * @throws IOException if <code>reader</code> throws an exception
+     */
+    public void readXML( XElementReader reader ) throws IOException{
+        XElement next;
+        while( (next = reader.peek()) != null ){
+            if( "resource".equals( next.getName() )){
+                String name = next.getString( "name" );
+                ApplicationResource resource = resources.get( name );
+                if( resource instanceof StreamingApplicationResource ){
+                    reader.open();
+                    ((StreamingApplicationResource)resource).readXML( reader );
+                    reader.close();
+                }
+                else if( resource != null ){
+                    resource.readXML( reader.read() );
+                }
+                else{
+                    buffer.put( name, reader.read() );
+                }
+            }
+            else{
+                reader.skip();
+            }
+        }
+    }
+    
     /**
      * Writes the contents of this manager into <code>file</code>.
      * @param file the file to write into
@@ -227,6 +316,120 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Writes the contents of this manager into <code>file</code> using a segmented format. Each
+     * resource is stored in its own segment, together with its length and checksum. If <code>file</code>
+     * was last read or written by this manager, then only the segments of resources whose content
+     * changed are appended to the file. Once the file contains too many outdated segments, or if the
+     * file was modified by someone else, the whole file is written again.<br>
+     * Note that all the resources still have to {@link ApplicationResource#write(DataOutputStream) write}
+     * their content, the checksums of their content tell whether they changed.
+     * @param file the file to write into
+     * @throws IOException if the operation can't be completed, or if the segment of a registered
+     * resource could not be read earlier, or if a segment of an unknown resource is no longer available.
+     * The file is not modified in the latter two cases
+     */
+    public void writeSegmentedFile( File file ) throws IOException{
+        SegmentedResourceFile segmented = segmentedFile( file );
+        
+        if( !unreadSegments.isEmpty() ){
+            String name = unreadSegments.iterator().next();
+            throw new IOException( "the segment of resource '" + name + "' could not be read, writing would replace its content" );
+        }
+        
+        Map<String, byte[]> content = new LinkedHashMap<String, byte[]>();
+        Set<String> keep = new HashSet<String>();
+        
+        for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
+            ByteArrayOutputStream array = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream( array );
+            resource.getValue().write( data );
+            data.close();
+            content.put( resource.getKey(), array.toByteArray() );
+        }
+        
+        for( Map.Entry<String, Object> unknownResource : buffer.entrySet() ){
+            Object value = unknownResource.getValue();
+            if( value instanceof byte[] ){
+                content.put( unknownResource.getKey(), (byte[])value );
+            }
+            else if( value instanceof SegmentedResourceFile.Segment ){
+                keep.add( unknownResource.getKey() );
+            }
+        }
+        
+        segmented.write( content, keep );
+    }
+    
+    /**
+     * Reads the contents of this manager from <code>file</code>, a file that was written by
+     * {@link #writeSegmentedFile(File)}. Resources that are already registered read their segments
+     * immediately, all other segments are only read when their resource is
+     * {@link #put(String, ApplicationResource) put} into this manager.
+     * @param file the file to read
+     * @throws IOException if the operation can't be completed, e.g. because a checksum does not match
+     */
+    public void readSegmentedFile( File file ) throws IOException{
+        SegmentedResourceFile segmented = segmentedFile( file );
+        segmented.scan();
+        unreadSegments.clear();
+        
+        for( SegmentedResourceFile.Segment segment : segmented.getSegments().values() ){
+            String key = segment.getKey();
+            ApplicationResource resource = resources.get( key );
+            if( resource != null ){
+                DataInputStream data = new DataInputStream( new ByteArrayInputStream( readSegment( key, segment ) ) );
+                resource.read( data );
+                data.close();
+            }
+            else
+                buffer.put( key, segment );
+        }
+    }
+    
+    /**
+     * Reads the content of <code>segment</code>. If the segment cannot be read, then the resource
+     * <code>name</code> is marked such that {@link #writeSegmentedFile(File)} does not replace the
+     * segment with the default content of the resource.
+     * @param name the name of the resource whose segment is read
+     * @param segment the segment to read
+     * @return the content of the segment
+     * @throws IOException if the segment cannot be read
+     */
+    private byte[] readSegment( String name, SegmentedResourceFile.Segment segment ) throws IOException{
+        try{
+            return segment.read();
+        }
+        catch( IOException e ){
+            unreadSegments.add( name );
+            throw e;
+        }
+    }
+    
+    /**
+     * Gets the {@link SegmentedResourceFile} which represents <code>file</code>. If the segmented file
+     * that was used until now represents another file, then all the segments which are still
+     * buffered are read.
+     * @param file the file to access
+     * @return the segmented file
+     * @throws IOException if a buffered segment cannot be read
+     */
+    private SegmentedResourceFile segmentedFile( File file ) throws IOException{
+        if( segmentedFile != null && segmentedFile.getFile().equals( file ) ){
+            return segmentedFile;
+        }
+        
+        for( Map.Entry<String, Object> unknownResource : buffer.entrySet() ){
+            Object value = unknownResource.getValue();
+            if( value instanceof SegmentedResourceFile.Segment ){
+                unknownResource.setValue( ((SegmentedResourceFile.Segment)value).read() );
+            }
+        }
+        
+        segmentedFile = new SegmentedResourceFile( file );
+        return segmentedFile;
+    }
+    
     /**
      * Writes the contents of this manager into an array of bytes.
      * @return the contents as stream of bytes
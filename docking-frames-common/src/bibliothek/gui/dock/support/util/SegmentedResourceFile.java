@@ -0,0 +1,544 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2007 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.*;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A file that stores the byte-streams of {@link ApplicationResource}s as independent segments.
+ * Each segment consists of a type, the name of the resource, the length and the checksum of the
+ * content, and the content itself.<br>
+ * The file is a log: if the content of a resource changes, then a new segment is appended to the
+ * file, the old segment remains in the file but is ignored. If a resource is removed, then an empty
+ * segment marks the resource as removed. Once the file contains more unused than used bytes, the file
+ * is compacted, meaning a new file is written that contains only the current segments.<br>
+ * The file may be modified by another writer at any time. Before this object appends segments, it
+ * reads all the segment headers again and makes sure they still match the segments it knows. If a segment
+ * is read, its checksum is verified. If the checksum does not match, the headers are read again and the
+ * segment is searched at its new location. If the content of the segment is no longer available, an
+ * {@link IOException} is thrown and the file is not modified.<br>
+ * This class is used by {@link ApplicationResourceManager#writeSegmentedFile(File)} and
+ * {@link ApplicationResourceManager#readSegmentedFile(File)}.
+ * @author Benjamin Sigg
+ */
+class SegmentedResourceFile {
+    /** the first four bytes of any segmented file */
+    private static final int MAGIC = 0x44465253;
+    /** the version of the format */
+    private static final int FORMAT = 1;
+    /** the number of bytes used by the header of the file */
+    private static final int HEADER_SIZE = 8;
+
+    /** type of a segment that contains the content of a resource */
+    private static final byte SEGMENT = 1;
+    /** type of a segment that marks a resource as removed */
+    private static final byte REMOVED = 2;
+
+    /** the file in which the segments are stored */
+    private final File file;
+
+    /** all the segments that are currently valid */
+    private Map<String, Segment> segments = new LinkedHashMap<String, Segment>();
+
+    /** the length of the file when it was last accessed by this object */
+    private long length = -1;
+    /** the number of bytes of {@link #file} that are no longer used */
+    private long garbage = 0;
+
+    /**
+     * Creates a new segmented file.
+     * @param file the file that is read or written
+     */
+    public SegmentedResourceFile( File file ){
+        if( file == null )
+            throw new NullPointerException( "file must not be null" );
+        this.file = file;
+    }
+
+    /**
+     * Gets the file that is represented by this object.
+     * @return the file, not <code>null</code>
+     */
+    public File getFile(){
+        return file;
+    }
+
+    /**
+     * Gets all the segments that are currently stored in the file.
+     * @return an unmodifiable view of the segments
+     */
+    public Map<String, Segment> getSegments(){
+        return Collections.unmodifiableMap( segments );
+    }
+
+    /**
+     * Tells whether the file was not modified since it was last read or written by this object. This
+     * method reads the headers of all the segments and compares them with the segments known to this object.
+     * @return <code>true</code> if the segments of this object describe the file
+     * @throws IOException if the file cannot be read
+     */
+    public boolean isCurrent() throws IOException{
+        if( length < 0 || !file.exists() || file.length() != length )
+            return false;
+
+        Index index;
+        try{
+            index = readIndex();
+        }
+        catch( FormatException e ){
+            return false;
+        }
+
+        if( index.end != length || index.segments.size() != segments.size() )
+            return false;
+
+        for( Segment segment : segments.values() ){
+            Segment check = index.segments.get( segment.key );
+            if( check == null || !check.isSameLocation( segment ))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the headers of all the segments of the file. The content of the segments is not read.
+     * A segment that is cut off at the end of the file is ignored, such a segment can be the
+     * result of an interrupted write operation.
+     * @throws IOException if the file cannot be read or has the wrong format
+     */
+    public void scan() throws IOException{
+        Index index = readIndex();
+        this.segments = index.segments;
+        this.garbage = index.garbage;
+        this.length = index.end;
+    }
+
+    /**
+     * Reads the headers of all the segments of the file without changing the state of this object.
+     * @return the segments that are currently stored in the file
+     * @throws IOException if the file cannot be read or has the wrong format
+     */
+    private Index readIndex() throws IOException{
+        Map<String, Segment> segments = new LinkedHashMap<String, Segment>();
+        long garbage = 0;
+        long end;
+
+        RandomAccessFile in = new RandomAccessFile( file, "r" );
+        try{
+            long fileLength = in.length();
+            if( fileLength < HEADER_SIZE || in.readInt() != MAGIC )
+                throw new FormatException( "not a segmented resource file: " + file );
+            int format = in.readInt();
+            if( format != FORMAT )
+                throw new FormatException( "unknown format of segmented resource file: " + format );
+
+            end = HEADER_SIZE;
+            try{
+                while( end < fileLength ){
+                    byte type = in.readByte();
+                    String key = in.readUTF();
+                    int contentLength = in.readInt();
+                    long checksum = in.readLong();
+                    long offset = in.getFilePointer();
+
+                    if( contentLength < 0 || offset + contentLength > fileLength )
+                        break;
+
+                    Segment old = segments.remove( key );
+                    if( old != null )
+                        garbage += old.size;
+
+                    long size = offset + contentLength - end;
+                    if( type == SEGMENT ){
+                        segments.put( key, new Segment( key, offset, contentLength, checksum, size ) );
+                    }
+                    else if( type == REMOVED ){
+                        garbage += size;
+                    }
+                    else{
+                        throw new FormatException( "unknown type of segment: " + type );
+                    }
+
+                    in.seek( offset + contentLength );
+                    end = offset + contentLength;
+                }
+            }
+            catch( EOFException e ){
+                // the last segment is not complete, it is ignored
+            }
+        }
+        finally{
+            in.close();
+        }
+
+        Index index = new Index();
+        index.segments = segments;
+        index.garbage = garbage;
+        index.end = end;
+        return index;
+    }
+
+    /**
+     * Reads the headers of the file again and searches the current location of <code>segment</code>.
+     * Afterwards this object describes the file as it is now.
+     * @param segment a segment whose content was not found at its old location
+     * @return <code>true</code> if a segment with the same name and the same content was found,
+     * in which case <code>segment</code> now points to its new location
+     * @throws IOException if the file cannot be read
+     */
+    private boolean relocate( Segment segment ) throws IOException{
+        scan();
+        Segment current = segments.get( segment.key );
+        if( current == null || current.length != segment.length || current.checksum != segment.checksum )
+            return false;
+
+        segment.set( current );
+        segments.put( segment.key, segment );
+        return true;
+    }
+
+    /**
+     * Updates the file such that it contains exactly the segments of <code>content</code> and <code>keep</code>.
+     * Only segments whose content changed are appended to the file. If the file was modified by someone
+     * else, or if the file contains too many unused bytes, then the whole file is rewritten.
+     * @param content the content of the resources, resources with an unchanged checksum are not written
+     * @param keep the names of segments that are not part of <code>content</code> but must remain in the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write( Map<String, byte[]> content, Set<String> keep ) throws IOException{
+        if( !isCurrent() ){
+            compact( content, keep );
+            return;
+        }
+
+        ByteArrayOutputStream array = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( array );
+
+        Map<String, Segment> appended = new HashMap<String, Segment>();
+        long newGarbage = garbage;
+
+        for( Map.Entry<String, byte[]> entry : content.entrySet() ){
+            String key = entry.getKey();
+            byte[] bytes = entry.getValue();
+            long checksum = checksum( bytes );
+
+            Segment old = segments.get( key );
+            if( old == null || old.length != bytes.length || old.checksum != checksum ){
+                if( old != null )
+                    newGarbage += old.size;
+                long start = length + out.size();
+                long offset = start + writeHeader( out, SEGMENT, key, bytes.length, checksum );
+                out.write( bytes );
+                appended.put( key, new Segment( key, offset, bytes.length, checksum, offset + bytes.length - start ));
+            }
+        }
+
+        for( Segment segment : segments.values() ){
+            if( !content.containsKey( segment.key ) && !keep.contains( segment.key )){
+                newGarbage += segment.size;
+                newGarbage += writeHeader( out, REMOVED, segment.key, 0, 0 );
+            }
+        }
+        out.close();
+
+        if( array.size() == 0 )
+            return;
+
+        long newLength = length + array.size();
+        if( newGarbage * 2 > newLength - HEADER_SIZE ){
+            compact( content, keep );
+            return;
+        }
+
+        RandomAccessFile file = new RandomAccessFile( this.file, "rw" );
+        try{
+            file.seek( length );
+            file.write( array.toByteArray() );
+        }
+        finally{
+            file.close();
+        }
+
+        for( Iterator<Segment> iterator = segments.values().iterator(); iterator.hasNext(); ){
+            Segment segment = iterator.next();
+            if( !content.containsKey( segment.key ) && !keep.contains( segment.key ))
+                iterator.remove();
+        }
+        for( Segment segment : appended.values() ){
+            Segment old = segments.get( segment.key );
+            if( old == null )
+                segments.put( segment.key, segment );
+            else
+                old.set( segment );
+        }
+
+        garbage = newGarbage;
+        length = newLength;
+    }
+
+    /**
+     * Writes a new file that contains exactly the segments of <code>content</code> and <code>keep</code>.
+     * The new file is first written into a temporary file, which then replaces the old file. The
+     * segments of <code>keep</code> are read before anything is written: if one of them is no longer
+     * available, an exception is thrown and the file remains unchanged.
+     * @param content the content of the resources
+     * @param keep the names of segments that are not part of <code>content</code> but must remain in the file
+     * @throws IOException if the file cannot be written
+     */
+    public void compact( Map<String, byte[]> content, Set<String> keep ) throws IOException{
+        Map<String, byte[]> all = new LinkedHashMap<String, byte[]>();
+        for( String key : keep ){
+            Segment segment = segments.get( key );
+            if( segment != null && !content.containsKey( key ))
+                all.put( key, segment.read() );
+        }
+        all.putAll( content );
+
+        File temp = new File( file.getPath() + ".tmp" );
+        Map<String, Segment> written = new LinkedHashMap<String, Segment>();
+
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( temp )));
+        try{
+            out.writeInt( MAGIC );
+            out.writeInt( FORMAT );
+
+            for( Map.Entry<String, byte[]> entry : all.entrySet() ){
+                byte[] bytes = entry.getValue();
+                long checksum = checksum( bytes );
+                long start = out.size();
+                long offset = start + writeHeader( out, SEGMENT, entry.getKey(), bytes.length, checksum );
+                out.write( bytes );
+                written.put( entry.getKey(), new Segment( entry.getKey(), offset, bytes.length, checksum, offset + bytes.length - start ) );
+            }
+        }
+        finally{
+            out.close();
+        }
+
+        if( !temp.renameTo( file )){
+            if( !file.delete() || !temp.renameTo( file )){
+                temp.delete();
+                throw new IOException( "cannot replace " + file );
+            }
+        }
+
+        // update the existing segments, they may be referenced by an ApplicationResourceManager
+        Map<String, Segment> segments = new LinkedHashMap<String, Segment>();
+        for( Segment segment : written.values() ){
+            Segment old = this.segments.get( segment.key );
+            if( old == null ){
+                segments.put( segment.key, segment );
+            }
+            else{
+                old.set( segment );
+                segments.put( old.key, old );
+            }
+        }
+
+        this.segments = segments;
+        garbage = 0;
+        length = file.length();
+    }
+
+    /**
+     * Writes the header of a segment.
+     * @param out the stream to write into
+     * @param type the type of the segment
+     * @param key the name of the resource
+     * @param length the length of the content
+     * @param checksum the checksum of the content
+     * @return the number of bytes that were written
+     * @throws IOException if the header cannot be written
+     */
+    private int writeHeader( DataOutputStream out, byte type, String key, int length, long checksum ) throws IOException{
+        int size = out.size();
+        out.writeByte( type );
+        out.writeUTF( key );
+        out.writeInt( length );
+        out.writeLong( checksum );
+        return out.size() - size;
+    }
+
+    /**
+     * Calculates the checksum of <code>bytes</code>.
+     * @param bytes the content of a segment
+     * @return the checksum
+     */
+    private static long checksum( byte[] bytes ){
+        CRC32 crc = new CRC32();
+        crc.update( bytes );
+        return crc.getValue();
+    }
+
+    /**
+     * Describes one segment of a {@link SegmentedResourceFile}, the content of the segment is read
+     * only when necessary.
+     * @author Benjamin Sigg
+     */
+    class Segment {
+        /** the name of the resource */
+        private final String key;
+        /** where the content begins in the file */
+        private long offset;
+        /** the number of bytes of the content */
+        private int length;
+        /** the checksum of the content */
+        private long checksum;
+        /** the size of the segment including its header */
+        private long size;
+
+        /**
+         * Creates a new segment.
+         * @param key the name of the resource
+         * @param offset where the content begins in the file
+         * @param length the number of bytes of the content
+         * @param checksum the checksum of the content
+         * @param size the size of the segment including its header
+         */
+        public Segment( String key, long offset, int length, long checksum, long size ){
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+            this.size = size;
+        }
+
+        /**
+         * Copies the location of <code>segment</code> into this segment.
+         * @param segment the new location of this segment
+         */
+        private void set( Segment segment ){
+            offset = segment.offset;
+            length = segment.length;
+            checksum = segment.checksum;
+            size = segment.size;
+        }
+
+        /**
+         * Tells whether <code>segment</code> describes the same bytes of the file as this segment.
+         * @param segment the segment to compare with
+         * @return <code>true</code> if both segments have the same location and content
+         */
+        private boolean isSameLocation( Segment segment ){
+            return offset == segment.offset && length == segment.length && checksum == segment.checksum && size == segment.size;
+        }
+
+        /**
+         * Gets the name of the resource whose content is stored in this segment.
+         * @return the name of the resource
+         */
+        public String getKey(){
+            return key;
+        }
+
+        /**
+         * Gets the file which contains this segment.
+         * @return the owner of this segment
+         */
+        public SegmentedResourceFile getOwner(){
+            return SegmentedResourceFile.this;
+        }
+
+        /**
+         * Reads the content of this segment from the file. If the content is no longer at the
+         * location where it was found, e.g. because another writer compacted the file, then the
+         * segment is searched again.
+         * @return the content
+         * @throws IOException if the file cannot be read or if the content of this segment is no
+         * longer stored in the file
+         */
+        public byte[] read() throws IOException{
+            byte[] bytes = readContent();
+            if( bytes == null ){
+                if( !relocate( this ) )
+                    throw new IOException( "the content of resource '" + key + "' is no longer stored in " + file );
+                bytes = readContent();
+                if( bytes == null )
+                    throw new IOException( "the checksum of resource '" + key + "' does not match" );
+            }
+            return bytes;
+        }
+
+        /**
+         * Reads the content of this segment from its current location.
+         * @return the content or <code>null</code> if the bytes at the location do not match the checksum
+         * @throws IOException if the file cannot be read
+         */
+        private byte[] readContent() throws IOException{
+            byte[] bytes = new byte[ length ];
+            RandomAccessFile in = new RandomAccessFile( file, "r" );
+            try{
+                if( offset + length > in.length() )
+                    return null;
+                in.seek( offset );
+                in.readFully( bytes );
+            }
+            finally{
+                in.close();
+            }
+
+            if( checksum( bytes ) != checksum )
+                return null;
+            return bytes;
+        }
+    }
+
+    /**
+     * The segments that were found while reading the headers of the file.
+     * @author Benjamin Sigg
+     */
+    private class Index {
+        /** all the segments that are currently valid */
+        private Map<String, Segment> segments;
+        /** the number of bytes that are no longer used */
+        private long garbage;
+        /** the end of the last complete segment */
+        private long end;
+    }
+
+    /**
+     * Thrown if the file is not a segmented resource file.
+     * @author Benjamin Sigg
+     */
+    private static class FormatException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Creates a new exception.
+         * @param message the message of the exception
+         */
+        public FormatException( String message ){
+            super( message );
+        }
+    }
+}
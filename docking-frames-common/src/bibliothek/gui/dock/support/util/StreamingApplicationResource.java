@@ -0,0 +1,59 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.IOException;
+
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
+
+/**
+ * An {@link ApplicationResource} which is able to read and write its xml content piece by
+ * piece. The {@link ApplicationResourceManager} uses these methods instead of
+ * {@link #writeXML(XElement)} and {@link #readXML(XElement)} whenever it writes to an
+ * {@link XElementWriter} or reads from an {@link XElementReader}, the content of the resource
+ * then is never completely in memory.
+ * @author Benjamin Sigg
+ */
+public interface StreamingApplicationResource extends ApplicationResource {
+    /**
+     * Writes the contents of this resource in xml format. The output must be the same
+     * as the output of {@link #writeXML(XElement)}.
+     * @param writer the writer to write into, the element that is currently open belongs
+     * to this resource and must not be closed
+     * @throws IOException if <code>writer</code> throws an exception
+     */
+    public void writeXML( XElementWriter writer ) throws IOException;
+    
+    /**
+     * Reads the contents of this resource from the element that is currently open in 
+     * <code>reader</code>. The element itself must not be {@link XElementReader#close() closed}.
+     * @param reader the reader to read from
+     * @throws IOException if <code>reader</code> throws an exception
+     */
+    public void readXML( XElementReader reader ) throws IOException;
+}
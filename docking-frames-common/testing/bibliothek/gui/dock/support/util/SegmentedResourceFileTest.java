@@ -0,0 +1,285 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.util.xml.XElement;
+
+public class SegmentedResourceFileTest {
+	private File file;
+	
+	@Before
+	public void setUp() throws IOException{
+		file = File.createTempFile( "segmented", ".res" );
+		file.delete();
+	}
+	
+	@After
+	public void tearDown(){
+		file.delete();
+		new File( file.getPath() + ".tmp" ).delete();
+	}
+	
+	private static class Text implements ApplicationResource{
+		private String text;
+		
+		public Text( String text ){
+			this.text = text;
+		}
+		
+		public void write( DataOutputStream out ) throws IOException{
+			out.writeUTF( text );
+		}
+		
+		public void read( DataInputStream in ) throws IOException{
+			text = in.readUTF();
+		}
+		
+		public void writeXML( XElement element ){
+			element.setString( text );
+		}
+		
+		public void readXML( XElement element ){
+			text = element.getString();
+		}
+	}
+	
+	private byte[] content() throws IOException{
+		RandomAccessFile in = new RandomAccessFile( file, "r" );
+		try{
+			byte[] bytes = new byte[ (int)in.length() ];
+			in.readFully( bytes );
+			return bytes;
+		}
+		finally{
+			in.close();
+		}
+	}
+	
+	private long offsetOf( String key ) throws IOException{
+		SegmentedResourceFile segmented = new SegmentedResourceFile( file );
+		segmented.scan();
+		SegmentedResourceFile.Segment segment = segmented.getSegments().get( key );
+		Assert.assertNotNull( segment );
+		byte[] bytes = segment.read();
+		byte[] all = content();
+		for( int i = all.length - bytes.length; i >= 0; i-- ){
+			if( Arrays.equals( bytes, Arrays.copyOfRange( all, i, i + bytes.length ))){
+				return i;
+			}
+		}
+		throw new IllegalStateException( "segment not found" );
+	}
+	
+	private ApplicationResourceManager write( String a, String b ) throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.put( "a", new Text( a ) );
+		manager.put( "b", new Text( b ) );
+		manager.writeSegmentedFile( file );
+		return manager;
+	}
+	
+	@Test
+	public void roundTrip() throws IOException{
+		ApplicationResourceManager writer = write( "alpha", "beta" );
+		
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		Text a = new Text( "default" );
+		reader.put( "a", a );
+		reader.readSegmentedFile( file );
+		Text b = new Text( "default" );
+		reader.put( "b", b );
+		Assert.assertEquals( "alpha", a.text );
+		Assert.assertEquals( "beta", b.text );
+		
+		// an unchanged resource is not written again, a changed one is appended
+		long length = file.length();
+		writer.writeSegmentedFile( file );
+		Assert.assertEquals( length, file.length() );
+		writer.put( "a", new Text( "gamma" ) );
+		writer.writeSegmentedFile( file );
+		Assert.assertTrue( file.length() > length );
+		
+		reader = new ApplicationResourceManager();
+		a = new Text( "default" );
+		b = new Text( "default" );
+		reader.put( "a", a );
+		reader.put( "b", b );
+		reader.readSegmentedFile( file );
+		Assert.assertEquals( "gamma", a.text );
+		Assert.assertEquals( "beta", b.text );
+	}
+	
+	@Test
+	public void corruptChecksum() throws IOException{
+		write( "alpha", "beta" );
+		
+		RandomAccessFile out = new RandomAccessFile( file, "rw" );
+		try{
+			long offset = offsetOf( "b" ) + 2;
+			out.seek( offset );
+			out.writeByte( 'X' );
+		}
+		finally{
+			out.close();
+		}
+		byte[] corrupt = content();
+		
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		reader.readSegmentedFile( file );
+		Text b = new Text( "default" );
+		try{
+			reader.put( "b", b );
+			Assert.fail( "checksum not verified" );
+		}
+		catch( IOException e ){
+			// expected
+		}
+		Assert.assertEquals( "default", b.text );
+		
+		try{
+			reader.writeSegmentedFile( file );
+			Assert.fail( "unread segment was overwritten" );
+		}
+		catch( IOException e ){
+			// expected
+		}
+		Assert.assertArrayEquals( corrupt, content() );
+	}
+	
+	@Test
+	public void truncatedFile() throws IOException{
+		write( "alpha", "beta" );
+		
+		RandomAccessFile out = new RandomAccessFile( file, "rw" );
+		try{
+			out.setLength( out.length() - 2 );
+		}
+		finally{
+			out.close();
+		}
+		
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		Text a = new Text( "default" );
+		Text b = new Text( "default" );
+		reader.put( "a", a );
+		reader.put( "b", b );
+		reader.readSegmentedFile( file );
+		Assert.assertEquals( "alpha", a.text );
+		Assert.assertEquals( "default", b.text );
+		
+		out = new RandomAccessFile( file, "rw" );
+		try{
+			out.setLength( 4 );
+		}
+		finally{
+			out.close();
+		}
+		try{
+			reader.readSegmentedFile( file );
+			Assert.fail( "truncated header not detected" );
+		}
+		catch( IOException e ){
+			// expected
+		}
+	}
+	
+	@Test
+	public void compactionByAnotherWriter() throws IOException{
+		write( "alpha", "beta" );
+		
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		reader.put( "a", new Text( "default" ) );
+		reader.readSegmentedFile( file );
+		long oldOffset = offsetOf( "b" );
+		
+		// another writer compacts the file, moving the segment of "b"
+		Map<String, byte[]> content = new LinkedHashMap<String, byte[]>();
+		content.put( "x", new byte[ 100 ] );
+		SegmentedResourceFile other = new SegmentedResourceFile( file );
+		other.scan();
+		content.put( "b", other.getSegments().get( "b" ).read() );
+		other.compact( content, Collections.<String>emptySet() );
+		Assert.assertTrue( offsetOf( "b" ) != oldOffset );
+		
+		Text b = new Text( "default" );
+		reader.put( "b", b );
+		Assert.assertEquals( "beta", b.text );
+		
+		reader.writeSegmentedFile( file );
+		ApplicationResourceManager check = new ApplicationResourceManager();
+		Text checkB = new Text( "default" );
+		check.put( "b", checkB );
+		check.readSegmentedFile( file );
+		Assert.assertEquals( "beta", checkB.text );
+	}
+	
+	@Test
+	public void contentChangedByAnotherWriter() throws IOException{
+		write( "alpha", "beta" );
+		
+		ApplicationResourceManager reader = new ApplicationResourceManager();
+		reader.put( "a", new Text( "default" ) );
+		reader.readSegmentedFile( file );
+		
+		// another writer replaces "b", the segment read earlier is no longer available
+		write( "alpha", "something else" );
+		byte[] written = content();
+		
+		try{
+			reader.writeSegmentedFile( file );
+			Assert.fail( "missing segment not detected" );
+		}
+		catch( IOException e ){
+			// expected
+		}
+		Assert.assertArrayEquals( written, content() );
+		
+		Text b = new Text( "default" );
+		try{
+			reader.put( "b", b );
+			Assert.fail( "missing segment not detected" );
+		}
+		catch( IOException e ){
+			// expected
+		}
+		Assert.assertArrayEquals( written, content() );
+	}
+}
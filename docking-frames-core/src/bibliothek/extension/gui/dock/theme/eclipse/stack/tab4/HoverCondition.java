@@ -35,6 +35,7 @@ import javax.swing.SwingUtilities;
 
 import bibliothek.extension.gui.dock.theme.eclipse.stack.tab.TabComponent;
 import bibliothek.gui.DockController;
+import bibliothek.gui.dock.control.FilteredGlobalMouseDispatcher;
 import bibliothek.gui.dock.control.GlobalMouseDispatcher;
 
 /**
@@ -74,7 +75,12 @@ public class HoverCondition extends TabComponentCondition{
 			if( this.controller != null ){
 				GlobalMouseDispatcher dispatcher = this.controller.getGlobalMouseDispatcher();
 				dispatcher.addMouseListener( listener );
-				dispatcher.addMouseMotionListener( listener );
+				if( dispatcher instanceof FilteredGlobalMouseDispatcher ){
+					((FilteredGlobalMouseDispatcher)dispatcher).addMouseMotionListener( listener, FilteredGlobalMouseDispatcher.MOUSE_MOVED_MASK );
+				}
+				else{
+					dispatcher.addMouseMotionListener( listener );
+				}
 			}
 			invalidate( null );
 		}
@@ -81,6 +81,8 @@ import bibliothek.gui.dock.control.focus.FocusController;
 import bibliothek.gui.dock.control.focus.FocusHistory;
 import bibliothek.gui.dock.control.focus.FocusRequest;
 import bibliothek.gui.dock.control.focus.MouseFocusObserver;
+import bibliothek.gui.dock.control.metrics.DockMetrics;
+import bibliothek.gui.dock.control.relocator.AbstractDockRelocator;
 import bibliothek.gui.dock.event.ControllerSetupListener;
 import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
@@ -198,6 +200,9 @@ public class DockController {
     /** keeps track of all the {@link DockComponentRoot}s in the realm of this controller */
     private DockComponentManager dockComponentManager;
     
+    /** measures how long key operations take */
+    private DockMetrics metrics;
+    
     /** the set of icons used with this controller */
     private IconManager icons;
     /** the set of strings used by this controller */
@@ -358,6 +363,7 @@ public class DockController {
         
         this.factory = factory;
         
+        metrics = new DockMetrics( this );
     	register = factory.createRegister( this, setup );
     	DockRegisterListener focus = factory.createVisibilityFocusObserver( this, setup );
     	if( focus != null )
@@ -449,11 +455,15 @@ public class DockController {
     public void kill(){
     	setRootWindowProvider( null );
     	focusObserver.kill();
+    	if( relocator instanceof AbstractDockRelocator ){
+    		((AbstractDockRelocator)relocator).kill();
+    	}
 	    register.kill();
 	    keyboardController.kill();
 	    theme.kill();
 	    extensions.kill();
 	    mouseDispatcher.kill();
+	    metrics.kill();
     }
     
     /**
@@ -499,6 +509,15 @@ public class DockController {
 		return focusHistory;
 	}
     
+    /**
+     * Gets the object which measures how long key operations of the framework take, e.g. reading a layout. The
+     * metrics are disabled by default and must be enabled by {@link DockMetrics#setEnabled(boolean)}.
+     * @return the metrics, not <code>null</code>
+     */
+    public DockMetrics getMetrics(){
+    	return metrics;
+    }
+    
     /**
      * Grants access to the {@link GlobalMouseDispatcher} which is responsible for collecting and
      * distributing global {@link MouseEvent}s. Clients may use the dispatcher to listen for
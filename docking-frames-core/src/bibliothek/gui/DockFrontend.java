@@ -110,6 +110,8 @@ import bibliothek.util.Todo.Priority;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XAttribute;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
 import bibliothek.util.xml.XException;
 
 /**
@@ -2180,6 +2182,146 @@ public class DockFrontend {
         return setting;
     }
     
+    /**
+     * Writes all properties of this frontend into the element that is currently open in
+     * <code>writer</code>. The output is the same as the output of {@link #writeXML(XElement)},
+     * but each {@link Setting} is written as soon as it is converted.
+     * @param writer the writer to write into
+     * @throws IOException if <code>writer</code> throws an exception
+     */
+    public void writeXML( XElementWriter writer ) throws IOException{
+    	writeBlopXML( writeBlop(), writer );
+    }
+    
+    /**
+     * Writes all the {@link Setting}s of <code>blop</code> into the element that is currently
+     * open in <code>writer</code>. The output is the same as the output of
+     * {@link #writeBlopXML(SettingsBlop, XElement)}.
+     * @param blop the settings to write
+     * @param writer the writer to write into
+     * @throws IOException if <code>writer</code> throws an exception
+     */
+    public void writeBlopXML( SettingsBlop blop, XElementWriter writer ) throws IOException{
+    	String[] names = blop.getNames();
+    	
+    	if( names.length > 0 ){
+    		writer.open( new XElement( "settings" ) );
+            for( String name : names ){
+            	XElement xsetting = new XElement( "setting" );
+                xsetting.addString( "name", name );
+                writer.open( xsetting );
+                writeXML( blop.getSetting( name ), true, writer );
+                writer.close();
+            }
+            writer.close();
+        }
+        
+        XElement xcurrent = new XElement( "current" );
+        String current = blop.getCurrentName();
+        if( current != null )
+            xcurrent.addString( "name", current );
+        
+        writer.open( xcurrent );
+        writeXML( blop.getCurrentSetting(), false, writer );
+        writer.close();
+    }
+    
+    /**
+     * Calls {@link Setting#writeXML(DockSituation, PropertyTransformer, boolean, XElementWriter)}.
+     * @param setting the setting to write
+     * @param entry whether <code>setting</code> is an ordinary entry, or
+     * the final setting that contains more data.
+     * @param writer the writer to write into, the element that is currently open belongs
+     * to <code>setting</code>
+     * @throws IOException if <code>writer</code> throws an exception
+     */
+    protected void writeXML( Setting setting, boolean entry, XElementWriter writer ) throws IOException{
+    	Internals internals = new Internals();
+        DockSituation situation = layoutChangeStrategy.createSituation( internals, entry );
+        PropertyTransformer properties = layoutChangeStrategy.createTransformer( internals );
+        setting.writeXML( situation, properties, entry, writer );
+    }
+    
+    /**
+     * Reads the contents of this frontend from the element that is currently open in
+     * <code>reader</code>. The result is the same as if {@link #readXML(XElement, boolean)}
+     * was called, but the whole xml-tree is never in memory. Afterwards all the children of
+     * the open element are consumed, but the element itself is not {@link XElementReader#close() closed}.
+     * @param reader the reader whose current element is to be read
+     * @param keepExistingSettings whether to keep or to delete (see {@link #deleteAll()}) the
+     * existing settings.
+     * @throws IOException if <code>reader</code> throws an exception
+     */
+    public void readXML( XElementReader reader, boolean keepExistingSettings ) throws IOException{
+    	readBlop( readBlopXML( reader ), keepExistingSettings );
+    }
+    
+    /**
+     * Reads the contents of the element that is currently open in <code>reader</code> using
+     * all the factories installed on this {@link DockFrontend}, without actually changing any
+     * property of this frontend.
+     * @param reader the reader whose current element is to be read
+     * @return all the layouts stored in the element
+     * @throws IOException if <code>reader</code> throws an exception
+     * @see #readBlopXML(XElement)
+     */
+    public SettingsBlop readBlopXML( XElementReader reader ) throws IOException{
+		SettingsBlop blop = new SettingsBlop();
+		boolean settingsRead = false;
+		boolean currentRead = false;
+		
+		XElement next;
+		while( (next = reader.peek()) != null ){
+			if( !settingsRead && "settings".equals( next.getName() )){
+				settingsRead = true;
+				reader.open();
+				XElement xsetting;
+				while( (xsetting = reader.open()) != null ){
+					if( "setting".equals( xsetting.getName() )){
+						String key = xsetting.getString( "name" );
+						blop.put( key, readXML( true, reader ) );
+					}
+					reader.close();
+				}
+				reader.close();
+			}
+			else if( !currentRead && "current".equals( next.getName() )){
+				currentRead = true;
+				XElement xcurrent = reader.open();
+				XAttribute xname = xcurrent.getAttribute( "name" );
+				String name = null;
+				if( xname != null ){
+					name = xname.getString();
+				}
+				blop.setCurrent( name, readXML( false, reader ) );
+				reader.close();
+			}
+			else{
+				reader.skip();
+			}
+		}
+		return blop;
+	}
+	
+    /**
+     * Calls {@link #createSetting()} and then
+     * {@link Setting#readXML(DockSituation, PropertyTransformer, boolean, XElementReader)}.
+     * @param entry whether the set of properties is used as ordinary entry,
+     * or contains more data than usual.
+     * @param reader the reader whose current element contains the data for the new setting
+     * @return the new setting
+     * @throws IOException if <code>reader</code> throws an exception
+     * @see #createSetting()
+     */
+    protected Setting readXML( boolean entry, XElementReader reader ) throws IOException{
+        Setting setting = createSetting();
+        Internals internals = new Internals();
+        DockSituation situation = layoutChangeStrategy.createSituation( internals, entry );
+        PropertyTransformer properties = layoutChangeStrategy.createTransformer( internals );
+        setting.readXML( situation, properties, entry, reader );
+        return setting;
+    }
+    
     /**
      * Stores all the current {@link Setting}s of this {@link DockFrontend} in a new {@link SettingsBlop}.
      * @return the blop that contains all the settings of this frontend
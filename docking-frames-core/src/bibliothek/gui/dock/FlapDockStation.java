@@ -64,6 +64,7 @@ import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.disable.DisablingStrategyListener;
 import bibliothek.gui.dock.displayer.DisplayerCombinerTarget;
 import bibliothek.gui.dock.event.DockStationAdapter;
+import bibliothek.gui.dock.event.DockStationListener;
 import bibliothek.gui.dock.event.DockableAdapter;
 import bibliothek.gui.dock.event.DockableFocusEvent;
 import bibliothek.gui.dock.event.DockableFocusListener;
@@ -931,6 +932,8 @@ public class FlapDockStation extends AbstractDockableStation {
     /**
      * Updates the hold property of <code>dockable</code>.
      * The new value is provided by the {@link FlapLayoutManager layout manager}.
+     * Since the hold property is part of the {@link FlapDockProperty} of <code>dockable</code>,
+     * {@link DockStationListener}s are informed that <code>dockable</code> was repositioned.
      * @param dockable the element whose property is updated
      */
     public void updateHold( Dockable dockable ){
@@ -938,6 +941,11 @@ public class FlapDockStation extends AbstractDockableStation {
     	if( manager != null ){
     		boolean hold = manager.isHold( this, dockable );
     		fireHoldChanged( dockable, hold );
+    		
+    		int index = indexOf( dockable );
+    		if( index >= 0 ){
+    			fireDockablesRepositioned( index, index );
+    		}
 
     		if( !hold && getController() != null && getFrontDockable() == dockable ){
     			if( !getController().isFocused( dockable ))
@@ -1062,12 +1070,19 @@ public class FlapDockStation extends AbstractDockableStation {
     /**
      * Updates the size of the window if <code>dockable</code> is currently
      * shown. The new size is provided by the {@link FlapLayoutManager layout manager}.
+     * Since the size is part of the {@link FlapDockProperty} of <code>dockable</code>,
+     * {@link DockStationListener}s are informed that <code>dockable</code> was repositioned.
      * @param dockable the element whose size should be updated
      */
     public void updateWindowSize( Dockable dockable ){
         if( getFrontDockable() == dockable ){
             updateWindowBounds();
         }
+        
+        int index = indexOf( dockable );
+        if( index >= 0 ){
+        	fireDockablesRepositioned( index, index );
+        }
     }
     
     /**
@@ -40,6 +40,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -65,6 +66,7 @@ import bibliothek.gui.dock.action.LocationHint;
 import bibliothek.gui.dock.component.DefaultDockStationComponentRootHandler;
 import bibliothek.gui.dock.component.DockComponentConfiguration;
 import bibliothek.gui.dock.component.DockComponentRootHandler;
+import bibliothek.gui.dock.control.metrics.DockMetrics;
 import bibliothek.gui.dock.control.relocator.Merger;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.disable.DisablingStrategyListener;
@@ -366,6 +368,9 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 
 	/** The list of {@link Dockable Dockables} which are shown on this station */
 	private List<StationChildHandle> dockables = new ArrayList<StationChildHandle>();
+	
+	/** The index of each {@link Dockable} in {@link #dockables}, <code>null</code> if the index needs to be rebuilt */
+	private Map<Dockable, Integer> dockableIndices = new IdentityHashMap<Dockable, Integer>();
 
 	/** The {@link Dockable} which has the focus */
 	private Dockable frontDockable;
@@ -2717,6 +2722,24 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		return combiner;
 	}
 
+	@Override
+	public void paint( Graphics g ){
+		DockController controller = getController();
+		if( controller == null ){
+			super.paint( g );
+		}
+		else{
+			DockMetrics metrics = controller.getMetrics();
+			long measure = metrics.start();
+			try{
+				super.paint( g );
+			}
+			finally{
+				metrics.stop( DockMetrics.STATION_PAINT, measure );
+			}
+		}
+	}
+	
 	@Override
 	protected void paintOverlay( Graphics g ){
 		if( putInfo != null && !putInfo.willHaveNoEffect() ) {
@@ -2908,6 +2931,9 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			}
 	
 			dockables.add(handle);
+			if( dockableIndices != null ){
+				dockableIndices.put( dockable, dockables.size()-1 );
+			}
 			dockable.setDockParent(this);
 	
 			handle.updateDisplayer();
@@ -2958,11 +2984,17 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @return the index or -1 if the child was not found
 	 */
 	public int indexOfDockable( Dockable dockable ){
-		for( int i = 0, n = dockables.size(); i < n; i++ )
-			if( dockables.get(i).getDockable() == dockable )
-				return i;
-
-		return -1;
+		if( dockableIndices == null ){
+			dockableIndices = new IdentityHashMap<Dockable, Integer>();
+			for( int i = 0, n = dockables.size(); i < n; i++ ){
+				dockableIndices.put( dockables.get( i ).getDockable(), i );
+			}
+		}
+		
+		Integer index = dockableIndices.get( dockable );
+		if( index == null )
+			return -1;
+		return index;
 	}
 
 	/**
@@ -3108,6 +3140,15 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 				dockStationListeners.fireDockableRemoving(dockable);
 	
 			dockables.remove(index);
+			if( index == dockables.size() ){
+				if( dockableIndices != null ){
+					dockableIndices.remove( dockable );
+				}
+			}
+			else{
+				// all the following dockables got a new index
+				dockableIndices = null;
+			}
 	
 			DockableDisplayer displayer = handle.getDisplayer();
 	
@@ -3155,42 +3196,11 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @param id the id to search
 	 * @return the node with the id <code>id</code>
 	 */
-	public SplitNode getNode( final long id ){
-		class Visitor implements SplitNodeVisitor {
-			private SplitNode result;
-
-			public void handleRoot( Root root ){
-				if( root.getId() == id ) {
-					result = root;
-				}
-			}
-
-			public void handleLeaf( Leaf leaf ){
-				if( leaf.getId() == id ) {
-					result = leaf;
-				}
-			}
-
-			public void handlePlaceholder( Placeholder placeholder ){
-				if( placeholder.getId() == id ) {
-					result = placeholder;
-				}
-			}
-
-			public void handleNode( Node node ){
-				if( node.getId() == id ) {
-					result = node;
-				}
-			}
-		}
-		;
-
+	public SplitNode getNode( long id ){
 		if( root == null )
 			return null;
 
-		Visitor visitor = new Visitor();
-		getRoot().visit(visitor);
-		return visitor.result;
+		return access.getNode( id );
 	}
 
 	public String getFactoryID(){
@@ -3362,6 +3372,9 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		private Set<Dockable> repositioned = new HashSet<Dockable>();
 		private Dockable dockableSelected = null;
 		
+		/** the nodes of the tree of this station by their unique identifier, may contain outdated entries */
+		private Map<Long, SplitNode> nodes = new HashMap<Long, SplitNode>();
+		
 		public StationChildHandle getFullScreenDockable(){
 			return fullScreenDockable;
 		}
@@ -3492,6 +3505,31 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			return id;
 		}
 
+		/**
+		 * Searches the node whose {@link SplitNode#getId() id} equals <code>id</code>. The nodes are
+		 * cached, the cache is only rebuilt if it does not contain <code>id</code> or if the cached node
+		 * is no longer part of the tree or has another id. Moving nodes around does not cost anything.
+		 * @param id the id to search
+		 * @return the node with the id <code>id</code> or <code>null</code>
+		 */
+		public SplitNode getNode( long id ){
+			SplitNode node = nodes.get( id );
+			if( node != null && node.getId() == id && node.getRoot() == root ){
+				return node;
+			}
+			
+			nodes.clear();
+			if( root == null ){
+				return null;
+			}
+			root.visit( new NodeVisitor(){
+				protected void handle( SplitNode node ){
+					nodes.put( node.getId(), node );
+				}
+			});
+			return nodes.get( id );
+		}
+
 		public boolean isTreeAutoCleanupEnabled(){
 			return treeLock == 0;
 		}
@@ -3541,4 +3579,32 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			SplitDockStation.this.move( putInfo, item );
 		}
 	}
+	
+	/**
+	 * A {@link SplitNodeVisitor} that handles all kinds of nodes the same way.
+	 * @author Benjamin Sigg
+	 */
+	private static abstract class NodeVisitor implements SplitNodeVisitor{
+		/**
+		 * Called for each node that is visited.
+		 * @param node the visited node
+		 */
+		protected abstract void handle( SplitNode node );
+		
+		public void handleRoot( Root root ){
+			handle( root );
+		}
+		
+		public void handleNode( Node node ){
+			handle( node );
+		}
+		
+		public void handleLeaf( Leaf leaf ){
+			handle( leaf );
+		}
+		
+		public void handlePlaceholder( Placeholder placeholder ){
+			handle( placeholder );
+		}
+	}
 }
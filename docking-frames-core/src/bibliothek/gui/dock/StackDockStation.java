@@ -55,6 +55,7 @@ import bibliothek.gui.dock.component.DefaultDockStationComponentRootHandler;
 import bibliothek.gui.dock.component.DockComponentRootHandler;
 import bibliothek.gui.dock.control.focus.DefaultFocusRequest;
 import bibliothek.gui.dock.control.focus.FocusController;
+import bibliothek.gui.dock.control.metrics.DockMetrics;
 import bibliothek.gui.dock.displayer.DisplayerCombinerTarget;
 import bibliothek.gui.dock.displayer.DockableDisplayerHints;
 import bibliothek.gui.dock.event.DockStationAdapter;
@@ -1770,6 +1771,24 @@ public class StackDockStation extends AbstractDockableStation implements StackDo
         	}
         }
         
+        @Override
+        public void paint( Graphics g ){
+        	DockController controller = getController();
+        	if( controller == null ){
+        		super.paint( g );
+        	}
+        	else{
+        		DockMetrics metrics = controller.getMetrics();
+        		long measure = metrics.start();
+        		try{
+        			super.paint( g );
+        		}
+        		finally{
+        			metrics.stop( DockMetrics.STATION_PAINT, measure );
+        		}
+        	}
+        }
+        
         @Override
         protected void paintOverlay( Graphics g ) {
             DefaultStationPaintValue paint = getPaint();
@@ -27,15 +27,21 @@
 package bibliothek.gui.dock.action;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import bibliothek.gui.dock.action.actions.SeparatorAction;
 import bibliothek.gui.dock.event.DockActionSourceListener;
 
 /**
  * A {@link DockActionSource} that combines various sources in one source.
- * This source behaves like a list of {@link DockActionSource DockActionSources}.
+ * This source behaves like a list of {@link DockActionSource DockActionSources}.<br>
+ * While this source has listeners it keeps a flattened copy of all the actions of
+ * its children, the copy is thrown away whenever a child reports a change. Without
+ * listeners no events are received from the children and every lookup is computed
+ * anew.
  * @author Benjamin Sigg
  */
 public class MultiDockActionSource extends AbstractDockActionSource {
@@ -46,6 +52,15 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     private boolean separateSources = false;
     private LocationHint hint;
     
+    /** all the actions of all the children, <code>null</code> if not yet collected */
+    private DockAction[] flatActions;
+    /** for each entry in {@link #flatActions} the index of the child it belongs to */
+    private int[] flatSources;
+    /** for each child the number of actions of all the children in front of it, has one additional entry for the total */
+    private int[] flatOffsets;
+    /** the first index of each action in {@link #flatActions} */
+    private Map<DockAction, Integer> flatIndices;
+    
     /**
      * Constructs a new source. The <code>sources</code> are added as children
      * of this source.
@@ -113,6 +128,7 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     	boolean empty = listeners.isEmpty();
     	super.addDockActionSourceListener( listener );
     	if( empty && !listeners.isEmpty() ){
+    		invalidate();
     		for( DockActionSource source : sources )
     			source.addDockActionSourceListener( this.listener );
     		updateSeparators();
@@ -126,6 +142,7 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     	if( !empty && listeners.isEmpty() ){
     		for( DockActionSource source : sources )
     			source.removeDockActionSourceListener( this.listener );
+    		invalidate();
     	}
     }
     
@@ -185,6 +202,7 @@ public class MultiDockActionSource extends AbstractDockActionSource {
         sources.add( source );
         sources.add( separator );
         separators.add( separator );
+        invalidate();
         
         if( !listeners.isEmpty() ){
         	source.addDockActionSourceListener( listener );
@@ -216,6 +234,7 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     	sources.remove( index+1 );
     	sources.remove( index );
     	separators.remove( separator );
+    	invalidate();
     	
     	if( !listeners.isEmpty() ){
     		source.removeDockActionSourceListener( listener );
@@ -223,7 +242,7 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     	}
     	
     	if( length > 0 ){
-    		fireRemoved( actionIndex, index+length-1 );
+    		fireRemoved( actionIndex, actionIndex+length-1 );
     	}
     	
     	updateSeparators();
@@ -244,6 +263,7 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     	}
     	separators.clear();
     	sources.clear();
+    	invalidate();
     	
     	if( length > 0 ){
     		fireRemoved( 0, length-1 );
@@ -259,15 +279,32 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     }
     
     public int getDockActionCount(){
+    	if( ensureFlattened() ){
+    		return flatActions.length;
+    	}
         return getDockActionCountUntil( sources.size(), true );
     }
     
+    @Override
+    public int indexOf( DockAction action ){
+    	if( ensureFlattened() ){
+    		Integer index = flatIndices.get( action );
+    		return index == null ? -1 : index.intValue();
+    	}
+    	return super.indexOf( action );
+    }
+    
     /**
      * Gets the index of the child-source which contains <code>action</code>.
      * @param action the action for which is searched
      * @return the index of the source which contains the action or -1
      */
     protected int getSource( DockAction action ){
+    	if( ensureFlattened() ){
+    		Integer index = flatIndices.get( action );
+    		return index == null ? -1 : flatSources[ index.intValue() ];
+    	}
+    	
         for( int i = 0, n = sources.size(); i<n; i++ ){
             DockActionSource source = sources.get( i );
             for( int j = 0, m = source.getDockActionCount(); j<m; j++ ){
@@ -292,6 +329,12 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     	if( allowUpdate && listeners.isEmpty() )
     		updateSeparators();
     	
+    	if( ensureFlattened() ){
+    		if( index <= 0 )
+    			return 0;
+    		return flatOffsets[ Math.min( index, sources.size() ) ];
+    	}
+    	
         int sum = 0;
         
         for( int i = 0; i < index; i++ )
@@ -304,6 +347,12 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     	if( listeners.isEmpty() )
     		updateSeparators();
     	
+    	if( ensureFlattened() ){
+    		if( index < 0 || index >= flatActions.length )
+    			throw new ArrayIndexOutOfBoundsException( index );
+    		return flatActions[ index ];
+    	}
+    	
     	int sum = 0;
         for( int i = 0, n = sources.size(); i<n; i++ ){
             int length = sources.get( i ).getDockActionCount();
@@ -316,6 +365,61 @@ public class MultiDockActionSource extends AbstractDockActionSource {
         throw new ArrayIndexOutOfBoundsException();
     }
     
+    /**
+     * Throws away the flattened list of actions, the list will be collected
+     * again the next time it is needed.
+     */
+    private void invalidate(){
+    	flatActions = null;
+    	flatSources = null;
+    	flatOffsets = null;
+    	flatIndices = null;
+    }
+    
+    /**
+     * Makes sure that the flattened list of actions is up to date. The list can only be
+     * used while this source is observed, otherwise changes of the children would go
+     * unnoticed.
+     * @return <code>true</code> if the flattened list can be used, <code>false</code> if
+     * the actions have to be searched in the children
+     */
+    private boolean ensureFlattened(){
+    	if( listeners.isEmpty() ){
+    		return false;
+    	}
+    	if( flatActions == null ){
+    		int count = sources.size();
+    		int[] offsets = new int[ count+1 ];
+    		for( int i = 0; i < count; i++ ){
+    			offsets[i+1] = offsets[i] + sources.get( i ).getDockActionCount();
+    		}
+    		
+    		int total = offsets[ count ];
+    		DockAction[] actions = new DockAction[ total ];
+    		int[] owners = new int[ total ];
+    		Map<DockAction, Integer> indices = new IdentityHashMap<DockAction, Integer>( total );
+    		
+    		for( int i = 0; i < count; i++ ){
+    			DockActionSource source = sources.get( i );
+    			for( int j = 0, n = offsets[i+1] - offsets[i]; j < n; j++ ){
+    				int index = offsets[i] + j;
+    				DockAction action = source.getDockAction( j );
+    				actions[ index ] = action;
+    				owners[ index ] = i;
+    				if( !indices.containsKey( action )){
+    					indices.put( action, index );
+    				}
+    			}
+    		}
+    		
+    		flatOffsets = offsets;
+    		flatSources = owners;
+    		flatIndices = indices;
+    		flatActions = actions;
+    	}
+    	return true;
+    }
+    
     /**
      * Ensures that all separators which must be visible are really visible.
      */
@@ -334,12 +438,14 @@ public class MultiDockActionSource extends AbstractDockActionSource {
      */
     private class Listener implements DockActionSourceListener{
         public void actionsAdded( DockActionSource source, int firstIndex, int lastIndex ) {
+        	invalidate();
             int index = getDockActionCountUntil( sources.indexOf( source ), false );
             fireAdded( firstIndex + index, lastIndex + index );
             updateSeparators();
         }
 
         public void actionsRemoved( DockActionSource source, int firstIndex, int lastIndex ) {
+        	invalidate();
             int index = getDockActionCountUntil( sources.indexOf( source ), false );
             fireRemoved( firstIndex + index, lastIndex + index );
             updateSeparators();
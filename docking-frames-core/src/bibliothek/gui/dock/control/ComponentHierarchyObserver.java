@@ -32,11 +32,16 @@ import java.awt.event.ContainerListener;
 import java.util.*;
 
 import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DockElement;
 import bibliothek.gui.dock.DockElementRepresentative;
 import bibliothek.gui.dock.event.ComponentHierarchyObserverEvent;
 import bibliothek.gui.dock.event.ComponentHierarchyObserverListener;
 import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 
 /**
  * A class collecting all {@link Component}s which are somehow used on or with
@@ -44,10 +49,39 @@ import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
  * A global instance of {@link ComponentHierarchyObserver} can be obtained
  * through {@link DockController#getComponentHierarchyObserver()}.<br>
  * Note that a hierarchy observer may also know {@link Component}s which are
- * not directly associated with {@link Dockable}s.
+ * not directly associated with {@link Dockable}s.<br>
+ * How deep the observer searches for {@link Component}s depends on the {@link TrackingMode}, 
+ * which can be set with the property {@link #TRACKING_MODE}.
  * @author Benjamin Sigg
  */
 public class ComponentHierarchyObserver {
+	/**
+	 * Tells how deep a {@link ComponentHierarchyObserver} descends into the tree of {@link Component}s.
+	 * @author Benjamin Sigg
+	 */
+	public static enum TrackingMode{
+		/** 
+		 * All the {@link Component}s are tracked, including the content of the {@link Dockable}s. This
+		 * mode requires one listener per {@link Container}. 
+		 */
+		EAGER,
+		/**
+		 * The {@link Component}s of {@link Dockable}s that are not {@link DockStation}s are tracked,
+		 * but not their children. Clients can still ask whether a child is part of the hierarchy with
+		 * {@link ComponentHierarchyObserver#contains(Component)}, the answer is calculated by searching
+		 * through the parents of the child.<br>
+		 * Note that in this mode a {@link KeyboardController} operating in a
+		 * {@link DockController#RESTRICTED_ENVIRONMENT restricted environment} does not receive
+		 * {@link java.awt.event.KeyEvent}s from the content of a {@link Dockable}.
+		 */
+		DOCKABLE_BOUNDARY
+	}
+	
+	/** how deep the {@link ComponentHierarchyObserver} of a {@link DockController} descends into the tree of {@link Component}s */
+	public static final PropertyKey<TrackingMode> TRACKING_MODE = new PropertyKey<TrackingMode>( "dock.componentHierarchyObserver.trackingMode",
+			new ConstantPropertyFactory<TrackingMode>( TrackingMode.EAGER ), true );
+	
+
     /**
      * The set of components which were explicitly added to this observer and
      * will not be removed implicitly.
@@ -67,6 +101,9 @@ public class ComponentHierarchyObserver {
     private List<ComponentHierarchyObserverListener> listeners =
         new ArrayList<ComponentHierarchyObserverListener>();
     
+    /** the current {@link TrackingMode} */
+    private PropertyValue<TrackingMode> trackingMode;
+    
     /**
      * Creates a new observer.
      * @param controller the controller whose {@link Dockable}s will be observed.
@@ -74,9 +111,21 @@ public class ComponentHierarchyObserver {
     public ComponentHierarchyObserver( DockController controller ){
         this.controller = controller;
         
+        trackingMode = new PropertyValue<TrackingMode>( TRACKING_MODE, controller ){
+        	@Override
+        	protected void valueChanged( TrackingMode oldValue, TrackingMode newValue ){
+        		if( oldValue != newValue ){
+        			retrack();
+        		}
+        	}
+        };
+        
         controller.addRepresentativeListener( new DockControllerRepresentativeListener(){
             public void representativeAdded( DockController controller, DockElementRepresentative representative ) {
                 add( representative.getComponent() );
+                if( isBoundary( representative.getComponent() )){
+                	prune( representative.getComponent() );
+                }
             }
             public void representativeRemoved( DockController controller, DockElementRepresentative representative ) {
                 remove( representative.getComponent() );
@@ -103,6 +152,100 @@ public class ComponentHierarchyObserver {
         return controller;
     }
     
+    /**
+     * Gets the mode that tells how deep this observer descends into the tree of {@link Component}s.
+     * @return the mode, not <code>null</code>
+     * @see #TRACKING_MODE
+     */
+    public TrackingMode getTrackingMode(){
+    	TrackingMode mode = trackingMode.getValue();
+    	if( mode == null ){
+    		return TrackingMode.EAGER;
+    	}
+    	return mode;
+    }
+    
+    /**
+     * Tells whether <code>component</code> is part of the hierarchy observed by this observer. In
+     * mode {@link TrackingMode#EAGER} this is the same as checking whether {@link #getComponents()}
+     * contains <code>component</code>. In mode {@link TrackingMode#DOCKABLE_BOUNDARY} the parents of
+     * <code>component</code> are searched for a {@link Component} that is known to this observer and that is 
+     * the boundary of the content of a {@link Dockable}.
+     * @param component the component to search
+     * @return <code>true</code> if <code>component</code> is part of the observed hierarchy
+     */
+    public boolean contains( Component component ){
+    	if( components.contains( component )){
+    		return true;
+    	}
+    	if( getTrackingMode() == TrackingMode.DOCKABLE_BOUNDARY && component != null ){
+    		Component parent = component.getParent();
+    		while( parent != null ){
+    			if( components.contains( parent )){
+    				return isBoundary( parent );
+    			}
+    			parent = parent.getParent();
+    		}
+    	}
+    	return false;
+    }
+    
+    /**
+     * Tells whether the children of <code>component</code> should not be tracked because
+     * <code>component</code> represents a {@link Dockable} that is not a {@link DockStation}.
+     * @param component the component to check
+     * @return <code>true</code> if the children of <code>component</code> are not to be tracked
+     */
+    protected boolean isBoundary( Component component ){
+    	if( getTrackingMode() != TrackingMode.DOCKABLE_BOUNDARY ){
+    		return false;
+    	}
+    	DockElementRepresentative representative = controller.searchElement( component );
+    	if( representative == null || representative.getComponent() != component ){
+    		return false;
+    	}
+    	DockElement element = representative.getElement();
+    	Dockable dockable = element.asDockable();
+    	return dockable != null && element.asDockStation() == null && dockable.getComponent() == component;
+    }
+    
+    /**
+     * Removes all the children of <code>component</code> from this observer, but not <code>component</code>
+     * itself. Children that were added as roots are not removed.
+     * @param component the component whose children are no longer to be tracked
+     */
+    private void prune( Component component ){
+    	if( component instanceof Container && components.contains( component )){
+    		Container container = (Container)component;
+    		container.removeContainerListener( listener );
+    		
+    		List<Component> list = new LinkedList<Component>();
+    		for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
+                remove( container.getComponent( i ), list );
+            }
+    		fireRemoved( list );
+    	}
+    }
+    
+    /**
+     * Forgets all the {@link Component}s and searches them again, called when the {@link TrackingMode}
+     * changed.
+     */
+    private void retrack(){
+    	List<Component> roots = new ArrayList<Component>( this.roots );
+    	this.roots.clear();
+    	
+    	List<Component> list = new LinkedList<Component>();
+    	for( Component root : roots ){
+    		remove( root, list );
+    	}
+    	fireRemoved( list );
+    	
+    	for( Component root : roots ){
+    		add( root );
+    	}
+    }
+    
     /**
      * Adds a listener to this observer.
      * @param listener the new listener, not <code>null</code>
@@ -159,7 +302,7 @@ public class ComponentHierarchyObserver {
         
         if( components.add( component )){
             list.add( component );
-            if( component instanceof Container ){
+            if( component instanceof Container && !isBoundary( component )){
                 Container container = (Container)component;
                 container.addContainerListener( listener );
                 for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
@@ -212,15 +355,25 @@ public class ComponentHierarchyObserver {
                 }
             }
             
-            if( fire && !list.isEmpty() ){
-                list = Collections.unmodifiableList( list );
-                ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
-                for( ComponentHierarchyObserverListener listener : listeners() )
-                    listener.removed( event );
+            if( fire ){
+            	fireRemoved( list );
             }
         }
     }
     
+    /**
+     * Informs all listeners that the {@link Component}s in <code>list</code> were removed.
+     * @param list the removed components, nothing happens if empty
+     */
+    private void fireRemoved( List<Component> list ){
+    	if( !list.isEmpty() ){
+    		list = Collections.unmodifiableList( list );
+    		ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
+    		for( ComponentHierarchyObserverListener listener : listeners() )
+    			listener.removed( event );
+    	}
+    }
+    
     /**
      * A listener to {@link Container}s, triggered when {@link Component}s
      * are added or removed.
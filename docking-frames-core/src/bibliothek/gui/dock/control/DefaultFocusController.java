@@ -47,6 +47,7 @@ import bibliothek.gui.dock.control.focus.FocusController;
 import bibliothek.gui.dock.control.focus.FocusRequest;
 import bibliothek.gui.dock.control.focus.FocusStrategy;
 import bibliothek.gui.dock.control.focus.FocusStrategyRequest;
+import bibliothek.gui.dock.control.metrics.DockMetrics;
 import bibliothek.gui.dock.event.FocusVetoListener;
 import bibliothek.gui.dock.event.FocusVetoListener.FocusVeto;
 import bibliothek.gui.dock.title.DockTitle;
@@ -369,18 +370,25 @@ public class DefaultFocusController extends AbstractFocusController {
     	
     	private void run(){
 	    	if( !canceled ){
-	    		Component component = accept();
-		    	if( component != null ){
-		    		execute( request, getDockable(), component );
-		    	}
-		    	else if( request.getSource() == null && request.getComponent() == null && pendingRequests.size() == 1 ){
-		    		execute( request, null, null );
-		    	}
-		    	else{
-		    		synchronized( pendingRequests ) {
-						pendingRequests.remove( this );
-					}
-		    	}
+	    		DockMetrics metrics = getController().getMetrics();
+	    		long measure = metrics.start();
+	    		try{
+		    		Component component = accept();
+			    	if( component != null ){
+			    		execute( request, getDockable(), component );
+			    	}
+			    	else if( request.getSource() == null && request.getComponent() == null && pendingRequests.size() == 1 ){
+			    		execute( request, null, null );
+			    	}
+			    	else{
+			    		synchronized( pendingRequests ) {
+							pendingRequests.remove( this );
+						}
+			    	}
+	    		}
+	    		finally{
+	    			metrics.stop( DockMetrics.FOCUS_REQUEST, measure );
+	    		}
 	    	}
     	}
     }
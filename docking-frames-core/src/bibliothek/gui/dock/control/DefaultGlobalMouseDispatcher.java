@@ -26,6 +26,7 @@
 package bibliothek.gui.dock.control;
 
 import java.awt.AWTEvent;
+import java.awt.EventQueue;
 import java.awt.Toolkit;
 import java.awt.event.AWTEventListener;
 import java.awt.event.MouseEvent;
@@ -38,25 +39,50 @@ import java.util.List;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.dock.event.ControllerSetupListener;
+import bibliothek.gui.dock.util.PropertyKey;
 import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 
 /**
  * This default implementation of a {@link GlobalMouseDispatcher} uses an {@link AWTEventListener} is possible, or
- * just forwards events that are delivered to the {@link #dispatch(MouseEvent)} method.
+ * just forwards events that are delivered to the {@link #dispatch(MouseEvent)} method.<br>
+ * The listeners are stored in arrays which are replaced whenever a listener is added or removed. Because
+ * there is one array for each kind of event, dispatching an event neither requires a lock nor creates
+ * any new objects, and a {@link MouseEvent#MOUSE_MOVED} event is not forwarded to a listener that was
+ * registered only for clicks.
  * @author Benjamin Sigg
  */
-public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
+public class DefaultGlobalMouseDispatcher implements FilteredGlobalMouseDispatcher {
+	/**
+	 * If <code>true</code>, then a {@link MouseEvent#MOUSE_MOVED} or {@link MouseEvent#MOUSE_DRAGGED} event is
+	 * not forwarded if the next event in the {@link EventQueue} is of the same kind. This way the listeners only
+	 * see the newest location of the mouse if the event dispatch thread cannot keep up with the events.<br>
+	 * The default value is <code>false</code>.
+	 */
+	public static final PropertyKey<Boolean> COALESCE_MOTION_EVENTS =
+			new PropertyKey<Boolean>( "dock.globalMouseDispatcher.coalesce",
+					new ConstantPropertyFactory<Boolean>( false ), true );
+	
 	/** The listener to all AWT events*/
 	private AWTEventListener listener;
 
-	private List<MouseListener> mouseListeners = new ArrayList<MouseListener>();
-	private MouseListener[] mouseListenersCache = null;
+	/** all the {@link MouseListener}s together with the events they are interested in */
+	private List<Registration<MouseListener>> mouseListeners = new ArrayList<Registration<MouseListener>>();
+	private volatile MouseListener[] mouseListenersCache = new MouseListener[0];
+	private volatile MouseListener[] clickedListeners = mouseListenersCache;
+	private volatile MouseListener[] pressedListeners = mouseListenersCache;
+	private volatile MouseListener[] releasedListeners = mouseListenersCache;
+	private volatile MouseListener[] enteredListeners = mouseListenersCache;
+	private volatile MouseListener[] exitedListeners = mouseListenersCache;
 
-	private List<MouseMotionListener> mouseMotionListeners = new ArrayList<MouseMotionListener>();
-	private MouseMotionListener[] mouseMotionListenersCache = null;
+	/** all the {@link MouseMotionListener}s together with the events they are interested in */
+	private List<Registration<MouseMotionListener>> mouseMotionListeners = new ArrayList<Registration<MouseMotionListener>>();
+	private volatile MouseMotionListener[] mouseMotionListenersCache = new MouseMotionListener[0];
+	private volatile MouseMotionListener[] movedListeners = mouseMotionListenersCache;
+	private volatile MouseMotionListener[] draggedListeners = mouseMotionListenersCache;
 
 	private List<MouseWheelListener> mouseWheelListeners = new ArrayList<MouseWheelListener>();
-	private MouseWheelListener[] mouseWheelListenersCache = null;
+	private volatile MouseWheelListener[] mouseWheelListenersCache = new MouseWheelListener[0];
 
 	/** whether the application is in restricted mode or not */
 	private PropertyValue<Boolean> restricted = new PropertyValue<Boolean>( DockController.RESTRICTED_ENVIRONMENT ){
@@ -64,6 +90,16 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 			updateRestricted();
 		}
 	};
+	
+	/** whether motion events are coalesced */
+	private PropertyValue<Boolean> coalesce = new PropertyValue<Boolean>( COALESCE_MOTION_EVENTS ){
+		protected void valueChanged( Boolean oldValue, Boolean newValue ){
+			coalesceMotionEvents = newValue;
+		}
+	};
+	
+	/** the current value of {@link #coalesce}, set to <code>false</code> if the {@link EventQueue} cannot be accessed */
+	private volatile boolean coalesceMotionEvents = false;
 
 	/**
 	 * Creates a new dispatcher.
@@ -74,6 +110,8 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 		setup.add( new ControllerSetupListener(){
 			public void done( DockController controller ){
 				restricted.setProperties( controller );
+				coalesce.setProperties( controller );
+				coalesceMotionEvents = coalesce.getValue();
 				updateRestricted();
 			}
 		} );
@@ -82,42 +120,48 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 	public void dispatch( MouseEvent event ){
 		switch( event.getID() ){
 			case MouseEvent.MOUSE_CLICKED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : clickedListeners ){
 					listener.mouseClicked( event );
 				}
 				break;
 			case MouseEvent.MOUSE_DRAGGED:
-				for( MouseMotionListener listener : getMouseMotionListeners() ){
-					listener.mouseDragged( event );
+				MouseMotionListener[] dragged = draggedListeners;
+				if( dragged.length > 0 && !isCoalesced( event ) ){
+					for( MouseMotionListener listener : dragged ){
+						listener.mouseDragged( event );
+					}
 				}
 				break;
 			case MouseEvent.MOUSE_ENTERED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : enteredListeners ){
 					listener.mouseEntered( event );
 				}
 				break;
 			case MouseEvent.MOUSE_EXITED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : exitedListeners ){
 					listener.mouseExited( event );
 				}
 				break;
 			case MouseEvent.MOUSE_MOVED:
-				for( MouseMotionListener listener : getMouseMotionListeners() ){
-					listener.mouseMoved( event );
+				MouseMotionListener[] moved = movedListeners;
+				if( moved.length > 0 && !isCoalesced( event ) ){
+					for( MouseMotionListener listener : moved ){
+						listener.mouseMoved( event );
+					}
 				}
 				break;
 			case MouseEvent.MOUSE_PRESSED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : pressedListeners ){
 					listener.mousePressed( event );
 				}
 				break;
 			case MouseEvent.MOUSE_RELEASED:
-				for( MouseListener listener : getMouseListeners() ){
+				for( MouseListener listener : releasedListeners ){
 					listener.mouseReleased( event );
 				}
 				break;
 			case MouseEvent.MOUSE_WHEEL:
-				for( MouseWheelListener listener : getMouseWheelListeners() ){
+				for( MouseWheelListener listener : mouseWheelListenersCache ){
 					listener.mouseWheelMoved( (MouseWheelEvent)event );
 				}
 				break;
@@ -125,67 +169,145 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 				throw new IllegalStateException( "unknown type of MouseEvent: " + event );
 		}
 	}
+	
+	/**
+	 * Tells whether the motion event <code>event</code> can be skipped because the next event in the
+	 * {@link EventQueue} is of the same kind and will bring the newer location of the mouse. Always returns
+	 * <code>false</code> unless {@link #COALESCE_MOTION_EVENTS} is set.
+	 * @param event a {@link MouseEvent#MOUSE_MOVED} or {@link MouseEvent#MOUSE_DRAGGED} event
+	 * @return <code>true</code> if <code>event</code> should not be forwarded to the listeners
+	 */
+	protected boolean isCoalesced( MouseEvent event ){
+		if( !coalesceMotionEvents ){
+			return false;
+		}
+		try{
+			AWTEvent next = Toolkit.getDefaultToolkit().getSystemEventQueue().peekEvent();
+			if( next instanceof MouseEvent && next.getID() == event.getID() ){
+				return ((MouseEvent)next).getModifiersEx() == event.getModifiersEx();
+			}
+			return false;
+		}
+		catch( SecurityException ex ){
+			// in a restricted environment the queue cannot be accessed
+			coalesceMotionEvents = false;
+			return false;
+		}
+	}
 
-	public synchronized void addMouseListener( MouseListener listener ){
-		mouseListeners.add( listener );
-		mouseListenersCache = null;
+	public void addMouseListener( MouseListener listener ){
+		addMouseListener( listener, MOUSE_EVENTS_MASK );
+	}
+	
+	public synchronized void addMouseListener( MouseListener listener, int events ){
+		if( listener == null ){
+			throw new IllegalArgumentException( "listener must not be null" );
+		}
+		mouseListeners.add( new Registration<MouseListener>( listener, events ) );
+		updateMouseListeners();
 	}
 
 	public synchronized void removeMouseListener( MouseListener listener ){
-		mouseListeners.remove( listener );
-		mouseListenersCache = null;
+		if( remove( mouseListeners, listener ) ){
+			updateMouseListeners();
+		}
 	}
 
 	/**
 	 * Gets all the {@link MouseListener}s that are currently registered.
-	 * @return all the listeners
+	 * @return all the listeners, this array must not be modified
 	 */
-	protected synchronized MouseListener[] getMouseListeners(){
-		if( mouseListenersCache == null ) {
-			mouseListenersCache = mouseListeners.toArray( new MouseListener[mouseListeners.size()] );
-		}
+	protected MouseListener[] getMouseListeners(){
 		return mouseListenersCache;
 	}
+	
+	private void updateMouseListeners(){
+		mouseListenersCache = mouseListeners( MOUSE_EVENTS_MASK );
+		clickedListeners = mouseListeners( MOUSE_CLICKED_MASK );
+		pressedListeners = mouseListeners( MOUSE_PRESSED_MASK );
+		releasedListeners = mouseListeners( MOUSE_RELEASED_MASK );
+		enteredListeners = mouseListeners( MOUSE_ENTERED_MASK );
+		exitedListeners = mouseListeners( MOUSE_EXITED_MASK );
+	}
+	
+	private MouseListener[] mouseListeners( int mask ){
+		List<MouseListener> result = new ArrayList<MouseListener>( mouseListeners.size() );
+		for( Registration<MouseListener> registration : mouseListeners ){
+			if( (registration.events & mask) != 0 ){
+				result.add( registration.listener );
+			}
+		}
+		return result.toArray( new MouseListener[ result.size() ] );
+	}
 
-	public synchronized void addMouseMotionListener( MouseMotionListener listener ){
-		mouseMotionListeners.add( listener );
-		mouseMotionListenersCache = null;
+	public void addMouseMotionListener( MouseMotionListener listener ){
+		addMouseMotionListener( listener, MOUSE_MOTION_EVENTS_MASK );
+	}
+	
+	public synchronized void addMouseMotionListener( MouseMotionListener listener, int events ){
+		if( listener == null ){
+			throw new IllegalArgumentException( "listener must not be null" );
+		}
+		mouseMotionListeners.add( new Registration<MouseMotionListener>( listener, events ) );
+		updateMouseMotionListeners();
 	}
 
 	public synchronized void removeMouseMotionListener( MouseMotionListener listener ){
-		mouseMotionListeners.remove( listener );
-		mouseMotionListenersCache = null;
+		if( remove( mouseMotionListeners, listener ) ){
+			updateMouseMotionListeners();
+		}
 	}
 
 	/**
 	 * Gets all the {@link MouseMotionListener}s that are currently registered.
-	 * @return all the listeners
+	 * @return all the listeners, this array must not be modified
 	 */
-	protected synchronized MouseMotionListener[] getMouseMotionListeners(){
-		if( mouseMotionListenersCache == null ) {
-			mouseMotionListenersCache = mouseMotionListeners.toArray( new MouseMotionListener[mouseMotionListeners.size()] );
-		}
+	protected MouseMotionListener[] getMouseMotionListeners(){
 		return mouseMotionListenersCache;
 	}
 	
+	private void updateMouseMotionListeners(){
+		mouseMotionListenersCache = mouseMotionListeners( MOUSE_MOTION_EVENTS_MASK );
+		movedListeners = mouseMotionListeners( MOUSE_MOVED_MASK );
+		draggedListeners = mouseMotionListeners( MOUSE_DRAGGED_MASK );
+	}
+	
+	private MouseMotionListener[] mouseMotionListeners( int mask ){
+		List<MouseMotionListener> result = new ArrayList<MouseMotionListener>( mouseMotionListeners.size() );
+		for( Registration<MouseMotionListener> registration : mouseMotionListeners ){
+			if( (registration.events & mask) != 0 ){
+				result.add( registration.listener );
+			}
+		}
+		return result.toArray( new MouseMotionListener[ result.size() ] );
+	}
+	
+	private <L> boolean remove( List<Registration<L>> registrations, L listener ){
+		for( int i = 0, n = registrations.size(); i < n; i++ ){
+			if( registrations.get( i ).listener == listener ){
+				registrations.remove( i );
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	public synchronized void addMouseWheelListener( MouseWheelListener listener ){
 		mouseWheelListeners.add( listener );
-		mouseWheelListenersCache = null;
+		mouseWheelListenersCache = mouseWheelListeners.toArray( new MouseWheelListener[mouseWheelListeners.size()] );
 	}
 
 	public synchronized void removeMouseWheelListener( MouseWheelListener listener ){
-		mouseWheelListeners.remove( listener );
-		mouseWheelListenersCache = null;
+		if( mouseWheelListeners.remove( listener ) ){
+			mouseWheelListenersCache = mouseWheelListeners.toArray( new MouseWheelListener[mouseWheelListeners.size()] );
+		}
 	}
 
 	/**
 	 * Gets all the {@link MouseWheelListener}s that are currently registered.
-	 * @return all the listeners
+	 * @return all the listeners, this array must not be modified
 	 */
-	protected synchronized MouseWheelListener[] getMouseWheelListeners(){
-		if( mouseWheelListenersCache == null ) {
-			mouseWheelListenersCache = mouseWheelListeners.toArray( new MouseWheelListener[mouseWheelListeners.size()] );
-		}
+	protected MouseWheelListener[] getMouseWheelListeners(){
 		return mouseWheelListenersCache;
 	}
 
@@ -222,6 +344,7 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 			listener = null;
 		}
 		restricted.setProperties( (DockController) null );
+		coalesce.setProperties( (DockController) null );
 	}
 
 	/**
@@ -237,4 +360,21 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 			}
 		};
 	}
+	
+	/**
+	 * A listener together with the events it wants to receive.
+	 * @author Benjamin Sigg
+	 * @param <L> the kind of listener
+	 */
+	private static class Registration<L>{
+		/** the observer */
+		public final L listener;
+		/** the events {@link #listener} is interested in */
+		public final int events;
+		
+		public Registration( L listener, int events ){
+			this.listener = listener;
+			this.events = events;
+		}
+	}
 }
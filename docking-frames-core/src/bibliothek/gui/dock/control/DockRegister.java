@@ -30,26 +30,33 @@ import java.util.*;
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.metrics.DockMetrics;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DockRegisterListener;
 import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.event.DockStationListener;
 import bibliothek.gui.dock.station.LayoutLocked;
 import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.util.container.IdentityOrderedSet;
 
 /**
  * A set of all {@link bibliothek.gui.Dockable Dockables} and
  * {@link bibliothek.gui.DockStation DockStations} currently used in the
- * system. 
+ * system.<br>
+ * Elements are compared by identity (<code>==</code>), their {@link Object#equals(Object) equals} and
+ * {@link Object#hashCode() hashCode} methods are never called. Two distinct objects that are equal
+ * are two different elements for this register.
  * @author Benjamin Sigg
  */
 @LayoutLocked( locked=false )
 public class DockRegister {
 	/** these protected stations can never be removed through a drag and drop operation */
-	private Set<DockStation> protectedStations = new HashSet<DockStation>();
+	private Set<DockStation> protectedStations = Collections.newSetFromMap( new IdentityHashMap<DockStation, Boolean>() );
 	/** the known stations */
-    private List<DockStation> stations = new ArrayList<DockStation>();
+    private IdentityOrderedSet<DockStation> stations = new IdentityOrderedSet<DockStation>();
     /** the known dockables */
-    private List<Dockable> dockables = new ArrayList<Dockable>();
+    private IdentityOrderedSet<Dockable> dockables = new IdentityOrderedSet<Dockable>();
     
     /** The controller for which the dockables and stations are stored */
     private DockController controller;
@@ -57,14 +64,23 @@ public class DockRegister {
     /** a list of registerListeners which are informed whenever the registered dockables and stations change */
     private List<DockRegisterListener> registerListeners = new ArrayList<DockRegisterListener>();
     
+    /** a list of listeners which are informed about groups of changes */
+    private List<DockRegisterBatchListener> batchListeners = new ArrayList<DockRegisterBatchListener>();
+    
+    /** the changes that are collected for the {@link #batchListeners} */
+    private Batch batch = new Batch();
+    
     /** an observer of the stations */
     private StationListener stationListener = new StationListener();
     
     /** tells whether register and unregister-events should be stalled or not */
     private int stalled = 0;
     
+    /** when this register was stalled, the result of {@link DockMetrics#start()} */
+    private long stalledSince = DockMetrics.DISABLED;
+    
 	/** the current state of changing elements */
-	private Map<Dockable, Status> changeMap = new HashMap<Dockable, Status>();
+	private Map<Dockable, Status> changeMap = new IdentityHashMap<Dockable, Status>();
 	
 	/** the order in which the elements of {@link #changeMap} first appeared */
 	private LinkedList<Dockable> changeQueue = new LinkedList<Dockable>();
@@ -108,6 +124,29 @@ public class DockRegister {
     	registerListeners.remove( listener );
     }
     
+    /**
+     * Registers a listener which will receive one notification for each group of
+     * {@link Dockable}s and {@link DockStation}s that are added or removed from this register.
+     * Changes that happen while this register is {@link #setStalled(boolean) stalled} are
+     * reported together once the register is no longer stalled.
+     * @param listener the new listener
+     */
+    public void addDockRegisterBatchListener( DockRegisterBatchListener listener ){
+    	if( listener == null ){
+    		throw new IllegalArgumentException( "listener must not be null" );
+    	}
+    	batchListeners.add( listener );
+    }
+    
+    /**
+     * Removes a listener from this register.
+     * @param listener the listener to remove
+     * @see #addDockRegisterBatchListener(DockRegisterBatchListener)
+     */
+    public void removeDockRegisterBatchListener( DockRegisterBatchListener listener ){
+    	batchListeners.remove( listener );
+    }
+    
     /**
      * Removes all registerListeners and connections to the stations and dockables
      * known to this register.
@@ -122,7 +161,8 @@ public class DockRegister {
      * Marks <code>station</code> as protected. Any {@link DockStation} can be protected, a protected {@link DockStation}
      * will never be automatically unregistered due to loosing its parent. Instead of unregistering, a protected
      * <code>station</code> is promoted to root-station. This property is only stored for {@link DockStation}s which
-     * are already registered, it will be deleted if <code>station</code> is removed.  
+     * are already registered, it will be deleted if <code>station</code> is removed. Whether <code>station</code> is
+     * registered is decided by identity, not by {@link Object#equals(Object) equals}.
      * @param station the station to protect
      * @param protect the new protection state
      */
@@ -151,7 +191,8 @@ public class DockRegister {
      * Adds a station to this register. The associated controller allows the user to
      * drag and drop children from and to <code>station</code>. If
      * the children of <code>station</code> are stations itself, then
-     * they will be added automatically
+     * they will be added automatically. Nothing happens if this exact object is already
+     * registered, a different station that is only {@link Object#equals(Object) equal} is added.
      * @param station the new station
      */
     public void add( DockStation station ){
@@ -167,71 +208,101 @@ public class DockRegister {
      * @param requiresListeners if <code>true</code>, then {@link #stationListener} is added to any {@link DockStation}
      * encountered in the tree beginning with <code>station</code>
      */
-    private void add( DockStation station, final boolean requiresListeners ){
+    private void add( DockStation station, boolean requiresListeners ){
     	if( station == null )
             throw new NullPointerException( "Station must not be null" );
     	
         if( !stations.contains( station )){
-            DockController other = station.getController();
-            if( other != null && other != controller ){
-                other.getRegister().remove( station );
-            }
-            
-            DockUtilities.visit( station, new DockUtilities.DockVisitor(){
-                @Override
-                public void handleDockable( Dockable dockable ) {
-                    register( dockable );
-                }
-                @Override
-                public void handleDockStation( DockStation station ) {
-                    register( station, requiresListeners );
-                }
-            });
+        	batch.open();
+        	try{
+        		addStation( station, requiresListeners );
+        	}
+        	finally{
+        		batch.close();
+        	}
         }
     }
     
     /**
-     * Removes a station which was managed by this register.
+     * Adds <code>station</code> and all its children to this register.
+     * @param station the new station
+     * @param requiresListeners whether {@link #stationListener} is to be added to the stations
+     */
+    private void addStation( DockStation station, final boolean requiresListeners ){
+        DockController other = station.getController();
+        if( other != null && other != controller ){
+            other.getRegister().remove( station );
+        }
+        
+        DockUtilities.visit( station, new DockUtilities.DockVisitor(){
+            @Override
+            public void handleDockable( Dockable dockable ) {
+                register( dockable );
+            }
+            @Override
+            public void handleDockStation( DockStation station ) {
+                register( station, requiresListeners );
+            }
+        });
+    }
+    
+    /**
+     * Removes a station which was managed by this register. Nothing happens unless this exact
+     * object is registered, a station that is only {@link Object#equals(Object) equal} is not removed.
      * @param station the station to remove
      */
     public void remove( DockStation station ){
         if( stations.contains( station )){
-        	setProtected( station, false );
-            Dockable dock = station.asDockable();
-            if( dock != null ){
-                DockStation parent = dock.getDockParent();
-                if( parent != null )
-                    parent.drag( dock );
-            }
-            
-            DockUtilities.visit( station, new DockUtilities.DockVisitor(){
-            	private Set<DockStation> ignored = new HashSet<DockStation>();
-            	
-                @Override
-                public void handleDockable( Dockable dockable ) {
-                	DockStation station = dockable.asDockStation();
-                	if( station == null || !isProtected( station )){
-	                	for( DockStation parent : ignored ){
-	                		if( DockUtilities.isAncestor( parent, dockable )){
-	                			return;
-	                		}
-	                	}
-	                    unregister( dockable );
-                	}
-                }
-                @Override
-                public void handleDockStation( DockStation station ) {
-                	if( isProtected( station )){
-                		ignored.add( station );
-                	}
-                	else{
-                		unregister( station );
-                	}
-                }
-            });
+        	batch.open();
+        	try{
+        		removeStation( station );
+        	}
+        	finally{
+        		batch.close();
+        	}
         }
     }
     
+    /**
+     * Removes <code>station</code> and all its children from this register.
+     * @param station the station to remove
+     */
+    private void removeStation( DockStation station ){
+    	setProtected( station, false );
+        Dockable dock = station.asDockable();
+        if( dock != null ){
+            DockStation parent = dock.getDockParent();
+            if( parent != null )
+                parent.drag( dock );
+        }
+        
+        DockUtilities.visit( station, new DockUtilities.DockVisitor(){
+        	private Set<DockStation> ignored = new HashSet<DockStation>();
+        	
+            @Override
+            public void handleDockable( Dockable dockable ) {
+            	DockStation station = dockable.asDockStation();
+            	if( station == null || !isProtected( station )){
+            		for( DockStation parent : ignored ){
+            			if( DockUtilities.isAncestor( parent, dockable )){
+            				return;
+            			}
+            		}
+            		unregister( dockable );
+            	}
+            }
+            @Override
+            public void handleDockStation( DockStation station ) {
+            	if( isProtected( station )){
+            		ignored.add( station );
+            	}
+            	else{
+            		unregister( station );
+            	}
+            }
+        });
+    }
+    
     /**
      * Gest the number of stations that are registered.
      * @return the number of stations
@@ -292,7 +363,9 @@ public class DockRegister {
     }
     
     /**
-     * Tells whether <code>dockable</code> is known to this register.
+     * Tells whether <code>dockable</code> is known to this register. The element is searched by
+     * identity, a dockable that is only {@link Object#equals(Object) equal} to a registered dockable
+     * is not known.
      * @param dockable the dockable to search
      * @return <code>true</code> if <code>dockable</code> was found
      */
@@ -304,7 +377,7 @@ public class DockRegister {
      * Tells whether <code>dockable</code> will be registered after the currently
      * stalled events have been fired. The result of this method may change with any
      * new stalled event. Returns the same result as {@link #isRegistered(Dockable)} if there are no stalled
-     * events waiting.
+     * events waiting. Like {@link #isRegistered(Dockable)} this method searches <code>dockable</code> by identity.
      * @param dockable the element to search
      * @return whether <code>dockable</code> will be known to this register
      */
@@ -341,12 +414,19 @@ public class DockRegister {
      */
     protected void register( Dockable dockable ){
         if( !dockables.contains( dockable )){
-            fireDockableRegistering( dockable );
-            
-            dockables.add( dockable );
-            dockable.setController( controller );
-            
-            fireDockableRegistered( dockable );
+        	batch.open();
+        	try{
+	            fireDockableRegistering( dockable );
+	            
+	            dockables.add( dockable );
+	            dockable.setController( controller );
+	            
+	            fireDockableRegistered( dockable );
+	            batch.registered( dockable );
+        	}
+        	finally{
+        		batch.close();
+        	}
         }
     }
     
@@ -358,9 +438,16 @@ public class DockRegister {
      */
     protected void unregister( Dockable dockable ){
         if( dockables.remove( dockable ) ){
-            dockable.setController( null );
-            
-            fireDockableUnregistered( dockable );
+        	batch.open();
+        	try{
+	            dockable.setController( null );
+	            
+	            fireDockableUnregistered( dockable );
+	            batch.unregistered( dockable );
+        	}
+        	finally{
+        		batch.close();
+        	}
         }
     }
     
@@ -375,18 +462,25 @@ public class DockRegister {
      */
     protected void register( DockStation station, boolean requiresListener ){
         if( !stations.contains( station )){
-        	fireDockStationRegistering( station );
-            
-            stations.add( station );
-            
-            station.setController( controller );
-            station.updateTheme();
-            
-            if( requiresListener ){
-            	station.addDockStationListener( stationListener );
-            }
-            
-            fireDockStationRegistered( station );
+        	batch.open();
+        	try{
+	        	fireDockStationRegistering( station );
+	            
+	            stations.add( station );
+	            
+	            station.setController( controller );
+	            station.updateTheme();
+	            
+	            if( requiresListener ){
+	            	station.addDockStationListener( stationListener );
+	            }
+	            
+	            fireDockStationRegistered( station );
+	            batch.registered( station );
+        	}
+        	finally{
+        		batch.close();
+        	}
         }
     }
     
@@ -398,10 +492,17 @@ public class DockRegister {
      */
     protected void unregister( DockStation station ){
         if( stations.remove( station ) ){
-        	station.setController( null );
-            station.removeDockStationListener( stationListener );
-            
-            fireDockStationUnregistered( station );
+        	batch.open();
+        	try{
+	        	station.setController( null );
+	            station.removeDockStationListener( stationListener );
+	            
+	            fireDockStationUnregistered( station );
+	            batch.unregistered( station );
+        	}
+        	finally{
+        		batch.close();
+        	}
         }
     }
 
@@ -476,6 +577,7 @@ public class DockRegister {
     protected void fireStalledChange( Dockable dockable ){
         for( DockRegisterListener listener : listDockRegisterListeners() )
             listener.dockableCycledRegister( controller, dockable );
+        batch.cycled( dockable );
     }
     
     /**
@@ -511,16 +613,21 @@ public class DockRegister {
      * immediately
      */
     public void setStalled( boolean stalled ){
+    	DockMetrics metrics = controller.getMetrics();
+    	boolean wasStalled = isStalled();
+    	long flush = DockMetrics.DISABLED;
+    	
 		if( stalled ){
-		    boolean wasStalled = isStalled();
 			this.stalled++;
 			if( !wasStalled ){
+				stalledSince = metrics.start();
 				fireStalled();
 			}
 		}
 		else{
 			this.stalled--;
 			if( !isStalled() ){
+				flush = metrics.start();
 				fireUnstalled();
 			}
 		}
@@ -531,6 +638,12 @@ public class DockRegister {
 		
 		if( this.stalled == 0 ){
 			stationListener.fire();
+			
+			if( wasStalled ){
+				metrics.stop( DockMetrics.REGISTER_FLUSH, flush );
+				metrics.stop( DockMetrics.LAYOUT_FROZEN, stalledSince );
+				stalledSince = DockMetrics.DISABLED;
+			}
 		}
 	}
     
@@ -543,6 +656,90 @@ public class DockRegister {
     	return stalled > 0;
     }
 
+    /**
+     * Collects the changes of this register for the {@link DockRegisterBatchListener}s. Every operation
+     * that changes the register {@link #open() opens} the batch, and the event is fired when the
+     * outermost operation {@link #close() closes} the batch.
+     * @author Benjamin Sigg
+     */
+    private class Batch{
+    	/** how many operations are currently running */
+    	private int depth = 0;
+    	
+    	private List<Dockable> registeredDockables = new ArrayList<Dockable>();
+    	private List<Dockable> unregisteredDockables = new ArrayList<Dockable>();
+    	private List<DockStation> registeredStations = new ArrayList<DockStation>();
+    	private List<DockStation> unregisteredStations = new ArrayList<DockStation>();
+    	private List<Dockable> cycledDockables = new ArrayList<Dockable>();
+    	
+    	/**
+    	 * Marks the beginning of an operation.
+    	 */
+    	public void open(){
+    		depth++;
+    	}
+    	
+    	/**
+    	 * Marks the end of an operation, fires an event if this was the outermost operation.
+    	 */
+    	public void close(){
+    		depth--;
+    		if( depth == 0 && !isEmpty() ){
+    			DockRegisterBatchEvent event = new DockRegisterBatchEvent( controller, 
+    					registeredDockables.toArray( new Dockable[ registeredDockables.size() ] ),
+    					unregisteredDockables.toArray( new Dockable[ unregisteredDockables.size() ] ),
+    					registeredStations.toArray( new DockStation[ registeredStations.size() ] ),
+    					unregisteredStations.toArray( new DockStation[ unregisteredStations.size() ] ),
+    					cycledDockables.toArray( new Dockable[ cycledDockables.size() ] ));
+    			
+    			registeredDockables.clear();
+    			unregisteredDockables.clear();
+    			registeredStations.clear();
+    			unregisteredStations.clear();
+    			cycledDockables.clear();
+    			
+    			for( DockRegisterBatchListener listener : batchListeners.toArray( new DockRegisterBatchListener[ batchListeners.size() ] )){
+    				listener.registerChanged( event );
+    			}
+    		}
+    	}
+    	
+    	private boolean isEmpty(){
+    		return registeredDockables.isEmpty() && unregisteredDockables.isEmpty() && registeredStations.isEmpty() &&
+    			unregisteredStations.isEmpty() && cycledDockables.isEmpty();
+    	}
+    	
+    	public void registered( Dockable dockable ){
+    		if( !batchListeners.isEmpty() ){
+    			registeredDockables.add( dockable );
+    		}
+    	}
+    	
+    	public void unregistered( Dockable dockable ){
+    		if( !batchListeners.isEmpty() ){
+    			unregisteredDockables.add( dockable );
+    		}
+    	}
+    	
+    	public void registered( DockStation station ){
+    		if( !batchListeners.isEmpty() ){
+    			registeredStations.add( station );
+    		}
+    	}
+    	
+    	public void unregistered( DockStation station ){
+    		if( !batchListeners.isEmpty() ){
+    			unregisteredStations.add( station );
+    		}
+    	}
+    	
+    	public void cycled( Dockable dockable ){
+    		if( !batchListeners.isEmpty() ){
+    			cycledDockables.add( dockable );
+    		}
+    	}
+    }
+    
     /** tells what state a changing {@link Dockable} currently is in, used by the {@link StationListener} only */
     private enum Status{
     	ADDED, REMOVED, ADDED_AND_REMOVED, REMOVED_AND_ADDED
@@ -562,6 +759,7 @@ public class DockRegister {
             if( !firing ){
                 try{
                     firing = true;
+                    batch.open();
                     
                     while( !changeQueue.isEmpty() ){
                     	Dockable next = changeQueue.removeFirst();
@@ -583,6 +781,7 @@ public class DockRegister {
                 }
                 finally{
                     firing = false;
+                    batch.close();
                 }
             }
         }
@@ -0,0 +1,77 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2011 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control;
+
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+
+/**
+ * A {@link GlobalMouseDispatcher} that can forward only some kinds of {@link MouseEvent}s to a listener. Listeners
+ * interested in only a few events then do not slow down the handling of the many other events. Clients should check
+ * with <code>instanceof</code> whether a dispatcher offers this feature, and fall back to the methods of 
+ * {@link GlobalMouseDispatcher} if not. 
+ * @author Benjamin Sigg
+ */
+public interface FilteredGlobalMouseDispatcher extends GlobalMouseDispatcher {
+	/** Mask for {@link MouseEvent#MOUSE_CLICKED}, used for the <code>events</code> argument of {@link #addMouseListener(MouseListener, int)} */
+	public static final int MOUSE_CLICKED_MASK = 1 << 0;
+	/** Mask for {@link MouseEvent#MOUSE_PRESSED}, used for the <code>events</code> argument of {@link #addMouseListener(MouseListener, int)} */
+	public static final int MOUSE_PRESSED_MASK = 1 << 1;
+	/** Mask for {@link MouseEvent#MOUSE_RELEASED}, used for the <code>events</code> argument of {@link #addMouseListener(MouseListener, int)} */
+	public static final int MOUSE_RELEASED_MASK = 1 << 2;
+	/** Mask for {@link MouseEvent#MOUSE_ENTERED}, used for the <code>events</code> argument of {@link #addMouseListener(MouseListener, int)} */
+	public static final int MOUSE_ENTERED_MASK = 1 << 3;
+	/** Mask for {@link MouseEvent#MOUSE_EXITED}, used for the <code>events</code> argument of {@link #addMouseListener(MouseListener, int)} */
+	public static final int MOUSE_EXITED_MASK = 1 << 4;
+	/** Mask for {@link MouseEvent#MOUSE_MOVED}, used for the <code>events</code> argument of {@link #addMouseMotionListener(MouseMotionListener, int)} */
+	public static final int MOUSE_MOVED_MASK = 1 << 5;
+	/** Mask for {@link MouseEvent#MOUSE_DRAGGED}, used for the <code>events</code> argument of {@link #addMouseMotionListener(MouseMotionListener, int)} */
+	public static final int MOUSE_DRAGGED_MASK = 1 << 6;
+	/** All the events a {@link MouseListener} can receive */
+	public static final int MOUSE_EVENTS_MASK = MOUSE_CLICKED_MASK | MOUSE_PRESSED_MASK | MOUSE_RELEASED_MASK | MOUSE_ENTERED_MASK | MOUSE_EXITED_MASK;
+	/** All the events a {@link MouseMotionListener} can receive */
+	public static final int MOUSE_MOTION_EVENTS_MASK = MOUSE_MOVED_MASK | MOUSE_DRAGGED_MASK;
+	
+	/**
+	 * Adds the observer <code>listener</code> to this dispatcher. The listener is only informed about
+	 * the kind of events that are included in <code>events</code>.
+	 * @param listener the new listener, not <code>null</code>
+	 * @param events the events <code>listener</code> is interested in, a combination of
+	 * {@link #MOUSE_CLICKED_MASK}, {@link #MOUSE_PRESSED_MASK}, {@link #MOUSE_RELEASED_MASK},
+	 * {@link #MOUSE_ENTERED_MASK} and {@link #MOUSE_EXITED_MASK}
+	 */
+	public void addMouseListener( MouseListener listener, int events );
+	
+	/**
+	 * Adds the observer <code>listener</code> to this dispatcher. The listener is only informed about
+	 * the kind of events that are included in <code>events</code>.
+	 * @param listener the new listener, not <code>null</code>
+	 * @param events the events <code>listener</code> is interested in, a combination of
+	 * {@link #MOUSE_MOVED_MASK} and {@link #MOUSE_DRAGGED_MASK}
+	 */
+	public void addMouseMotionListener( MouseMotionListener listener, int events );
+}
@@ -25,8 +25,8 @@
  */
 package bibliothek.gui.dock.control.focus;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -40,18 +40,34 @@ import bibliothek.util.Filter;
 /**
  * The default implementation of {@link FocusHistory} adds listeners to a 
  * {@link DockController} to keep the history up to date. Only {@link Dockable}s that
- * are actually registered at the controller are reported in the history
+ * are actually registered at the controller are reported in the history.<br>
+ * The history is stored in a linked list whose entries can be found by their {@link Dockable}, hence
+ * updating the history requires constant time. For each {@link DockStation} the newest focused child
+ * is remembered, allowing {@link #getNewestOn(DockStation...)} to answer without searching through
+ * the history as long as the tree of {@link Dockable}s does not change.
  * @author Benjamin Sigg
  */
 public class DefaultFocusHistory implements FocusHistory{
 	/** the controller which is observed */
 	private DockController controller;
 	
-	/** the actual history */
-	private List<Dockable> history = new LinkedList<Dockable>();
+	/** all the known {@link Dockable}s */
+	private Map<Dockable, Entry> entries = new IdentityHashMap<Dockable, Entry>();
 	
-	/** these Dockables did not yet have the focus */
-	private List<Dockable> unfocused = new LinkedList<Dockable>();
+	/** the actual history, the newest element is the head */
+	private EntryList history = new EntryList();
+	
+	/** these Dockables did not yet have the focus, the oldest element is the head */
+	private EntryList unfocused = new EntryList();
+	
+	/** the newest focused child of each {@link DockStation} */
+	private Map<DockStation, StationEntry> stations = new IdentityHashMap<DockStation, StationEntry>();
+	
+	/** incremented whenever the tree of {@link Dockable}s changes, invalidates the {@link #stations} */
+	private int generation = 0;
+	
+	/** incremented whenever a {@link Dockable} gains the focus */
+	private long stamp = 0;
 	
 	/** the listeners that are added to {@link #controller} */
 	private Listener listener = new Listener();
@@ -61,7 +77,11 @@ public class DefaultFocusHistory implements FocusHistory{
 			this.controller.getRegister().removeDockRegisterListener( listener );
 			this.controller.getFocusController().removeDockableFocusListener( listener );
 		}
+		entries.clear();
 		history.clear();
+		unfocused.clear();
+		stations.clear();
+		generation++;
 		this.controller = controller;
 		if( this.controller != null ){
 			this.controller.getRegister().addDockRegisterListener( listener );
@@ -70,41 +90,174 @@ public class DefaultFocusHistory implements FocusHistory{
 	}
 	
 	public Dockable[] getHistory(){
-		Dockable[] result = new Dockable[ unfocused.size() + history.size() ];
+		Dockable[] result = new Dockable[ unfocused.size + history.size ];
 		
 		int index = 0;
-		for( Dockable dockable : unfocused ){
-			result[ index++ ] = dockable;
+		for( Entry entry = unfocused.head; entry != null; entry = entry.next ){
+			result[ index++ ] = entry.dockable;
 		}
 		
-		
-		index = result.length-1;
-		for( Dockable item : history ){
-			result[ index-- ] = item;
+		for( Entry entry = history.tail; entry != null; entry = entry.previous ){
+			result[ index++ ] = entry.dockable;
 		}
 		return result;
 	}
 	
 	public Dockable getNewestOn( DockStation... parents ){
-		for( Dockable item : history ){
-			for( DockStation station : parents ){
-				if( item != station && DockUtilities.isAncestor( station, item )){
-					return item;
+		Entry result = null;
+		for( DockStation station : parents ){
+			Entry entry = getNewestOn( station );
+			if( entry != null && (result == null || entry.stamp > result.stamp )){
+				result = entry;
+			}
+		}
+		return result == null ? null : result.dockable;
+	}
+	
+	/**
+	 * Searches the newest focused child of <code>station</code>. 
+	 * @param station the station whose child is searched
+	 * @return the entry of the child or <code>null</code>
+	 */
+	private Entry getNewestOn( DockStation station ){
+		StationEntry index = stations.get( station );
+		if( index == null || index.generation != generation ){
+			if( index == null ){
+				index = new StationEntry();
+				stations.put( station, index );
+			}
+			index.generation = generation;
+			index.newest = null;
+			
+			for( Entry item = history.head; item != null; item = item.next ){
+				if( item.dockable != station && DockUtilities.isAncestor( station, item.dockable )){
+					index.newest = item;
+					break;
 				}
 			}
 		}
-		return null;
+		return index.newest;
 	}
 	
 	public Dockable getFirst( Filter<Dockable> filter ){
-		for( Dockable dockable : history ){
-			if( filter.includes( dockable )){
-				return dockable;
+		for( Entry entry = history.head; entry != null; entry = entry.next ){
+			if( filter.includes( entry.dockable )){
+				return entry.dockable;
 			}
 		}
 		return null;
 	}
 	
+	/**
+	 * Updates the index of the newest focused child of each parent of <code>entry</code>.
+	 * @param entry the element that just gained the focus
+	 */
+	private void focused( Entry entry ){
+		DockStation parent = entry.dockable.getDockParent();
+		while( parent != null ){
+			StationEntry index = stations.get( parent );
+			if( index != null && index.generation == generation ){
+				index.newest = entry;
+			}
+			
+			Dockable dockable = parent.asDockable();
+			parent = dockable == null ? null : dockable.getDockParent();
+		}
+	}
+	
+	/**
+	 * An item of the history.
+	 * @author Benjamin Sigg
+	 */
+	private static class Entry{
+		/** the element represented by this entry */
+		private final Dockable dockable;
+		/** the value of {@link DefaultFocusHistory#stamp} when {@link #dockable} gained the focus */
+		private long stamp = -1;
+		/** the list in which this entry currently is */
+		private EntryList list;
+		/** the neighbors of this entry */
+		private Entry previous, next;
+		
+		public Entry( Dockable dockable ){
+			this.dockable = dockable;
+		}
+	}
+	
+	/**
+	 * A doubly linked list of {@link Entry}s.
+	 * @author Benjamin Sigg
+	 */
+	private static class EntryList{
+		private Entry head;
+		private Entry tail;
+		private int size;
+		
+		public void addFirst( Entry entry ){
+			entry.list = this;
+			entry.previous = null;
+			entry.next = head;
+			if( head == null ){
+				tail = entry;
+			}
+			else{
+				head.previous = entry;
+			}
+			head = entry;
+			size++;
+		}
+		
+		public void addLast( Entry entry ){
+			entry.list = this;
+			entry.next = null;
+			entry.previous = tail;
+			if( tail == null ){
+				head = entry;
+			}
+			else{
+				tail.next = entry;
+			}
+			tail = entry;
+			size++;
+		}
+		
+		public void remove( Entry entry ){
+			if( entry.previous == null ){
+				head = entry.next;
+			}
+			else{
+				entry.previous.next = entry.next;
+			}
+			if( entry.next == null ){
+				tail = entry.previous;
+			}
+			else{
+				entry.next.previous = entry.previous;
+			}
+			entry.previous = null;
+			entry.next = null;
+			entry.list = null;
+			size--;
+		}
+		
+		public void clear(){
+			head = null;
+			tail = null;
+			size = 0;
+		}
+	}
+	
+	/**
+	 * Remembers the newest focused child of a {@link DockStation}.
+	 * @author Benjamin Sigg
+	 */
+	private static class StationEntry{
+		/** the value of {@link DefaultFocusHistory#generation} when {@link #newest} was searched */
+		private int generation;
+		/** the newest child, can be <code>null</code> */
+		private Entry newest;
+	}
+	
 	/**
 	 * A set of listeners that are needed to find out which {@link Dockable} currently has the
 	 * focus, and which {@link Dockable}s are to be removed.
@@ -112,23 +265,47 @@ public class DefaultFocusHistory implements FocusHistory{
 	 */
 	private class Listener extends DockRegisterAdapter implements DockableFocusListener{
 		public void dockableUnregistered( DockController controller, Dockable dockable ){
-			history.remove( dockable );
-			unfocused.remove( dockable );
+			Entry entry = entries.remove( dockable );
+			if( entry != null ){
+				entry.list.remove( entry );
+			}
+			generation++;
 		}
 		
 		@Override
 		public void dockableRegistered( DockController controller, Dockable dockable ) {
-			if( !unfocused.contains( dockable ) && !history.contains( dockable ) ){
-				unfocused.add( dockable );
+			if( !entries.containsKey( dockable )){
+				Entry entry = new Entry( dockable );
+				entries.put( dockable, entry );
+				unfocused.addLast( entry );
 			}
+			generation++;
+		}
+		
+		@Override
+		public void dockableCycledRegister( DockController controller, Dockable dockable ){
+			generation++;
+		}
+		
+		@Override
+		public void dockStationUnregistered( DockController controller, DockStation station ){
+			stations.remove( station );
 		}
 		
 		public void dockableFocused( DockableFocusEvent event ){
 			Dockable owner = event.getNewFocusOwner();
 			if( owner != null ){
-				unfocused.remove( owner );
-				history.remove( owner );
-				history.add( 0, owner );
+				Entry entry = entries.get( owner );
+				if( entry == null ){
+					entry = new Entry( owner );
+					entries.put( owner, entry );
+				}
+				else{
+					entry.list.remove( entry );
+				}
+				entry.stamp = ++stamp;
+				history.addFirst( entry );
+				focused( entry );
 			}
 		}
 	}
@@ -41,6 +41,7 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.DockElementRepresentative;
 import bibliothek.gui.dock.control.ControllerSetupCollection;
 import bibliothek.gui.dock.control.DockRelocator;
+import bibliothek.gui.dock.control.FilteredGlobalMouseDispatcher;
 import bibliothek.gui.dock.control.GlobalMouseDispatcher;
 import bibliothek.gui.dock.control.relocator.DockRelocatorEvent;
 import bibliothek.gui.dock.control.relocator.VetoableDockRelocatorAdapter;
@@ -54,7 +55,9 @@ import bibliothek.gui.dock.util.DockUtilities;
  * This implementation of a {@link MouseFocusObserver} offers methods to handle
  * {@link FocusVetoListener}s and registers a {@link VetoableDockRelocatorListener}. On a
  * {@link VetoableDockRelocatorListener#dropped(DockRelocatorEvent) drop event} this observer
- * will automatically transfer the focus to the dropped {@link Dockable}.
+ * will automatically transfer the focus to the dropped {@link Dockable}.<br>
+ * If the {@link GlobalMouseDispatcher} is a {@link FilteredGlobalMouseDispatcher}, then subclasses can
+ * reduce the number of events this observer receives by overriding {@link #getGlobalMouseEvents()}.
  * @author Benjamin Sigg
  */
 public class DefaultMouseFocusObserver implements MouseFocusObserver{
@@ -96,8 +99,16 @@ public class DefaultMouseFocusObserver implements MouseFocusObserver{
             public void done( DockController controller ) {
                 controller.getRelocator().addVetoableDockRelocatorListener( relocatorListener );
                 GlobalMouseDispatcher dispatcher = controller.getGlobalMouseDispatcher();
-                dispatcher.addMouseListener( listener );
-                dispatcher.addMouseMotionListener( listener );
+                if( dispatcher instanceof FilteredGlobalMouseDispatcher ){
+                	FilteredGlobalMouseDispatcher filtered = (FilteredGlobalMouseDispatcher)dispatcher;
+                	int events = getGlobalMouseEvents();
+                	filtered.addMouseListener( listener, events & FilteredGlobalMouseDispatcher.MOUSE_EVENTS_MASK );
+                	filtered.addMouseMotionListener( listener, events & FilteredGlobalMouseDispatcher.MOUSE_MOTION_EVENTS_MASK );
+                }
+                else{
+                	dispatcher.addMouseListener( listener );
+                	dispatcher.addMouseMotionListener( listener );
+                }
                 dispatcher.addMouseWheelListener( listener );
             }
         });
@@ -180,6 +191,22 @@ public class DefaultMouseFocusObserver implements MouseFocusObserver{
         }
     }
     
+    /**
+     * Tells which events this observer needs to receive from the {@link GlobalMouseDispatcher}, all other
+     * mouse events are not forwarded to this observer. This method is called only once, when the controller is 
+     * set up, and only if the dispatcher is a {@link FilteredGlobalMouseDispatcher}. {@link MouseWheelEvent}s
+     * are always received.<br>
+     * The default implementation returns all events. Subclasses may return a smaller set, e.g. 
+     * {@link FilteredGlobalMouseDispatcher#MOUSE_PRESSED_MASK} is enough for the original implementation of
+     * {@link #interact(AWTEvent)}. Subclasses doing so must make sure that none of {@link #interact(AWTEvent)},
+     * {@link #check(AWTEvent)}, {@link #check(MouseEvent)} or {@link #check(MouseWheelEvent)} depends on the
+     * events that are filtered away.
+     * @return a combination of the masks defined in {@link FilteredGlobalMouseDispatcher}
+     */
+    protected int getGlobalMouseEvents(){
+    	return FilteredGlobalMouseDispatcher.MOUSE_EVENTS_MASK | FilteredGlobalMouseDispatcher.MOUSE_MOTION_EVENTS_MASK;
+    }
+    
     /**
      * Tells whether this event should change the focus.
      * @param event the event
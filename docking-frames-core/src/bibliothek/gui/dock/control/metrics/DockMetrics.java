@@ -0,0 +1,386 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
+
+/**
+ * Measures how long some key operations of the framework take, e.g. how long the layout was frozen or how
+ * long it took to read a layout. For each {@link MetricKey} a {@link MetricHistogram} of durations is collected.<br>
+ * The metrics are disabled by default, in this state measuring an operation costs no more than reading a field. They
+ * can be enabled with {@link #setEnabled(boolean)} or the property {@link #METRICS_ENABLED}. The collected data can be
+ * accessed through {@link #getHistogram(MetricKey)}, through a {@link DockMetricsListener}, or through JMX after
+ * calling {@link #registerMBean()}.<br>
+ * Code that measures an operation looks like this:
+ * <pre>
+ * DockMetrics metrics = controller.getMetrics();
+ * long start = metrics.start();
+ * try{
+ *     ...
+ * }
+ * finally{
+ *     metrics.stop( DockMetrics.LAYOUT_FROZEN, start );
+ * }
+ * </pre>
+ * @author Benjamin Sigg
+ */
+public class DockMetrics {
+	/** Whether {@link DockMetrics} records durations, the default value is <code>false</code> */
+	public static final PropertyKey<Boolean> METRICS_ENABLED = new PropertyKey<Boolean>( "dock.metrics.enabled",
+			new ConstantPropertyFactory<Boolean>( false ), true );
+	
+	/** The value {@link #start()} returns if this object is disabled, {@link #stop(MetricKey, long)} ignores this value */
+	public static final long DISABLED = -1;
+	
+	/** the time this class was loaded, the results of {@link #start()} are relative to this time and thus never negative */
+	private static final long ORIGIN = System.nanoTime();
+	
+	/** The time between freezing the layout the first time, and melting it completely */
+	public static final MetricKey LAYOUT_FROZEN = new MetricKey( "dock.layout.frozen", "time the layout was frozen" );
+	
+	/** The time needed to fire all the events that were collected while the {@link bibliothek.gui.dock.control.DockRegister} was stalled */
+	public static final MetricKey REGISTER_FLUSH = new MetricKey( "dock.register.flush", "time to fire the events of a stalled register" );
+	
+	/** The time needed to handle one step of a drag and drop operation, i.e. one mouse event */
+	public static final MetricKey RELOCATOR_DRAG = new MetricKey( "dock.relocator.drag", "time to handle one step of a drag and drop operation" );
+	
+	/** The time needed by a {@link bibliothek.gui.dock.layout.DockSituation} to read a layout and to convert it into elements */
+	public static final MetricKey SITUATION_READ = new MetricKey( "dock.situation.read", "time to read a layout" );
+	
+	/** The time needed by a {@link bibliothek.gui.dock.layout.DockSituation} to convert elements into a layout and to write it */
+	public static final MetricKey SITUATION_WRITE = new MetricKey( "dock.situation.write", "time to write a layout" );
+	
+	/** The time needed to install a new {@link bibliothek.gui.DockTheme} */
+	public static final MetricKey THEME_INSTALL = new MetricKey( "dock.theme.install", "time to install a theme" );
+	
+	/** The time needed to execute one {@link bibliothek.gui.dock.control.focus.FocusRequest} */
+	public static final MetricKey FOCUS_REQUEST = new MetricKey( "dock.focus.request", "time to execute a focus request" );
+	
+	/** The time needed to paint a {@link bibliothek.gui.DockStation}, including its children */
+	public static final MetricKey STATION_PAINT = new MetricKey( "dock.station.paint", "time to paint a station" );
+	
+	/** the controller for which durations are measured */
+	private DockController controller;
+	
+	/** all the histograms that were created so far */
+	private Map<MetricKey, MetricHistogram> histograms = new LinkedHashMap<MetricKey, MetricHistogram>();
+	
+	/** the observers of this object, replaced whenever a listener is added or removed */
+	private volatile DockMetricsListener[] listeners = new DockMetricsListener[0];
+	
+	/** the current value of {@link #METRICS_ENABLED} */
+	private volatile boolean enabled = false;
+	
+	/** tells whether this object is enabled */
+	private PropertyValue<Boolean> enabledProperty = new PropertyValue<Boolean>( METRICS_ENABLED ){
+		protected void valueChanged( Boolean oldValue, Boolean newValue ){
+			enabled = newValue;
+		}
+	};
+	
+	/** the name under which this object is registered as MBean, can be <code>null</code> */
+	private ObjectName mbeanName;
+	
+	/**
+	 * Creates a new object.
+	 * @param controller the controller in whose realm this object is used
+	 */
+	public DockMetrics( DockController controller ){
+		if( controller == null ){
+			throw new IllegalArgumentException( "controller must not be null" );
+		}
+		this.controller = controller;
+		enabledProperty.setProperties( controller );
+		enabled = enabledProperty.getValue();
+	}
+	
+	/**
+	 * Gets the controller in whose realm this object is used.
+	 * @return the controller
+	 */
+	public DockController getController(){
+		return controller;
+	}
+	
+	/**
+	 * Enables or disables this object. This is equivalent of setting the property {@link #METRICS_ENABLED}.
+	 * @param enabled whether to record durations
+	 */
+	public void setEnabled( boolean enabled ){
+		controller.getProperties().set( METRICS_ENABLED, enabled );
+	}
+	
+	/**
+	 * Tells whether this object records durations.
+	 * @return whether durations are recorded
+	 */
+	public boolean isEnabled(){
+		return enabled;
+	}
+	
+	/**
+	 * Starts measuring an operation.
+	 * @return the current time in nanoseconds, or {@link #DISABLED} if this object is disabled. The result
+	 * has to be forwarded to {@link #stop(MetricKey, long)}
+	 */
+	public long start(){
+		if( enabled ){
+			return System.nanoTime() - ORIGIN;
+		}
+		return DISABLED;
+	}
+	
+	/**
+	 * Stops measuring an operation and records its duration.
+	 * @param key the kind of operation that was measured
+	 * @param start the result of {@link #start()}, nothing happens if this value is {@link #DISABLED}
+	 */
+	public void stop( MetricKey key, long start ){
+		if( start != DISABLED ){
+			record( key, System.nanoTime() - ORIGIN - start );
+		}
+	}
+	
+	/**
+	 * Records the duration of an operation that was measured by some other means than {@link #start()}. Does
+	 * nothing if this object is not {@link #isEnabled() enabled}.
+	 * @param key the kind of operation
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void record( MetricKey key, long nanos ){
+		if( !enabled ){
+			return;
+		}
+		synchronized( histograms ){
+			MetricHistogram histogram = histograms.get( key );
+			if( histogram == null ){
+				histogram = new MetricHistogram();
+				histograms.put( key, histogram );
+			}
+			histogram.add( nanos );
+		}
+		for( DockMetricsListener listener : listeners ){
+			listener.measured( this, key, nanos );
+		}
+	}
+	
+	/**
+	 * Gets a copy of the durations that were recorded for <code>key</code>.
+	 * @param key the kind of operation
+	 * @return a copy of the histogram, <code>null</code> if the operation was never measured
+	 */
+	public MetricHistogram getHistogram( MetricKey key ){
+		synchronized( histograms ){
+			MetricHistogram histogram = histograms.get( key );
+			if( histogram == null ){
+				return null;
+			}
+			return new MetricHistogram( histogram );
+		}
+	}
+	
+	/**
+	 * Gets all the keys for which at least one duration was recorded.
+	 * @return the keys
+	 */
+	public MetricKey[] getKeys(){
+		synchronized( histograms ){
+			return histograms.keySet().toArray( new MetricKey[ histograms.size() ] );
+		}
+	}
+	
+	/**
+	 * Deletes all the recorded durations.
+	 */
+	public void reset(){
+		synchronized( histograms ){
+			histograms.clear();
+		}
+	}
+	
+	/**
+	 * Adds an observer to this object, the observer is informed about every duration that is recorded.
+	 * @param listener the new observer, not <code>null</code>
+	 */
+	public synchronized void addMetricsListener( DockMetricsListener listener ){
+		if( listener == null ){
+			throw new IllegalArgumentException( "listener must not be null" );
+		}
+		DockMetricsListener[] result = new DockMetricsListener[ listeners.length+1 ];
+		System.arraycopy( listeners, 0, result, 0, listeners.length );
+		result[ listeners.length ] = listener;
+		listeners = result;
+	}
+	
+	/**
+	 * Removes an observer from this object.
+	 * @param listener the observer to remove
+	 */
+	public synchronized void removeMetricsListener( DockMetricsListener listener ){
+		List<DockMetricsListener> list = new ArrayList<DockMetricsListener>();
+		for( DockMetricsListener item : listeners ){
+			list.add( item );
+		}
+		if( list.remove( listener ) ){
+			listeners = list.toArray( new DockMetricsListener[ list.size() ] );
+		}
+	}
+	
+	/**
+	 * Registers this object at the platform {@link MBeanServer} using the name 
+	 * "bibliothek.gui.dock:type=DockMetrics,id=&lt;id&gt;" where the id is unique for each {@link DockController}.
+	 * @return the name under which this object was registered
+	 * @throws JMException if the object cannot be registered
+	 * @throws SecurityException if the application is not allowed to access the {@link MBeanServer}
+	 */
+	public ObjectName registerMBean() throws JMException{
+		return registerMBean( new ObjectName( "bibliothek.gui.dock:type=DockMetrics,id=" + Integer.toHexString( System.identityHashCode( controller ) ) ) );
+	}
+	
+	/**
+	 * Registers this object at the platform {@link MBeanServer}. Any earlier registration is removed.
+	 * @param name the name of the new MBean
+	 * @return <code>name</code>
+	 * @throws JMException if the object cannot be registered
+	 * @throws SecurityException if the application is not allowed to access the {@link MBeanServer}
+	 */
+	public synchronized ObjectName registerMBean( ObjectName name ) throws JMException{
+		unregisterMBean();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		server.registerMBean( new StandardMBean( new MBean(), DockMetricsMBean.class ), name );
+		mbeanName = name;
+		return name;
+	}
+	
+	/**
+	 * Removes this object from the platform {@link MBeanServer}, does nothing if this object
+	 * is not registered.
+	 * @throws JMException if the object cannot be removed
+	 */
+	public synchronized void unregisterMBean() throws JMException{
+		if( mbeanName != null ){
+			ObjectName name = mbeanName;
+			mbeanName = null;
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if( server.isRegistered( name )){
+				server.unregisterMBean( name );
+			}
+		}
+	}
+	
+	/**
+	 * Releases all resources of this object, called when the {@link DockController} is killed.
+	 */
+	public void kill(){
+		try{
+			unregisterMBean();
+		}
+		catch( JMException ex ){
+			ex.printStackTrace();
+		}
+		enabledProperty.setProperties( (DockController)null );
+		enabled = false;
+	}
+	
+	/**
+	 * Searches the histogram whose key has the identifier <code>id</code>.
+	 * @param id the identifier of a key
+	 * @return a copy of the histogram or <code>null</code>
+	 */
+	private MetricHistogram getHistogram( String id ){
+		synchronized( histograms ){
+			for( Map.Entry<MetricKey, MetricHistogram> entry : histograms.entrySet() ){
+				if( entry.getKey().getId().equals( id )){
+					return new MetricHistogram( entry.getValue() );
+				}
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * The object that is registered at the {@link MBeanServer}.
+	 * @author Benjamin Sigg
+	 */
+	private class MBean implements DockMetricsMBean {
+		private static final double MILLIS = 1000000.0;
+		
+		public boolean isEnabled(){
+			return DockMetrics.this.isEnabled();
+		}
+		
+		public void setEnabled( boolean enabled ){
+			DockMetrics.this.setEnabled( enabled );
+		}
+		
+		public String[] getOperations(){
+			MetricKey[] keys = getKeys();
+			String[] result = new String[ keys.length ];
+			for( int i = 0; i < keys.length; i++ ){
+				result[i] = keys[i].getId();
+			}
+			return result;
+		}
+		
+		public long getCount( String id ){
+			MetricHistogram histogram = getHistogram( id );
+			return histogram == null ? 0 : histogram.getCount();
+		}
+		
+		public double getMeanMillis( String id ){
+			MetricHistogram histogram = getHistogram( id );
+			return histogram == null ? 0 : histogram.getMean() / MILLIS;
+		}
+		
+		public double getMaxMillis( String id ){
+			MetricHistogram histogram = getHistogram( id );
+			return histogram == null ? 0 : histogram.getMax() / MILLIS;
+		}
+		
+		public double getPercentileMillis( String id, double percentile ){
+			MetricHistogram histogram = getHistogram( id );
+			return histogram == null ? 0 : histogram.getPercentile( percentile ) / MILLIS;
+		}
+		
+		public void reset(){
+			DockMetrics.this.reset();
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.metrics;
+
+/**
+ * A listener added to {@link DockMetrics}, it is informed whenever an operation was measured. This
+ * listener can be used to export the durations to some other monitoring system. It is called on the
+ * thread that executed the operation, which is usually the EDT, hence it should return quickly.
+ * @author Benjamin Sigg
+ */
+public interface DockMetricsListener {
+	/**
+	 * Called after an operation was measured, the duration is already part of the
+	 * {@link DockMetrics#getHistogram(MetricKey) histogram} of <code>key</code>.
+	 * @param metrics the source of the event
+	 * @param key the kind of operation
+	 * @param nanos how long the operation took in nanoseconds
+	 */
+	public void measured( DockMetrics metrics, MetricKey key, long nanos );
+}
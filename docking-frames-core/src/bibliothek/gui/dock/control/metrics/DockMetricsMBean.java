@@ -0,0 +1,85 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.metrics;
+
+/**
+ * The interface through which a {@link DockMetrics} is exported through JMX, see {@link DockMetrics#registerMBean()}.
+ * Operations are identified by {@link MetricKey#getId()}, all durations are given in milliseconds.
+ * @author Benjamin Sigg
+ */
+public interface DockMetricsMBean {
+	/**
+	 * Tells whether durations are recorded.
+	 * @return whether the metrics are enabled
+	 */
+	public boolean isEnabled();
+	
+	/**
+	 * Enables or disables recording durations.
+	 * @param enabled whether to record durations
+	 */
+	public void setEnabled( boolean enabled );
+	
+	/**
+	 * Gets the identifiers of all operations that were measured at least once.
+	 * @return the identifiers
+	 */
+	public String[] getOperations();
+	
+	/**
+	 * Gets how often the operation <code>id</code> was measured.
+	 * @param id the identifier of the operation
+	 * @return the number of measurements
+	 */
+	public long getCount( String id );
+	
+	/**
+	 * Gets the average duration of the operation <code>id</code>.
+	 * @param id the identifier of the operation
+	 * @return the average duration in milliseconds
+	 */
+	public double getMeanMillis( String id );
+	
+	/**
+	 * Gets the longest duration of the operation <code>id</code>.
+	 * @param id the identifier of the operation
+	 * @return the longest duration in milliseconds
+	 */
+	public double getMaxMillis( String id );
+	
+	/**
+	 * Estimates a percentile of the durations of the operation <code>id</code>.
+	 * @param id the identifier of the operation
+	 * @param percentile a value between <code>0</code> and <code>1</code>
+	 * @return the estimated duration in milliseconds
+	 */
+	public double getPercentileMillis( String id, double percentile );
+	
+	/**
+	 * Deletes all recorded durations.
+	 */
+	public void reset();
+}
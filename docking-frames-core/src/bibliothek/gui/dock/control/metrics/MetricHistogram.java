@@ -0,0 +1,193 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.metrics;
+
+/**
+ * A histogram of durations. The durations are sorted into buckets whose size grows exponentially: the
+ * bucket <code>i</code> counts all durations <code>d</code> with <code>2<sup>i</sup> &lt;= d &lt; 2<sup>i+1</sup></code>
+ * nanoseconds. This way the histogram needs only little memory and recording a duration is cheap, while 
+ * percentiles are still precise enough to tell the difference between microseconds and milliseconds.<br>
+ * This class is not thread safe.
+ * @author Benjamin Sigg
+ */
+public class MetricHistogram {
+	/** the number of buckets of any histogram */
+	public static final int BUCKET_COUNT = 63;
+	
+	/** how many durations were recorded in each bucket */
+	private long[] buckets = new long[ BUCKET_COUNT ];
+	
+	/** the number of recorded durations */
+	private long count;
+	/** the sum of all recorded durations */
+	private long total;
+	/** the smallest recorded duration */
+	private long min = Long.MAX_VALUE;
+	/** the largest recorded duration */
+	private long max = 0;
+	
+	/**
+	 * Creates a new empty histogram.
+	 */
+	public MetricHistogram(){
+		// nothing
+	}
+	
+	/**
+	 * Creates a copy of <code>histogram</code>.
+	 * @param histogram the histogram to copy
+	 */
+	public MetricHistogram( MetricHistogram histogram ){
+		buckets = histogram.buckets.clone();
+		count = histogram.count;
+		total = histogram.total;
+		min = histogram.min;
+		max = histogram.max;
+	}
+	
+	/**
+	 * Records one duration.
+	 * @param nanos the duration in nanoseconds, negative values are treated as <code>0</code>
+	 */
+	public void add( long nanos ){
+		if( nanos < 0 ){
+			nanos = 0;
+		}
+		buckets[ bucket( nanos ) ]++;
+		count++;
+		total += nanos;
+		min = Math.min( min, nanos );
+		max = Math.max( max, nanos );
+	}
+	
+	private int bucket( long nanos ){
+		if( nanos <= 1 ){
+			return 0;
+		}
+		return 63 - Long.numberOfLeadingZeros( nanos );
+	}
+	
+	/**
+	 * Gets the number of recorded durations.
+	 * @return the number of durations
+	 */
+	public long getCount(){
+		return count;
+	}
+	
+	/**
+	 * Gets the sum of all the recorded durations.
+	 * @return the sum in nanoseconds
+	 */
+	public long getTotal(){
+		return total;
+	}
+	
+	/**
+	 * Gets the smallest recorded duration.
+	 * @return the smallest duration in nanoseconds, <code>0</code> if nothing was recorded
+	 */
+	public long getMin(){
+		return count == 0 ? 0 : min;
+	}
+	
+	/**
+	 * Gets the largest recorded duration.
+	 * @return the largest duration in nanoseconds
+	 */
+	public long getMax(){
+		return max;
+	}
+	
+	/**
+	 * Gets the average duration.
+	 * @return the average in nanoseconds, <code>0</code> if nothing was recorded
+	 */
+	public double getMean(){
+		return count == 0 ? 0 : total / (double)count;
+	}
+	
+	/**
+	 * Gets the number of durations that were sorted into the bucket <code>index</code>.
+	 * @param index the index of the bucket, between <code>0</code> and {@link #BUCKET_COUNT}
+	 * @return the number of durations in the bucket
+	 * @see #getLowerBound(int)
+	 * @see #getUpperBound(int)
+	 */
+	public long getFrequency( int index ){
+		return buckets[ index ];
+	}
+	
+	/**
+	 * Gets the smallest duration that is sorted into the bucket <code>index</code>.
+	 * @param index the index of the bucket
+	 * @return the smallest duration in nanoseconds
+	 */
+	public long getLowerBound( int index ){
+		return index == 0 ? 0 : 1L << index;
+	}
+	
+	/**
+	 * Gets the largest duration that is sorted into the bucket <code>index</code>.
+	 * @param index the index of the bucket
+	 * @return the largest duration in nanoseconds
+	 */
+	public long getUpperBound( int index ){
+		if( index == BUCKET_COUNT-1 ){
+			return Long.MAX_VALUE;
+		}
+		return (1L << (index+1)) - 1;
+	}
+	
+	/**
+	 * Estimates the duration below which <code>percentile</code> of all recorded durations are. The
+	 * result is the upper bound of the bucket containing the percentile, but never larger than {@link #getMax()}.
+	 * @param percentile a value between <code>0</code> and <code>1</code>, e.g. <code>0.99</code>
+	 * @return the estimated duration in nanoseconds, <code>0</code> if nothing was recorded
+	 */
+	public long getPercentile( double percentile ){
+		if( percentile < 0 || percentile > 1 ){
+			throw new IllegalArgumentException( "percentile must be between 0 and 1: " + percentile );
+		}
+		if( count == 0 ){
+			return 0;
+		}
+		long limit = (long)Math.ceil( percentile * count );
+		long sum = 0;
+		for( int i = 0; i < BUCKET_COUNT; i++ ){
+			sum += buckets[i];
+			if( sum >= limit && sum > 0 ){
+				return Math.min( max, getUpperBound( i ) );
+			}
+		}
+		return max;
+	}
+	
+	@Override
+	public String toString(){
+		return getClass().getSimpleName() + "[count=" + count + ", mean=" + getMean() + ", max=" + max + "]";
+	}
+}
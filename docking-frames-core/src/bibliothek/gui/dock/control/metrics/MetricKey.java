@@ -0,0 +1,75 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.metrics;
+
+/**
+ * Identifies one kind of operation that is measured by {@link DockMetrics}. Keys are compared
+ * by identity, clients should store them in constants.
+ * @author Benjamin Sigg
+ */
+public final class MetricKey {
+	/** unique name of this key */
+	private final String id;
+	/** human readable description of the operation */
+	private final String description;
+	
+	/**
+	 * Creates a new key.
+	 * @param id a unique name, used for example as name of the value exported through JMX, not <code>null</code>
+	 * @param description a short human readable description of the measured operation, not <code>null</code>
+	 */
+	public MetricKey( String id, String description ){
+		if( id == null ){
+			throw new IllegalArgumentException( "id must not be null" );
+		}
+		if( description == null ){
+			throw new IllegalArgumentException( "description must not be null" );
+		}
+		this.id = id;
+		this.description = description;
+	}
+	
+	/**
+	 * Gets the unique name of this key.
+	 * @return the name, not <code>null</code>
+	 */
+	public String getId(){
+		return id;
+	}
+	
+	/**
+	 * Gets a short description of the measured operation.
+	 * @return the description, not <code>null</code>
+	 */
+	public String getDescription(){
+		return description;
+	}
+	
+	@Override
+	public String toString(){
+		return id;
+	}
+}
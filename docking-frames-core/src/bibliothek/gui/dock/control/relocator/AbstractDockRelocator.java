@@ -81,6 +81,14 @@ public abstract class AbstractDockRelocator implements DockRelocator{
 		this.controller = controller;
 	}
 	
+	/**
+	 * Removes all the listeners this relocator added to its {@link DockController}. Called by
+	 * {@link DockController#kill()}, the default implementation does nothing.
+	 */
+	public void kill(){
+		// nothing
+	}
+	
 	/**
 	 * Gets the controller for which this relocator works.
 	 * @return the controller
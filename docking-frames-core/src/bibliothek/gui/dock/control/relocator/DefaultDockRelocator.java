@@ -38,6 +38,7 @@ import java.awt.event.ComponentListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,14 +55,17 @@ import bibliothek.gui.dock.DockElementRepresentative;
 import bibliothek.gui.dock.accept.DockAcceptance;
 import bibliothek.gui.dock.control.ControllerSetupCollection;
 import bibliothek.gui.dock.control.DirectRemoteRelocator;
+import bibliothek.gui.dock.control.FilteredGlobalMouseDispatcher;
 import bibliothek.gui.dock.control.GlobalMouseDispatcher;
 import bibliothek.gui.dock.control.RemoteRelocator;
 import bibliothek.gui.dock.control.RemoteRelocator.Reaction;
+import bibliothek.gui.dock.control.metrics.DockMetrics;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.dockable.DockableMovingImageFactory;
 import bibliothek.gui.dock.dockable.MovingImage;
 import bibliothek.gui.dock.event.ControllerSetupListener;
 import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.station.StationDragOperation;
 import bibliothek.gui.dock.station.StationDropItem;
 import bibliothek.gui.dock.station.StationDropOperation;
@@ -128,6 +132,9 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     /** The {@link DockControllerRepresentativeListener} that creates all the {@link MouseListener}s */
     private Listener listeners;
     
+    /** the layers of all the stations that were considered in the last drag step */
+    private LayerCache layerCache = new LayerCache();
+    
 	/**
 	 * Creates a new manager.
 	 * @param controller the controller whose dockables are moved
@@ -148,6 +155,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 		setup.add( new ControllerSetupListener(){
 		    public void done( DockController controller ) {
 		        controller.addRepresentativeListener( listeners );
+		        layerCache.link( controller );
 		        
 		        List<Merger> mergers = controller.getExtensions().load( new ExtensionName<Merger>( MERGE_EXTENSION, Merger.class, EXTENSION_PARAM, DefaultDockRelocator.this ));
 				for( Merger next : mergers ){
@@ -168,6 +176,11 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 		setInserter( inserter );
 	}
 	
+	@Override
+	public void kill(){
+		layerCache.unlink();
+	}
+	
 	public boolean isOnMove(){
         return onMove;
     }
@@ -403,7 +416,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     	DisablingStrategy disabling = controller.getProperties().get( DisablingStrategy.STRATEGY );
     	DockStationDropLayerFactory dropLayerFactory = controller.getProperties().get( DockStationDropLayerFactory.DROP_LAYER_FACTORY );
     	
-    	OrderedLayerCollection collection = new OrderedLayerCollection( dropLayerFactory );
+    	List<DockStation> stations = new ArrayList<DockStation>();
     	
     	if( disabling == null || !disabling.isDisabled( moved )){
 	        DockStation movedStation = moved.asDockStation();
@@ -412,14 +425,15 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 	        		if( disabling == null || !disabling.isDisabled( station )){
 		        		if( movedStation == null || (!DockUtilities.isAncestor( movedStation, station ) && movedStation != station )){
 		        			if( station.isStationShowing() && isStationValid( station ) ){
-		        				collection.add( station );
+		        				stations.add( station );
 			                }
 			            }
 	        		}
 		        }
 	        }
     	}
-	    return collection.sort( x, y );
+    	
+	    return layerCache.sort( dropLayerFactory, stations, x, y );
     }
     
     /**
@@ -590,6 +604,17 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
      * @return how this relocator reacts on the event
      */
     protected Reaction dragMouseDragged( int x, int y, int modifiers, DockTitle title, Dockable dockable, boolean always, boolean forceDrag, boolean showMovingImage ){
+    	DockMetrics metrics = getController().getMetrics();
+    	long measure = metrics.start();
+    	try{
+    		return measuredMouseDragged( x, y, modifiers, title, dockable, always, forceDrag, showMovingImage );
+    	}
+    	finally{
+    		metrics.stop( DockMetrics.RELOCATOR_DRAG, measure );
+    	}
+    }
+    
+    private Reaction measuredMouseDragged( int x, int y, int modifiers, DockTitle title, Dockable dockable, boolean always, boolean forceDrag, boolean showMovingImage ){
     	listeners.unsetLastActiveListener();
     	
         if( pressPointScreen == null )
@@ -673,6 +698,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
             if( parent != null ){
             	dragOperation = parent.prepareDrag( dockable );
             }
+            layerCache.invalidate();
             
             event = new DefaultDockRelocatorEvent( getController(), dockable, implicit, null, mouse, false );
             fireGrabbed( event );
@@ -1183,6 +1209,132 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
         }
     }
     
+    /**
+     * Keeps an {@link OrderedLayerCollection} alive between the steps of a drag and drop operation. The
+     * layers are only collected again if the set of stations changes, if a {@link Dockable} is
+     * registered or unregistered, or if the {@link Component} of a station changes its size or visibility.
+     * @author Benjamin Sigg
+     */
+    private class LayerCache extends DockRegisterAdapter implements ComponentListener{
+    	/** the collection that was used in the last drag step */
+    	private OrderedLayerCollection collection;
+    	
+    	/** the factory that was used to create {@link #collection} */
+    	private DockStationDropLayerFactory factory;
+    	
+    	/** the {@link Component}s that are currently observed */
+    	private Map<DockStation, Component> components = new HashMap<DockStation, Component>();
+    	
+    	/** the controller whose stations are observed */
+    	private DockController controller;
+    	
+    	/**
+    	 * Starts observing all the stations that are registered at <code>controller</code>.
+    	 * @param controller the controller whose stations are observed
+    	 */
+    	public void link( DockController controller ){
+    		this.controller = controller;
+    		controller.getRegister().addDockRegisterListener( this );
+    		for( DockStation station : controller.getRegister().listDockStations() ){
+    			dockStationRegistered( controller, station );
+    		}
+    	}
+    	
+    	/**
+    	 * Removes all the listeners that were added by {@link #link(DockController)}.
+    	 */
+    	public void unlink(){
+    		if( controller != null ){
+    			controller.getRegister().removeDockRegisterListener( this );
+    			controller = null;
+    		}
+    		for( Component component : components.values() ){
+    			component.removeComponentListener( this );
+    		}
+    		components.clear();
+    		collection = null;
+    		factory = null;
+    	}
+    	
+    	/**
+    	 * Orders <code>stations</code> by their {@link DockStationDropLayer}s.
+    	 * @param factory the factory used to find the layers of the stations
+    	 * @param stations the stations to order
+    	 * @param x the x-coordinate of the mouse on the screen
+    	 * @param y the y-coordinate of the mouse on the screen
+    	 * @return the ordered stations
+    	 * @see OrderedLayerCollection#sort(int, int)
+    	 */
+    	public List<DockStation> sort( DockStationDropLayerFactory factory, List<DockStation> stations, int x, int y ){
+    		if( collection == null || this.factory != factory ){
+    			this.factory = factory;
+    			collection = new OrderedLayerCollection( factory );
+    		}
+    		collection.setStations( stations );
+    		return collection.sort( x, y );
+    	}
+    	
+    	/**
+    	 * Forces the cache to collect the layers of all stations again.
+    	 */
+    	public void invalidate(){
+    		if( collection != null ){
+    			collection.invalidate();
+    		}
+    	}
+    	
+    	@Override
+    	public void dockableRegistered( DockController controller, Dockable dockable ){
+    		invalidate();
+    	}
+    	
+    	@Override
+    	public void dockableUnregistered( DockController controller, Dockable dockable ){
+    		invalidate();
+    	}
+    	
+    	@Override
+    	public void dockStationRegistered( DockController controller, DockStation station ){
+    		invalidate();
+    		Dockable dockable = station.asDockable();
+    		if( dockable != null && !components.containsKey( station )){
+    			Component component = dockable.getComponent();
+    			if( component != null ){
+    				component.addComponentListener( this );
+    				components.put( station, component );
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	public void dockStationUnregistered( DockController controller, DockStation station ){
+    		invalidate();
+    		Component component = components.remove( station );
+    		if( component != null ){
+    			component.removeComponentListener( this );
+    		}
+    		if( collection != null ){
+    			collection.remove( station );
+    		}
+    	}
+    	
+    	public void componentResized( ComponentEvent e ){
+    		invalidate();
+    	}
+    	
+    	public void componentShown( ComponentEvent e ){
+    		invalidate();
+    	}
+    	
+    	public void componentHidden( ComponentEvent e ){
+    		invalidate();
+    	}
+    	
+    	public void componentMoved( ComponentEvent e ){
+    		// the layers check the location of their components whenever the mouse moves
+    	}
+    }
+    
     /**
      * A global {@link MouseListener} that forwards the {@link #mouseReleased(MouseEvent)} to the last
      * active {@link MouseRepresentativeListener}, thus making sure that all drag and drop operations finish.
@@ -1217,7 +1369,12 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 
     			GlobalMouseDispatcher mouseDispatcher = getController().getGlobalMouseDispatcher();
     			if( enabled ){
-    				mouseDispatcher.addMouseListener( this );
+    				if( mouseDispatcher instanceof FilteredGlobalMouseDispatcher ){
+    					((FilteredGlobalMouseDispatcher)mouseDispatcher).addMouseListener( this, FilteredGlobalMouseDispatcher.MOUSE_RELEASED_MASK );
+    				}
+    				else{
+    					mouseDispatcher.addMouseListener( this );
+    				}
     			}
     			else{
     				mouseDispatcher.removeMouseListener( this );
@@ -0,0 +1,116 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2008 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.event;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.DockRegister;
+
+/**
+ * An event that lists all the {@link Dockable}s and {@link DockStation}s that were registered or
+ * unregistered at a {@link DockRegister} as a result of one operation, e.g. of
+ * {@link DockRegister#setStalled(boolean) unstalling} the register.
+ * @author Benjamin Sigg
+ * @see DockRegisterBatchListener
+ */
+public class DockRegisterBatchEvent {
+	private DockController controller;
+	private Dockable[] registeredDockables;
+	private Dockable[] unregisteredDockables;
+	private DockStation[] registeredStations;
+	private DockStation[] unregisteredStations;
+	private Dockable[] cycledDockables;
+	
+	/**
+	 * Creates a new event.
+	 * @param controller the controller whose register changed
+	 * @param registeredDockables the {@link Dockable}s that were registered
+	 * @param unregisteredDockables the {@link Dockable}s that were unregistered
+	 * @param registeredStations the {@link DockStation}s that were registered
+	 * @param unregisteredStations the {@link DockStation}s that were unregistered
+	 * @param cycledDockables the {@link Dockable}s that were added and removed, or removed and added, while
+	 * the register was stalled
+	 */
+	public DockRegisterBatchEvent( DockController controller, Dockable[] registeredDockables, Dockable[] unregisteredDockables,
+			DockStation[] registeredStations, DockStation[] unregisteredStations, Dockable[] cycledDockables ){
+		this.controller = controller;
+		this.registeredDockables = registeredDockables;
+		this.unregisteredDockables = unregisteredDockables;
+		this.registeredStations = registeredStations;
+		this.unregisteredStations = unregisteredStations;
+		this.cycledDockables = cycledDockables;
+	}
+	
+	/**
+	 * Gets the controller whose {@link DockRegister} changed.
+	 * @return the controller
+	 */
+	public DockController getController(){
+		return controller;
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that were registered, in the order in which they were registered.
+	 * @return the new dockables, may be empty
+	 */
+	public Dockable[] getRegisteredDockables(){
+		return registeredDockables;
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that were unregistered, in the order in which they were unregistered.
+	 * @return the removed dockables, may be empty
+	 */
+	public Dockable[] getUnregisteredDockables(){
+		return unregisteredDockables;
+	}
+	
+	/**
+	 * Gets all the {@link DockStation}s that were registered, in the order in which they were registered.
+	 * @return the new stations, may be empty
+	 */
+	public DockStation[] getRegisteredStations(){
+		return registeredStations;
+	}
+	
+	/**
+	 * Gets all the {@link DockStation}s that were unregistered, in the order in which they were unregistered.
+	 * @return the removed stations, may be empty
+	 */
+	public DockStation[] getUnregisteredStations(){
+		return unregisteredStations;
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that cycled the register, see 
+	 * {@link DockRegisterListener#dockableCycledRegister(DockController, Dockable)}.
+	 * @return the cycled dockables, may be empty
+	 */
+	public Dockable[] getCycledDockables(){
+		return cycledDockables;
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2008 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.event;
+
+import bibliothek.gui.dock.control.DockRegister;
+
+/**
+ * A variant of {@link DockRegisterListener} that is informed about changes of a {@link DockRegister}
+ * in batches. While the register is {@link DockRegister#setStalled(boolean) stalled}, all the changes
+ * are collected and delivered in one event once the register is no longer stalled. While the register
+ * is not stalled, each operation (e.g. adding a station with all its children) results in one event.
+ * @author Benjamin Sigg
+ */
+public interface DockRegisterBatchListener {
+	/**
+	 * Called after some {@link bibliothek.gui.Dockable}s or {@link bibliothek.gui.DockStation}s were
+	 * registered or unregistered. This method is called after the {@link DockRegisterListener}s
+	 * were informed about the single changes.
+	 * @param event the changes, never empty
+	 */
+	public void registerChanged( DockRegisterBatchEvent event );
+}
@@ -35,6 +35,8 @@ import bibliothek.gui.dock.layout.*;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XAttribute;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
 import bibliothek.util.xml.XException;
 
 
@@ -256,6 +258,63 @@ public class Setting{
         }
     }
     
+    /**
+     * Writes the properties of this setting in xml format into the element that is currently
+     * open in <code>writer</code>. The output is the same as the output of
+     * {@link #writeXML(DockSituation, PropertyTransformer, boolean, XElement)}, but the layouts
+     * are written one after the other without creating the whole tree of {@link XElement}s.<br>
+     * Subclasses overriding {@link #writeXML(DockSituation, PropertyTransformer, boolean, XElement)}
+     * should override this method as well.
+     * @param situation can be used to write {@link DockLayout}s
+     * @param transformer can be used to write {@link DockableProperty}s
+     * @param entry if <code>true</code>, then this setting is used as one of
+     * the settings a user can choose. If <code>false</code> then this setting
+     * is used as the final setting that is written when the application
+     * shuts down.
+     * @param writer the writer to write into
+     * @throws IOException if <code>writer</code> throws an exception
+     */
+    public void writeXML( DockSituation situation, PropertyTransformer transformer, boolean entry, XElementWriter writer ) throws IOException{
+        writer.open( new XElement( "roots" ) );
+        for( String root : getRootKeys() ){
+            XElement xroot = new XElement( "root" );
+            xroot.addString( "name", root );
+            writer.open( xroot );
+            situation.writeCompositionXML( getRoot( root ), writer );
+            writer.close();
+        }
+        writer.close();
+        
+        writer.open( new XElement( "children" ) );
+        for( int i = 0, n = getInvisibleCount(); i<n; i++ ){
+            XElement xchild = new XElement( "child" );
+            xchild.addString( "key", getInvisibleKey( i ) );
+            String root = getInvisibleRoot( i );
+            if( root != null ){
+                xchild.addString( "root", root );
+            }
+            
+            DockableProperty location = getInvisibleLocation( i );
+            xchild.addBoolean( "location", location != null );
+            writer.open( xchild );
+            
+            if( location != null ){
+                XElement xlocation = new XElement( "location" );
+                transformer.writeXML( location, xlocation );
+                writer.write( xlocation );
+            }
+            
+            DockLayoutComposition layout = getInvisibleLayout( i );
+            if( layout != null ){
+                writer.open( new XElement( "layout" ) );
+                situation.writeCompositionXML( layout, writer );
+                writer.close();
+            }
+            writer.close();
+        }
+        writer.close();
+    }
+    
     /**
      * Reads the properties of this setting. Old properties are deleted without
      * further notice.
@@ -391,6 +450,126 @@ public class Setting{
         }
     }
     
+    /**
+     * Reads the properties of this setting from the element that is currently open in
+     * <code>reader</code>. The result is the same as if
+     * {@link #readXML(DockSituation, PropertyTransformer, boolean, XElement)} was called, but only
+     * the layouts are converted into {@link XElement}s, one after the other. Old properties are
+     * deleted without further notice. Afterwards all the children of the open element are consumed,
+     * but the element itself is not {@link XElementReader#close() closed}.<br>
+     * Subclasses overriding {@link #readXML(DockSituation, PropertyTransformer, boolean, XElement)}
+     * should override this method as well.
+     * @param situation can be used to read {@link DockLayout}s
+     * @param transformer can be used to read {@link DockableProperty}s
+     * @param entry if <code>true</code>, then this setting is used as one of
+     * the settings a user can choose. If <code>false</code> then this setting
+     * is used as the first setting that is read when the application
+     * starts up.
+     * @param reader the reader whose current element is to be read
+     * @throws IOException if <code>reader</code> throws an exception
+     * @throws XException if something is missing or malformed in the element
+     */
+    public void readXML( DockSituation situation, PropertyTransformer transformer, boolean entry, XElementReader reader ) throws IOException{
+        roots.clear();
+        dockables.clear();
+        
+        boolean rootsRead = false;
+        boolean childrenRead = false;
+        
+        XElement next;
+        while( (next = reader.peek()) != null ){
+            if( !rootsRead && "roots".equals( next.getName() )){
+                rootsRead = true;
+                reader.open();
+                XElement xroot;
+                while( (xroot = reader.open()) != null ){
+                    if( "root".equals( xroot.getName() )){
+                        String name = xroot.getString( "name" );
+                        DockLayoutComposition composition = situation.readCompositionXML( reader );
+                        if( composition != null ){
+                            putRoot( name, composition );
+                        }
+                    }
+                    reader.close();
+                }
+                reader.close();
+            }
+            else if( !childrenRead && "children".equals( next.getName() )){
+                childrenRead = true;
+                reader.open();
+                XElement xchild;
+                while( (xchild = reader.peek()) != null ){
+                    if( !"child".equals( xchild.getName() )){
+                        reader.skip();
+                    }
+                    else if( xchild.getAttribute( "location" ) == null ){
+                        // old style, the location is stored directly in the child
+                        xchild = reader.read();
+                        addInvisible( xchild.getString( "key" ), readRoot( xchild ), null, transformer.readXML( xchild ) );
+                    }
+                    else{
+                        reader.open();
+                        readInvisibleXML( situation, transformer, xchild, reader );
+                        reader.close();
+                    }
+                }
+                reader.close();
+            }
+            else{
+                reader.skip();
+            }
+        }
+    }
+    
+    /**
+     * Reads an invisible element whose head is <code>xchild</code> and whose content is currently
+     * open in <code>reader</code>.
+     * @param situation used to read {@link DockLayout}s
+     * @param transformer used to read {@link DockableProperty}s
+     * @param xchild the name and the attributes of the element
+     * @param reader the reader whose current element is to be read
+     * @throws IOException if <code>reader</code> throws an exception
+     */
+    private void readInvisibleXML( DockSituation situation, PropertyTransformer transformer, XElement xchild, XElementReader reader ) throws IOException{
+        boolean hasLocation = xchild.getBoolean( "location" );
+        DockableProperty location = null;
+        boolean locationRead = false;
+        DockLayoutComposition layout = null;
+        boolean layoutRead = false;
+        
+        XElement next;
+        while( (next = reader.peek()) != null ){
+            if( hasLocation && !locationRead && "location".equals( next.getName() )){
+                locationRead = true;
+                location = transformer.readXML( reader.read() );
+            }
+            else if( !layoutRead && "layout".equals( next.getName() )){
+                layoutRead = true;
+                reader.open();
+                layout = situation.readCompositionXML( reader );
+                reader.close();
+            }
+            else{
+                reader.skip();
+            }
+        }
+        
+        addInvisible( xchild.getString( "key" ), readRoot( xchild ), layout, location );
+    }
+    
+    /**
+     * Gets the value of the "root" attribute of <code>xchild</code>.
+     * @param xchild the element to read
+     * @return the root or <code>null</code>
+     */
+    private String readRoot( XElement xchild ){
+        XAttribute aroot = xchild.getAttribute( "root" );
+        if( aroot == null ){
+            return null;
+        }
+        return aroot.getString();
+    }
+    
     /**
      * Describes the location of an invisible element.
      * @author Benjamin Sigg
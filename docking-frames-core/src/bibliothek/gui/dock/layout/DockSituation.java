@@ -47,6 +47,8 @@ import bibliothek.gui.dock.DockFactory;
 import bibliothek.gui.dock.FlapDockStation;
 import bibliothek.gui.dock.SplitDockStation;
 import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.control.metrics.DockMetrics;
+import bibliothek.gui.dock.control.metrics.MetricKey;
 import bibliothek.gui.dock.dockable.DefaultDockableFactory;
 import bibliothek.gui.dock.perspective.Perspective;
 import bibliothek.gui.dock.perspective.PerspectiveElement;
@@ -65,6 +67,8 @@ import bibliothek.util.Todo.Compatibility;
 import bibliothek.util.Todo.Priority;
 import bibliothek.util.xml.XAttribute;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
 import bibliothek.util.xml.XException;
 
 /**
@@ -103,6 +107,9 @@ public class DockSituation {
     
     /** strategy used to filter placeholders when converting the intermediate format to real {@link DockElement}s */
     private PlaceholderStrategy placeholders;
+    
+    /** measures how long reading and writing takes, can be <code>null</code> */
+    private DockMetrics metrics;
 
     /**
      * Constructs a new DockSituation and sets some factories which are
@@ -129,6 +136,8 @@ public class DockSituation {
                 new StackDockStationFactory(),
                 new FlapDockStationFactory());
         
+        setMetrics( controller.getMetrics() );
+        
         @SuppressWarnings("rawtypes")
 		List<DockFactory> factories = controller.getExtensions().load( new ExtensionName<DockFactory>( DOCK_FACTORY_EXTENSION, DockFactory.class, EXTENSION_PARAM, this ) );
         for( DockFactory<?,?,?> factory : factories ){
@@ -142,6 +151,39 @@ public class DockSituation {
         }
     }
 
+    /**
+     * Sets the {@link DockMetrics} which measure how long reading and writing layouts takes. Only
+     * the methods that read or write whole maps of {@link DockStation}s are measured, that are
+     * {@link #read(DataInputStream)}, {@link #write(Map, DataOutputStream)}, {@link #readXML(XElement)},
+     * {@link #writeXML(Map, XElement)}, {@link #readXML(XElementReader)} and {@link #writeXML(Map, XElementWriter)}.
+     * The constructor {@link #DockSituation(DockController)} already sets the metrics of the controller.
+     * @param metrics the metrics, can be <code>null</code>
+     */
+    public void setMetrics( DockMetrics metrics ){
+		this.metrics = metrics;
+	}
+    
+    /**
+     * Gets the {@link DockMetrics} which measure how long reading and writing layouts takes.
+     * @return the metrics, can be <code>null</code>
+     */
+    public DockMetrics getMetrics(){
+		return metrics;
+	}
+    
+    private long startMeasuring(){
+    	if( metrics == null ){
+    		return DockMetrics.DISABLED;
+    	}
+    	return metrics.start();
+    }
+    
+    private void stopMeasuring( MetricKey key, long start ){
+    	if( metrics != null ){
+    		metrics.stop( key, start );
+    	}
+    }
+    
     /**
      * Creates a new {@link Perspective} that uses the settings made on this {@link DockSituation}. Changes on the
      * properties of this {@link DockSituation} will be noticed and used by the created {@link Perspective}. However
@@ -744,14 +786,20 @@ public class DockSituation {
      * @throws IOException if the stream throws an exception
      */
     public void write( Map<String, DockStation> stations, DataOutputStream out ) throws IOException{
-    	Map<String, DockLayoutComposition> map = new HashMap<String, DockLayoutComposition>();
-    	for( Map.Entry<String, DockStation> entry : stations.entrySet() ){
-    		DockLayoutComposition composition = convert( entry.getValue() );
-    		if( composition != null ){
-    			map.put( entry.getKey(), composition );
-    		}
+    	long start = startMeasuring();
+    	try{
+	    	Map<String, DockLayoutComposition> map = new HashMap<String, DockLayoutComposition>();
+	    	for( Map.Entry<String, DockStation> entry : stations.entrySet() ){
+	    		DockLayoutComposition composition = convert( entry.getValue() );
+	    		if( composition != null ){
+	    			map.put( entry.getKey(), composition );
+	    		}
+	    	}
+	    	writeCompositions( map, out );
+    	}
+    	finally{
+    		stopMeasuring( DockMetrics.SITUATION_WRITE, start );
     	}
-    	writeCompositions( map, out );
     }
 
     /**
@@ -792,21 +840,27 @@ public class DockSituation {
      * @throws IOException if the stream can't be read
      */
     public Map<String, DockStation> read( DataInputStream in ) throws IOException{
-        Version version = Version.read( in );
-        version.checkCurrent();
-
-        int count = in.readInt();
-        Map<String, DockStation> result = new HashMap<String, DockStation>();
-        for( int i = 0; i < count; i++ ){
-            String key = in.readUTF();
-            DockLayoutComposition composition = readComposition( in );
-            DockElement element = composition == null ? null : convert( composition );
-            DockStation station = element == null ? null : element.asDockStation();
-            if( station != null ){
-                result.put( key, station );
-            }
-        }
-        return result;
+    	long start = startMeasuring();
+    	try{
+	        Version version = Version.read( in );
+	        version.checkCurrent();
+
+	        int count = in.readInt();
+	        Map<String, DockStation> result = new HashMap<String, DockStation>();
+	        for( int i = 0; i < count; i++ ){
+	            String key = in.readUTF();
+	            DockLayoutComposition composition = readComposition( in );
+	            DockElement element = composition == null ? null : convert( composition );
+	            DockStation station = element == null ? null : element.asDockStation();
+	            if( station != null ){
+	                result.put( key, station );
+	            }
+	        }
+	        return result;
+    	}
+    	finally{
+    		stopMeasuring( DockMetrics.SITUATION_READ, start );
+    	}
     }
 
     /**
@@ -839,8 +893,57 @@ public class DockSituation {
      * @param element the element to write into
      * @throws IllegalArgumentException if a factory is missing
      */
-    @SuppressWarnings("unchecked")
     public void writeCompositionXML( DockLayoutComposition composition, XElement element ){
+        writeLayoutXML( composition, element );
+
+        XElement xchildren = element.addElement( "children" );
+        xchildren.addBoolean( "ignore", composition.isIgnoreChildren() );
+
+        for( DockLayoutComposition child : composition.getChildren() ){
+            XElement xchild = xchildren.addElement( "child" );
+            writeCompositionXML( child, xchild );
+        }
+    }
+    
+    /**
+     * Writes the contents of <code>composition</code> into the element that is currently
+     * open in <code>writer</code>. Unlike {@link #writeCompositionXML(DockLayoutComposition, XElement)}
+     * this method does not create the tree of {@link XElement}s of the children of <code>composition</code>,
+     * each child is written as soon as it is converted.
+     * @param composition the composition to write
+     * @param writer the writer to write into
+     * @throws IOException if <code>writer</code> throws an exception
+     * @throws IllegalArgumentException if a factory is missing
+     */
+    public void writeCompositionXML( DockLayoutComposition composition, XElementWriter writer ) throws IOException{
+        XElement element = new XElement( "layout" );
+        writeLayoutXML( composition, element );
+        for( XElement child : element.children() ){
+            writer.write( child );
+        }
+        
+        XElement xchildren = new XElement( "children" );
+        xchildren.addBoolean( "ignore", composition.isIgnoreChildren() );
+        writer.open( xchildren );
+        
+        for( DockLayoutComposition child : composition.getChildren() ){
+            writer.open( new XElement( "child" ) );
+            writeCompositionXML( child, writer );
+            writer.close();
+        }
+        
+        writer.close();
+    }
+    
+    /**
+     * Writes the layout and the adjacent layouts of <code>composition</code>, but not its children,
+     * into <code>element</code>.
+     * @param composition the composition to write
+     * @param element the element to write into
+     * @throws IllegalArgumentException if a factory is missing
+     */
+    @SuppressWarnings("unchecked")
+    private void writeLayoutXML( DockLayoutComposition composition, XElement element ){
         DockLayoutInfo info = composition.getLayout();
         if( info.getKind() == DockLayoutInfo.Data.XML ){
             element.addElement( info.getDataXML() );
@@ -879,14 +982,6 @@ public class DockSituation {
                 adjacentFactory.write( adjacentLayout.getData(), xlayout );
             }
         }
-
-        XElement xchildren = element.addElement( "children" );
-        xchildren.addBoolean( "ignore", composition.isIgnoreChildren() );
-
-        for( DockLayoutComposition child : composition.getChildren() ){
-            XElement xchild = xchildren.addElement( "child" );
-            writeCompositionXML( child, xchild );
-        }
     }
 
     /**
@@ -895,12 +990,86 @@ public class DockSituation {
      * @return the composition that was read
      * @throws XException if something is missing or malformed in <code>element</code>
      */
-    @SuppressWarnings("unchecked")
     public DockLayoutComposition readCompositionXML( XElement element ){
         XElement xfactory = element.getElement( "layout" );
         DockLayoutInfo layout = readEntry( xfactory );
 
         XElement xadjacent = element.getElement( "adjacent" );
+        List<DockLayout<?>> adjacentLayouts = readAdjacentXML( xadjacent );
+
+        XElement xchildren = element.getElement( "children" );
+        boolean ignore = true;
+        List<DockLayoutComposition> children = new ArrayList<DockLayoutComposition>();
+
+        if( xchildren != null ){
+            ignore = xchildren.getBoolean( "ignore" );
+            for( XElement xchild : xchildren.getElements( "child" )){
+                children.add( readCompositionXML( xchild ));
+            }
+        }
+
+        return new DockLayoutComposition( layout, adjacentLayouts, children, ignore );
+    }
+    
+    /**
+     * Reads a {@link DockLayoutComposition} from the element that is currently open in <code>reader</code>.
+     * Only the layouts of the composition and of its children are converted into {@link XElement}s,
+     * each child is converted as soon as it is read. Afterwards all the children of the open element
+     * are consumed, but the element itself is not {@link XElementReader#close() closed}.
+     * @param reader the reader whose current element is to be read
+     * @return the composition that was read
+     * @throws IOException if <code>reader</code> throws an exception
+     * @throws XException if something is missing or malformed in the element
+     */
+    public DockLayoutComposition readCompositionXML( XElementReader reader ) throws IOException{
+        DockLayoutInfo layout = null;
+        boolean layoutRead = false;
+        List<DockLayout<?>> adjacentLayouts = null;
+        boolean adjacentRead = false;
+        boolean ignore = true;
+        boolean childrenRead = false;
+        List<DockLayoutComposition> children = new ArrayList<DockLayoutComposition>();
+        
+        XElement next;
+        while( (next = reader.peek()) != null ){
+            String name = next.getName();
+            if( !layoutRead && "layout".equals( name )){
+                layoutRead = true;
+                layout = readEntry( reader.read() );
+            }
+            else if( !adjacentRead && "adjacent".equals( name )){
+                adjacentRead = true;
+                adjacentLayouts = readAdjacentXML( reader.read() );
+            }
+            else if( !childrenRead && "children".equals( name )){
+                childrenRead = true;
+                XElement xchildren = reader.open();
+                ignore = xchildren.getBoolean( "ignore" );
+                
+                XElement xchild;
+                while( (xchild = reader.open()) != null ){
+                    if( "child".equals( xchild.getName() )){
+                        children.add( readCompositionXML( reader ));
+                    }
+                    reader.close();
+                }
+                reader.close();
+            }
+            else{
+                reader.skip();
+            }
+        }
+        
+        return new DockLayoutComposition( layout, adjacentLayouts, children, ignore );
+    }
+    
+    /**
+     * Reads the layouts of the {@link AdjacentDockFactory}s.
+     * @param xadjacent the element to read, can be <code>null</code>
+     * @return the layouts or <code>null</code> if <code>xadjacent</code> is <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    private List<DockLayout<?>> readAdjacentXML( XElement xadjacent ){
         List<DockLayout<?>> adjacentLayouts = null;
         if( xadjacent != null ){
             adjacentLayouts = new ArrayList<DockLayout<?>>();
@@ -922,19 +1091,7 @@ public class DockSituation {
                 }
             }
         }
-
-        XElement xchildren = element.getElement( "children" );
-        boolean ignore = true;
-        List<DockLayoutComposition> children = new ArrayList<DockLayoutComposition>();
-
-        if( xchildren != null ){
-            ignore = xchildren.getBoolean( "ignore" );
-            for( XElement xchild : xchildren.getElements( "child" )){
-                children.add( readCompositionXML( xchild ));
-            }
-        }
-
-        return new DockLayoutComposition( layout, adjacentLayouts, children, ignore );
+        return adjacentLayouts;
     }
 
     /**
@@ -989,14 +1146,20 @@ public class DockSituation {
      * not be changed
      */
     public void writeXML( Map<String, DockStation> stations, XElement element ) {
-    	Map<String, DockLayoutComposition> map = new HashMap<String, DockLayoutComposition>();
-    	for( Map.Entry<String, DockStation> entry : stations.entrySet() ){
-    		DockLayoutComposition composition = convert( entry.getValue() );
-    		if( composition != null ){
-    			map.put( entry.getKey(), composition );
-    		}
+    	long start = startMeasuring();
+    	try{
+	    	Map<String, DockLayoutComposition> map = new HashMap<String, DockLayoutComposition>();
+	    	for( Map.Entry<String, DockStation> entry : stations.entrySet() ){
+	    		DockLayoutComposition composition = convert( entry.getValue() );
+	    		if( composition != null ){
+	    			map.put( entry.getKey(), composition );
+	    		}
+	    	}
+	    	writeCompositionsXML( map, element );
+    	}
+    	finally{
+    		stopMeasuring( DockMetrics.SITUATION_WRITE, start );
     	}
-    	writeCompositionsXML( map, element );
     }
 
     /**
@@ -1013,22 +1176,74 @@ public class DockSituation {
         }
     }
     
+    /**
+     * Writes all locations and relationships of the {@link DockStation}s
+     * <code>stations</code> and their children into the element that is currently open
+     * in <code>writer</code>. Each station is converted and written before the next
+     * station is converted.
+     * @param stations The stations to store, only the roots are needed.
+     * @param writer the writer to write into
+     * @throws IOException if <code>writer</code> throws an exception
+     */
+    public void writeXML( Map<String, DockStation> stations, XElementWriter writer ) throws IOException{
+    	long start = startMeasuring();
+    	try{
+	    	for( Map.Entry<String, DockStation> entry : stations.entrySet() ){
+	    		DockLayoutComposition composition = convert( entry.getValue() );
+	    		if( composition != null ){
+	    			writeCompositionXML( entry.getKey(), composition, writer );
+	    		}
+	    	}
+    	}
+    	finally{
+    		stopMeasuring( DockMetrics.SITUATION_WRITE, start );
+    	}
+    }
+    
+    /**
+     * Writes the contents of <code>stations</code> into the element that is currently open
+     * in <code>writer</code>. The output is the same as the output of 
+     * {@link #writeCompositionsXML(Map, XElement)}.
+     * @param stations the items to write
+     * @param writer the writer to write into
+     * @throws IOException if <code>writer</code> throws an exception
+     */
+    public void writeCompositionsXML( Map<String, DockLayoutComposition> stations, XElementWriter writer ) throws IOException{
+    	for( Map.Entry<String, DockLayoutComposition> entry : stations.entrySet() ){
+    		writeCompositionXML( entry.getKey(), entry.getValue(), writer );
+    	}
+    }
+    
+    private void writeCompositionXML( String name, DockLayoutComposition composition, XElementWriter writer ) throws IOException{
+    	XElement xchild = new XElement( "element" );
+    	xchild.addString( "name", name );
+    	writer.open( xchild );
+    	writeCompositionXML( composition, writer );
+    	writer.close();
+    }
+    
     /**
      * Reads a set of {@link DockStation}s that were stored earlier.
      * @param root the xml element from which to read
      * @return the set of station
      */
     public Map<String, DockStation> readXML( XElement root ){
-        Map<String, DockStation> result = new HashMap<String, DockStation>();
-        for( XElement xelement : root.getElements( "element" )){
-            String name = xelement.getString( "name" );
-            DockLayoutComposition composition = readCompositionXML( xelement );
-            DockElement element = composition == null ? null : convert( composition );
-            DockStation station = element == null ? null : element.asDockStation();
-            if( station != null )
-                result.put( name, station );
-        }
-        return result;
+    	long start = startMeasuring();
+    	try{
+	        Map<String, DockStation> result = new HashMap<String, DockStation>();
+	        for( XElement xelement : root.getElements( "element" )){
+	            String name = xelement.getString( "name" );
+	            DockLayoutComposition composition = readCompositionXML( xelement );
+	            DockElement element = composition == null ? null : convert( composition );
+	            DockStation station = element == null ? null : element.asDockStation();
+	            if( station != null )
+	                result.put( name, station );
+	        }
+	        return result;
+    	}
+    	finally{
+    		stopMeasuring( DockMetrics.SITUATION_READ, start );
+    	}
     }
 
     /**
@@ -1048,6 +1263,60 @@ public class DockSituation {
         return result;
     }
     
+    /**
+     * Reads a set of {@link DockStation}s from the element that is currently open in <code>reader</code>.
+     * Each station is created as soon as its layout is read, the whole xml-tree is never in memory.
+     * @param reader the reader from which to read
+     * @return the set of station
+     * @throws IOException if <code>reader</code> throws an exception
+     */
+    public Map<String, DockStation> readXML( XElementReader reader ) throws IOException{
+    	long start = startMeasuring();
+    	try{
+	        Map<String, DockStation> result = new HashMap<String, DockStation>();
+	        XElement xelement;
+	        while( (xelement = reader.open()) != null ){
+	        	if( "element".equals( xelement.getName() )){
+		            String name = xelement.getString( "name" );
+		            DockLayoutComposition composition = readCompositionXML( reader );
+		            DockElement element = composition == null ? null : convert( composition );
+		            DockStation station = element == null ? null : element.asDockStation();
+		            if( station != null )
+		                result.put( name, station );
+	        	}
+	        	reader.close();
+	        }
+	        return result;
+    	}
+    	finally{
+    		stopMeasuring( DockMetrics.SITUATION_READ, start );
+    	}
+    }
+    
+    /**
+     * Reads a set of {@link DockLayoutComposition}s from the element that is currently open
+     * in <code>reader</code>. The result is the same as if {@link #readCompositionsXML(XElement)}
+     * was called, but the whole xml-tree is never in memory.
+     * @param reader the reader from which to read
+     * @return the set of compositions
+     * @throws IOException if <code>reader</code> throws an exception
+     */
+    public Map<String, DockLayoutComposition> readCompositionsXML( XElementReader reader ) throws IOException{
+    	Map<String, DockLayoutComposition> result = new HashMap<String, DockLayoutComposition>();
+    	XElement xelement;
+    	while( (xelement = reader.open()) != null ){
+    		if( "element".equals( xelement.getName() )){
+	            String name = xelement.getString( "name" );
+	            DockLayoutComposition composition = readCompositionXML( reader );
+	            if( composition != null ){
+	            	result.put( name, composition );
+	            }
+    		}
+    		reader.close();
+    	}
+    	return result;
+    }
+    
     /**
      * Using the factories currently known to this {@link DockSituation}, this
      * method tries to fill gaps in <code>composition</code>. It checks
@@ -28,10 +28,10 @@ package bibliothek.gui.dock.station.layer;
 import java.awt.Component;
 import java.awt.Window;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,7 +45,11 @@ import bibliothek.gui.dock.util.DockUtilities;
 
 /**
  * The {@link OrderedLayerCollection} is a helper class that allows order a set
- * {@link DockStation}s according to the rules defined in {@link DockStationDropLayer}.
+ * {@link DockStation}s according to the rules defined in {@link DockStationDropLayer}.<br>
+ * The collection caches the tree of {@link DockStation}s and their modified {@link DockStationDropLayer}s between
+ * calls to {@link #sort(int, int)}. The cache is rebuilt whenever the set of stations changes, or when
+ * {@link #invalidate()} is called. Clients reusing one collection for several calls to {@link #sort(int, int)} must
+ * call {@link #invalidate()} whenever the hierarchy of the stations, or the layers of a station, may have changed.
  * @author Benjamin Sigg
  */
 public class OrderedLayerCollection {
@@ -55,6 +59,12 @@ public class OrderedLayerCollection {
 	/** factory applied to all {@link DockStation}s to find their {@link DockStationDropLayer}s */
 	private DockStationDropLayerFactory factory;
 	
+	/** the cached nodes of all stations, <code>null</code> if the cache needs to be rebuilt */
+	private Map<DockStation, Node> nodes;
+	
+	/** the roots of the tree described by {@link #nodes} */
+	private List<Node> roots;
+	
 	/**
 	 * Creates a new collection
 	 * @param factory applied to all {@link DockStation}s in order to find their {@link DockStationDropLayer}s.
@@ -68,7 +78,52 @@ public class OrderedLayerCollection {
 	 * @param station the additional station
 	 */
 	public void add( DockStation station ){
-		stations.add( station );
+		if( stations.add( station )){
+			invalidate();
+		}
+	}
+	
+	/**
+	 * Removes a station from this collection.
+	 * @param station the station which is no longer to be ordered
+	 */
+	public void remove( DockStation station ){
+		if( stations.remove( station )){
+			invalidate();
+		}
+	}
+	
+	/**
+	 * Replaces the set of stations which are to be ordered. The cache of this collection is
+	 * only invalidated if the new set differs from the current set.
+	 * @param stations the new set of stations
+	 */
+	public void setStations( Collection<DockStation> stations ){
+		Set<DockStation> next = new HashSet<DockStation>( stations );
+		if( !next.equals( this.stations )){
+			this.stations = next;
+			invalidate();
+		}
+	}
+	
+	/**
+	 * Removes all stations from this collection.
+	 */
+	public void clear(){
+		if( !stations.isEmpty() ){
+			stations.clear();
+			invalidate();
+		}
+	}
+	
+	/**
+	 * Deletes the cached tree of {@link DockStation}s and {@link DockStationDropLayer}s. The next call
+	 * to {@link #sort(int, int)} will ask the {@link DockStationDropLayerFactory} again for the layers
+	 * of all the stations.
+	 */
+	public void invalidate(){
+		nodes = null;
+		roots = null;
 	}
 	
 	/**
@@ -79,20 +134,8 @@ public class OrderedLayerCollection {
 	 * @return the ordered stations, where the first station is the station with the highest priority 
 	 */
 	public List<DockStation> sort( int x, int y ){
-		Map<DockStation, Node> nodes = new HashMap<DockStation, OrderedLayerCollection.Node>();
-		for( DockStation station : stations ){
-			nodes.put( station, new Node( station ) );
-		}
-		
-		List<Node> roots = new ArrayList<Node>();
-		for( Node node : nodes.values() ){
-			if( !node.register( nodes )){
-				roots.add( node );
-			}
-		}
-		
-		for( Node root : roots ){
-			root.modify();
+		if( nodes == null ){
+			build();
 		}
 		
 		List<DockStationDropLayer> layers = new ArrayList<DockStationDropLayer>();
@@ -102,9 +145,10 @@ public class OrderedLayerCollection {
 		
 		layers = sort( layers );
 		
+		Set<DockStation> added = new HashSet<DockStation>();
 		List<DockStation> result = new ArrayList<DockStation>();
 		for( DockStationDropLayer layer : layers ){
-			if( nodes.remove( layer.getStation() ) != null ){
+			if( added.add( layer.getStation() )){
 				result.add( layer.getStation() );
 			}
 		}
@@ -112,6 +156,28 @@ public class OrderedLayerCollection {
 		return result;
 	}
 	
+	/**
+	 * Creates the tree of {@link Node}s for all the current stations, asks the {@link DockStationDropLayerFactory}
+	 * for their layers and applies the {@link DockStationDropLayer#modify(DockStationDropLayer) modifications}.
+	 */
+	private void build(){
+		nodes = new HashMap<DockStation, OrderedLayerCollection.Node>();
+		for( DockStation station : stations ){
+			nodes.put( station, new Node( station ) );
+		}
+		
+		roots = new ArrayList<Node>();
+		for( Node node : nodes.values() ){
+			if( !node.register( nodes )){
+				roots.add( node );
+			}
+		}
+		
+		for( Node root : roots ){
+			root.modify();
+		}
+	}
+	
 	/**
 	 * Creates a new ordered list containing all items of <code>layer</code>, the new list
 	 * is built by an algorithm that is resistent against inconstant ordering.
@@ -119,18 +185,16 @@ public class OrderedLayerCollection {
 	 * @return the ordered layers
 	 */
 	protected List<DockStationDropLayer> sort( List<DockStationDropLayer> layers ){
-		List<DockStationDropLayer> result = new LinkedList<DockStationDropLayer>();
+		List<DockStationDropLayer> result = new ArrayList<DockStationDropLayer>( layers.size() );
 		
 		for( DockStationDropLayer layer : layers ){
 			int index = 0;
 			
 	        // insertion sort
-	        for( DockStationDropLayer resultLayer : result ){
-	            int compare = compare( resultLayer, layer );
+	        for( int n = result.size(); index < n; index++ ){
+	            int compare = compare( result.get( index ), layer );
 	            if( compare > 0 )
 	                break;
-	            else
-	                index++;
 	        }
 	        
 	        result.add( index, layer );
@@ -27,7 +27,10 @@ package bibliothek.gui.dock.station.screen.magnet;
 
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -47,7 +50,10 @@ import bibliothek.util.FrameworkOnly;
  * and of several {@link AttractorStrategy}s to modify the location and size of the currently
  * moved {@link ScreenDockWindow}.<br>
  * {@link ScreenDockWindow}s have to call {@link #start(ScreenDockWindow)} when they start
- * moving or resizing.
+ * moving or resizing.<br>
+ * While an operation is running the {@link MagnetController} keeps the sides of all windows in sorted
+ * lists. This allows {@link #getAttracted(ScreenDockWindow, int)} and {@link #getNear(ScreenDockWindow, int, boolean)}
+ * to look only at the windows which are near the moved window.
  * @author Benjamin Sigg
  */
 public class MagnetController {
@@ -211,6 +217,75 @@ public class MagnetController {
 		return result.toArray( new ScreenDockWindow[ result.size() ] );
 	}
 	
+	/**
+	 * Gets all the {@link ScreenDockWindow}s of the {@link #getStation() station} that are attracted to <code>window</code>
+	 * and that have at least one side whose distance to the opposite side of <code>window</code> is not bigger
+	 * than <code>distance</code>. Windows which are further away are not checked at all.
+	 * @param window the window that has moved and whose partners are searched
+	 * @param distance the maximum distance between two sides
+	 * @return all the partner windows, ordered as they are ordered on the station, may be empty, is 
+	 * never <code>null</code>, does not contain <code>window</code>
+	 */
+	public ScreenDockWindow[] getAttracted( ScreenDockWindow window, int distance ){
+		ScreenDockWindow[] near = getNear( window, distance, false );
+		List<ScreenDockWindow> result = new ArrayList<ScreenDockWindow>( near.length );
+		for( ScreenDockWindow next : near ){
+			Attraction attraction = getAttraction( window.getDockable(), next.getDockable() );
+			switch( attraction ){
+				case STRONGLY_ATTRACTED:
+				case ATTRACTED:
+					result.add( next );
+					break;
+			}
+		}
+		return result.toArray( new ScreenDockWindow[ result.size() ] );
+	}
+	
+	/**
+	 * Gets all the {@link ScreenDockWindow}s of the {@link #getStation() station} which have at least one side
+	 * whose distance to the opposite side of <code>window</code> is not bigger than <code>distance</code>. The
+	 * windows do not need to overlap in the other direction. While an operation is running this method only
+	 * looks at the windows whose sides are in range, otherwise all windows are checked.
+	 * @param window the window whose neighbors are searched
+	 * @param distance the maximum distance between two sides
+	 * @param initialBoundaries if <code>true</code>, then the boundaries the windows had when the current
+	 * operation started are used
+	 * @return the neighbors, ordered as they are ordered on the station, does not contain <code>window</code>
+	 */
+	public ScreenDockWindow[] getNear( ScreenDockWindow window, int distance, boolean initialBoundaries ){
+		if( current != null ){
+			return current.getIndex( initialBoundaries ).getNear( window, distance );
+		}
+		
+		List<ScreenDockWindow> result = new ArrayList<ScreenDockWindow>();
+		for( ScreenDockWindow next : getWindows() ){
+			if( next != window ){
+				for( Side side : Side.values() ){
+					if( distance( window, side, next, side.opposite(), initialBoundaries ) <= distance ){
+						result.add( next );
+						break;
+					}
+				}
+			}
+		}
+		return result.toArray( new ScreenDockWindow[ result.size() ] );
+	}
+	
+	/**
+	 * Changes the boundaries of <code>window</code>, which is not the {@link #getCurrent() current window}. Other 
+	 * than {@link ScreenDockWindow#setWindowBounds(Rectangle)} this method also keeps track of the new
+	 * position of <code>window</code>. {@link MagnetOperation}s should use this method to move the neighbors
+	 * of the current window.
+	 * @param window the window to move
+	 * @param bounds the new boundaries of <code>window</code>
+	 */
+	public void setWindowBounds( ScreenDockWindow window, Rectangle bounds ){
+		window.setWindowBounds( bounds );
+		if( current != null ){
+			current.moved( window );
+		}
+	}
+	
 	/**
 	 * Calculates the distance between <code>sideA</code> of <code>windowA</code> to <code>sideB</code> of <code>windowB</code>.
 	 * If either window is the {@link #getCurrent() current} window, then its {@link MagnetRequest#getBounds() base boundaries}
@@ -371,6 +446,12 @@ public class MagnetController {
 		/** the currently executer operation */
 		private MagnetOperation operation;
 		
+		/** the sides of all windows at the time when this operation started, created lazily */
+		private EdgeIndex initialIndex;
+		
+		/** the current sides of all windows, created lazily */
+		private EdgeIndex currentIndex;
+		
 		/**
 		 * Creates a new operation.
 		 * @param window the window that is reshaped
@@ -386,6 +467,54 @@ public class MagnetController {
 		public ScreenDockWindow getWindow(){
 			return window;
 		}
+		
+		/**
+		 * Gets the index of the sides of all windows.
+		 * @param initial whether to get the index of the initial or of the current boundaries
+		 * @return the index, up to date
+		 */
+		public EdgeIndex getIndex( boolean initial ){
+			if( initial ){
+				if( initialIndex == null ){
+					ScreenDockWindow[] windows = getWindows();
+					Rectangle[] bounds = new Rectangle[ windows.length ];
+					for( int i = 0; i < windows.length; i++ ){
+						bounds[i] = getInitialBounds( windows[i] );
+					}
+					initialIndex = new EdgeIndex( windows, bounds );
+				}
+				return initialIndex;
+			}
+			else{
+				if( currentIndex == null ){
+					ScreenDockWindow[] windows = getWindows();
+					Rectangle[] bounds = new Rectangle[ windows.length ];
+					for( int i = 0; i < windows.length; i++ ){
+						if( windows[i] == window && baseBoundaries != null ){
+							bounds[i] = getBounds();
+						}
+						else{
+							bounds[i] = windows[i].getWindowBounds();
+						}
+					}
+					currentIndex = new EdgeIndex( windows, bounds );
+				}
+				else if( baseBoundaries != null ){
+					currentIndex.update( window, baseBoundaries );
+				}
+				return currentIndex;
+			}
+		}
+		
+		/**
+		 * Called if <code>window</code> was moved by a {@link MagnetOperation}.
+		 * @param window the window that changed its boundaries
+		 */
+		public void moved( ScreenDockWindow window ){
+			if( currentIndex != null && window != this.window ){
+				currentIndex.update( window, window.getWindowBounds() );
+			}
+		}
 
 		public Rectangle getBounds(){
 			return new Rectangle( baseBoundaries );
@@ -582,4 +711,151 @@ public class MagnetController {
 			}
 		}
 	}
+	
+	/**
+	 * A sweep line over the sides of a set of {@link ScreenDockWindow}s. For each {@link Side} the windows are
+	 * kept ordered by the coordinate of that side, allowing to quickly find all the windows whose sides are near some
+	 * coordinate.
+	 * @author Benjamin Sigg
+	 */
+	private class EdgeIndex{
+		/** all the windows, in the order of the station */
+		private ScreenDockWindow[] windows;
+		/** the location of each window in {@link #windows} */
+		private Map<ScreenDockWindow, Integer> indices = new IdentityHashMap<ScreenDockWindow, Integer>();
+		/** the boundaries of each window */
+		private Rectangle[] bounds;
+		/** for each side the indices of the windows, ordered by the coordinate of the side */
+		private int[][] order = new int[ 4 ][];
+		/** for each side the coordinates of the windows in {@link #order} */
+		private int[][] values = new int[ 4 ][];
+		
+		/**
+		 * Creates a new index.
+		 * @param windows the windows to put into the index
+		 * @param bounds the boundaries of <code>windows</code>
+		 */
+		public EdgeIndex( ScreenDockWindow[] windows, Rectangle[] bounds ){
+			this.windows = windows;
+			this.bounds = bounds;
+			for( int i = 0; i < windows.length; i++ ){
+				indices.put( windows[i], i );
+			}
+			
+			for( final Side side : Side.values() ){
+				Integer[] sorted = new Integer[ windows.length ];
+				for( int i = 0; i < sorted.length; i++ ){
+					sorted[i] = i;
+				}
+				Arrays.sort( sorted, new Comparator<Integer>(){
+					public int compare( Integer a, Integer b ){
+						int valueA = getValue( EdgeIndex.this.bounds[a], side );
+						int valueB = getValue( EdgeIndex.this.bounds[b], side );
+						return valueA < valueB ? -1 : (valueA == valueB ? 0 : 1);
+					}
+				});
+				
+				int[] order = new int[ sorted.length ];
+				int[] values = new int[ sorted.length ];
+				for( int i = 0; i < sorted.length; i++ ){
+					order[i] = sorted[i];
+					values[i] = getValue( bounds[ sorted[i] ], side );
+				}
+				this.order[ side.ordinal() ] = order;
+				this.values[ side.ordinal() ] = values;
+			}
+		}
+		
+		/**
+		 * Changes the boundaries of <code>window</code>.
+		 * @param window the window that was moved or resized
+		 * @param bounds the new boundaries
+		 */
+		public void update( ScreenDockWindow window, Rectangle bounds ){
+			Integer index = indices.get( window );
+			if( index == null || this.bounds[ index ].equals( bounds )){
+				return;
+			}
+			this.bounds[ index ] = new Rectangle( bounds );
+			
+			for( Side side : Side.values() ){
+				int[] order = this.order[ side.ordinal() ];
+				int[] values = this.values[ side.ordinal() ];
+				int value = getValue( bounds, side );
+				
+				int position = 0;
+				while( order[ position ] != index ){
+					position++;
+				}
+				
+				// move the entry until it is at the right location
+				while( position > 0 && values[ position-1 ] > value ){
+					order[ position ] = order[ position-1 ];
+					values[ position ] = values[ position-1 ];
+					position--;
+				}
+				while( position+1 < order.length && values[ position+1 ] < value ){
+					order[ position ] = order[ position+1 ];
+					values[ position ] = values[ position+1 ];
+					position++;
+				}
+				order[ position ] = index;
+				values[ position ] = value;
+			}
+		}
+		
+		/**
+		 * Searches all windows which have at least one side near the opposite side of <code>window</code>.
+		 * @param window the window whose neighbors are searched
+		 * @param distance the maximal distance between two sides
+		 * @return the neighbors, ordered as on the station
+		 */
+		public ScreenDockWindow[] getNear( ScreenDockWindow window, int distance ){
+			Integer index = indices.get( window );
+			if( index == null ){
+				throw new IllegalArgumentException( "window is unknown: " + window );
+			}
+			
+			boolean[] found = new boolean[ windows.length ];
+			int count = 0;
+			
+			for( Side side : Side.values() ){
+				int value = getValue( bounds[ index ], side );
+				int[] order = this.order[ side.opposite().ordinal() ];
+				int[] values = this.values[ side.opposite().ordinal() ];
+				
+				for( int i = lowerBound( values, value - distance ); i < values.length && values[i] <= value + distance; i++ ){
+					int next = order[i];
+					if( next != index && !found[ next ] ){
+						found[ next ] = true;
+						count++;
+					}
+				}
+			}
+			
+			ScreenDockWindow[] result = new ScreenDockWindow[ count ];
+			int next = 0;
+			for( int i = 0; i < found.length && next < count; i++ ){
+				if( found[i] ){
+					result[ next++ ] = windows[i];
+				}
+			}
+			return result;
+		}
+		
+		private int lowerBound( int[] values, int value ){
+			int low = 0;
+			int high = values.length;
+			while( low < high ){
+				int mid = (low + high) >>> 1;
+				if( values[ mid ] < value ){
+					low = mid+1;
+				}
+				else{
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
 }
@@ -29,8 +29,10 @@ import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import bibliothek.gui.dock.ScreenDockStation;
 import bibliothek.gui.dock.station.screen.BoundaryRestriction;
@@ -62,6 +64,9 @@ public class StickMagnetGraph {
 	/** all edges of this graph */
 	private List<DefaultEdge> edges = new ArrayList<StickMagnetGraph.DefaultEdge>();
 	
+	/** all edges of this graph ordered by the distance of their target to the root, <code>null</code> if not yet calculated */
+	private DefaultEdge[] edgesByDistance;
+	
 	public StickMagnetGraph( MagnetController controller, MagnetRequest request ){
 		this.controller = controller;
 		this.request = request;
@@ -160,7 +165,8 @@ public class StickMagnetGraph {
 	}
 	
 	/**
-	 * Builds the entire stickiness graph using a breath first search algorithm. 
+	 * Builds the entire stickiness graph using a breath first search algorithm. Only windows which
+	 * are {@link MagnetController#getNear(ScreenDockWindow, int, boolean) near} a node are checked.
 	 * @param index the node whose neighbors have to be found by this method
 	 * @param nodes an array containing all nodes that may be created. An entry of <code>null</code>
 	 * at index <code>a</code> indicates that the {@link ScreenDockWindow} in <code>windows</code> at
@@ -172,14 +178,20 @@ public class StickMagnetGraph {
 			nodes[index] = new DefaultNode( index, windows[index] );
 		}
 
+		Map<ScreenDockWindow, Integer> indices = new IdentityHashMap<ScreenDockWindow, Integer>();
+		for( int i = 0; i < windows.length; i++ ){
+			indices.put( windows[i], i );
+		}
+		
 		LinkedList<Integer> queue = new LinkedList<Integer>();
 		queue.add( index );
 		
 		while( !queue.isEmpty() ){
 			index = queue.poll();
 			
-			for( int i = 0, n = nodes.length; i < n; i++ ) {
-				if( i != index ) {
+			for( ScreenDockWindow near : getController().getNear( windows[index], 1, true ) ){
+				Integer i = indices.get( near );
+				if( i != null && i != index ) {
 					Side relation = relation( windows[index], windows[i] );
 					if( relation != null ) {
 						if( nodes[i] == null ){
@@ -265,7 +277,7 @@ public class StickMagnetGraph {
 					Rectangle bounds = request.getInitialBounds( window );
 					bounds.x += dx;
 					bounds.y += dy;
-					window.setWindowBounds( bounds );
+					controller.setWindowBounds( window, bounds );
 				}
 				
 				return true;
@@ -306,17 +318,20 @@ public class StickMagnetGraph {
 	
 	/**
 	 * Gets all edges of this graph ordered by the distance of their {@link Edge#getTarget() target} node
-	 * to the root node.
+	 * to the root node. The graph does not change once built, the order is calculated only once.
 	 * @return the edges
 	 */
 	protected DefaultEdge[] getEdgesByDistance(){
-		DefaultEdge[] edges = this.edges.toArray( new DefaultEdge[ this.edges.size() ] );
-		Arrays.sort( edges, new Comparator<DefaultEdge>(){
-			public int compare( DefaultEdge o1, DefaultEdge o2 ){
-				return o2.getTarget().getRootDistance() - o1.getTarget().getRootDistance();
-			}
-		});
-		return edges;
+		if( edgesByDistance == null || edgesByDistance.length != this.edges.size() ){
+			DefaultEdge[] edges = this.edges.toArray( new DefaultEdge[ this.edges.size() ] );
+			Arrays.sort( edges, new Comparator<DefaultEdge>(){
+				public int compare( DefaultEdge o1, DefaultEdge o2 ){
+					return o2.getTarget().getRootDistance() - o1.getTarget().getRootDistance();
+				}
+			});
+			edgesByDistance = edges;
+		}
+		return edgesByDistance.clone();
 	}
 	
 	/**
@@ -674,7 +689,7 @@ public class StickMagnetGraph {
 
 						
 						
-						node.getWindow().setWindowBounds( initial );
+						controller.setWindowBounds( node.getWindow(), initial );
 					}
 				}
 				node.getConstraints().reset();
@@ -787,7 +802,8 @@ public class StickMagnetGraph {
 		public Side getNeighbor( ScreenDockWindow window );
 		
 		/**
-		 * Gets a list of all edges that either start or end at this node.
+		 * Gets a list of all edges that either start or end at this node. The array may be
+		 * shared and must not be modified.
 		 * @return the list of edges, may be empty
 		 */
 		public Edge[] getEdges();
@@ -884,6 +900,9 @@ public class StickMagnetGraph {
 		
 		private List<DefaultEdge> edges;
 		
+		/** {@link #edges} as array, <code>null</code> if not yet created */
+		private DefaultEdge[] edgeArray;
+		
 		private boolean mark = false;
 		
 		private StickMagnetGraphConstraint constraints = new StickMagnetGraphConstraint();
@@ -1014,6 +1033,7 @@ public class StickMagnetGraph {
 				edges = new ArrayList<DefaultEdge>();
 			}
 			edges.add( edge );
+			edgeArray = null;
 			rootDistance = -1;
 		}
 		
@@ -1045,12 +1065,15 @@ public class StickMagnetGraph {
 		}
 		
 		public DefaultEdge[] getEdges(){
-			if( edges == null ){
-				return new DefaultEdge[]{};
-			}
-			else{
-				return edges.toArray( new DefaultEdge[ edges.size() ] );
+			if( edgeArray == null ){
+				if( edges == null ){
+					edgeArray = new DefaultEdge[]{};
+				}
+				else{
+					edgeArray = edges.toArray( new DefaultEdge[ edges.size() ] );
+				}
 			}
+			return edgeArray;
 		}
 	}
 }
@@ -246,7 +246,10 @@ public class Node extends VisibleSplitNode implements Divideable{
     public void setOrientation( Orientation orientation ) {
         if( orientation == null )
             throw new NullPointerException( "orientation must not be null" );
-        this.orientation = orientation;
+        if( this.orientation != orientation ){
+	        this.orientation = orientation;
+	        treeChanged();
+        }
         getAccess().getOwner().revalidate();
     }
     
@@ -50,6 +50,9 @@ public class Root extends SpanSplitNode{
     /** tells whether the subtree has changed since the last reset */
     private boolean treeChanged = true;
     
+    /** how many times the subtree has changed */
+    private int treeChangeCount = 0;
+    
     /** The result of {@link #getBaseBounds()} */
     private Rectangle baseBounds = null;
     
@@ -75,6 +78,7 @@ public class Root extends SpanSplitNode{
     @Override
     protected void treeChanged(){
 	    treeChanged = true;
+	    treeChangeCount++;
     }
     
     /**
@@ -87,6 +91,17 @@ public class Root extends SpanSplitNode{
     	return treeChanged;
     }
     
+    /**
+     * Gets a number that changes whenever the tree below this root changes, e.g. because children
+     * have been added or removed, or because the orientation of a {@link Node} changed. Unlike
+     * {@link #hasTreeChanged()} this number is not reset when the boundaries are updated, hence
+     * clients can use it to find out whether some information they derived from the tree is outdated.
+     * @return the number of times the tree has changed
+     */
+    public int getTreeChangeCount(){
+    	return treeChangeCount;
+    }
+    
     /**
      * Sets the child of this root. Every root has only one child.<br>
      * Note that setting the child to <code>null</code> does not delete
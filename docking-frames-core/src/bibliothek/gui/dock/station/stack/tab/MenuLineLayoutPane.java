@@ -30,9 +30,11 @@ import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.station.stack.tab.layouting.AbstractTabsLayoutBlock;
 import bibliothek.gui.dock.station.stack.tab.layouting.LayoutBlock;
 import bibliothek.gui.dock.station.stack.tab.layouting.MenuLayoutBlock;
 import bibliothek.gui.dock.station.stack.tab.layouting.Size;
@@ -40,7 +42,11 @@ import bibliothek.gui.dock.station.stack.tab.layouting.TabPlacement;
 import bibliothek.gui.dock.station.stack.tab.layouting.TabsLayoutBlock;
 
 /**
- * Represents one of the {@link TabPane}s that are managed by a {@link MenuLineLayout}.
+ * Represents one of the {@link TabPane}s that are managed by a {@link MenuLineLayout}.<br>
+ * The list of possible layouts is only created again if the tabs, their sizes, the menu or
+ * the info component changed. Searching the layout that fits into the available space
+ * does not require to evaluate all the possibilities again, hence resizing a {@link TabPane}
+ * is cheap.
  * @author Benjamin Sigg
  */
 public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
@@ -49,6 +55,12 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 	private TabsLayoutBlock tabs;
 	private MenuLineLayout layout;
 	
+	/** the possible layouts found during the last search, <code>null</code> if they have to be searched again */
+	private Layouts layouts;
+	
+	/** how many times the list of possible layouts was created */
+	private int searchCount = 0;
+	
 	/**
 	 * Creates new layout information for <code>pane</code>.
 	 * @param layout the layout using this pane
@@ -85,13 +97,32 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 	public MenuLayoutBlock getMenu(){
 		return menu;
 	}
+	
+	/**
+	 * Tells how many times the list of possible layouts had to be created. This
+	 * number does not increase as long as the tabs, the menu and the info component do not change.
+	 * @return the number of searches
+	 */
+	public int getSearchCount(){
+		return searchCount;
+	}
+	
+	/**
+	 * Forces this pane to create the list of possible layouts again the next time
+	 * a layout is required. Should be called if the size of some item changed in a way
+	 * that cannot be observed through {@link Tab#getPreferredSize()}, {@link Tab#getMinimumSize()} or
+	 * {@link LayoutBlock#getSizes()}.
+	 */
+	public void invalidateLayouts(){
+		layouts = null;
+	}
 
 	/**
 	 * Calculates the preferred size to show all elements.
 	 * @return the preferred size
 	 */
 	public Dimension getPreferredSize(){
-		List<MenuLineLayoutPossibility> layouts = listLayouts();
+		Layouts layouts = getLayouts();
 		Dimension bestSize = new Dimension( 0, 0 );
 		Dimension dockableSize = new Dimension();
 		
@@ -103,9 +134,9 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 		}
 		
 		if( getPane().getDockTabPlacement().isHorizontal() ){
-			for( MenuLineLayoutPossibility layout : layouts ){
-				if( layout.isPreferred() ){
-					Dimension size = layout.getSize();
+			for( int i = 0; i < layouts.possibilities.length; i++ ){
+				if( layouts.possibilities[i].isPreferred() ){
+					Dimension size = layouts.getSize( i );
 					if( size.width > bestSize.width ){
 						bestSize = size;
 					}
@@ -115,9 +146,9 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 			bestSize.height += dockableSize.height;
 		}
 		else{
-			for( MenuLineLayoutPossibility layout : layouts ){
-				if( layout.isPreferred() ){
-					Dimension size = layout.getSize();
+			for( int i = 0; i < layouts.possibilities.length; i++ ){
+				if( layouts.possibilities[i].isPreferred() ){
+					Dimension size = layouts.getSize( i );
 					if( size.height > bestSize.height ){
 						bestSize = size;
 					}
@@ -135,7 +166,7 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 	 * @return the minimal size
 	 */
 	public Dimension getMinimumSize(){
-		List<MenuLineLayoutPossibility> layouts = listLayouts();
+		Layouts layouts = getLayouts();
 		Dimension bestSize = null;
 		Dimension dockableSize = new Dimension();
 		
@@ -147,8 +178,8 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 		}
 		
 		if( getPane().getDockTabPlacement().isHorizontal() ){
-			for( MenuLineLayoutPossibility layout : layouts ){
-				Dimension size = layout.getSize();
+			for( int i = 0; i < layouts.possibilities.length; i++ ){
+				Dimension size = layouts.getSize( i );
 				if( bestSize == null || size.width < bestSize.width ){
 					bestSize = size;
 				}
@@ -162,8 +193,8 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 			bestSize.height += dockableSize.height;
 		}
 		else{
-			for( MenuLineLayoutPossibility layout : layouts ){
-				Dimension size = layout.getSize();
+			for( int i = 0; i < layouts.possibilities.length; i++ ){
+				Dimension size = layouts.getSize( i );
 				if( bestSize == null || size.height < bestSize.height ){
 					bestSize = size;
 				}
@@ -212,62 +243,142 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 	public void layout(){
 		AxisConversion conversion = getLayout().getConversion( getPane() );
 		
-		List<MenuLineLayoutPossibility> layouts = listLayouts();
+		Layouts layouts = getLayouts();
 		
 		// search the layout that fits into the available space
 		Rectangle available = conversion.viewToModel( getPane().getAvailableArea() );
 		
-		int space = available.width;
+		MenuLineLayoutPossibility best = layouts.search( conversion, available.width );
+		if( best != null ){
+			best.apply();
+		}
+	}
+	
+	@Override
+	public void added( TabPane pane, Dockable dockable ){
+		super.added( pane, dockable );
+		invalidateLayouts();
+	}
+	
+	@Override
+	public void removed( TabPane pane, Dockable dockable ){
+		super.removed( pane, dockable );
+		invalidateLayouts();
+	}
+	
+	@Override
+	public void selectionChanged( TabPane pane ){
+		super.selectionChanged( pane );
+		invalidateLayouts();
+	}
+	
+	/**
+	 * Gets the possible layouts for the current state of the {@link TabPane}. The
+	 * layouts are only created again if they do not match the current state.
+	 * @return the possible layouts
+	 */
+	private Layouts getLayouts(){
+		TabPlacement orientation = getPane().getDockTabPlacement();
+		
+		tabs.setOrientation( orientation );
+		menu.setOrientation( orientation );
+		Size[] sizesMenu = menu.getSizes();
+		Size[] sizesInfo = null;
+		if( info != null ){
+			info.setOrientation( orientation );
+			sizesInfo = info.getSizes();
+		}
+		
+		Signature signature = createSignature( orientation, sizesMenu, sizesInfo );
+		if( layouts == null || signature == null || !signature.equals( layouts.signature )){
+			searchCount++;
+			List<MenuLineLayoutPossibility> possibilities = listLayouts( tabs.getSizes(), sizesMenu, sizesInfo );
+			layouts = new Layouts( signature, possibilities.toArray( new MenuLineLayoutPossibility[ possibilities.size() ] ) );
+		}
+		return layouts;
+	}
+	
+	/**
+	 * Creates a description of everything that has an influence on the possible layouts.
+	 * @param orientation the current orientation of the tabs
+	 * @param sizesMenu the sizes of the menu
+	 * @param sizesInfo the sizes of the info component
+	 * @return the description or <code>null</code> if the state cannot be described
+	 */
+	private Signature createSignature( TabPlacement orientation, Size[] sizesMenu, Size[] sizesInfo ){
+		if( !(tabs instanceof AbstractTabsLayoutBlock) ){
+			return null;
+		}
+		
+		TabPane pane = getPane();
+		Dockable[] dockables = pane.getDockables();
+		Tab[] current = ((AbstractTabsLayoutBlock)tabs).getTabs();
+		
+		int menuCount = sizesMenu == null ? 0 : sizesMenu.length;
+		int infoCount = sizesInfo == null ? 0 : sizesInfo.length;
 		
-		MenuLineLayoutPossibility best = null;
-		int bestSize = -1;
-		double bestScore = 0.0;
+		Object[] items = new Object[ 5 + 2*dockables.length + current.length ];
+		int[] values = new int[ 4 + 4*dockables.length + 3*(menuCount + infoCount) ];
+		double[] scores = new double[ menuCount + infoCount ];
 		
-		MenuLineLayoutPossibility smallest = null;
-		int smallestSize = -1;
+		int item = 0;
+		int value = 0;
 		
-		for( MenuLineLayoutPossibility layout : layouts ){
-			Dimension size = conversion.viewToModel( layout.getSize() );
-			if( size.width <= space ){
-				double score = layout.getScore();
-				
-				if( best == null || (bestScore == score && bestSize < size.width ) || (bestScore < score)){
-					bestScore = score;
-					best = layout;
-				}
-			}
+		items[ item++ ] = orientation;
+		items[ item++ ] = getLayout().getStrategy();
+		items[ item++ ] = info;
+		items[ item++ ] = pane.getSelectedDockable();
+		items[ item++ ] = sizesInfo == null ? null : Boolean.TRUE;
+		
+		values[ value++ ] = dockables.length;
+		values[ value++ ] = current.length;
+		values[ value++ ] = menuCount;
+		values[ value++ ] = infoCount;
+		
+		for( Dockable dockable : dockables ){
+			Tab tab = pane.getOnTab( dockable );
+			items[ item++ ] = dockable;
+			items[ item++ ] = tab;
 			
-			if( smallest == null || size.width < smallestSize ){
-				smallest = layout;
-				smallestSize = size.width;
-			}
+			Dimension preferred = tab.getPreferredSize();
+			Dimension minimum = tab.getMinimumSize();
+			values[ value++ ] = preferred.width;
+			values[ value++ ] = preferred.height;
+			values[ value++ ] = minimum.width;
+			values[ value++ ] = minimum.height;
+		}
+		for( Tab tab : current ){
+			items[ item++ ] = tab;
 		}
 		
-		if( best != null ){
-			best.apply();
+		int score = 0;
+		for( int i = 0; i < menuCount; i++ ){
+			values[ value++ ] = sizesMenu[i].getType().ordinal();
+			values[ value++ ] = sizesMenu[i].getWidth();
+			values[ value++ ] = sizesMenu[i].getHeight();
+			scores[ score++ ] = sizesMenu[i].getScore();
 		}
-		else if( smallest != null ){
-			smallest.apply();
+		for( int i = 0; i < infoCount; i++ ){
+			values[ value++ ] = sizesInfo[i].getType().ordinal();
+			values[ value++ ] = sizesInfo[i].getWidth();
+			values[ value++ ] = sizesInfo[i].getHeight();
+			scores[ score++ ] = sizesInfo[i].getScore();
 		}
+		
+		return new Signature( items, values, scores );
 	}
 	
 	/**
 	 * Creates a list of all available layouts.
+	 * @param sizesTabs the sizes of the tabs
+	 * @param sizesMenu the sizes of the menu
+	 * @param sizesInfo the sizes of the info component, <code>null</code> if there is no info component
 	 * @return the list of all available layouts
 	 */
-	private List<MenuLineLayoutPossibility> listLayouts(){
+	private List<MenuLineLayoutPossibility> listLayouts( Size[] sizesTabs, Size[] sizesMenu, Size[] sizesInfo ){
 		List<MenuLineLayoutPossibility> results = new ArrayList<MenuLineLayoutPossibility>();
-		TabPlacement orientation = getPane().getDockTabPlacement();
-		
-		tabs.setOrientation( orientation );
-		Size[] sizesTabs = tabs.getSizes();
-		
-		menu.setOrientation( orientation );
-		Size[] sizesMenu = menu.getSizes();
 		
 		if( info != null ){
-			info.setOrientation( orientation );
-			Size[] sizesInfo = info.getSizes();
 			for( Size size : sizesInfo ){
 				listLayouts( results, size, sizesMenu, sizesTabs );
 			}
@@ -326,5 +437,221 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 			info = null;
 		else
 			info = newInfo.toLayoutBlock();
+		invalidateLayouts();
+	}
+	
+	/**
+	 * Describes the state of the tabs, the menu and the info component at the time
+	 * when a list of possible layouts was created.
+	 * @author Benjamin Sigg
+	 */
+	private static class Signature{
+		/** objects that are compared by their identity */
+		private Object[] items;
+		/** sizes and other numbers */
+		private int[] values;
+		/** scores of the menu and info sizes */
+		private double[] scores;
+		
+		public Signature( Object[] items, int[] values, double[] scores ){
+			this.items = items;
+			this.values = values;
+			this.scores = scores;
+		}
+		
+		@Override
+		public boolean equals( Object obj ){
+			if( !(obj instanceof Signature) ){
+				return false;
+			}
+			Signature other = (Signature)obj;
+			if( items.length != other.items.length ){
+				return false;
+			}
+			for( int i = 0; i < items.length; i++ ){
+				if( items[i] != other.items[i] ){
+					return false;
+				}
+			}
+			return Arrays.equals( values, other.values ) && Arrays.equals( scores, other.scores );
+		}
+		
+		@Override
+		public int hashCode(){
+			return Arrays.hashCode( values );
+		}
+	}
+	
+	/**
+	 * A list of possible layouts together with the information needed to quickly find
+	 * the best layout for some amount of available space.<br>
+	 * Possibilities which share the same menu and info size, and whose tabs have the same 
+	 * {@link Size.Type type}, form a group. Usually a group is ordered by the number of visible
+	 * tabs and both, width and score, grow with the number of tabs. If that is the case then
+	 * the best possibility of the group is found using a binary search, otherwise all the 
+	 * possibilities of the group are checked.
+	 * @author Benjamin Sigg
+	 */
+	private class Layouts{
+		/** the state for which this list was created */
+		private Signature signature;
+		/** all the possibilities */
+		private MenuLineLayoutPossibility[] possibilities;
+		/** the size of each possibility */
+		private Dimension[] sizes;
+		/** the score of each possibility */
+		private double[] scores;
+		/** the width of each possibility in the model, <code>null</code> if not yet calculated */
+		private int[] widths;
+		/** the indices of the possibilities of each group, ordered as they appear in {@link #possibilities} */
+		private int[][] groups;
+		/** whether width and score of a group do never shrink */
+		private boolean[] monotone;
+		/** the index of the narrowest possibility */
+		private int smallest = -1;
+		
+		public Layouts( Signature signature, MenuLineLayoutPossibility[] possibilities ){
+			this.signature = signature;
+			this.possibilities = possibilities;
+			
+			sizes = new Dimension[ possibilities.length ];
+			scores = new double[ possibilities.length ];
+			for( int i = 0; i < possibilities.length; i++ ){
+				sizes[i] = possibilities[i].getSize();
+				scores[i] = possibilities[i].getScore();
+			}
+		}
+		
+		/**
+		 * Gets a copy of the size of the <code>index</code>'th possibility.
+		 * @param index the index of a possibility
+		 * @return a new {@link Dimension}
+		 */
+		public Dimension getSize( int index ){
+			return new Dimension( sizes[ index ] );
+		}
+		
+		/**
+		 * Searches the possibility with the highest score that fits into <code>space</code>, if
+		 * two possibilities have the same score the one appearing later in the list is chosen. If no
+		 * possibility fits, then the narrowest possibility is chosen.
+		 * @param conversion used to convert sizes into the model
+		 * @param space the available width in the model
+		 * @return the best possibility, <code>null</code> only if there are no possibilities at all
+		 */
+		public MenuLineLayoutPossibility search( AxisConversion conversion, int space ){
+			if( widths == null ){
+				initialize( conversion );
+			}
+			
+			int best = -1;
+			for( int g = 0; g < groups.length; g++ ){
+				int[] group = groups[g];
+				if( monotone[g] ){
+					int candidate = lastFitting( group, space );
+					if( candidate >= 0 ){
+						best = better( best, candidate );
+					}
+				}
+				else{
+					for( int index : group ){
+						if( widths[ index ] <= space ){
+							best = better( best, index );
+						}
+					}
+				}
+			}
+			
+			if( best == -1 ){
+				best = smallest;
+			}
+			if( best == -1 ){
+				return null;
+			}
+			return possibilities[ best ];
+		}
+		
+		private int better( int best, int candidate ){
+			if( best == -1 ){
+				return candidate;
+			}
+			if( scores[ candidate ] > scores[ best ] ){
+				return candidate;
+			}
+			if( scores[ candidate ] == scores[ best ] && candidate > best ){
+				return candidate;
+			}
+			return best;
+		}
+		
+		private int lastFitting( int[] group, int space ){
+			int low = 0;
+			int high = group.length-1;
+			int result = -1;
+			while( low <= high ){
+				int mid = (low + high) >>> 1;
+				if( widths[ group[ mid ] ] <= space ){
+					result = group[ mid ];
+					low = mid+1;
+				}
+				else{
+					high = mid-1;
+				}
+			}
+			return result;
+		}
+		
+		private void initialize( AxisConversion conversion ){
+			int count = possibilities.length;
+			widths = new int[ count ];
+			for( int i = 0; i < count; i++ ){
+				widths[i] = conversion.viewToModel( sizes[i] ).width;
+				if( smallest == -1 || widths[i] < widths[ smallest ] ){
+					smallest = i;
+				}
+			}
+			
+			List<MenuLineLayoutPossibility> groupKeys = new ArrayList<MenuLineLayoutPossibility>();
+			List<int[]> groupList = new ArrayList<int[]>();
+			int[] groupSizes = new int[ count ];
+			int[] groupOf = new int[ count ];
+			
+			for( int i = 0; i < count; i++ ){
+				int group = -1;
+				for( int g = 0, n = groupKeys.size(); g < n && group == -1; g++ ){
+					if( sameGroup( groupKeys.get( g ), possibilities[i] )){
+						group = g;
+					}
+				}
+				if( group == -1 ){
+					group = groupKeys.size();
+					groupKeys.add( possibilities[i] );
+				}
+				groupOf[i] = group;
+				groupSizes[ group ]++;
+			}
+			for( int g = 0, n = groupKeys.size(); g < n; g++ ){
+				groupList.add( new int[ groupSizes[g] ] );
+				groupSizes[g] = 0;
+			}
+			for( int i = 0; i < count; i++ ){
+				groupList.get( groupOf[i] )[ groupSizes[ groupOf[i] ]++ ] = i;
+			}
+			
+			groups = groupList.toArray( new int[ groupList.size() ][] );
+			monotone = new boolean[ groups.length ];
+			for( int g = 0; g < groups.length; g++ ){
+				int[] group = groups[g];
+				boolean growing = true;
+				for( int i = 1; i < group.length && growing; i++ ){
+					growing = widths[ group[i-1] ] <= widths[ group[i] ] && scores[ group[i-1] ] <= scores[ group[i] ];
+				}
+				monotone[g] = growing;
+			}
+		}
+		
+		private boolean sameGroup( MenuLineLayoutPossibility a, MenuLineLayoutPossibility b ){
+			return a.getMenuSize() == b.getMenuSize() && a.getInfoSize() == b.getInfoSize() && a.getTabSize().getType() == b.getTabSize().getType();
+		}
 	}
 }
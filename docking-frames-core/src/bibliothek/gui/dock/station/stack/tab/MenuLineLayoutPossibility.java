@@ -69,6 +69,30 @@ public class MenuLineLayoutPossibility {
 		return getClass().getSimpleName() + "@[menu=" + menuSize + ", info=" + infoSize + ", tabs=" + tabSize + "]";
 	}
 	
+	/**
+	 * Gets the size of the menu.
+	 * @return the size of the menu, <code>null</code> if the menu is invisible
+	 */
+	public Size getMenuSize(){
+		return menuSize;
+	}
+	
+	/**
+	 * Gets the size of the info panel.
+	 * @return the size of the info panel, <code>null</code> if there is no info panel
+	 */
+	public Size getInfoSize(){
+		return infoSize;
+	}
+	
+	/**
+	 * Gets the size of the tabs.
+	 * @return the size of the tabs, not <code>null</code>
+	 */
+	public Size getTabSize(){
+		return tabSize;
+	}
+	
 	/**
 	 * Tells how good this layout is. As higher a score, as better a layout is. The layout which shows
 	 * all components with their preferred size has a score of <code>1.0</code>, the layout which does not
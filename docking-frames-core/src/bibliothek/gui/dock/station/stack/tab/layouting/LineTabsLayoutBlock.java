@@ -29,10 +29,11 @@ import java.awt.Dimension;
 import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.station.stack.tab.AxisConversion;
@@ -52,6 +53,13 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	 */
 	private boolean sameSize = true;
 	
+	/** the tabs that were used to calculate {@link #zOrdered} */
+	private Tab[] zOrderTabs;
+	/** for each pair of neighbors in {@link #zOrderTabs} whether the right tab is in front of the left tab */
+	private boolean[] zOrderRelations;
+	/** the tabs of the last layout ordered by their z-order, <code>null</code> if not yet calculated */
+	private Tab[] zOrdered;
+	
 	/**
 	 * If set, then all tabs have the same height (width) if laid out
 	 * horizontal (vertical).
@@ -206,26 +214,65 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			}
 		}
 		
-		ZOrder zorder = new ZOrder( tabs );
 		if( sumPreferred <= bounds.width ){
-			doLayoutPreferred( conversion, bounds.width, bounds.height, preferreds, tabs, zorder, overlapPrevious, overlapNext );
+			doLayoutPreferred( conversion, bounds.width, bounds.height, preferreds, tabs, overlapPrevious, overlapNext );
 		}
 		else if( sumMinimum <= bounds.width ){
-			doLayoutMinimum( conversion, bounds.width, bounds.height, minimums, preferreds, tabs, zorder, overlapPrevious, overlapNext );
+			doLayoutMinimum( conversion, bounds.width, bounds.height, minimums, preferreds, tabs, overlapPrevious, overlapNext );
 		}
 		else{
-			doLayoutShrinked( conversion, bounds.width, bounds.height, minimums, tabs, zorder, overlapPrevious, overlapNext );
+			doLayoutShrinked( conversion, bounds.width, bounds.height, minimums, tabs, overlapPrevious, overlapNext );
 		}
 		
 		int z = 0;
-		Tab[] zOrdered = zorder.getOrderedByZ();
-		for( Tab tab : zOrdered ){
+		for( Tab tab : getOrderedByZ( tabs, overlapPrevious, overlapNext ) ){
 			if( tab != null ){
 				tab.setZOrder( z++ );
 			}
 		}
 	}
 
+	/**
+	 * Orders <code>tabs</code> by their z-order, the first tab is the one in front of all other tabs. Of
+	 * two neighboring tabs the one which has the bigger overlap is painted in front of the other tab. The
+	 * result is stored and reused until the tabs or their overlaps change.
+	 * @param tabs the tabs to order
+	 * @param overlapPrevious how much each tab may be overlapped by its previous tab
+	 * @param overlapNext how much each tab may be overlapped by its next tab
+	 * @return the ordered tabs
+	 */
+	private Tab[] getOrderedByZ( Tab[] tabs, int[] overlapPrevious, int[] overlapNext ){
+		boolean[] relations = new boolean[ Math.max( 0, tabs.length-1 ) ];
+		for( int i = 0; i < relations.length; i++ ){
+			relations[i] = overlapNext[i] > overlapPrevious[i+1];
+		}
+		
+		if( zOrdered != null && Arrays.equals( relations, zOrderRelations ) && zOrderTabs.length == tabs.length ){
+			boolean same = true;
+			for( int i = 0; i < tabs.length && same; i++ ){
+				same = tabs[i] == zOrderTabs[i];
+			}
+			if( same ){
+				return zOrdered;
+			}
+		}
+		
+		ZOrder order = new ZOrder( tabs );
+		for( int i = 0; i < relations.length; i++ ){
+			if( relations[i] ){
+				order.putOrder( tabs[i+1], tabs[i] );
+			}
+			else{
+				order.putOrder( tabs[i], tabs[i+1] );
+			}
+		}
+		
+		zOrderTabs = tabs;
+		zOrderRelations = relations;
+		zOrdered = order.getOrderedByZ();
+		return zOrdered;
+	}
+	
 	/**
 	 * Creates an array telling for each tab how much it may be overlapped by 
 	 * its previous tab.
@@ -265,7 +312,7 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		return result;
 	}
 	
-	private void doLayoutPreferred( AxisConversion conversion, int width, int height, Dimension[] preferreds, Tab[] tabs, ZOrder order, int[] overlapPrevious, int[] overlapNext ){
+	private void doLayoutPreferred( AxisConversion conversion, int width, int height, Dimension[] preferreds, Tab[] tabs, int[] overlapPrevious, int[] overlapNext ){
 		int x = 0;
 		
 		for( int i = 0; i < tabs.length; i++ ){
@@ -277,17 +324,15 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			if( i+1 < tabs.length ){
 				if( overlapNext[i] > overlapPrevious[i+1] ){
 					x -= overlapNext[i];
-					order.putOrder( tabs[i+1], tabs[i] );
 				}
 				else{
 					x -= overlapPrevious[i+1];
-					order.putOrder( tabs[i], tabs[i+1] );
 				}
 			}
 		}
 	}
 	
-	private void doLayoutMinimum( AxisConversion conversion, int width, int height, Dimension[] minimums, Dimension[] preferreds, Tab[] tabs, ZOrder order, int[] overlapPrevious, int[] overlapNext ){
+	private void doLayoutMinimum( AxisConversion conversion, int width, int height, Dimension[] minimums, Dimension[] preferreds, Tab[] tabs, int[] overlapPrevious, int[] overlapNext ){
 		int x = 0;
 		
 		int sumMinimum = 0;
@@ -308,11 +353,9 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			x += tabWidth;
 			if( overlapNext[i] > overlapPrevious[i+1] ){
 				x -= overlapNext[i];
-				order.putOrder( tabs[i+1], tabs[i] );
 			}
 			else{
 				x -= overlapPrevious[i+1];
-				order.putOrder( tabs[i], tabs[i+1] );
 			}
 		}
 		
@@ -324,7 +367,7 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		}
 	}
 	
-	private void doLayoutShrinked( AxisConversion conversion, int width, int height, Dimension[] minimums, Tab[] tabs, ZOrder order, int[] overlapPrevious, int[] overlapNext ){
+	private void doLayoutShrinked( AxisConversion conversion, int width, int height, Dimension[] minimums, Tab[] tabs, int[] overlapPrevious, int[] overlapNext ){
 		int x = 0;
 		
 		int sum = 0;		
@@ -341,11 +384,9 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			
 			if( overlapNext[i] > overlapPrevious[i+1] ){
 				x -= overlapNext[i];
-				order.putOrder( tabs[i+1], tabs[i] );
 			}
 			else{
 				x -= overlapPrevious[i+1];
-				order.putOrder( tabs[i], tabs[i+1] );
 			}
 		}
 		
@@ -386,29 +427,37 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	
 	/**
 	 * Calculates the {@link TabPaneComponent#setZOrder(int) z-order} of various
-	 * components requiring only a subset of all comparisons 
+	 * components requiring only a subset of all comparisons. The order is a topological
+	 * order of the relations given by {@link #putOrder(Tab, Tab)}, if there is a choice
+	 * the tab with the smaller index comes first.
 	 */
 	protected class ZOrder{
 		private Tab[] tabs;
 		
-		private List<Integer>[] onTop;
-		private List<Integer>[] onBottom;
+		/** the index of each tab */
+		private Map<Tab, Integer> indices;
+		/** for each tab the number of tabs that must be in front of it */
+		private int[] inFront;
+		/** for each tab the indices of the tabs that must be behind it */
+		private int[][] behind;
+		/** the number of used entries in each array of {@link #behind} */
+		private int[] behindCount;
 		
 		/**
 		 * Creates a new {@link ZOrder}
 		 * @param tabs the tabs whose z-order needs to be calculated.
 		 */
-		@SuppressWarnings("unchecked")
 		public ZOrder( Tab[] tabs ){
 			this.tabs = tabs;
 			
-			onTop = new List[ tabs.length ];
-			onBottom = new List[ tabs.length ];
-			
-			for( int i = 0; i < tabs.length; i++ ){
-				onTop[i] = new ArrayList<Integer>( 5 );
-				onBottom[i] = new ArrayList<Integer>( 5 );
+			indices = new IdentityHashMap<Tab, Integer>( tabs.length );
+			for( int i = tabs.length-1; i >= 0; i-- ){
+				indices.put( tabs[i], i );
 			}
+			
+			inFront = new int[ tabs.length ];
+			behind = new int[ tabs.length ][];
+			behindCount = new int[ tabs.length ];
 		}
 		
 		/**
@@ -419,17 +468,58 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @param back the back tab
 		 */
 		public void putOrder( Tab front, Tab back ){
-			for( int f = 0; f < tabs.length; f++ ){
-				if( tabs[f] == front ){
-					for( int b = 0; b < tabs.length; b++ ){
-						if( tabs[b] == back ){
-							onTop[b].add( f );
-							onBottom[f].add( b );
-							return;
-						}
+			Integer f = indices.get( front );
+			Integer b = indices.get( back );
+			if( f == null || b == null ){
+				return;
+			}
+			
+			int[] list = behind[ f ];
+			if( list == null ){
+				list = new int[ 2 ];
+				behind[ f ] = list;
+			}
+			else if( list.length == behindCount[ f ] ){
+				list = Arrays.copyOf( list, list.length*2 );
+				behind[ f ] = list;
+			}
+			list[ behindCount[ f ]++ ] = b;
+			inFront[ b ]++;
+		}
+		
+		/**
+		 * Calculates the order of the tabs, the first index is the tab in front of
+		 * all other tabs. Tabs that are part of a cycle are not included.
+		 * @return the indices of the ordered tabs
+		 */
+		private int[] order(){
+			int[] result = new int[ tabs.length ];
+			int[] remaining = inFront.clone();
+			PriorityQueue<Integer> ready = new PriorityQueue<Integer>( Math.max( 1, tabs.length ) );
+			
+			for( int i = 0; i < tabs.length; i++ ){
+				if( remaining[i] == 0 ){
+					ready.add( i );
+				}
+			}
+			
+			int count = 0;
+			while( !ready.isEmpty() ){
+				int next = ready.poll();
+				result[ count++ ] = next;
+				
+				for( int i = 0, n = behindCount[ next ]; i < n; i++ ){
+					int back = behind[ next ][ i ];
+					if( --remaining[ back ] == 0 ){
+						ready.add( back );
 					}
 				}
 			}
+			
+			if( count < result.length ){
+				return Arrays.copyOf( result, count );
+			}
+			return result;
 		}
 		
 		/**
@@ -438,22 +528,9 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 */
 		public int[] getZOrders(){
 			int[] results = new int[ tabs.length ];
-			boolean[] handled = new boolean[ results.length ];
-			
-			for( int i = 0; i < results.length; i++ ){
-				for( int j = 0; j < results.length; j++ ){
-					if( !handled[j] ){
-						if( onTop[j].isEmpty() ){
-							results[j] = results.length-i;
-							handled[j] = true;
-							Integer index = i;
-							
-							for( int bottom : onBottom[j] ){
-								onTop[bottom].remove( index );
-							}
-						}
-					}
-				}
+			int[] order = order();
+			for( int i = 0; i < order.length; i++ ){
+				results[ order[i] ] = results.length-i;
 			}
 			return results;
 		}
@@ -465,23 +542,9 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 */
 		public Tab[] getOrderedByZ(){
 			Tab[] results = new Tab[ tabs.length ];
-			boolean[] handled = new boolean[ results.length ];
-			
-			base:for( int i = 0; i < results.length; i++ ){
-				for( int j = 0; j < results.length; j++ ){
-					if( !handled[j] ){
-						if( onTop[j].isEmpty() ){
-							results[i] = tabs[j];
-							handled[j] = true;
-							Integer index = i;
-							
-							for( int bottom : onBottom[j] ){
-								onTop[bottom].remove( index );
-							}
-							continue base;
-						}
-					}
-				}
+			int[] order = order();
+			for( int i = 0; i < order.length; i++ ){
+				results[i] = tabs[ order[i] ];
 			}
 			return results;
 		}
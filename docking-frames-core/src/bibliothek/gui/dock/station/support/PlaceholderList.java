@@ -25,9 +25,14 @@
  */
 package bibliothek.gui.dock.station.support;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -42,6 +47,9 @@ import bibliothek.util.Path;
  * of placeholders.<br>
  * Clients should call {@link #bind()} and {@link #unbind()} to manage the
  * lifecycle of this list.<br>
+ * Lookups by placeholder, by dockable or by index are answered by an {@link Index} that is
+ * built lazily and discarded whenever the list or the placeholders of an {@link Item} change.
+ * Hence a sequence of lookups without modification in between runs in constant time per lookup.<br>
  * A {@link PlaceholderList} is not thread-safe.
  * @author Benjamin Sigg
  * @param <D> the kind of object that should be treated as {@link Dockable}
@@ -65,6 +73,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 	/** head of the dockables sublist */
 	private Entry headDockable = null;
+	
+	/** fast access to the entries, <code>null</code> if the index needs to be rebuilt */
+	private Index index = null;
 
 	/** identifiers for the various sublists this list consists of */
 	public static enum Level {
@@ -488,12 +499,13 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			Iterator<Item> iter = list().iterator();
 			while( iter.hasNext() ) {
 				Item item = iter.next();
-				Set<Path> placeholders = item.getPlaceholderSet();
+				Set<Path> placeholders = item.placeholderSet;
 				if( placeholders != null ) {
 					Iterator<Path> paths = placeholders.iterator();
 					while( paths.hasNext() ) {
 						if( !strategy.isValidPlaceholder( paths.next() ) ) {
 							paths.remove();
+							invalidateIndex();
 						}
 					}
 				}
@@ -913,47 +925,26 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 
 	private Entry search( Path placeholder ){
-		Entry entry = this.head;
-		while( entry != null ) {
-			Set<Path> set = entry.item.getPlaceholderSet();
-			if( set != null && set.contains( placeholder ) ) {
-				return entry;
-			}
-			entry = entry.next( Level.BASE );
-		}
-		return null;
+		return index().placeholders.get( placeholder );
 	}
 	
 	private Entry search( D dockable ){
-		Entry entry = head( Level.DOCKABLE );
-		while( entry != null ) {
-			if( entry.item.getDockable().asDockable() == dockable ) {
-				return entry;
-			}
-			entry = entry.next( Level.DOCKABLE );
-		}
-		return null;
+		return index().dockables.get( dockable );
 	}
 
 	private Entry search( P dockable ){
-		Entry entry = head( Level.DOCKABLE );
-		while( entry != null ) {
-			if( entry.item.getDockable() == dockable ) {
-				return entry;
-			}
-			entry = entry.next( Level.DOCKABLE );
-		}
-		return null;
+		return index().items.get( dockable );
 	}
 
 	private Entry search( int index, Level level ){
-		Entry entry = head( level );
-
-		while( entry != null && index > 0 ) {
-			entry = entry.next( level );
-			index--;
+		List<Entry> entries = index().get( level );
+		if( index < 0 ){
+			index = 0;
 		}
-		return entry;
+		if( index >= entries.size() ){
+			return null;
+		}
+		return entries.get( index );
 	}
 
 	/**
@@ -1015,6 +1006,26 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		allPlaceholders.invalidate();
 		purePlaceholders.invalidate();
 		allItems.invalidate();
+		invalidateIndex();
+	}
+	
+	/**
+	 * Deletes the current {@link Index}, called whenever the order of the entries, the placeholders
+	 * or the dockables of an entry change.
+	 */
+	private void invalidateIndex(){
+		index = null;
+	}
+	
+	/**
+	 * Gets the current {@link Index}, builds a new index if necessary.
+	 * @return the index, not <code>null</code>
+	 */
+	private Index index(){
+		if( index == null ){
+			index = new Index();
+		}
+		return index;
 	}
 
 	@Override
@@ -1028,6 +1039,13 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 		private Entry next, previous;
 		private Entry nextLevel, previousLevel;
+		
+		/** the {@link Index} which last stored the location of this entry */
+		private Index indexed;
+		/** the location of this entry in the {@link Level#BASE} list, valid if {@link #indexed} is the current index */
+		private int baseIndex;
+		/** the location of this entry in the {@link Level#DOCKABLE} or {@link Level#PLACEHOLDER} list */
+		private int levelIndex;
 
 		public Entry( Entry predecessor, Item item ){
 			this.item = item;
@@ -1147,16 +1165,19 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		public int index( Level level ){
-			Entry entry = head( level );
-			int index = 0;
-			while( entry != this && entry != null ) {
-				entry = entry.next( level );
-				index++;
-			}
-			if( entry == null ) {
+			Index current = PlaceholderList.this.index();
+			if( indexed != current ){
 				return -1;
 			}
-			return index;
+			switch( level ){
+				case BASE:
+					return baseIndex;
+				case PLACEHOLDER:
+					return itemWasPlaceholder ? levelIndex : -1;
+				case DOCKABLE:
+					return itemWasPlaceholder ? -1 : levelIndex;
+			}
+			throw new IllegalArgumentException();
 		}
 
 		public void refresh(){
@@ -1164,6 +1185,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		public void set( Item item ){
+			invalidateIndex();
 			this.item.setOwner( null );
 			item.setOwner( this );
 
@@ -1360,24 +1382,35 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		/**
-		 * Returns the value of this placeholder.
+		 * Returns the value of this placeholder. The set cannot be modified, clients have to use
+		 * methods like {@link #add(Path)} or {@link #remove(Path)} to change the placeholders.
 		 * @return the placeholder or <code>null</code> if <code>this</code>
 		 * has no a placeholders
 		 * @see #isPlaceholder()
 		 */
 		public Set<Path> getPlaceholderSet(){
-			return placeholderSet;
+			if( placeholderSet == null ){
+				return null;
+			}
+			return Collections.unmodifiableSet( placeholderSet );
 		}
 
 		/**
-		 * Sets the set of placeholders that are associated with this entry.
+		 * Sets the set of placeholders that are associated with this entry. This item
+		 * stores a copy of <code>placeholderSet</code>.
 		 * @param placeholderSet the placeholders, can be <code>null</code>
 		 */
 		public void setPlaceholderSet( Set<Path> placeholderSet ){
 			if( placeholderSet != null && placeholderSet.contains( null ) ) {
 				throw new IllegalArgumentException( "placeholderSet contains a null value" );
 			}
-			this.placeholderSet = placeholderSet;
+			if( placeholderSet == null ){
+				this.placeholderSet = null;
+			}
+			else{
+				this.placeholderSet = new HashSet<Path>( placeholderSet );
+			}
+			invalidateIndex();
 		}
 
 		/**
@@ -1386,7 +1419,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 */
 		public void removeAll( Set<Path> placeholders ){
 			if( placeholderSet != null ) {
-				placeholderSet.removeAll( placeholders );
+				if( placeholderSet.removeAll( placeholders ) ){
+					invalidateIndex();
+				}
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
 				}
@@ -1405,7 +1440,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 */
 		public void remove( Path placeholder ){
 			if( placeholderSet != null ) {
-				placeholderSet.remove( placeholder );
+				if( placeholderSet.remove( placeholder ) ){
+					invalidateIndex();
+				}
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
 				}
@@ -1430,7 +1467,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( placeholderSet == null ) {
 				placeholderSet = new HashSet<Path>();
 			}
-			placeholderSet.add( placeholder );
+			if( placeholderSet.add( placeholder ) ){
+				invalidateIndex();
+			}
 		}
 
 		/**
@@ -1678,15 +1717,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( index < 0 )
 				throw new IndexOutOfBoundsException("index < 0: " + index);
 
-			Entry entry = head( level );
-			int start = index;
-			
-			while( index > 0 ) {
-				entry = entry.next( level );
-				index--;
-				if( entry == null ) {
-					throw new IndexOutOfBoundsException( "index=" + start + ", size=" + size() );
-				}
+			Entry entry = search( index, level );
+			if( entry == null ) {
+				throw new IndexOutOfBoundsException( "index=" + index + ", size=" + size() );
 			}
 
 			return entry;
@@ -1723,11 +1756,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		
 		private void insert( int index, Item item ){
 			if( size() == index ) {
-				Entry entry = head;
+				List<Entry> entries = index().get( Level.BASE );
 				Entry predecessor = null;
-				while( entry != null ) {
-					predecessor = entry;
-					entry = entry.next;
+				if( !entries.isEmpty() ){
+					predecessor = entries.get( entries.size()-1 );
 				}
 				new Entry( predecessor, item );
 			}
@@ -1759,6 +1791,15 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 		
 		public int indexOfPlaceholder( Path placeholder ){
+			Entry first = search( placeholder );
+			if( first == null ){
+				return -1;
+			}
+			int result = first.index( level );
+			if( result != -1 ){
+				return result;
+			}
+			
 			int index = 0;
 			Entry entry = head( level );
 			while( entry != null ) {
@@ -1800,12 +1841,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		
 		public int size(){
 			if( size == -1 ) {
-				size = 0;
-				Entry entry = head( level );
-				while( entry != null ) {
-					size++;
-					entry = entry.next( level );
-				}
+				size = index().get( level ).size();
 			}
 			return size;
 		}
@@ -1908,4 +1944,85 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			return builder.toString();
 		}
 	}
+	
+	/**
+	 * An index of all the {@link Entry}s of this list. The index is created lazily and represents
+	 * a snapshot of the list, it becomes invalid as soon as the list or any placeholder changes.
+	 * @author Benjamin Sigg
+	 */
+	private class Index {
+		/** all the entries of the {@link Level#BASE} list */
+		private List<Entry> base = new ArrayList<Entry>();
+		/** all the entries of the {@link Level#PLACEHOLDER} list */
+		private List<Entry> placeholderEntries = new ArrayList<Entry>();
+		/** all the entries of the {@link Level#DOCKABLE} list */
+		private List<Entry> dockableEntries = new ArrayList<Entry>();
+		
+		/** the first entry containing a placeholder */
+		private Map<Path, Entry> placeholders = new HashMap<Path, Entry>();
+		/** the entries of all the dockables, compared by identity */
+		private Map<D, Entry> dockables = new IdentityHashMap<D, Entry>();
+		/** the entries of all the items, compared by identity */
+		private Map<P, Entry> items = new IdentityHashMap<P, Entry>();
+		
+		/**
+		 * Creates a new index containing all the entries that are currently in the list.
+		 */
+		public Index(){
+			Entry entry = head;
+			while( entry != null ){
+				entry.indexed = this;
+				entry.baseIndex = base.size();
+				base.add( entry );
+				
+				if( entry.itemWasPlaceholder ){
+					entry.levelIndex = placeholderEntries.size();
+					placeholderEntries.add( entry );
+				}
+				else{
+					entry.levelIndex = dockableEntries.size();
+					dockableEntries.add( entry );
+					
+					P item = entry.item.getDockable();
+					if( item != null ){
+						if( !items.containsKey( item )){
+							items.put( item, entry );
+						}
+						D dockable = item.asDockable();
+						if( !dockables.containsKey( dockable )){
+							dockables.put( dockable, entry );
+						}
+					}
+				}
+				
+				Set<Path> set = entry.item.getPlaceholderSet();
+				if( set != null ){
+					for( Path placeholder : set ){
+						if( !placeholders.containsKey( placeholder )){
+							placeholders.put( placeholder, entry );
+						}
+					}
+				}
+				
+				entry = entry.next;
+			}
+		}
+		
+		/**
+		 * Gets all the entries of the sublist <code>level</code>.
+		 * @param level the sublist
+		 * @return the entries in their natural order
+		 */
+		public List<Entry> get( Level level ){
+			switch( level ){
+				case BASE:
+					return base;
+				case PLACEHOLDER:
+					return placeholderEntries;
+				case DOCKABLE:
+					return dockableEntries;
+			}
+			throw new IllegalArgumentException();
+		}
+	}
 }
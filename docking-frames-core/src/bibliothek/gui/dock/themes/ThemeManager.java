@@ -39,6 +39,7 @@ import bibliothek.gui.DockTheme;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.control.focus.DefaultFocusRequest;
+import bibliothek.gui.dock.control.metrics.DockMetrics;
 import bibliothek.gui.dock.event.UIListener;
 import bibliothek.gui.dock.station.Combiner;
 import bibliothek.gui.dock.station.DisplayerFactory;
@@ -262,6 +263,8 @@ public class ThemeManager extends TypedUIProperties{
     		DockRegister register = controller.getRegister();
     		DockTheme oldTheme = this.theme;
     		Dockable focused = null;
+    		DockMetrics metrics = controller.getMetrics();
+    		long measure = metrics.start();
     		try{
     			register.setStalled( true );
     			focused = controller.getFocusedDockable();
@@ -287,6 +290,7 @@ public class ThemeManager extends TypedUIProperties{
     		}
     		finally{
     			register.setStalled( false );
+    			metrics.stop( DockMetrics.THEME_INSTALL, measure );
     		}
 	    		
     		controller.setFocusedDockable( new DefaultFocusRequest( focused, null, true ));
@@ -62,6 +62,7 @@ import bibliothek.gui.dock.perspective.PerspectiveStation;
 import bibliothek.gui.dock.station.LayoutLocked;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.gui.dock.title.DockTitle;
+import bibliothek.gui.dock.util.icon.LazyImageIcon;
 import bibliothek.util.Path;
 
 /**
@@ -562,7 +563,7 @@ public class DockUtilities {
     }
     
     /**
-     * Loads a map of icons.
+     * Loads a map of icons. The images of the icons are not loaded until they are needed, see {@link LazyImageIcon}.
      * @param list a path to a property-file containing key-path-pairs.
      * @param path the base path to the icons, will be added before any
      * path of the property file, can be <code>null</code>
@@ -572,6 +573,23 @@ public class DockUtilities {
      * @see Properties#load(InputStream)
      */
     public static Map<String, Icon> loadIcons( String list, String path, Set<String> ignore, ClassLoader loader ){
+    	return loadIcons( list, path, ignore, loader, true );
+    }
+    
+    /**
+     * Loads a map of icons.
+     * @param list a path to a property-file containing key-path-pairs.
+     * @param path the base path to the icons, will be added before any
+     * path of the property file, can be <code>null</code>
+     * @param ignore keys that are already present in <code>ignore</code> are not loaded, can be <code>null</code>
+     * @param loader used to transform paths into urls.
+     * @param lazy if <code>true</code>, then {@link LazyImageIcon}s are created which load their images only when
+     * needed and which share their images with other icons using the same file. Otherwise each icon loads its image
+     * immediately. 
+     * @return the map of {@link Icon}s, the map can be empty if no icons were found
+     * @see Properties#load(InputStream)
+     */
+    public static Map<String, Icon> loadIcons( String list, String path, Set<String> ignore, ClassLoader loader, boolean lazy ){
         try{
             InputStream in = loader.getResourceAsStream( list );
             if( in == null )
@@ -604,6 +622,9 @@ public class DockUtilities {
 	                if( url == null ){
 	                    System.err.println( "Missing file: " + file );
 	                }
+	                else if( lazy ){
+	                	result.put( key, new LazyImageIcon( url ) );
+	                }
 	                else{
 	                    ImageIcon icon = new ImageIcon( url );
 	                    result.put( key, icon );
@@ -25,13 +25,16 @@
  */
 package bibliothek.gui.dock.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,7 +43,9 @@ import bibliothek.util.Path;
 
 /**
  * A map containing some string-values pairs and so called
- * bridges to modify these values when reading them out. 
+ * bridges to modify these values when reading them out.<br>
+ * The observers are indexed by the id of their resource and by the path of their bridge, hence changing a
+ * resource or a bridge only touches the observers that are actually affected. 
  * @author Benjamin Sigg
  * @param <V> The kind of values this map contains
  * @param <U> The kind of observers used to read values from this map
@@ -50,14 +55,14 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     /** the map of providers known to this manager */
     private Map<Path, UIPriorityValue<B>> bridges = new HashMap<Path, UIPriorityValue<B>>();
     
-    /** how often some bridges are observed */
-    private Map<Path, Integer> bridgesAccess = new HashMap<Path, Integer>();
+    /** all the observers grouped by the path of their bridges, contains only paths that are observed */
+    private Map<Path, Set<Observer>> observersByPath = new HashMap<Path, Set<Observer>>();
     
     /** the map of resources that have been set */
     private Map<String, UIPriorityValue<V>> resources = new HashMap<String, UIPriorityValue<V>>();
     
-    /** how often some resources are observed */
-    private Map<String, Integer> resourcesAccess = new HashMap<String, Integer>();
+    /** all the observers grouped by the id of their resources, contains only ids that are observed */
+    private Map<String, Set<Observer>> observersById = new HashMap<String, Set<Observer>>();
     
     /** all the backup schemes for missing values (resources and bridges) */
     private PriorityValue<UIScheme<V, U, B>> schemes = new PriorityValue<UIScheme<V,U,B>>();
@@ -65,8 +70,11 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     /** all the listeners to the {@link #schemes} */
     private PriorityValue<UISchemeListener<V, U, B>> schemeListeners = new PriorityValue<UISchemeListener<V,U,B>>();
     
-    /** a list of all observers */
-    private List<Observer> observers = new LinkedList<Observer>();
+    /** all observers in the order in which they were added */
+    private Set<Observer> observers = new LinkedHashSet<Observer>();
+    
+    /** the observers for each {@link UIValue}, if a value was added more than once the observers are chained */
+    private Map<U, Observer> observersByValue = new IdentityHashMap<U, Observer>();
     
     /** whether to stall updates or not */
     private int updateLock = 0;
@@ -189,18 +197,21 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     }
     
     private void schemeUpdate( Priority priority, UISchemeEvent<V, U, B> event ){
+    	Collection<String> changedResources;
+    	Collection<Path> changedBridges;
+    	
     	try{
-    		lockUpdate();
+    		updateLock++;
     		
     		// collect changes
     		Set<String> usedResources = getAllUsedResources();
-    		Collection<String> changedResources = event.changedResources( usedResources );
+    		changedResources = event.changedResources( usedResources );
     		if( changedResources == null ){
     			changedResources = usedResources;
     		}
     		
     		Set<Path> usedBridges = getAllUsedBridges();
-    		Collection<Path> changedBridges = event.changedBridges( usedBridges );
+    		changedBridges = event.changedBridges( usedBridges );
     		if( changedBridges == null ){
     			changedBridges = usedBridges;
     		}
@@ -272,24 +283,62 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     		}
     	}
     	finally{
-    		unlockUpdate();
+    		updateLock--;
+    	}
+    	
+    	// only the observers whose resource or bridge changed need an update
+    	if( updateLock == 0 ){
+    		Set<Observer> affected = new LinkedHashSet<Observer>();
+    		for( String name : changedResources ){
+    			Set<Observer> observers = observersById.get( name );
+    			if( observers != null ){
+    				affected.addAll( observers );
+    			}
+    		}
+    		for( Path name : changedBridges ){
+    			collectObservers( name, affected );
+    		}
+    		for( Observer observer : affected ){
+    			observer.resetAll();
+    		}
     	}
     }
     
     private Set<String> getAllUsedResources(){
-    	Set<String> result = new HashSet<String>();
-    	for( Observer observer : observers ){
-    		result.add( observer.id );
-    	}
-    	return result;
+    	return new HashSet<String>( observersById.keySet() );
     }
     
     private Set<Path> getAllUsedBridges(){
-    	Set<Path> result = new HashSet<Path>();
-    	for( Observer observer : observers ){
-    		result.add( observer.path );
+    	return new HashSet<Path>( observersByPath.keySet() );
+    }
+    
+    /**
+     * Adds all observers to <code>result</code> whose bridge is or may be replaced by the bridge with
+     * name <code>path</code>, that are all the observers whose path starts with <code>path</code>.
+     * @param path the name of a bridge
+     * @param result the collection to fill
+     */
+    private void collectObservers( Path path, Set<Observer> result ){
+    	for( Map.Entry<Path, Set<Observer>> entry : observersByPath.entrySet() ){
+    		if( entry.getKey().startsWith( path )){
+    			result.addAll( entry.getValue() );
+    		}
+    	}
+    }
+    
+    /**
+     * Ensures that all the observers that may be affected by a change of the bridge <code>path</code>
+     * use the correct bridge.
+     * @param paths the names of the bridges that changed
+     */
+    private void resetBridges( Collection<Path> paths ){
+    	Set<Observer> affected = new LinkedHashSet<Observer>();
+    	for( Path path : paths ){
+    		collectObservers( path, affected );
+    	}
+    	for( Observer observer : affected ){
+    		observer.resetBridge();
     	}
-    	return result;
     }
     
     /**
@@ -315,9 +364,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         
         if( value.set( priority, bridge, null )){
             if( updateLock == 0 ){
-                for( Observer check : observers ){
-                    check.resetBridge();
-                }
+                resetBridges( Collections.singleton( path ) );
             }
         }
     }
@@ -346,9 +393,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             }
             
             if( change && updateLock == 0 ){
-                for( Observer check : observers ){
-                    check.resetBridge();
-                }
+                resetBridges( Collections.singleton( path ) );
             }   
         }
     }
@@ -363,7 +408,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      */
     public void unpublish( Priority priority, B bridge ){
         Iterator<Map.Entry<Path, UIPriorityValue<B>>> iterator = bridges.entrySet().iterator();
-        boolean change = false;
+        List<Path> changed = new ArrayList<Path>();
         
         UIScheme<V, U, B> scheme = schemes.get( priority );
         
@@ -378,7 +423,9 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             			replacement = scheme.getBridge( entry.getKey(), this );
             		}
             		
-	                change = next.set( priority, replacement, scheme ) || change;
+	                if( next.set( priority, replacement, scheme )){
+	                	changed.add( entry.getKey() );
+	                }
 	                if( isRemoveable( entry.getKey(), next ) ){
 	                    iterator.remove();
 	                }
@@ -386,10 +433,8 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             }
         }
         
-        if( change && updateLock == 0 ){
-            for( Observer check : observers ){
-                check.resetBridge();
-            }
+        if( !changed.isEmpty() && updateLock == 0 ){
+            resetBridges( changed );
         }
     }
     
@@ -441,7 +486,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      * @return if <code>path</code> is observed
      */
     public boolean isObserved( Path path ){
-    	return bridgesAccess.containsKey( path );
+    	return observersByPath.containsKey( path );
     }
     
     private boolean isRemoveable( Path path, UIPriorityValue<B> value ){
@@ -480,6 +525,18 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         
         Observer combination = new Observer( id, path, value );
         observers.add( combination );
+        
+        Observer first = observersByValue.get( value );
+        if( first == null ){
+        	observersByValue.put( value, combination );
+        }
+        else{
+        	while( first.sameValue != null ){
+        		first = first.sameValue;
+        	}
+        	first.sameValue = combination;
+        }
+        
         combination.resetAll();
     }
     
@@ -488,15 +545,17 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      * @param value the observer to remove
      */
     public void remove( U value ){
-        ListIterator<Observer> list = observers.listIterator();
-        while( list.hasNext() ){
-            Observer next = list.next();
-            if( next.getValue() == value ){
-                list.remove();
-                next.destroy();
-                return;
-            }
-        }
+    	Observer observer = observersByValue.get( value );
+    	if( observer != null ){
+    		if( observer.sameValue == null ){
+    			observersByValue.remove( value );
+    		}
+    		else{
+    			observersByValue.put( value, observer.sameValue );
+    		}
+    		observers.remove( observer );
+    		observer.destroy();
+    	}
     }
     
     /**
@@ -505,7 +564,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      * @return if <code>id</code> is observed
      */
     public boolean isObserved( String id ){
-    	return resourcesAccess.containsKey( id );
+    	return observersById.containsKey( id );
     }
     
     private boolean isRemoveable( String id, UIPriorityValue<V> value ){
@@ -565,6 +624,37 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      * @param resource the new resource, can be <code>null</code>
      */
     public void put( Priority priority, String id, V resource ){
+    	store( priority, id, resource, null );
+    }
+    
+    /**
+     * Sets a set of new resources, this is equivalent of calling {@link #put(Priority, String, Object)} for each
+     * entry of <code>resources</code>. However the {@link UIValue}s are informed only after all resources are stored,
+     * and each {@link UIValue} is informed only once.
+     * @param priority the importance of the new values
+     * @param resources the names and the new values, the values can be <code>null</code>
+     */
+    public void putAll( Priority priority, Map<String, ? extends V> resources ){
+    	Map<String, V> changes = new LinkedHashMap<String, V>();
+    	for( Map.Entry<String, ? extends V> entry : resources.entrySet() ){
+    		store( priority, entry.getKey(), entry.getValue(), changes );
+    	}
+    	if( updateLock == 0 ){
+    		for( Map.Entry<String, V> change : changes.entrySet() ){
+    			update( change.getKey(), change.getValue() );
+    		}
+    	}
+    }
+    
+    /**
+     * Stores a new resource.
+     * @param priority the importance of the value
+     * @param id the name of the value
+     * @param resource the new value, can be <code>null</code>
+     * @param changes if not <code>null</code>, then the changed resources are stored in this map instead
+     * of informing the observers directly
+     */
+    private void store( Priority priority, String id, V resource, Map<String, V> changes ){
         UIPriorityValue<V> value = resources.get( id );
         if( value == null && resource != null ){
             value = createResource( id );
@@ -581,12 +671,11 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         	}
         	
 	        if( value.set( priority, resource, scheme ) ){
-	            if( updateLock == 0 ){
-	                for( Observer observer : observers ){
-	                    if( observer.id.equals( id )){
-	                        observer.update( resource );
-	                    }
-	                }
+	        	if( changes != null ){
+	        		changes.put( id, resource );
+	        	}
+	        	else if( updateLock == 0 ){
+	        		update( id, resource );
 	            }
 	        }
 	        
@@ -596,6 +685,20 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         }
     }
     
+    /**
+     * Informs all the observers of the resource <code>id</code> about a new value.
+     * @param id the name of the changed resource
+     * @param resource the new value
+     */
+    private void update( String id, V resource ){
+    	Set<Observer> observers = observersById.get( id );
+    	if( observers != null ){
+    		for( Observer observer : observers ){
+    			observer.update( resource );
+    		}
+    	}
+    }
+    
     /**
      * Gets a resource.
      * @param id the id of the resource
@@ -738,6 +841,8 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         private U value;
         /** a bridge for modified resources */
         private B bridge;
+        /** another observer which was added with the same {@link #value} later */
+        private Observer sameValue;
         
         /**
          * Creates a new observer
@@ -750,23 +855,19 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             this.path = path;
             this.value = value;
             
-            Integer count = bridgesAccess.get( path );
-            if( count == null ){
-            	count = 1;
-            }
-            else{
-            	count = count+1;
+            Set<Observer> byPath = observersByPath.get( path );
+            if( byPath == null ){
+            	byPath = new LinkedHashSet<Observer>();
+            	observersByPath.put( path, byPath );
             }
-            bridgesAccess.put( path, count );
+            byPath.add( this );
             
-            count = resourcesAccess.get( id );
-            if( count == null ){
-            	count = 1;
+            Set<Observer> byId = observersById.get( id );
+            if( byId == null ){
+            	byId = new LinkedHashSet<Observer>();
+            	observersById.put( id, byId );
             }
-            else{
-            	count = count+1;
-            }
-            resourcesAccess.put( id, count );
+            byId.add( this );
         }
         
         /**
@@ -775,23 +876,19 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         public void destroy(){
         	setBridge( null, false );
         	
-        	Integer count = bridgesAccess.get( path );
-            if( count == 1 ){
-            	bridgesAccess.remove( path );
+        	Set<Observer> byPath = observersByPath.get( path );
+        	byPath.remove( this );
+            if( byPath.isEmpty() ){
+            	observersByPath.remove( path );
             	checkRemove( path );
             }
-            else{
-            	bridgesAccess.put( path, count-1 );
-            }
             
-            count = resourcesAccess.get( id );
-            if( count == 1 ){
-            	resourcesAccess.remove( id );
+            Set<Observer> byId = observersById.get( id );
+            byId.remove( this );
+            if( byId.isEmpty() ){
+            	observersById.remove( id );
             	checkRemove( id );
             }
-            else{
-            	resourcesAccess.put( id, count-1 );
-            }
         }
         
         /**
@@ -806,11 +903,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
          * Updates resource and bridge of this <code>Observer</code>.
          */
         public void resetAll(){
-            B bridge = getBridgeFor( path );
-            if( bridge == null )
-                update( get( id ));
-            else
-                setBridge( bridge, true );
+            setBridge( getBridgeFor( path ), true );
         }
         
         /**
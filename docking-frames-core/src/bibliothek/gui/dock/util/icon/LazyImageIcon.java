@@ -0,0 +1,201 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util.icon;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.swing.ImageIcon;
+
+/**
+ * An {@link ImageIcon} that does not load its image before the image is actually needed, e.g. because
+ * the icon is painted or because its size is requested. Decoding an image is expensive, and many
+ * icons of a theme are never shown.<br>
+ * The images are shared by all the {@link LazyImageIcon}s of the application: they are stored
+ * in a cache using their {@link URL} as key. The cache only holds {@link SoftReference}s to the
+ * images, so images that are no longer used can be garbage collected.
+ * @author Benjamin Sigg
+ */
+public class LazyImageIcon extends ImageIcon {
+	private static final long serialVersionUID = 1L;
+	
+	/** all the images that were loaded so far, the keys are the {@link URL#toExternalForm() external forms} of the urls */
+	private static final Map<String, SoftReference<Image>> cache = new HashMap<String, SoftReference<Image>>();
+	
+	/** the number of images that were loaded */
+	private static int loadCount = 0;
+	
+	/** where to find the image */
+	private final URL url;
+	
+	/** whether the image has already been loaded */
+	private volatile boolean loaded = false;
+	
+	/**
+	 * Creates a new icon.
+	 * @param url the location of the image, not <code>null</code>
+	 */
+	public LazyImageIcon( URL url ){
+		if( url == null ){
+			throw new IllegalArgumentException( "url must not be null" );
+		}
+		this.url = url;
+		setDescription( url.toExternalForm() );
+	}
+	
+	/**
+	 * Gets the location of the image of this icon.
+	 * @return the location, not <code>null</code>
+	 */
+	public URL getURL(){
+		return url;
+	}
+	
+	/**
+	 * Tells whether the image of this icon has already been loaded.
+	 * @return <code>true</code> if the image is loaded
+	 */
+	public boolean isLoaded(){
+		return loaded;
+	}
+	
+	/**
+	 * Makes sure the image of this icon is loaded.
+	 */
+	protected void ensureLoaded(){
+		if( !loaded ){
+			synchronized( this ){
+				if( !loaded ){
+					super.setImage( getImage( url ) );
+					loaded = true;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the image that is stored at <code>url</code>, either by reading the image from the
+	 * cache of shared images, or by creating a new image.
+	 * @param url the location of the image
+	 * @return the image, not <code>null</code>
+	 */
+	public static Image getImage( URL url ){
+		String key = url.toExternalForm();
+		synchronized( cache ){
+			SoftReference<Image> reference = cache.get( key );
+			Image image = reference == null ? null : reference.get();
+			if( image == null ){
+				image = Toolkit.getDefaultToolkit().createImage( url );
+				cache.put( key, new SoftReference<Image>( image ) );
+				loadCount++;
+				
+				if( reference != null ){
+					cleanCache();
+				}
+			}
+			return image;
+		}
+	}
+	
+	/**
+	 * Removes all the entries of the {@link #cache} whose image was garbage collected.
+	 */
+	private static void cleanCache(){
+		Iterator<SoftReference<Image>> iterator = cache.values().iterator();
+		while( iterator.hasNext() ){
+			if( iterator.next().get() == null ){
+				iterator.remove();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the number of images that had to be created because they were not found in the cache of
+	 * shared images.
+	 * @return the number of created images
+	 */
+	public static int getImageLoadCount(){
+		synchronized( cache ){
+			return loadCount;
+		}
+	}
+	
+	/**
+	 * Gets the number of images that are currently stored in the cache of shared images, including
+	 * images that were already garbage collected but whose entries were not yet removed.
+	 * @return the size of the cache
+	 */
+	public static int getCacheSize(){
+		synchronized( cache ){
+			return cache.size();
+		}
+	}
+	
+	@Override
+	public Image getImage(){
+		ensureLoaded();
+		return super.getImage();
+	}
+	
+	@Override
+	public void setImage( Image image ){
+		synchronized( this ){
+			loaded = true;
+			super.setImage( image );
+		}
+	}
+	
+	@Override
+	public int getImageLoadStatus(){
+		ensureLoaded();
+		return super.getImageLoadStatus();
+	}
+	
+	@Override
+	public int getIconWidth(){
+		ensureLoaded();
+		return super.getIconWidth();
+	}
+	
+	@Override
+	public int getIconHeight(){
+		ensureLoaded();
+		return super.getIconHeight();
+	}
+	
+	@Override
+	public synchronized void paintIcon( Component c, Graphics g, int x, int y ){
+		ensureLoaded();
+		super.paintIcon( c, g, x, y );
+	}
+}
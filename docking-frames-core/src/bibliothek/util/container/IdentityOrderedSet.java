@@ -0,0 +1,216 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.container;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link java.util.Set} which compares its elements by identity and remembers the order in which the
+ * elements were added. {@link #add(Object) Adding}, {@link #remove(Object) removing} and
+ * {@link #contains(Object) searching} an element run in constant time. Elements can also be accessed by
+ * their {@link #get(int) index}, the first access after a removal may require linear time.<br>
+ * This set does not support <code>null</code> elements.<br>
+ * <b>Note:</b> because elements are compared with <code>==</code> instead of {@link Object#equals(Object) equals},
+ * this class intentionally violates the general contract of {@link java.util.Set}. Two sets containing equal but
+ * not identical elements do not contain the same elements.
+ * @author Benjamin Sigg
+ * @param <E> the kind of elements stored in this set
+ */
+public class IdentityOrderedSet<E> extends AbstractSet<E>{
+	/** the elements, may contain <code>null</code> entries where elements were removed */
+	private Object[] elements;
+	
+	/** the number of slots in {@link #elements} that are in use */
+	private int end = 0;
+	
+	/** the index of each element in {@link #elements} */
+	private Map<E, Integer> indices = new IdentityHashMap<E, Integer>();
+	
+	/** incremented whenever this set is modified */
+	private int modifications = 0;
+	
+	/**
+	 * Creates a new, empty set.
+	 */
+	public IdentityOrderedSet(){
+		this( 16 );
+	}
+	
+	/**
+	 * Creates a new, empty set.
+	 * @param capacity the number of elements this set can store before it needs to grow
+	 */
+	public IdentityOrderedSet( int capacity ){
+		elements = new Object[ Math.max( capacity, 1 ) ];
+	}
+	
+	@Override
+	public boolean add( E element ){
+		if( element == null ){
+			throw new IllegalArgumentException( "element must not be null" );
+		}
+		if( indices.containsKey( element )){
+			return false;
+		}
+		if( end == elements.length ){
+			if( indices.size() < end / 2 ){
+				compact();
+			}
+			if( end == elements.length ){
+				Object[] copy = new Object[ elements.length * 2 ];
+				System.arraycopy( elements, 0, copy, 0, end );
+				elements = copy;
+			}
+		}
+		elements[ end ] = element;
+		indices.put( element, end );
+		end++;
+		modifications++;
+		return true;
+	}
+	
+	@Override
+	public boolean remove( Object element ){
+		Integer index = indices.remove( element );
+		if( index == null ){
+			return false;
+		}
+		elements[ index ] = null;
+		while( end > 0 && elements[ end-1 ] == null ){
+			end--;
+		}
+		modifications++;
+		return true;
+	}
+	
+	@Override
+	public boolean contains( Object element ){
+		return indices.containsKey( element );
+	}
+	
+	@Override
+	public int size(){
+		return indices.size();
+	}
+	
+	@Override
+	public void clear(){
+		for( int i = 0; i < end; i++ ){
+			elements[i] = null;
+		}
+		end = 0;
+		indices.clear();
+		modifications++;
+	}
+	
+	/**
+	 * Gets the <code>index</code>'th element of this set. 
+	 * @param index the index of the element, between <code>0</code> and {@link #size()}
+	 * @return the element
+	 * @throws IndexOutOfBoundsException if <code>index</code> is not valid
+	 */
+	@SuppressWarnings("unchecked")
+	public E get( int index ){
+		if( index < 0 || index >= size() ){
+			throw new IndexOutOfBoundsException( "index: " + index + ", size: " + size() );
+		}
+		compact();
+		return (E)elements[ index ];
+	}
+	
+	/**
+	 * Removes the gaps that were left by removed elements.
+	 */
+	@SuppressWarnings("unchecked")
+	private void compact(){
+		if( end == indices.size() ){
+			return;
+		}
+		int next = 0;
+		for( int i = 0; i < end; i++ ){
+			Object element = elements[i];
+			if( element != null ){
+				if( next != i ){
+					elements[ next ] = element;
+					elements[ i ] = null;
+					indices.put( (E)element, next );
+				}
+				next++;
+			}
+		}
+		end = next;
+	}
+	
+	@Override
+	public Iterator<E> iterator(){
+		return new Iterator<E>(){
+			private int next = advance( 0 );
+			private int current = -1;
+			private int expectedModifications = modifications;
+			
+			private int advance( int index ){
+				while( index < end && elements[ index ] == null ){
+					index++;
+				}
+				return index;
+			}
+			
+			public boolean hasNext(){
+				return next < end;
+			}
+			
+			@SuppressWarnings("unchecked")
+			public E next(){
+				if( expectedModifications != modifications ){
+					throw new ConcurrentModificationException();
+				}
+				if( next >= end ){
+					throw new NoSuchElementException();
+				}
+				current = next;
+				next = advance( next+1 );
+				return (E)elements[ current ];
+			}
+			
+			public void remove(){
+				if( current == -1 ){
+					throw new IllegalStateException();
+				}
+				if( expectedModifications != modifications ){
+					throw new ConcurrentModificationException();
+				}
+				IdentityOrderedSet.this.remove( elements[ current ] );
+				current = -1;
+				expectedModifications = modifications;
+			}
+		};
+	}
+}
@@ -1,6 +1,8 @@
 /**
  * Some classes with generic fields. They are mostly used when a method
  * needs to return more than just one object, or to store temporarily
- * more than one object (for example in a {@link java.util.Map}.
+ * more than one object (for example in a {@link java.util.Map}.<br>
+ * The package also contains specialized collections, like the {@link bibliothek.util.container.IdentityOrderedSet}
+ * which compares its elements by identity and keeps them in the order they were added.
  */
 package bibliothek.util.container;
\ No newline at end of file
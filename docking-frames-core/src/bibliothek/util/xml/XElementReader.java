@@ -0,0 +1,306 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads a xml-file piece by piece. Unlike {@link XIO#read(Reader)} this reader does
+ * not create the whole tree of {@link XElement}s at once. Instead clients walk through
+ * the file: they can {@link #open() open} an element and then visit its children one
+ * after the other, or they can {@link #read() read} a child completely into an {@link XElement}.<br>
+ * An example reading the children of the root element one by one:
+ * <pre>
+ * XElementReader reader = new XElementReader( in );
+ * XElement root = reader.open();
+ * while( reader.peek() != null ){
+ *     XElement child = reader.read();
+ *     ...
+ * }
+ * reader.close();
+ * </pre>
+ * The text of an element that was {@link #open() opened} is ignored, only elements which are
+ * {@link #read() read} completely have a value.
+ * @author Benjamin Sigg
+ */
+public class XElementReader {
+    /** the source of all events */
+    private XMLStreamReader reader;
+    
+    /** the head of the next child, the reader already consumed its start tag */
+    private XElement pending;
+    
+    /** how many elements are currently open */
+    private int depth = 0;
+    
+    /** whether the end tag of the currently open element was reached */
+    private boolean ended = false;
+    
+    /**
+     * Creates a new reader.
+     * @param reader the source of characters
+     * @throws IOException if the reader cannot be created
+     */
+    public XElementReader( Reader reader ) throws IOException{
+        try{
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty( XMLInputFactory.IS_COALESCING, Boolean.TRUE );
+            // like the SAX parser of XIO: keep prefixes and "xmlns" attributes as they are
+            factory.setProperty( XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE );
+            this.reader = factory.createXMLStreamReader( reader );
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+    }
+    
+    /**
+     * Creates a new reader that reads from <code>in</code> using the <code>UTF-8</code> encoding.
+     * @param in the stream to read from
+     * @return the new reader
+     * @throws IOException if the reader cannot be created
+     */
+    public static XElementReader readUTF( InputStream in ) throws IOException{
+        return new XElementReader( new InputStreamReader( in, "UTF-8" ) );
+    }
+    
+    /**
+     * Gets the number of elements that are currently {@link #open() open}.
+     * @return the depth of this reader
+     */
+    public int getDepth(){
+        return depth;
+    }
+    
+    /**
+     * Gets the name and the attributes of the next child of the currently open element
+     * without consuming the child.
+     * @return the head of the next child, an element without children and without value, or
+     * <code>null</code> if the currently open element has no more children
+     * @throws IOException if the file cannot be read
+     */
+    public XElement peek() throws IOException{
+        if( pending != null ){
+            return pending;
+        }
+        if( ended ){
+            return null;
+        }
+        
+        try{
+            while( reader.hasNext() ){
+                switch( reader.next() ){
+                    case XMLStreamConstants.START_ELEMENT:
+                        pending = head();
+                        return pending;
+                    case XMLStreamConstants.END_ELEMENT:
+                        ended = true;
+                        return null;
+                }
+            }
+            ended = true;
+            return null;
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+    }
+    
+    /**
+     * Opens the next child of the currently open element. Afterwards the children of the new
+     * element are visited by this reader. Each call to this method must be followed by a call
+     * to {@link #close()}.
+     * @return the head of the element that was opened, an element without children and without
+     * value, or <code>null</code> if there are no more children
+     * @throws IOException if the file cannot be read
+     */
+    public XElement open() throws IOException{
+        XElement head = peek();
+        if( head != null ){
+            pending = null;
+            depth++;
+        }
+        return head;
+    }
+    
+    /**
+     * Reads the next child of the currently open element completely.
+     * @return the next child or <code>null</code> if there are no more children
+     * @throws IOException if the file cannot be read
+     */
+    public XElement read() throws IOException{
+        XElement head = peek();
+        if( head == null ){
+            return null;
+        }
+        pending = null;
+        
+        try{
+            readContent( head );
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+        return head;
+    }
+    
+    /**
+     * Skips the next child of the currently open element.
+     * @return <code>true</code> if a child was skipped, <code>false</code> if there are
+     * no more children
+     * @throws IOException if the file cannot be read
+     */
+    public boolean skip() throws IOException{
+        if( open() == null ){
+            return false;
+        }
+        close();
+        return true;
+    }
+    
+    /**
+     * Skips all the remaining children of the element that was last {@link #open() opened}
+     * and closes the element. Afterwards this reader visits the siblings of the element.
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if no element is open
+     */
+    public void close() throws IOException{
+        if( depth == 0 ){
+            throw new IllegalStateException( "no element is open" );
+        }
+        
+        try{
+            if( pending != null ){
+                pending = null;
+                skipContent();
+            }
+            while( !ended ){
+                if( !reader.hasNext() ){
+                    break;
+                }
+                switch( reader.next() ){
+                    case XMLStreamConstants.START_ELEMENT:
+                        skipContent();
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        ended = true;
+                        break;
+                }
+            }
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+        
+        ended = false;
+        depth--;
+    }
+    
+    /**
+     * Creates a new {@link XElement} with the name and the attributes of the element
+     * whose start tag was just read.
+     * @return the new element
+     */
+    private XElement head(){
+        XElement element = new XElement( name( reader.getPrefix(), reader.getLocalName() ));
+        for( int i = 0, n = reader.getAttributeCount(); i<n; i++ ){
+            XAttribute attr = new XAttribute( name( reader.getAttributePrefix( i ), reader.getAttributeLocalName( i )));
+            attr.setString( reader.getAttributeValue( i ));
+            element.addAttribute( attr );
+        }
+        return element;
+    }
+    
+    /**
+     * Creates the qualified name of an element or an attribute.
+     * @param prefix the prefix of the name, may be <code>null</code>
+     * @param localName the name without prefix
+     * @return the qualified name
+     */
+    private String name( String prefix, String localName ){
+        if( prefix == null || prefix.length() == 0 ){
+            return localName;
+        }
+        return prefix + ":" + localName;
+    }
+    
+    /**
+     * Reads the value and the children of <code>element</code> whose start tag was
+     * just read, and the end tag of <code>element</code>.
+     * @param element the element to fill
+     * @throws XMLStreamException if the file cannot be read
+     */
+    private void readContent( XElement element ) throws XMLStreamException{
+        StringBuilder value = null;
+        
+        while( reader.hasNext() ){
+            switch( reader.next() ){
+                case XMLStreamConstants.START_ELEMENT:
+                    XElement child = head();
+                    element.addElement( child );
+                    readContent( child );
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if( value == null ){
+                        value = new StringBuilder();
+                    }
+                    value.append( reader.getText() );
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    element.setValue( value == null ? "" : value.toString().trim() );
+                    return;
+            }
+        }
+    }
+    
+    /**
+     * Skips the content and the end tag of the element whose start tag was just read.
+     * @throws XMLStreamException if the file cannot be read
+     */
+    private void skipContent() throws XMLStreamException{
+        int level = 1;
+        while( level > 0 && reader.hasNext() ){
+            switch( reader.next() ){
+                case XMLStreamConstants.START_ELEMENT:
+                    level++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    level--;
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.LinkedList;
+
+/**
+ * Writes a xml-file piece by piece. Unlike {@link XIO#write(XElement, Appendable)} this writer
+ * does not require the whole tree of {@link XElement}s at once. Instead clients can
+ * {@link #open(XElement) open} an element, {@link #write(XElement) write} its children one
+ * after the other and then {@link #close() close} the element again. The output has the
+ * same format as the output of {@link XIO}.
+ * @author Benjamin Sigg
+ */
+public class XElementWriter {
+    /** the destination of all characters */
+    private Appendable out;
+    
+    /** the names of the elements that are currently open */
+    private LinkedList<String> open = new LinkedList<String>();
+    
+    /** whether the xml declaration was already written */
+    private boolean started = false;
+    
+    /** whether the start tag of the last opened element still misses its closing bracket */
+    private boolean pending = false;
+    
+    /**
+     * Creates a new writer.
+     * @param out the destination of all characters
+     */
+    public XElementWriter( Appendable out ){
+        if( out == null )
+            throw new IllegalArgumentException( "out must not be null" );
+        this.out = out;
+    }
+    
+    /**
+     * Creates a new writer that writes into <code>out</code> using the <code>UTF-8</code>
+     * encoding. Clients must call {@link #flush()} once they are finished.
+     * @param out the stream to write into
+     * @return the new writer
+     * @throws IOException if the encoding is not supported
+     */
+    public static XElementWriter writeUTF( OutputStream out ) throws IOException{
+        return new XElementWriter( new OutputStreamWriter( out, "UTF-8" ) );
+    }
+    
+    /**
+     * Writes the start tag of <code>element</code>, all the elements written afterwards
+     * are children of <code>element</code> until {@link #close()} is called. The value and the
+     * children of <code>element</code> are ignored, only its name and its attributes are written.
+     * @param element the element to open
+     * @throws IOException if an I/O-error occurs
+     */
+    public void open( XElement element ) throws IOException{
+        start();
+        indent( open.size() );
+        
+        out.append( "<" );
+        out.append( element.getName() );
+        for( XAttribute attribute : element.attributes() ){
+            out.append( " " );
+            out.append( attribute.getName() );
+            out.append( "=\"" );
+            XIO.encode( attribute.getString(), out );
+            out.append( "\"" );
+        }
+        pending = true;
+        
+        open.addLast( element.getName() );
+    }
+    
+    /**
+     * Writes <code>element</code> with all its attributes, its value and its children.
+     * @param element the element to write
+     * @throws IOException if an I/O-error occurs
+     */
+    public void write( XElement element ) throws IOException{
+        start();
+        XIO.write( element, open.size(), out );
+        if( !open.isEmpty() ){
+            out.append( "\n" );
+        }
+    }
+    
+    /**
+     * Writes the end tag of the element that was last {@link #open(XElement) opened}.
+     * @throws IOException if an I/O-error occurs
+     * @throws IllegalStateException if no element is open
+     */
+    public void close() throws IOException{
+        if( open.isEmpty() ){
+            throw new IllegalStateException( "no element is open" );
+        }
+        String name = open.removeLast();
+        if( pending ){
+            // an element without children is written the same way as XIO writes it
+            pending = false;
+            out.append( "/>" );
+        }
+        else{
+            indent( open.size() );
+            out.append( "</" );
+            out.append( name );
+            out.append( ">" );
+        }
+        if( !open.isEmpty() ){
+            out.append( "\n" );
+        }
+    }
+    
+    /**
+     * Gets the number of elements that are currently open.
+     * @return the number of open elements
+     */
+    public int getDepth(){
+        return open.size();
+    }
+    
+    /**
+     * Flushes the underlying stream if it is a {@link Writer}.
+     * @throws IOException if an I/O-error occurs
+     */
+    public void flush() throws IOException{
+        if( out instanceof Writer ){
+            ((Writer)out).flush();
+        }
+    }
+    
+    private void start() throws IOException{
+        if( !started ){
+            started = true;
+            out.append( "<?xml version='1.0'?>\n" );
+        }
+        if( pending ){
+            pending = false;
+            out.append( ">\n" );
+        }
+    }
+    
+    private void indent( int tabs ) throws IOException{
+        for( int i = 0; i < tabs; i++ ){
+            out.append( "\t" );
+        }
+    }
+}
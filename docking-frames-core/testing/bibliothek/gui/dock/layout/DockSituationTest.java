@@ -0,0 +1,225 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.station.split.SplitDockTree;
+import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XElementReader;
+import bibliothek.util.xml.XElementWriter;
+import bibliothek.util.xml.XIO;
+
+/**
+ * Tests that the streaming xml methods of {@link DockSituation} and {@link DockFrontend} produce
+ * the same layouts as the methods working with whole trees of {@link XElement}s.
+ * @author Benjamin Sigg
+ */
+public class DockSituationTest {
+	private DockFrontend frontend;
+	private SplitDockStation station;
+	
+	@Before
+	public void setUp(){
+		frontend = new DockFrontend( new DockController() );
+		station = new SplitDockStation();
+		frontend.addRoot( "root", station );
+		
+		Dockable a = dockable( "a" );
+		Dockable b = dockable( "b" );
+		Dockable c = dockable( "c" );
+		Dockable d = dockable( "d" );
+		
+		SplitDockTree<Dockable> tree = station.createTree();
+		tree.root( tree.horizontal( tree.put( a ), tree.vertical( tree.put( b, c ), tree.put( d ) ), 0.25 ));
+		station.dropTree( tree );
+	}
+	
+	@After
+	public void tearDown(){
+		frontend.getController().kill();
+	}
+	
+	private Dockable dockable( String id ){
+		DefaultDockable dockable = new DefaultDockable( id );
+		frontend.addDockable( id, dockable );
+		return dockable;
+	}
+	
+	private DockSituation situation(){
+		return new DockSituation( frontend.getController() );
+	}
+	
+	private Map<String, DockStation> stations(){
+		Map<String, DockStation> stations = new HashMap<String, DockStation>();
+		stations.put( "root", station );
+		return stations;
+	}
+	
+	private String write( XElement root ) throws IOException{
+		StringBuilder builder = new StringBuilder();
+		XIO.write( root, builder );
+		return builder.toString();
+	}
+	
+	private byte[] writeStream( Map<String, DockLayoutComposition> compositions ) throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XElementWriter writer = XElementWriter.writeUTF( out );
+		writer.open( new XElement( "root" ) );
+		situation().writeCompositionsXML( compositions, writer );
+		writer.close();
+		writer.flush();
+		return out.toByteArray();
+	}
+	
+	private String writeTree( Map<String, DockLayoutComposition> compositions ) throws IOException{
+		XElement root = new XElement( "root" );
+		situation().writeCompositionsXML( compositions, root );
+		return write( root );
+	}
+	
+	private Map<String, DockLayoutComposition> readStream( byte[] content ) throws IOException{
+		XElementReader reader = XElementReader.readUTF( new ByteArrayInputStream( content ) );
+		reader.open();
+		Map<String, DockLayoutComposition> result = situation().readCompositionsXML( reader );
+		reader.close();
+		return result;
+	}
+	
+	@Test
+	public void writeStationsSameAsTree() throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XElementWriter writer = XElementWriter.writeUTF( out );
+		writer.open( new XElement( "root" ) );
+		situation().writeXML( stations(), writer );
+		writer.close();
+		writer.flush();
+		
+		XElement root = new XElement( "root" );
+		situation().writeXML( stations(), root );
+		
+		Assert.assertEquals( write( root ), new String( out.toByteArray(), "UTF-8" ) );
+	}
+	
+	@Test
+	public void roundTripCompositions() throws IOException{
+		Map<String, DockLayoutComposition> compositions = new HashMap<String, DockLayoutComposition>();
+		compositions.put( "root", situation().convert( station ) );
+		
+		byte[] content = writeStream( compositions );
+		Assert.assertEquals( writeTree( compositions ), new String( content, "UTF-8" ) );
+		
+		Map<String, DockLayoutComposition> read = readStream( content );
+		Assert.assertEquals( compositions.keySet(), read.keySet() );
+		Assert.assertEquals( new String( content, "UTF-8" ), new String( writeStream( read ), "UTF-8" ) );
+		
+		Map<String, DockLayoutComposition> tree = situation().readCompositionsXML( XIO.readUTF( new ByteArrayInputStream( content ) ) );
+		Assert.assertEquals( writeTree( tree ), writeTree( read ) );
+	}
+	
+	@Test
+	public void roundTripStations() throws IOException{
+		Map<String, DockLayoutComposition> compositions = new HashMap<String, DockLayoutComposition>();
+		compositions.put( "root", situation().convert( station ) );
+		byte[] content = writeStream( compositions );
+		
+		XElementReader reader = XElementReader.readUTF( new ByteArrayInputStream( content ) );
+		reader.open();
+		Map<String, DockStation> stations = situation().readXML( reader );
+		reader.close();
+		
+		Assert.assertEquals( 1, stations.size() );
+		DockStation read = stations.get( "root" );
+		Assert.assertNotNull( read );
+		Assert.assertEquals( 3, read.getDockableCount() );
+		
+		int leafs = 0;
+		int stacks = 0;
+		for( Dockable dockable : DockUtilities.listDockables( read, false )){
+			if( dockable.asDockStation() == null ){
+				leafs++;
+			}
+			else{
+				Assert.assertEquals( 2, dockable.asDockStation().getDockableCount() );
+				stacks++;
+			}
+		}
+		Assert.assertEquals( 4, leafs );
+		Assert.assertEquals( 1, stacks );
+	}
+	
+	@Test
+	public void roundTripFrontend() throws IOException{
+		frontend.save( "first" );
+		frontend.hide( frontend.getDockable( "d" ) );
+		frontend.save( "second" );
+		
+		XElement tree = new XElement( "root" );
+		frontend.writeXML( tree );
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XElementWriter writer = XElementWriter.writeUTF( out );
+		writer.open( new XElement( "root" ) );
+		frontend.writeXML( writer );
+		writer.close();
+		writer.flush();
+		
+		String written = new String( out.toByteArray(), "UTF-8" );
+		Assert.assertEquals( write( tree ), written );
+		
+		frontend.readXML( tree, false );
+		boolean shown = frontend.isShown( frontend.getDockable( "d" ) );
+		
+		XElementReader reader = XElementReader.readUTF( new ByteArrayInputStream( out.toByteArray() ) );
+		reader.open();
+		frontend.readXML( reader, false );
+		reader.close();
+		
+		Assert.assertEquals( 2, frontend.getSettings().size() );
+		Assert.assertEquals( shown, frontend.isShown( frontend.getDockable( "d" ) ));
+		
+		// the current setting is converted again from the stations, only the stored settings remain unchanged
+		XElement again = new XElement( "root" );
+		frontend.writeXML( again );
+		Assert.assertEquals( write( tree.getElement( "settings" ) ), write( again.getElement( "settings" ) ) );
+	}
+}
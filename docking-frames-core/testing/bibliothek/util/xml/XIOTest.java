@@ -0,0 +1,149 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2007 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+/**
+ * Compares the output of {@link XElementReader} and {@link XElementWriter} with the output of
+ * the SAX parser used by {@link XIO#read(InputSource)} and of {@link XIO#write(XElement, Appendable)}.
+ * @author Benjamin Sigg
+ */
+public class XIOTest {
+	/** a layout written by a CControl */
+	private static final File LAYOUT = new File( "testing/bibliothek/util/xml/layout.xml" );
+	
+	private byte[] layout() throws IOException{
+		InputStream in = new FileInputStream( LAYOUT );
+		try{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[ 1024 ];
+			int read;
+			while( (read = in.read( buffer )) > 0 ){
+				out.write( buffer, 0, read );
+			}
+			return out.toByteArray();
+		}
+		finally{
+			in.close();
+		}
+	}
+	
+	private XElement readSax( byte[] content ) throws IOException{
+		return XIO.readUTF( new ByteArrayInputStream( content ) );
+	}
+	
+	private XElement readStream( byte[] content ) throws IOException{
+		return XElementReader.readUTF( new ByteArrayInputStream( content ) ).read();
+	}
+	
+	private String writeAppendable( XElement element ) throws IOException{
+		StringBuilder builder = new StringBuilder();
+		XIO.write( element, builder );
+		return builder.toString();
+	}
+	
+	private byte[] writeStream( XElement element ) throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XElementWriter writer = XElementWriter.writeUTF( out );
+		writer.open( element );
+		for( XElement child : element.children() ){
+			writer.write( child );
+		}
+		writer.close();
+		writer.flush();
+		return out.toByteArray();
+	}
+	
+	@Test
+	public void readLayoutSameAsSax() throws IOException{
+		byte[] content = layout();
+		Assert.assertEquals( writeAppendable( readSax( content ) ), writeAppendable( readStream( content ) ) );
+	}
+	
+	@Test
+	public void writeLayoutSameAsAppendable() throws IOException{
+		XElement element = readSax( layout() );
+		Assert.assertEquals( writeAppendable( element ), new String( writeStream( element ), "UTF-8" ) );
+	}
+	
+	@Test
+	public void roundTripLayout() throws IOException{
+		byte[] content = layout();
+		byte[] written = writeStream( readStream( content ) );
+		Assert.assertEquals( new String( content, "UTF-8" ).replace( "\r\n", "\n" ), new String( written, "UTF-8" ) );
+	}
+	
+	@Test
+	public void roundTripSpecialCharacters() throws IOException{
+		XElement root = new XElement( "root" );
+		root.addString( "text", "a < b & c > \"d\" 'e' \u00e4\u20ac" );
+		XElement child = root.addElement( "child" );
+		child.setString( "<tag> & \u00fc" );
+		root.addElement( "empty" );
+		
+		byte[] written = writeStream( root );
+		XElement sax = readSax( written );
+		XElement stream = readStream( written );
+		
+		Assert.assertEquals( writeAppendable( root ), writeAppendable( sax ) );
+		Assert.assertEquals( writeAppendable( root ), writeAppendable( stream ) );
+		Assert.assertEquals( "a < b & c > \"d\" 'e' \u00e4\u20ac", stream.getString( "text" ) );
+		Assert.assertEquals( "<tag> & \u00fc", stream.getElement( "child" ).getString() );
+	}
+	
+	@Test
+	public void namespacesSameAsSax() throws IOException{
+		byte[] content = ( "<?xml version='1.0'?>\n" +
+				"<a:root xmlns:a=\"urn:a\" xmlns=\"urn:b\" a:key=\"1\" other=\"2\">\n" +
+				"\t<a:child a:key=\"3\">text</a:child>\n" +
+				"\t<child/>\n" +
+				"</a:root>" ).getBytes( "UTF-8" );
+		
+		XElement sax = readSax( content );
+		XElement stream = readStream( content );
+		
+		Assert.assertEquals( writeAppendable( sax ), writeAppendable( stream ) );
+		Assert.assertEquals( "a:root", stream.getName() );
+		Assert.assertEquals( "urn:a", stream.getString( "xmlns:a" ) );
+		Assert.assertEquals( "urn:b", stream.getString( "xmlns" ) );
+		Assert.assertEquals( "3", stream.getElement( "a:child" ).getString( "a:key" ) );
+	}
+	
+	@Test( expected=IOException.class )
+	public void readEmptyFails() throws IOException{
+		readStream( new byte[]{} );
+	}
+}
@@ -47,13 +47,14 @@ import bibliothek.gui.dock.extension.css.property.paint.CssPaint;
 import bibliothek.gui.dock.extension.css.property.paint.CssPaintType;
 import bibliothek.gui.dock.extension.css.property.shape.CssShape;
 import bibliothek.gui.dock.extension.css.property.shape.CssShapeType;
+import bibliothek.gui.dock.extension.css.scheme.CssSelectorIndex;
 import bibliothek.gui.dock.extension.css.scheme.MatchedCssRule;
 import bibliothek.gui.dock.extension.css.transition.CssTransition;
 import bibliothek.gui.dock.extension.css.transition.DefaultAnimatedCssRuleChain;
 import bibliothek.gui.dock.extension.css.transition.TransitionalCssRuleContent;
 import bibliothek.gui.dock.extension.css.transition.TransitionalCssRuleChain;
 import bibliothek.gui.dock.extension.css.transition.scheduler.CssScheduler;
-import bibliothek.gui.dock.extension.css.transition.scheduler.DefaultCssScheduler;
+import bibliothek.gui.dock.extension.css.transition.scheduler.FrameCssScheduler;
 import bibliothek.gui.dock.extension.css.tree.CssTree;
 import bibliothek.gui.dock.util.font.GenericFontModifier.Modify;
 
@@ -67,6 +68,9 @@ public class CssScheme {
 	
 	private List<CssRule> rules = new ArrayList<CssRule>();
 	
+	/** fast access to the {@link #rules}, only valid if {@link #rulesAreSorted} is <code>true</code> */
+	private CssSelectorIndex index;
+	
 	private Map<CssItem, Match> items = new HashMap<CssItem, CssScheme.Match>();
 	private Map<Class<?>, CssType<?>> types = new HashMap<Class<?>, CssType<?>>();
 	
@@ -74,7 +78,7 @@ public class CssScheme {
 	private boolean rematchPending = false;
 	
 	private CssTree tree;
-	private CssScheduler scheduler = new DefaultCssScheduler();
+	private CssScheduler scheduler = new FrameCssScheduler();
 	
 	private CssRuleListener selectorChangedListener = new CssRuleListener(){
 		@Override
@@ -153,19 +157,27 @@ public class CssScheme {
 	
 	/**
 	 * Adds <code>item</code> as observer to this map of properties. The properties of
-	 * <code>item</code> will be set using the best matching {@link CssRule}.
+	 * <code>item</code> will be set using the best matching {@link CssRule}. If a call to {@link #match()}
+	 * is pending, then that call is executed now.
 	 * @param item the new item, not <code>null</code>
 	 * @throws IllegalArgumentException if <code>item</code> has already been added
 	 */
 	public void add( CssItem item ){
-		if( items.containsKey( item )){
-			throw new IllegalArgumentException( "the item is already added" );
+		synchronized( RULES_LOCK ){
+			if( items.containsKey( item )){
+				throw new IllegalArgumentException( "the item is already added" );
+			}
+			
+			Match match = new Match( item );
+			items.put( item, match );
+			
+			if( rematchPending ){
+				match();
+			}
+			else{
+				match.searchRule();
+			}
 		}
-		
-		Match match = new Match( item );
-		items.put( item, match );
-		
-		match.searchRule();
 	}
 	
 	/**
@@ -174,9 +186,11 @@ public class CssScheme {
 	 * @param item the item to remove, not <code>null</code>
 	 */
 	public void remove( CssItem item ){
-		Match match = items.remove( item );	
-		if( match != null ){
-			match.destroy();
+		synchronized( RULES_LOCK ){
+			Match match = items.remove( item );	
+			if( match != null ){
+				match.destroy();
+			}
 		}
 	}
 	
@@ -187,22 +201,37 @@ public class CssScheme {
 	 * @return the properties of the rule, <code>null</code> if nothing was found
 	 */
 	public CssRuleContent search( CssItem item ){
+		return union( searchRules( item.getPath() ));
+	}
+	
+	/**
+	 * Searches all the {@link CssRule}s whose {@link CssSelector} matches <code>path</code>.
+	 * @param path the path to match
+	 * @return the matching rules, ordered by their specificity
+	 */
+	protected List<CssRule> searchRules( CssPath path ){
 		synchronized( RULES_LOCK ){
 			ensureRulesSorted();
-			CssRuleContentUnion result = null;
-			
-			for( CssRule rule : rules ){
-				if( rule.getSelector().matches( item.getPath() )){
-					if( result == null ){
-						result = new CssRuleContentUnion();
-					}
-					result.add( rule.getContent() );
-				}
-			}
-			return result;
+			return index.search( path );
 		}
 	}
 	
+	/**
+	 * Creates a {@link CssRuleContentUnion} containing the content of all <code>rules</code>.
+	 * @param rules the rules to combine
+	 * @return the combined content, <code>null</code> if <code>rules</code> is empty
+	 */
+	private CssRuleContent union( List<CssRule> rules ){
+		if( rules.isEmpty() ){
+			return null;
+		}
+		CssRuleContentUnion result = new CssRuleContentUnion();
+		for( CssRule rule : rules ){
+			result.add( rule.getContent() );
+		}
+		return result;
+	}
+	
 	/**
 	 * Adds <code>rule</code> to this scheme. This method calls {@link #rematch()}, meaning the changes
 	 * will be propagated to the {@link CssItem}s later.
@@ -264,16 +293,25 @@ public class CssScheme {
 	}
 	
 	/**
-	 * Schedules a call to {@link #match()}, the call will be executed later in the EDT.
+	 * Schedules a call to {@link #match()}, the call will be executed later in the EDT. Several calls
+	 * to this method lead to only one call to {@link #match()}. The call is dropped if {@link #match()}
+	 * is executed before the EDT gets to it.
 	 */
 	public void rematch(){
-		if( !rematchPending ){
-			EventQueue.invokeLater( new Runnable(){
-				@Override
-				public void run(){
-					match();
-				}
-			} );
+		synchronized( RULES_LOCK ){
+			if( !rematchPending ){
+				rematchPending = true;
+				EventQueue.invokeLater( new Runnable(){
+					@Override
+					public void run(){
+						synchronized( RULES_LOCK ){
+							if( rematchPending ){
+								match();
+							}
+						}
+					}
+				} );
+			}
 		}
 	}
 	
@@ -282,11 +320,13 @@ public class CssScheme {
 	 * {@link CssRule}.
 	 */
 	public void match(){
-		rematchPending = false;
-		ensureRulesSorted();
-		
-		for( Match match : items.values() ){
-			match.searchRule();
+		synchronized( RULES_LOCK ){
+			rematchPending = false;
+			ensureRulesSorted();
+			
+			for( Match match : items.values() ){
+				match.searchRule();
+			}
 		}
 	}
 	
@@ -298,6 +338,7 @@ public class CssScheme {
 						return a.getSelector().getSpecificity().compareTo( b.getSelector().getSpecificity() );
 					}
 				} );
+				index = new CssSelectorIndex( rules );
 			}
 			rulesAreSorted = true;
 		}
@@ -366,6 +407,9 @@ public class CssScheme {
 		
 		private MatchedCssRule currentMatch;
 		
+		/** the rules that were found by the last search, <code>null</code> if there was no search yet */
+		private List<CssRule> currentRules;
+		
 		/**
 		 * Creates a new match
 		 * @param item the item to which to write properties
@@ -385,7 +429,11 @@ public class CssScheme {
 		}
 		
 		private void searchRule(){
-			setRule( search( item ) );
+			List<CssRule> nextRules = searchRules( item.getPath() );
+			if( currentRules == null || !currentRules.equals( nextRules )){
+				currentRules = nextRules;
+				setRule( union( nextRules ) );
+			}
 		}
 		
 		private void animate( CssPropertyKey transitionKey, CssTransition<?> transition ){
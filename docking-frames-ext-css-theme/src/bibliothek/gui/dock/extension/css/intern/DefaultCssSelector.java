@@ -32,6 +32,7 @@ import java.util.List;
 import bibliothek.gui.dock.extension.css.CssPath;
 import bibliothek.gui.dock.extension.css.CssSelector;
 import bibliothek.gui.dock.extension.css.CssSpecificity;
+import bibliothek.gui.dock.extension.css.scheme.CssSelectorIndex;
 
 /**
  * The default implementation of a {@link CssSelector} just works like the standard CSS selector
@@ -56,15 +57,35 @@ public class DefaultCssSelector implements CssSelector{
 	
 	private CssSpecificity specificity;
 	
+	/** a condition every matched path fulfills, can be <code>null</code> */
+	private CssSelectorIndex.Key indexKey;
+	
 	private DefaultCssSelector( Step[] steps ){
 		this.steps = steps;
 		
+		CssSelectorIndex.Key identifierKey = null;
+		CssSelectorIndex.Key nameKey = null;
+		CssSelectorIndex.Key pseudoClassKey = null;
+		
 		int countStyle = 0;
 		int countId = 0;
 		int countAttribute = 0;
 		int countElement = 0;
 		
 		for( Step step : steps ){
+			String keyValue = step.getKeyValue();
+			if( keyValue != null ){
+				if( step instanceof Identifier ){
+					identifierKey = CssSelectorIndex.Key.identifier( keyValue );
+				}
+				else if( step instanceof Element || step instanceof Child ){
+					nameKey = CssSelectorIndex.Key.name( keyValue );
+				}
+				else if( step instanceof PseudoClass && pseudoClassKey == null ){
+					pseudoClassKey = CssSelectorIndex.Key.pseudoClass( keyValue );
+				}
+			}
+			
 			Specificity next = step.getSpecificity();
 			if( next != null ){
 				switch( next ){
@@ -85,6 +106,26 @@ public class DefaultCssSelector implements CssSelector{
 		}
 		
 		specificity = new CssSpecificity( countStyle, countId, countAttribute, countElement );
+		
+		if( identifierKey != null ){
+			indexKey = identifierKey;
+		}
+		else if( nameKey != null ){
+			indexKey = nameKey;
+		}
+		else{
+			indexKey = pseudoClassKey;
+		}
+	}
+	
+	/**
+	 * Gets a condition which is fulfilled by any {@link CssPath} that is matched by this selector. The
+	 * key is the identifier, the name of the last element, or the first pseudo class of this selector.
+	 * @return the condition, or <code>null</code> if this selector can match any path
+	 * @see CssSelectorIndex
+	 */
+	public CssSelectorIndex.Key getIndexKey(){
+		return indexKey;
 	}
 	
 	@Override
@@ -155,6 +196,12 @@ public class DefaultCssSelector implements CssSelector{
 		public int[] matches( CssPath path, int offset );
 		
 		public Specificity getSpecificity();
+		
+		/**
+		 * Gets the name, identifier or pseudo class this step is looking for.
+		 * @return the value to look for, can be <code>null</code>
+		 */
+		public String getKeyValue();
 	}
 	
 	private static class Any implements Step{
@@ -176,6 +223,11 @@ public class DefaultCssSelector implements CssSelector{
 			return null;
 		}
 		
+		@Override
+		public String getKeyValue(){
+			return null;
+		}
+		
 		@Override
 		public int hashCode(){
 			return 0;
@@ -223,6 +275,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ELEMENT;
 		}
 		
+		@Override
+		public String getKeyValue(){
+			return name;
+		}
+		
 		@Override
 		public String toString(){
 			return name;
@@ -278,6 +335,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ELEMENT;
 		}
 		
+		@Override
+		public String getKeyValue(){
+			return name;
+		}
+		
 		@Override
 		public String toString(){
 			return " > " + name;
@@ -330,6 +392,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ATTRIBUTE;
 		}
 		
+		@Override
+		public String getKeyValue(){
+			return name;
+		}
+		
 		@Override
 		public String toString(){
 			return ":" + name;
@@ -391,6 +458,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ATTRIBUTE;
 		}
 		
+		@Override
+		public String getKeyValue(){
+			return null;
+		}
+		
 		@Override
 		public String toString(){
 			if( value == null ){
@@ -455,6 +527,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ATTRIBUTE;
 		}
 		
+		@Override
+		public String getKeyValue(){
+			return null;
+		}
+		
 		@Override
 		public String toString(){
 			return "." + name;
@@ -507,6 +584,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ID;
 		}
 		
+		@Override
+		public String getKeyValue(){
+			return name;
+		}
+		
 		@Override
 		public String toString(){
 			return "#" + name;
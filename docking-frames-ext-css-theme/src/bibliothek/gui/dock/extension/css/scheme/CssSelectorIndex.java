@@ -0,0 +1,219 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.extension.css.scheme;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bibliothek.gui.dock.extension.css.CssNode;
+import bibliothek.gui.dock.extension.css.CssPath;
+import bibliothek.gui.dock.extension.css.CssRule;
+import bibliothek.gui.dock.extension.css.CssScheme;
+import bibliothek.gui.dock.extension.css.CssSelector;
+import bibliothek.gui.dock.extension.css.intern.DefaultCssSelector;
+
+/**
+ * A {@link CssSelectorIndex} is a compiled snapshot of an ordered list of {@link CssRule}s. The
+ * rules are put into buckets using a {@link Key} of their selector, a rule can only match a {@link CssPath}
+ * if the path has a {@link CssNode} with the name, identifier or pseudo class described by the key. When searching
+ * the rules of a path, only the buckets of the names and identifiers of its nodes have to be checked.<br>
+ * The index does not observe the rules, the {@link CssScheme} creates a new index whenever the rules or
+ * their selectors change.
+ * @author Benjamin Sigg
+ */
+public class CssSelectorIndex {
+	/**
+	 * A condition that must be fulfilled by at least one {@link CssNode} of a {@link CssPath}, if the
+	 * path is to be matched by a {@link CssSelector}.
+	 * @author Benjamin Sigg
+	 */
+	public static final class Key{
+		private static enum Kind{
+			NAME, IDENTIFIER, PSEUDO_CLASS
+		}
+		
+		private final Kind kind;
+		private final String value;
+		
+		private Key( Kind kind, String value ){
+			if( value == null ){
+				throw new IllegalArgumentException( "value must not be null" );
+			}
+			this.kind = kind;
+			this.value = value;
+		}
+		
+		/**
+		 * Creates a key requiring a {@link CssNode} whose {@link CssNode#getName() name} is <code>name</code>.
+		 * @param name the name of the node, not <code>null</code>
+		 * @return the new key
+		 */
+		public static Key name( String name ){
+			return new Key( Kind.NAME, name );
+		}
+		
+		/**
+		 * Creates a key requiring a {@link CssNode} whose {@link CssNode#getIdentifier() identifier} is <code>identifier</code>.
+		 * @param identifier the identifier of the node, not <code>null</code>
+		 * @return the new key
+		 */
+		public static Key identifier( String identifier ){
+			return new Key( Kind.IDENTIFIER, identifier );
+		}
+		
+		/**
+		 * Creates a key requiring a {@link CssNode} which {@link CssNode#hasPseudoClass(String) has the pseudo class}
+		 * <code>pseudoClass</code>.
+		 * @param pseudoClass the pseudo class of the node, not <code>null</code>
+		 * @return the new key
+		 */
+		public static Key pseudoClass( String pseudoClass ){
+			return new Key( Kind.PSEUDO_CLASS, pseudoClass );
+		}
+		
+		@Override
+		public String toString(){
+			return kind + "=" + value;
+		}
+	}
+	
+	/** all the rules, in the order in which they are to be applied */
+	private CssRule[] rules;
+	
+	/** the rules whose selector does not have a {@link Key} */
+	private BitSet unkeyed = new BitSet();
+	
+	/** the rules with a {@link Key.Kind#NAME} key */
+	private Map<String, BitSet> names = new HashMap<String, BitSet>();
+	
+	/** the rules with a {@link Key.Kind#IDENTIFIER} key */
+	private Map<String, BitSet> identifiers = new HashMap<String, BitSet>();
+	
+	/** the rules with a {@link Key.Kind#PSEUDO_CLASS} key */
+	private Map<String, BitSet> pseudoClasses = new HashMap<String, BitSet>();
+	
+	/**
+	 * Creates a new index.
+	 * @param rules the rules to put into this index, the order of the list is the order in which
+	 * {@link #search(CssPath)} returns matching rules
+	 */
+	public CssSelectorIndex( List<CssRule> rules ){
+		this.rules = rules.toArray( new CssRule[ rules.size() ] );
+		for( int i = 0; i < this.rules.length; i++ ){
+			Key key = getKey( this.rules[i].getSelector() );
+			if( key == null ){
+				unkeyed.set( i );
+			}
+			else{
+				switch( key.kind ){
+					case NAME:
+						bucket( names, key.value ).set( i );
+						break;
+					case IDENTIFIER:
+						bucket( identifiers, key.value ).set( i );
+						break;
+					case PSEUDO_CLASS:
+						bucket( pseudoClasses, key.value ).set( i );
+						break;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the {@link Key} of <code>selector</code>.
+	 * @param selector the selector whose key is searched
+	 * @return the key or <code>null</code> if <code>selector</code> has no key
+	 */
+	protected Key getKey( CssSelector selector ){
+		if( selector instanceof DefaultCssSelector ){
+			return ((DefaultCssSelector)selector).getIndexKey();
+		}
+		return null;
+	}
+	
+	private BitSet bucket( Map<String, BitSet> buckets, String value ){
+		BitSet bucket = buckets.get( value );
+		if( bucket == null ){
+			bucket = new BitSet();
+			buckets.put( value, bucket );
+		}
+		return bucket;
+	}
+	
+	/**
+	 * Gets the number of rules stored in this index.
+	 * @return the number of rules
+	 */
+	public int size(){
+		return rules.length;
+	}
+	
+	/**
+	 * Searches all the {@link CssRule}s whose {@link CssSelector} matches <code>path</code>.
+	 * @param path the path to match
+	 * @return all the matching rules, in the order in which they were given to this index
+	 */
+	public List<CssRule> search( CssPath path ){
+		BitSet candidates = new BitSet( rules.length );
+		candidates.or( unkeyed );
+		
+		for( int i = 0, n = path.getSize(); i < n; i++ ){
+			CssNode node = path.getNode( i );
+			add( candidates, names, node.getName() );
+			add( candidates, identifiers, node.getIdentifier() );
+		}
+		
+		for( Map.Entry<String, BitSet> entry : pseudoClasses.entrySet() ){
+			for( int i = 0, n = path.getSize(); i < n; i++ ){
+				if( path.getNode( i ).hasPseudoClass( entry.getKey() )){
+					candidates.or( entry.getValue() );
+					break;
+				}
+			}
+		}
+		
+		List<CssRule> result = new ArrayList<CssRule>();
+		for( int i = candidates.nextSetBit( 0 ); i >= 0; i = candidates.nextSetBit( i+1 )){
+			if( rules[i].getSelector().matches( path )){
+				result.add( rules[i] );
+			}
+		}
+		return result;
+	}
+	
+	private void add( BitSet candidates, Map<String, BitSet> buckets, String value ){
+		if( value != null ){
+			BitSet bucket = buckets.get( value );
+			if( bucket != null ){
+				candidates.or( bucket );
+			}
+		}
+	}
+}
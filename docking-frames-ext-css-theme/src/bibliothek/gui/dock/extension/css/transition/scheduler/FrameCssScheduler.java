@@ -0,0 +1,387 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.extension.css.transition.scheduler;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import javax.swing.Timer;
+
+/**
+ * This {@link CssScheduler} uses one single {@link Timer} to drive all the animations. The timer
+ * ticks at most {@link #getMaxFrameRate() max frame rate} times per second, and each tick executes all
+ * the jobs that are due in one batch. Since all the jobs run in the same event of the
+ * <code>EventDispatcherThread</code>, the repaint requests they issue are coalesced into one paint pass.<br>
+ * The timer stops as soon as there are no more jobs pending. Like the {@link DefaultCssScheduler} this
+ * scheduler ignores multiple calls to its <code>step</code> methods for the same job.<br>
+ * The scheduler collects some statistics about its ticks, which can be used to find out whether the
+ * animations are too expensive for the current frame rate.
+ * @author Benjamin Sigg
+ */
+public class FrameCssScheduler implements CssScheduler{
+	/** the default number of frames per second */
+	public static final int DEFAULT_MAX_FRAME_RATE = 50;
+	
+	private final Object LOCK = new Object();
+	
+	private PriorityQueue<Call> queue = new PriorityQueue<Call>();
+	private Map<CssSchedulable, Call> calls = new HashMap<CssSchedulable, Call>();
+	
+	private volatile Call executing;
+	
+	/** the one timer driving all the jobs */
+	private Timer timer;
+	
+	/** when the {@link #timer} is going to tick next, <code>-1</code> if the timer is not running */
+	private long nanoTimerDue = -1;
+	
+	/** the maximum number of frames per second */
+	private int maxFrameRate;
+	
+	/** the minimal time between two frames */
+	private long nanoFrame;
+	
+	/** when the last tick happened, <code>-1</code> if the timer was not running continuously */
+	private long nanoLastTick = -1;
+	
+	/** how many ticks were executed */
+	private long frameCount = 0;
+	
+	/** how many frames were missed because the ticks were late */
+	private long droppedFrameCount = 0;
+	
+	/** the total time spent executing jobs */
+	private long nanoTotalTickTime = 0;
+	
+	/** the longest time spent in one tick */
+	private long nanoMaxTickTime = 0;
+	
+	private ActionListener callback = new ActionListener(){
+		@Override
+		public void actionPerformed( ActionEvent e ){
+			tick();	
+		}
+	};
+	
+	/**
+	 * Creates a new scheduler using {@link #DEFAULT_MAX_FRAME_RATE} as frame rate.
+	 */
+	public FrameCssScheduler(){
+		this( DEFAULT_MAX_FRAME_RATE );
+	}
+	
+	/**
+	 * Creates a new scheduler.
+	 * @param maxFrameRate the maximum number of frames per second, at least 1
+	 */
+	public FrameCssScheduler( int maxFrameRate ){
+		timer = new Timer( 20, callback );
+		timer.setRepeats( true );
+		timer.setCoalesce( true );
+		setMaxFrameRate( maxFrameRate );
+	}
+	
+	/**
+	 * Sets the maximum number of frames per second. Jobs asking for a smaller delay than one frame
+	 * will be executed in the next frame.
+	 * @param maxFrameRate the maximum number of frames per second, at least 1
+	 */
+	public void setMaxFrameRate( int maxFrameRate ){
+		if( maxFrameRate < 1 ){
+			throw new IllegalArgumentException( "maxFrameRate must be at least 1: " + maxFrameRate );
+		}
+		synchronized( LOCK ){
+			this.maxFrameRate = maxFrameRate;
+			nanoFrame = 1000000000L / maxFrameRate;
+			timer.setDelay( Math.max( 1, 1000 / maxFrameRate ) );
+			nanoLastTick = -1;
+		}
+	}
+	
+	/**
+	 * Gets the maximum number of frames per second.
+	 * @return the maximum frame rate
+	 */
+	public int getMaxFrameRate(){
+		return maxFrameRate;
+	}
+	
+	/**
+	 * Gets the number of frames this scheduler executed since its creation or since the
+	 * last call to {@link #resetStatistics()}.
+	 * @return the number of frames
+	 */
+	public long getFrameCount(){
+		synchronized( LOCK ){
+			return frameCount;
+		}
+	}
+	
+	/**
+	 * Gets the number of frames that were skipped because a tick was executed too late, e.g. because 
+	 * the <code>EventDispatcherThread</code> was busy.
+	 * @return the number of missed frames
+	 */
+	public long getDroppedFrameCount(){
+		synchronized( LOCK ){
+			return droppedFrameCount;
+		}
+	}
+	
+	/**
+	 * Gets the total number of nanoseconds spent executing jobs.
+	 * @return the total time spent in ticks
+	 */
+	public long getTotalTickNanos(){
+		synchronized( LOCK ){
+			return nanoTotalTickTime;
+		}
+	}
+	
+	/**
+	 * Gets the number of nanoseconds the longest tick took.
+	 * @return the time of the longest tick
+	 */
+	public long getMaxTickNanos(){
+		synchronized( LOCK ){
+			return nanoMaxTickTime;
+		}
+	}
+	
+	/**
+	 * Gets the average number of nanoseconds one tick took.
+	 * @return the average time of a tick, 0 if there was no tick yet
+	 */
+	public long getAverageTickNanos(){
+		synchronized( LOCK ){
+			if( frameCount == 0 ){
+				return 0;
+			}
+			return nanoTotalTickTime / frameCount;
+		}
+	}
+	
+	/**
+	 * Sets all the statistics back to 0.
+	 */
+	public void resetStatistics(){
+		synchronized( LOCK ){
+			frameCount = 0;
+			droppedFrameCount = 0;
+			nanoTotalTickTime = 0;
+			nanoMaxTickTime = 0;
+		}
+	}
+	
+	@Override
+	public void step( CssSchedulable job ){
+		step( job, 20 );
+	}
+
+	@Override
+	public void step( CssSchedulable job, int delay ){
+		synchronized( LOCK ){
+			Call next = new Call( job, delay );
+			Call pending = calls.get( job );
+			
+			if( pending != null ){
+				if( pending.nanoScheduled > next.nanoScheduled ){
+					queue.remove( pending );
+				}
+				else{
+					next = null;
+				}
+			}
+			
+			if( next != null ){
+				calls.put( job, next );
+				queue.add( next );
+				if( executing == null ){
+					schedule( nanoTime() );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Makes sure the {@link #timer} ticks when the next job is due. Must be called while holding {@link #LOCK}.
+	 * @param nanoNow the current time
+	 */
+	private void schedule( long nanoNow ){
+		Call next = queue.peek();
+		if( next == null ){
+			stopTimer();
+			nanoTimerDue = -1;
+			nanoLastTick = -1;
+			return;
+		}
+		
+		long nanoWait = Math.max( 0, next.nanoScheduled - nanoNow );
+		if( nanoWait > nanoFrame ){
+			// no need to tick every frame until the next job is due
+			restartTimer( nanoNow, nanoWait );
+		}
+		else if( nanoTimerDue == -1 || nanoTimerDue > next.nanoScheduled + nanoFrame / 2 ){
+			// the timer is not running, or still waiting for a job that is due later than this one
+			restartTimer( nanoNow, nanoWait );
+		}
+	}
+	
+	/**
+	 * Restarts the {@link #timer} such that it ticks in <code>nanoWait</code> nanoseconds, and
+	 * once per frame afterwards. Must be called while holding {@link #LOCK}.
+	 * @param nanoNow the current time
+	 * @param nanoWait how long to wait until the next tick
+	 */
+	private void restartTimer( long nanoNow, long nanoWait ){
+		int delay = Math.max( 1, (int)(nanoWait / 1000000) );
+		startTimer( delay );
+		nanoTimerDue = nanoNow + delay * 1000000L;
+		nanoLastTick = -1;
+	}
+	
+	/**
+	 * Stops the timer, if it is running, and starts it again. The timer first waits
+	 * <code>initialDelay</code> milliseconds, then ticks once per frame until {@link #stopTimer()}
+	 * is called. Each tick calls {@link #tick()}.
+	 * @param initialDelay the delay until the first tick in milliseconds, at least 1
+	 */
+	protected void startTimer( int initialDelay ){
+		timer.stop();
+		timer.setInitialDelay( initialDelay );
+		timer.start();
+	}
+	
+	/**
+	 * Stops the timer, {@link #tick()} is no longer called until {@link #startTimer(int)} is called.
+	 */
+	protected void stopTimer(){
+		timer.stop();
+	}
+	
+	/**
+	 * Gets the current time in nanoseconds, the default implementation calls {@link System#nanoTime()}.
+	 * @return the current time
+	 */
+	protected long nanoTime(){
+		return System.nanoTime();
+	}
+	
+	/**
+	 * Called by the timer once per frame, executes all the jobs that are due.
+	 */
+	protected void tick(){
+		long now = nanoTime();
+		List<Call> due = new ArrayList<Call>();
+		
+		synchronized( LOCK ){
+			nanoTimerDue = now + nanoFrame;
+			if( nanoLastTick != -1 ){
+				long missed = (now - nanoLastTick) / nanoFrame - 1;
+				if( missed > 0 ){
+					droppedFrameCount += missed;
+				}
+			}
+			nanoLastTick = now;
+			
+			// jobs due within half a frame are executed now, otherwise they would wait a whole frame
+			long limit = now + nanoFrame / 2;
+			Call call = queue.peek();
+			while( call != null && call.nanoScheduled <= limit ){
+				queue.poll();
+				calls.remove( call.job );
+				due.add( call );
+				call = queue.peek();
+			}
+		}
+		
+		for( Call call : due ){
+			call.execute( now );
+		}
+		
+		synchronized( LOCK ){
+			schedule( now );
+			
+			long duration = nanoTime() - now;
+			frameCount++;
+			nanoTotalTickTime += duration;
+			nanoMaxTickTime = Math.max( nanoMaxTickTime, duration );
+		}
+	}
+
+	private class Call implements Comparable<Call>{
+		private CssSchedulable job;
+		private boolean repeat;
+		private long nanoStart;
+		private long nanoScheduled;
+		private long nanoExecuting;
+		
+		public Call( CssSchedulable job, int delay ){
+			this.job = job;
+			
+			if( executing != null && executing.job == job ){
+				nanoStart = executing.nanoExecuting;
+				repeat = true;
+			}
+			else{
+				nanoStart = nanoTime();
+				repeat = false;
+			}
+			nanoScheduled = nanoStart + 1000000L * delay;
+		}
+		
+		@Override
+		public int compareTo( Call o ){
+			if( nanoScheduled < o.nanoScheduled ){
+				return -1;
+			}
+			else if( nanoScheduled > o.nanoScheduled ){
+				return 1;
+			}
+			return 0;
+		}
+		
+		public void execute( long nanoNow ){
+			nanoExecuting = nanoNow;
+			int delay = -1;
+			if( repeat ){
+				delay = (int)((nanoNow - nanoStart) / 1000000);
+			}
+			try{
+				executing = this;
+				job.step( FrameCssScheduler.this, delay );
+			}
+			finally{
+				executing = null;
+			}
+		}
+	}
+}
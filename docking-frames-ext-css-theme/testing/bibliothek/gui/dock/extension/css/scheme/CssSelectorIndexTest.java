@@ -0,0 +1,85 @@
+package bibliothek.gui.dock.extension.css.scheme;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import bibliothek.gui.dock.extension.css.CssPath;
+import bibliothek.gui.dock.extension.css.CssRule;
+import bibliothek.gui.dock.extension.css.intern.DefaultCssRule;
+import bibliothek.gui.dock.extension.css.intern.DefaultCssSelector;
+import bibliothek.gui.dock.extension.css.path.DefaultCssNode;
+import bibliothek.gui.dock.extension.css.path.DefaultCssPath;
+
+public class CssSelectorIndexTest {
+	private List<CssRule> rules(){
+		List<CssRule> rules = new ArrayList<CssRule>();
+		rules.add( new DefaultCssRule( DefaultCssSelector.selector().any().build() ));
+		rules.add( new DefaultCssRule( DefaultCssSelector.selector().element( "station" ).build() ));
+		rules.add( new DefaultCssRule( DefaultCssSelector.selector().element( "station" ).child( "tab" ).build() ));
+		rules.add( new DefaultCssRule( DefaultCssSelector.selector().element( "tab" ).pseudo( "selected" ).build() ));
+		rules.add( new DefaultCssRule( DefaultCssSelector.selector().any().identifier( "alpha" ).build() ));
+		rules.add( new DefaultCssRule( DefaultCssSelector.selector().any().pseudo( "focused" ).build() ));
+		rules.add( new DefaultCssRule( DefaultCssSelector.selector().element( "title" ).clazz( "big" ).build() ));
+		rules.add( new DefaultCssRule( DefaultCssSelector.selector().element( "station" ).attribute( "side", "north" ).build() ));
+		return rules;
+	}
+	
+	private List<CssRule> bruteForce( List<CssRule> rules, CssPath path ){
+		List<CssRule> result = new ArrayList<CssRule>();
+		for( CssRule rule : rules ){
+			if( rule.getSelector().matches( path )){
+				result.add( rule );
+			}
+		}
+		return result;
+	}
+	
+	private DefaultCssNode node( String name ){
+		return new DefaultCssNode( name );
+	}
+	
+	@Test
+	public void keys(){
+		Assert.assertNull( DefaultCssSelector.selector().any().build().getIndexKey() );
+		Assert.assertNull( DefaultCssSelector.selector().any().clazz( "x" ).build().getIndexKey() );
+		Assert.assertEquals( "NAME=b", DefaultCssSelector.selector().element( "a" ).child( "b" ).build().getIndexKey().toString() );
+		Assert.assertEquals( "IDENTIFIER=x", DefaultCssSelector.selector().element( "a" ).identifier( "x" ).build().getIndexKey().toString() );
+		Assert.assertEquals( "PSEUDO_CLASS=x", DefaultCssSelector.selector().any().pseudo( "x" ).build().getIndexKey().toString() );
+	}
+	
+	@Test
+	public void sameResultAsLinearSearch(){
+		List<CssRule> rules = rules();
+		CssSelectorIndex index = new CssSelectorIndex( rules );
+		
+		DefaultCssNode station = node( "station" );
+		DefaultCssNode tab = node( "tab" );
+		DefaultCssNode title = node( "title" );
+		
+		List<CssPath> paths = new ArrayList<CssPath>();
+		paths.add( new DefaultCssPath( station ) );
+		paths.add( new DefaultCssPath( station, tab ) );
+		paths.add( new DefaultCssPath( station, tab, title ) );
+		paths.add( new DefaultCssPath( title ) );
+		paths.add( new DefaultCssPath( node( "other" ) ) );
+		
+		for( CssPath path : paths ){
+			Assert.assertEquals( bruteForce( rules, path ), index.search( path ) );
+		}
+		
+		tab.addPseudoClass( "selected" );
+		title.setIdentifier( "alpha" );
+		title.addClass( "big" );
+		station.putProperty( "side", "north" );
+		station.addPseudoClass( "focused" );
+		
+		for( CssPath path : paths ){
+			Assert.assertEquals( bruteForce( rules, path ), index.search( path ) );
+		}
+		
+		Assert.assertEquals( rules, index.search( new DefaultCssPath( station, tab, title ) ) );
+	}
+}
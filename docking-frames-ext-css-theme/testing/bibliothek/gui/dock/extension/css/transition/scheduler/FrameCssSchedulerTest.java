@@ -0,0 +1,151 @@
+package bibliothek.gui.dock.extension.css.transition.scheduler;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrameCssSchedulerTest {
+	private class Job implements CssSchedulable{
+		private List<Integer> delays = new ArrayList<Integer>();
+		private int repeats;
+		
+		public Job( int repeats ){
+			this.repeats = repeats;
+		}
+		
+		@Override
+		public void step( CssScheduler scheduler, int delay ){
+			delays.add( delay );
+			if( delays.size() <= repeats ){
+				scheduler.step( this );
+			}
+		}
+	}
+	
+	/**
+	 * A scheduler whose clock and timer are controlled by the test.
+	 */
+	private class ManualScheduler extends FrameCssScheduler{
+		private long now = 0;
+		private int initialDelay = -1;
+		private boolean running = false;
+		
+		public ManualScheduler( int maxFrameRate ){
+			super( maxFrameRate );
+		}
+		
+		@Override
+		protected long nanoTime(){
+			return now;
+		}
+		
+		@Override
+		protected void startTimer( int initialDelay ){
+			this.initialDelay = initialDelay;
+			running = true;
+		}
+		
+		@Override
+		protected void stopTimer(){
+			running = false;
+		}
+		
+		/**
+		 * Moves the clock forward by <code>millis</code> milliseconds and lets the timer tick.
+		 * @param millis the time that passed since the last tick
+		 */
+		public void advance( int millis ){
+			now += millis * 1000000L;
+			tick();
+		}
+	}
+	
+	private void waitForFrames( FrameCssScheduler scheduler, long frames ) throws Exception{
+		long timeout = System.currentTimeMillis() + 5000;
+		while( scheduler.getFrameCount() < frames && System.currentTimeMillis() < timeout ){
+			Thread.sleep( 10 );
+		}
+		// wait for any frame that should not be there
+		Thread.sleep( 100 );
+	}
+	
+	@Test
+	public void jobsOfOneFrameRunTogether() throws Exception{
+		final FrameCssScheduler scheduler = new FrameCssScheduler();
+		final Job a = new Job( 0 );
+		final Job b = new Job( 0 );
+		final Job c = new Job( 0 );
+		
+		EventQueue.invokeAndWait( new Runnable(){
+			@Override
+			public void run(){
+				scheduler.step( a );
+				scheduler.step( b );
+				scheduler.step( c );
+				scheduler.step( a );
+			}
+		} );
+		
+		waitForFrames( scheduler, 1 );
+		
+		Assert.assertEquals( 1, a.delays.size() );
+		Assert.assertEquals( 1, b.delays.size() );
+		Assert.assertEquals( 1, c.delays.size() );
+		Assert.assertEquals( 1, scheduler.getFrameCount() );
+	}
+	
+	@Test
+	public void repeatedJobReportsDelay(){
+		ManualScheduler scheduler = new ManualScheduler( 100 );
+		Job job = new Job( 3 );
+		
+		scheduler.step( job );
+		Assert.assertTrue( scheduler.running );
+		Assert.assertEquals( 20, scheduler.initialDelay );
+		
+		for( int i = 0; i < 4; i++ ){
+			scheduler.advance( 20 );
+		}
+		
+		Assert.assertEquals( 4, job.delays.size() );
+		Assert.assertEquals( -1, job.delays.get( 0 ).intValue() );
+		for( int i = 1; i < 4; i++ ){
+			Assert.assertEquals( 20, job.delays.get( i ).intValue() );
+		}
+		Assert.assertEquals( 4, scheduler.getFrameCount() );
+		Assert.assertFalse( scheduler.running );
+	}
+	
+	@Test
+	public void soonerJobRestartsWaitingTimer(){
+		ManualScheduler scheduler = new ManualScheduler( 50 );
+		Job late = new Job( 0 );
+		Job soon = new Job( 0 );
+		
+		scheduler.step( late, 1000 );
+		Assert.assertTrue( scheduler.running );
+		Assert.assertEquals( 1000, scheduler.initialDelay );
+		
+		scheduler.step( soon, 20 );
+		Assert.assertTrue( scheduler.running );
+		Assert.assertEquals( 20, scheduler.initialDelay );
+		
+		scheduler.advance( 20 );
+		Assert.assertEquals( 1, soon.delays.size() );
+		Assert.assertEquals( 0, late.delays.size() );
+		Assert.assertTrue( scheduler.running );
+		Assert.assertEquals( 980, scheduler.initialDelay );
+		
+		scheduler.advance( 980 );
+		Assert.assertEquals( 1, late.delays.size() );
+		Assert.assertFalse( scheduler.running );
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void illegalFrameRate(){
+		new FrameCssScheduler( 0 );
+	}
+}
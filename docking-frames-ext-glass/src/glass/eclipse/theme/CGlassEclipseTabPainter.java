@@ -137,6 +137,13 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
       }
    };
 
+   PropertyValue<CGlassImageCache> propValueCache = new PropertyValue<CGlassImageCache>(EclipseThemeExtension.GLASS_IMAGE_CACHE) {
+      @Override
+      protected void valueChanged (CGlassImageCache oldCache, CGlassImageCache newCache) {
+         repaint();
+      }
+   };
+
    private boolean bSmallerTabs = false;
 
    /**
@@ -158,6 +165,7 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
       if (getController() != null) {
          propValueSmall.setProperties(getController());
          propValueFactory.setProperties(getController());
+         propValueCache.setProperties(getController());
       }
 
       bSmallerTabs = propValueSmall.getValue();
@@ -174,12 +182,35 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
       // unregister listener
       propValueSmall.setProperties((DockController)null);
       propValueFactory.setProperties((DockController)null);
+      propValueCache.setProperties((DockController)null);
    }
 
    protected IGlassParameterFactory getGlassParameterFactory () {
       return (propValueFactory.getValue());
    }
 
+   /**
+    * Gets the cache of rendered glass images that is shared with the other tabs of the controller.
+    * @return the cache, can be <code>null</code> if this tab is not connected to a controller
+    */
+   protected CGlassImageCache getImageCache () {
+      return (propValueCache.getValue());
+   }
+
+   /**
+    * Gets an image from the {@link #getImageCache() cache}, or renders the image if there is no cache.
+    * @param key the description of the image
+    * @param renderer creates the image if it is not cached
+    * @return the image, may be <code>null</code>
+    */
+   private BufferedImage getImage (CGlassImageCache.Key key, CGlassImageCache.Renderer renderer) {
+      CGlassImageCache cache = getImageCache();
+      if (cache == null) {
+         return (renderer.render());
+      }
+      return (cache.get(key, renderer));
+   }
+
    /**
     * Initializes additional colors for painting the glass effect.
     */
@@ -545,27 +576,37 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
          Graphics2D g2d = (Graphics2D)g.create();
          g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-         Shape sTab = createUnSelectedTabShape(isHorizontal() ? w : w, isHorizontal() ? h : h, false, true);
+         final Shape sTab = createUnSelectedTabShape(isHorizontal() ? w : w, isHorizontal() ? h : h, false, true);
 
          BufferedImage img;
          dImg = new Dimension(isHorizontal() ? w + CORNER_RADIUS : h + CORNER_RADIUS, isHorizontal() ? h : w);
          if (glassUnSelected != null) {
-            img = new BufferedImage(dImg.width, dImg.height, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D gg = img.createGraphics();
-
-            gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            gg.setColor(Color.WHITE);
-            gg.fill(sTab);
-
-            gg.setComposite(AlphaComposite.SrcIn);
-            try {
-               glass.Render2Graphics(dImg, gg, glassUnSelected, true);
-            }
-            catch (Exception e) {
-               glass.Render2Graphics(dImg, gg, CGlassFactory.VALUE_STEEL, true);
-            }
-
-            gg.dispose();
+            final Dimension size = dImg;
+            final IGlassFactory.SGlassParameter parameter = glassUnSelected;
+            boolean beforeSelected = getTabIndex() < getSelectedIndex();
+
+            CGlassImageCache.Key key = new CGlassImageCache.Key("tab.unselected", parameter, size.width, size.height, getOrientation().ordinal(), beforeSelected ? 1 : 0);
+            img = getImage(key, new CGlassImageCache.Renderer() {
+               public BufferedImage render () {
+                  BufferedImage img = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+                  Graphics2D gg = img.createGraphics();
+
+                  gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                  gg.setColor(Color.WHITE);
+                  gg.fill(sTab);
+
+                  gg.setComposite(AlphaComposite.SrcIn);
+                  try {
+                     glass.Render2Graphics(size, gg, parameter, true);
+                  }
+                  catch (Exception e) {
+                     glass.Render2Graphics(size, gg, CGlassFactory.VALUE_STEEL, true);
+                  }
+
+                  gg.dispose();
+                  return (img);
+               }
+            });
 
             if ( !isHorizontal()) {
                AffineTransform atTrans = AffineTransform.getTranslateInstance(x/* + w*/, y + h);
@@ -577,12 +618,9 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
                g2d.drawImage(img, 0, 0, null);
             }
          }
-         // restore default clipping 
-         sTab = createUnSelectedTabShape(w, h, getTabIndex() == 0, false);
-
          // draw Border
          g2d.setColor(lineColor);
-         g2d.draw(sTab);
+         g2d.draw(createUnSelectedTabShape(w, h, getTabIndex() == 0, false));
 
          switch (getOrientation()) {
             case TOP_OF_DOCKABLE:
@@ -613,11 +651,8 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
       int y = 0;
       int w = getWidth();
       int h = getHeight();
-      Dimension dImg;
 
       if (w > 0 && h > 0) {
-         Shape sTab = createSelectedTabShape(w, h, false);
-
          Color lineColor = colorStackBorder.value();
 
          Graphics2D g2d = (Graphics2D)g.create();
@@ -628,73 +663,36 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
             paintWorkAround(g2d);
          }
 
-         // draw glass 
-         // first render to image because glass is transparent and we would see the inactive tab in background
-         BufferedImage bimg = null;
-         dImg = new Dimension(isHorizontal() ? w : h, isHorizontal() ? h : w);
-         if( !isEnabled() ){
-        	 if(glassDisabled != null){
-        		 try {
-                     bimg = glass.RenderBufferedImage(glassDisabled, dImg, true);
-				 }
-				 catch( Exception e ) {
-					 bimg = glass.RenderBufferedImage( CGlassFactory.VALUE_GRAY, dImg, true );
-				 } 
-        	 }
+         String kind;
+         IGlassFactory.SGlassParameter parameter;
+         IGlassFactory.SGlassParameter fallback;
+
+         if ( !isEnabled()) {
+            kind = "tab.disabled";
+            parameter = glassDisabled;
+            fallback = CGlassFactory.VALUE_GRAY;
          }
          else if (bActive) {
-            if (glassFocused != null) {
-               try {
-                  bimg = glass.RenderBufferedImage(glassFocused, dImg, true);
-               }
-               catch (Exception e) {
-                  bimg = glass.RenderBufferedImage(CGlassFactory.VALUE_STEEL, dImg, true);
-               }
-            }
+            kind = "tab.focused";
+            parameter = glassFocused;
+            fallback = CGlassFactory.VALUE_STEEL;
          }
          else {
-            if (glassSelected != null) {
-               try {
-                  bimg = glass.RenderBufferedImage(glassSelected, dImg, true);
-               }
-               catch (Exception e) {
-                  bimg = glass.RenderBufferedImage(CGlassFactory.VALUE_DARKENED_PLAIN, dImg, true);
-               }
-            }
+            kind = "tab.selected";
+            parameter = glassSelected;
+            fallback = CGlassFactory.VALUE_DARKENED_PLAIN;
          }
 
-         if (bimg != null) {
-            // glass is translucent, so we could see the sharp edge of an unselected tab behind
-            // So, we paint the glass image onto a other image were only the glass part is visible (white)
-            BufferedImage b = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D gg2d = b.createGraphics();
-            gg2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            gg2d.setColor(Color.WHITE);
-            gg2d.fill(sTab);
-
-            gg2d.setClip(sTab);
-            gg2d.setComposite(AlphaComposite.SrcAtop);
-            if ( !isHorizontal()) {
-               AffineTransform atTrans = AffineTransform.getTranslateInstance(0/*w*/, h);
-               atTrans.concatenate(COutlineHelper.tRot90CCW);
-
-               gg2d.drawImage(bimg, atTrans, null);
-            }
-            else {
-
-               gg2d.drawImage(bimg, 0, 0, null);
-            }
-
-            gg2d.dispose();
-
+         if (parameter != null) {
+            CGlassImageCache.Key key = new CGlassImageCache.Key(kind, parameter, w, h, getOrientation().ordinal(), getTabIndex() == 0 ? 1 : 0);
+            BufferedImage b = getImage(key, new SelectedTabRenderer(w, h, parameter, fallback));
             g2d.drawImage(b, x, y, null);
          }
 
          // draw Border
          g2d.setColor(lineColor);
 
-         sTab = createSelectedTabShape(w, h, getTabIndex() == 0);
+         Shape sTab = createSelectedTabShape(w, h, getTabIndex() == 0);
          g2d.draw(sTab);
 
          switch (getOrientation()) {
@@ -716,6 +714,63 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
       }
    }
 
+   /**
+    * Renders the glass background of the selected tab.
+    */
+   private class SelectedTabRenderer implements CGlassImageCache.Renderer {
+      private final int w;
+      private final int h;
+      private final IGlassFactory.SGlassParameter parameter;
+      private final IGlassFactory.SGlassParameter fallback;
+
+      public SelectedTabRenderer (int w, int h, IGlassFactory.SGlassParameter parameter, IGlassFactory.SGlassParameter fallback) {
+         this.w = w;
+         this.h = h;
+         this.parameter = parameter;
+         this.fallback = fallback;
+      }
+
+      public BufferedImage render () {
+         // draw glass 
+         // first render to image because glass is transparent and we would see the inactive tab in background
+         Dimension dImg = new Dimension(isHorizontal() ? w : h, isHorizontal() ? h : w);
+         BufferedImage bimg;
+         try {
+            bimg = glass.RenderBufferedImage(parameter, dImg, true);
+         }
+         catch (Exception e) {
+            bimg = glass.RenderBufferedImage(fallback, dImg, true);
+         }
+
+         Shape sTab = createSelectedTabShape(w, h, false);
+
+         // glass is translucent, so we could see the sharp edge of an unselected tab behind
+         // So, we paint the glass image onto a other image were only the glass part is visible (white)
+         BufferedImage b = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+         Graphics2D gg2d = b.createGraphics();
+         gg2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+         gg2d.setColor(Color.WHITE);
+         gg2d.fill(sTab);
+
+         gg2d.setClip(sTab);
+         gg2d.setComposite(AlphaComposite.SrcAtop);
+         if ( !isHorizontal()) {
+            AffineTransform atTrans = AffineTransform.getTranslateInstance(0/*w*/, h);
+            atTrans.concatenate(COutlineHelper.tRot90CCW);
+
+            gg2d.drawImage(bimg, atTrans, null);
+         }
+         else {
+
+            gg2d.drawImage(bimg, 0, 0, null);
+         }
+
+         gg2d.dispose();
+         return (b);
+      }
+   }
+
    /**
     * An unselected tab before the selected tab is not painted behind the selected tab.
     * When we draw the selected tab, we first draw a little bit of the unselected tab in
@@ -724,21 +779,24 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
     * @param g2d
     */
    private void paintWorkAround (Graphics2D g2d) {
-      Dimension dImg;
-
       Rectangle r = getPane().getTabsList().get(getTabIndex() - 1).getComponent().getBounds();
 
       BufferedImage bimg = null;
-      dImg = new Dimension(isHorizontal() ? r.width + CORNER_RADIUS : getHeight() + CORNER_RADIUS, isHorizontal() ? getHeight() : r.width);
+      final Dimension dImg = new Dimension(isHorizontal() ? r.width + CORNER_RADIUS : getHeight() + CORNER_RADIUS, isHorizontal() ? getHeight() : r.width);
 
       if (dImg.width > 0 && dImg.height > 0) {
          if (glassUnSelected != null) {
-            try {
-               bimg = glass.RenderBufferedImage(glassUnSelected, dImg, true);
-            }
-            catch (Exception e) {
-               bimg = glass.RenderBufferedImage(CGlassFactory.VALUE_RED, dImg, true);
-            }
+            final IGlassFactory.SGlassParameter parameter = glassUnSelected;
+            bimg = getImage(new CGlassImageCache.Key("glass", parameter, dImg.width, dImg.height), new CGlassImageCache.Renderer() {
+               public BufferedImage render () {
+                  try {
+                     return (glass.RenderBufferedImage(parameter, dImg, true));
+                  }
+                  catch (Exception e) {
+                     return (glass.RenderBufferedImage(CGlassFactory.VALUE_RED, dImg, true));
+                  }
+               }
+            });
 
             if ( !isHorizontal()) {
                AffineTransform atTrans = AffineTransform.getTranslateInstance(/*r.width*/0, CORNER_RADIUS/*-getHeight()*/);
@@ -866,6 +924,10 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
 
       @Override
       protected void changed (Color oldColor, Color newColor) {
+         CGlassImageCache cache = getImageCache();
+         if (cache != null) {
+            cache.clear();
+         }
          updateGlass();
          repaint();
       }
@@ -47,6 +47,10 @@ public class CGlassStripPainter implements TabPanePainter {
    private final AbstractDockColor color = new AbstractDockColor("stack.border.glass", DockColor.KIND_DOCK_COLOR, Color.BLACK) {
       @Override
       protected void changed (Color oldColor, Color newColor) {
+         CGlassImageCache cache = propValueCache.getValue();
+         if (cache != null) {
+            cache.clear();
+         }
          pane.repaint();
       }
    };
@@ -58,6 +62,13 @@ public class CGlassStripPainter implements TabPanePainter {
       }
    };
 
+   PropertyValue<CGlassImageCache> propValueCache = new PropertyValue<CGlassImageCache>(EclipseThemeExtension.GLASS_IMAGE_CACHE) {
+      @Override
+      protected void valueChanged (CGlassImageCache oldCache, CGlassImageCache newCache) {
+         pane.repaint();
+      }
+   };
+
    private final EclipseTabPane pane;
    public IGlassFactory.SGlassParameter glassStrip;
 
@@ -132,46 +143,30 @@ public class CGlassStripPainter implements TabPanePainter {
          Graphics2D g2d = (Graphics2D)g.create();
 
          if (glassStrip != null) {
-            BufferedImage im = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-
-            Graphics2D gg = im.createGraphics();
-            gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            gg.setColor(Color.WHITE);
-
-            if (pane.getComponent().getBorder() instanceof CEclipseBorder) {
-               CEclipseBorder ec = (CEclipseBorder)pane.getComponent().getBorder();
-
-               Path2D p = null;
-               switch (pane.getDockTabPlacement()) {
-                  case BOTTOM_OF_DOCKABLE:
-                     p = CEclipseBorder.CreateBorderShape(0, 1, w + 1, h, toTransformedEdgeMask(ec.getRoundEdges()), ec.getCornerRadius());
-                     break;
-                  case TOP_OF_DOCKABLE:
-                     p = CEclipseBorder.CreateBorderShape(0, 0, w + 1, h, toTransformedEdgeMask(ec.getRoundEdges()), ec.getCornerRadius());
-                     break;
-                  case RIGHT_OF_DOCKABLE:
-                     p = CEclipseBorder.CreateBorderShape(0, 1, w + 1, h, toTransformedEdgeMask(ec.getRoundEdges()), ec.getCornerRadius());
-                     break;
-                  case LEFT_OF_DOCKABLE:
-                     p = CEclipseBorder.CreateBorderShape(0, 0, w + 1, h, toTransformedEdgeMask(ec.getRoundEdges()), ec.getCornerRadius());
-                     break;
-               }
-               gg.fill(p);
+            BufferedImage im;
+            CGlassImageCache cache = propValueCache.getValue();
+            if (cache == null) {
+               im = renderBackground(w, h, glassStrip);
             }
             else {
-               gg.fillRect(0, 0, w, h);
-            }
-
-            gg.setComposite(AlphaComposite.SrcIn);
-            try {
-               glass.Render2Graphics(new Dimension(w, h), gg, glassStrip, true);
-            }
-            catch (Exception e) {
-               glass.Render2Graphics(new Dimension(w, h), gg, CGlassFactory.VALUE_STEEL, true);
+               int edges = -1;
+               int radius = 0;
+               if (pane.getComponent().getBorder() instanceof CEclipseBorder) {
+                  CEclipseBorder ec = (CEclipseBorder)pane.getComponent().getBorder();
+                  edges = ec.getRoundEdges();
+                  radius = ec.getCornerRadius();
+               }
+               final int width = w;
+               final int height = h;
+               final IGlassFactory.SGlassParameter parameter = glassStrip;
+               CGlassImageCache.Key key = new CGlassImageCache.Key("strip", parameter, w, h, pane.getDockTabPlacement().ordinal(), edges, radius);
+               im = cache.get(key, new CGlassImageCache.Renderer() {
+                  public BufferedImage render () {
+                     return (renderBackground(width, height, parameter));
+                  }
+               });
             }
 
-            gg.dispose();
-
             if ( !horizontal) {
                AffineTransform atTrans = AffineTransform.getTranslateInstance(x /*+ h*/, y + w);
                atTrans.concatenate(COutlineHelper.tRot90CCW);
@@ -187,11 +182,62 @@ public class CGlassStripPainter implements TabPanePainter {
       }
    }
 
+   /**
+    * Renders the glass background of the tab strip.
+    * @param w the width of the image
+    * @param h the height of the image
+    * @param parameter the glass parameters
+    * @return the new image
+    */
+   private BufferedImage renderBackground (int w, int h, IGlassFactory.SGlassParameter parameter) {
+      BufferedImage im = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+
+      Graphics2D gg = im.createGraphics();
+      gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      gg.setColor(Color.WHITE);
+
+      if (pane.getComponent().getBorder() instanceof CEclipseBorder) {
+         CEclipseBorder ec = (CEclipseBorder)pane.getComponent().getBorder();
+
+         Path2D p = null;
+         switch (pane.getDockTabPlacement()) {
+            case BOTTOM_OF_DOCKABLE:
+               p = CEclipseBorder.CreateBorderShape(0, 1, w + 1, h, toTransformedEdgeMask(ec.getRoundEdges()), ec.getCornerRadius());
+               break;
+            case TOP_OF_DOCKABLE:
+               p = CEclipseBorder.CreateBorderShape(0, 0, w + 1, h, toTransformedEdgeMask(ec.getRoundEdges()), ec.getCornerRadius());
+               break;
+            case RIGHT_OF_DOCKABLE:
+               p = CEclipseBorder.CreateBorderShape(0, 1, w + 1, h, toTransformedEdgeMask(ec.getRoundEdges()), ec.getCornerRadius());
+               break;
+            case LEFT_OF_DOCKABLE:
+               p = CEclipseBorder.CreateBorderShape(0, 0, w + 1, h, toTransformedEdgeMask(ec.getRoundEdges()), ec.getCornerRadius());
+               break;
+         }
+         gg.fill(p);
+      }
+      else {
+         gg.fillRect(0, 0, w, h);
+      }
+
+      gg.setComposite(AlphaComposite.SrcIn);
+      try {
+         glass.Render2Graphics(new Dimension(w, h), gg, parameter, true);
+      }
+      catch (Exception e) {
+         glass.Render2Graphics(new Dimension(w, h), gg, CGlassFactory.VALUE_STEEL, true);
+      }
+
+      gg.dispose();
+      return (im);
+   }
+
    public void setController (DockController controller) {
       ColorManager colors = controller == null ? null : controller.getColors();
       color.setManager(colors);
 
       propValueFactory.setProperties(controller);
+      propValueCache.setProperties(controller);
    }
 
    public void paintBackground (Graphics g) {
@@ -11,6 +11,7 @@ import bibliothek.gui.dock.util.*;
 import bibliothek.gui.dock.util.property.*;
 import glass.eclipse.theme.factory.*;
 import glass.eclipse.theme.icon.*;
+import glass.eclipse.theme.utils.*;
 
 public class EclipseThemeExtension implements DockThemeExtension {
 	private DockTheme trigger;
@@ -22,6 +23,17 @@ public class EclipseThemeExtension implements DockThemeExtension {
 	public static final PropertyKey<IGlassParameterFactory> GLASS_FACTORY = new PropertyKey<IGlassParameterFactory>( "Glass eclipse glass parameter factory",
 			new ConstantPropertyFactory<IGlassParameterFactory>( new CDefaultGlassFactory() ), true );
 
+	/**
+	 *  The cache of rendered glass images that is shared by all tabs and tab strips of one controller.
+	 *  @see CGlassImageCache
+	 */
+	public static final PropertyKey<CGlassImageCache> GLASS_IMAGE_CACHE = new PropertyKey<CGlassImageCache>( "Glass eclipse glass image cache",
+			new DynamicPropertyFactory<CGlassImageCache>(){
+				public CGlassImageCache getDefault( PropertyKey<CGlassImageCache> key, DockProperties properties ){
+					return new CGlassImageCache();
+				}
+			}, true );
+
 	public EclipseThemeExtension( DockTheme trigger, EclipseTheme theme ) {
 		this.trigger = trigger;
 
@@ -36,6 +48,8 @@ public class EclipseThemeExtension implements DockThemeExtension {
 
 	public void installed( DockController controller, DockTheme theme ) {
 		if( trigger == theme ) {
+			controller.getProperties().get( GLASS_IMAGE_CACHE ).clear();
+
 			DockTitleManager manager = controller.getDockTitleManager();
 			manager.registerTheme( FlapDockStation.BUTTON_TITLE_ID, CGlassDockTitleFactory.FACTORY );
 
@@ -69,6 +83,8 @@ public class EclipseThemeExtension implements DockThemeExtension {
 
 	public void uninstall( DockController controller, DockTheme theme ) {
 		if( trigger == theme ) {
+			controller.getProperties().get( GLASS_IMAGE_CACHE ).clear();
+
 			IconManager im = controller.getIcons();
 
 			im.clear( Priority.THEME );
@@ -0,0 +1,213 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2007 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package glass.eclipse.theme.utils;
+
+import java.awt.image.*;
+import java.util.*;
+import kux.glass.IGlassFactory.SGlassParameter;
+
+
+/**
+ * A cache of already rendered glass images. Rendering the glass effect is expensive and the
+ * same images are needed again and again, e.g. while the user resizes a window. The cache is
+ * shared by all tabs and tab strips of one controller, see
+ * {@link glass.eclipse.theme.EclipseThemeExtension#GLASS_IMAGE_CACHE}.<br>
+ * The cache forgets the least recently used images once it contains more than
+ * {@link #getCapacity() capacity} images. Images handed out by this cache must not be
+ * modified, they are shared.
+ */
+public class CGlassImageCache {
+   /** the default number of images this cache stores */
+   public static final int DEFAULT_CAPACITY = 128;
+
+   /** the images, ordered by the time they were last accessed */
+   private final LinkedHashMap<Key, BufferedImage> images = new LinkedHashMap<Key, BufferedImage>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry (Map.Entry<Key, BufferedImage> eldest) {
+         return (size() > capacity);
+      }
+   };
+
+   /** how many images this cache stores at most */
+   private int capacity = DEFAULT_CAPACITY;
+
+   /** how many times an image could be reused */
+   private long hits = 0;
+   /** how many times an image had to be rendered */
+   private long misses = 0;
+
+   /**
+    * Something that can render an image if it is not found in the cache.
+    */
+   public static interface Renderer {
+      /**
+       * Renders the image that belongs to the key that was used to access the cache.
+       * @return the new image, may be <code>null</code>
+       */
+      public BufferedImage render ();
+   }
+
+   /**
+    * Gets the image that belongs to <code>key</code>. If there is no such image, then
+    * <code>renderer</code> is used to create the image and the result is stored in this cache.
+    * @param key the description of the image
+    * @param renderer creates the image if it is not yet cached
+    * @return the image, may be <code>null</code> if <code>renderer</code> returned <code>null</code>
+    */
+   public BufferedImage get (Key key, Renderer renderer) {
+      BufferedImage image = images.get(key);
+      if (image != null) {
+         hits++;
+         return (image);
+      }
+
+      misses++;
+      image = renderer.render();
+      if (image != null && capacity > 0) {
+         images.put(key, image);
+      }
+      return (image);
+   }
+
+   /**
+    * Removes all images from this cache. Called whenever colors or the theme change.
+    */
+   public void clear () {
+      images.clear();
+   }
+
+   /**
+    * Sets the number of images this cache stores at most.
+    * @param capacity the maximum number of images, <code>0</code> disables the cache
+    * @throws IllegalArgumentException if <code>capacity</code> is negative
+    */
+   public void setCapacity (int capacity) {
+      if (capacity < 0) {
+         throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+      }
+      this.capacity = capacity;
+      if (images.size() > capacity) {
+         Iterator<Key> keys = images.keySet().iterator();
+         while (images.size() > capacity) {
+            keys.next();
+            keys.remove();
+         }
+      }
+   }
+
+   /**
+    * Gets the number of images this cache stores at most.
+    * @return the capacity
+    */
+   public int getCapacity () {
+      return (capacity);
+   }
+
+   /**
+    * Gets the number of images that are currently stored.
+    * @return the number of images
+    */
+   public int size () {
+      return (images.size());
+   }
+
+   /**
+    * Gets the number of times an image was found in this cache.
+    * @return the number of hits
+    */
+   public long getHitCount () {
+      return (hits);
+   }
+
+   /**
+    * Gets the number of times an image had to be rendered.
+    * @return the number of misses
+    */
+   public long getMissCount () {
+      return (misses);
+   }
+
+   /**
+    * Sets the hit and the miss counter back to <code>0</code>.
+    */
+   public void resetStatistics () {
+      hits = 0;
+      misses = 0;
+   }
+
+   /**
+    * Describes one cached image: what kind of image it is, the glass parameters (including
+    * the colors) that were used, and any additional values like the size of the image
+    * or the orientation of the tab.
+    */
+   public static final class Key {
+      private final String kind;
+      private final SGlassParameter parameter;
+      private final int[] values;
+      private final int hash;
+
+      /**
+       * Creates a new key.
+       * @param kind what kind of image is painted, e.g. "selected"
+       * @param parameter the glass parameters that are used to render the image, a copy of
+       * this object is stored. May be <code>null</code>.
+       * @param values additional values that describe the image, e.g. its size
+       */
+      public Key (String kind, SGlassParameter parameter, int... values) {
+         this.kind = kind;
+         this.parameter = parameter == null ? null : parameter.clone();
+         this.values = values;
+
+         int hash = kind.hashCode();
+         hash = hash * 31 + (parameter == null ? 0 : this.parameter.hashCode());
+         hash = hash * 31 + Arrays.hashCode(values);
+         this.hash = hash;
+      }
+
+      @Override
+      public int hashCode () {
+         return (hash);
+      }
+
+      @Override
+      public boolean equals (Object obj) {
+         if (this == obj) {
+            return (true);
+         }
+         if ( !(obj instanceof Key)) {
+            return (false);
+         }
+         Key other = (Key)obj;
+         if (hash != other.hash || !kind.equals(other.kind) || !Arrays.equals(values, other.values)) {
+            return (false);
+         }
+         if (parameter == null) {
+            return (other.parameter == null);
+         }
+         return (parameter.equals(other.parameter));
+      }
+   }
+}
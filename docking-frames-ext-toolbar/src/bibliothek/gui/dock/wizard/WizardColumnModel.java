@@ -60,6 +60,19 @@ public class WizardColumnModel {
 	/** Information about columns that needs to persist even when the stations layout changes */
 	private PersistentColumn[] persistentColumns;
 	
+	/** the current map of cells and columns, can be <code>null</code> */
+	private WizardNodeMap map;
+	/** the root of the tree that was used to build {@link #map} */
+	private Root mapRoot;
+	/** the {@link Root#getTreeChangeCount() tree change count} of the tree when {@link #map} was built */
+	private int mapTreeChangeCount;
+	/** the side of the station when {@link #map} was built */
+	private Side mapSide;
+	/** whether the sizes cached by {@link #map} are no longer valid */
+	private boolean mapSizesInvalid = false;
+	/** how many times a new {@link #map} was built */
+	private int mapRebuildCount = 0;
+	
 	public WizardColumnModel( WizardSplitDockStation station ){
 		this( station, -1, -1 );
 	}
@@ -133,10 +146,34 @@ public class WizardColumnModel {
 	/**
 	 * Gets a map containing the current columns and cells. This method may decide
 	 * at any time to create a new map. Callers may use the map to ask as many queries as they
-	 * want, they should however never use more than one map at the same time.
+	 * want, they should however never use more than one map at the same time.<br>
+	 * The map is cached, a new map is only created if the tree of the station changed, if the
+	 * {@link WizardSplitDockStation#getSide() side} of the station changed, or if
+	 * {@link #invalidateMap()} was called.
 	 * @return the current map of cells and columns
 	 */
 	protected WizardNodeMap getMap(){
+		Root root = station.getRoot();
+		if( map == null || mapRoot != root || mapTreeChangeCount != root.getTreeChangeCount() || mapSide != side() ){
+			mapRoot = root;
+			mapTreeChangeCount = root.getTreeChangeCount();
+			mapSide = side();
+			mapSizesInvalid = false;
+			mapRebuildCount++;
+			map = createMap();
+		}
+		else if( mapSizesInvalid ){
+			mapSizesInvalid = false;
+			map.resetSizes();
+		}
+		return map;
+	}
+	
+	/**
+	 * Creates a new map containing the current columns and cells.
+	 * @return the new map
+	 */
+	protected WizardNodeMap createMap(){
 		return new WizardNodeMap( station, persistentColumns ){
 			@Override
 			protected void handlePersistentColumnsAdapted( PersistentColumn[] persistentColumns ){
@@ -145,6 +182,29 @@ public class WizardColumnModel {
 		};
 	}
 	
+	/**
+	 * Forces {@link #getMap()} to create a new map the next time it is called. 
+	 */
+	public void invalidateMap(){
+		map = null;
+	}
+	
+	/**
+	 * Tells this model that the size of some {@link Dockable}s may have changed, the sizes
+	 * cached by the current map will be calculated again.
+	 */
+	public void invalidateSizes(){
+		mapSizesInvalid = true;
+	}
+	
+	/**
+	 * Gets the number of times {@link #getMap()} had to create a new map. 
+	 * @return the number of created maps
+	 */
+	public int getMapRebuildCount(){
+		return mapRebuildCount;
+	}
+	
 	/**
 	 * Gets the current preferred size of the entire {@link WizardSplitDockStation}
 	 * @return the current preferred size
@@ -418,6 +478,7 @@ public class WizardColumnModel {
 		double w = 1.0;
 		double h = 1.0;
 		int gap0 = gap( 0 );
+		invalidateSizes();
 		WizardNodeMap map = getMap();
 		int columns = map.getColumns().size();
 		
@@ -55,7 +55,8 @@ import bibliothek.gui.dock.wizard.WizardSplitDockStation.Side;
 
 /**
  * The node map tells the location of nodes and columns. It does not offer any logic to change these
- * properties.
+ * properties. A map remains valid as long as the tree of the station does not change, but the sizes
+ * it caches have to be {@link #resetSizes() reset} whenever the size of a {@link Dockable} may have changed.
  * @author Benjamin Sigg
  */
 public abstract class WizardNodeMap {
@@ -148,6 +149,22 @@ public abstract class WizardNodeMap {
 		return columns;
 	}
 	
+	/**
+	 * Forgets the preferred and minimum sizes of all {@link Cell}s. The sizes will be calculated again
+	 * the next time they are accessed. This method needs to be called if this map is reused after the
+	 * size of some {@link Dockable} may have changed. 
+	 */
+	public void resetSizes(){
+		if( columns != null ){
+			for( Column column : columns.values() ){
+				for( Cell cell : column.cells.values() ){
+					cell.preferredSize = null;
+					cell.minimumSize = null;
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Gets the number of columns.
 	 * @return the number of columns
@@ -462,6 +462,14 @@ public class WizardSplitDockStation extends SplitDockStation implements Scrollab
 		return false;
 	}
 	
+	@Override
+	public void invalidate(){
+		if( layoutManager != null ){
+			layoutManager.model.invalidateSizes();
+		}
+		super.invalidate();
+	}
+	
 	@Override
 	public Dimension getMinimumSize(){
 		return getPreferredSize();
@@ -854,6 +862,15 @@ public class WizardSplitDockStation extends SplitDockStation implements Scrollab
 		public WizardNodeMap getMap(){
 			return model.getMap();
 		}
+		
+		/**
+		 * Gets the number of times a new {@link WizardNodeMap} had to be created because the layout of 
+		 * the station changed.
+		 * @return the number of created maps
+		 */
+		public int getMapRebuildCount(){
+			return model.getMapRebuildCount();
+		}
 	}
 	
 	private class WizardDividerStrategy extends DefaultSplitDividerStrategy{